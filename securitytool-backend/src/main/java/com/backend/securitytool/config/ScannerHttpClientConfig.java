@@ -0,0 +1,41 @@
+package com.backend.securitytool.config;
+
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerhttp.ScannerHttpClients;
+import com.backend.securitytool.service.scannerhttp.ScannerHttpClients.UpstreamHttpSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class ScannerHttpClientConfig {
+    @Value("${scanner.http.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${scanner.http.retry.initial-backoff-ms:500}")
+    private long retryInitialBackoffMs;
+
+    @Value("${scanner.http.retry.multiplier:2.0}")
+    private double retryMultiplier;
+
+    @Bean
+    public RestTemplate zapRestTemplate(ScannerHttpClients scannerHttpClients,
+                                        @Value("${scanner.http.zap.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                        @Value("${scanner.http.zap.read-timeout-ms:30000}") long readTimeoutMs,
+                                        @Value("${scanner.http.zap.max-connections:8}") int maxConnections,
+                                        @Value("${scanner.http.zap.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        return scannerHttpClients.create(UpstreamGuardRegistry.ZAP, new UpstreamHttpSettings(connectTimeoutMs, readTimeoutMs, maxConnections,
+                acquireTimeoutMs, retryMaxAttempts, retryInitialBackoffMs, retryMultiplier));
+    }
+
+    @Bean
+    public RestTemplate sonarQubeRestTemplate(ScannerHttpClients scannerHttpClients,
+                                              @Value("${scanner.http.sonarqube.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                              @Value("${scanner.http.sonarqube.read-timeout-ms:60000}") long readTimeoutMs,
+                                              @Value("${scanner.http.sonarqube.max-connections:8}") int maxConnections,
+                                              @Value("${scanner.http.sonarqube.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        return scannerHttpClients.create(UpstreamGuardRegistry.SONARQUBE, new UpstreamHttpSettings(connectTimeoutMs, readTimeoutMs, maxConnections,
+                acquireTimeoutMs, retryMaxAttempts, retryInitialBackoffMs, retryMultiplier));
+    }
+}
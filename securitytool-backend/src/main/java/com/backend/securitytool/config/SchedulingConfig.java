@@ -0,0 +1,10 @@
+package com.backend.securitytool.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Using Spring's default single-threaded scheduler for background sweeps
+}
@@ -7,21 +7,55 @@ public class ApiConstants {
 
     // API base URLs
     public static final String APPS_BASE_URL = "/api/apps";
+    public static final String API_ENDPOINT_IMPORT_PATH = "/import";
     public static final String SCAN_BASE_URL = "/api/scan";
     public static final String ANALYZE_BASE_URL = "/api/analyze";
     public static final String REPORTS_BASE_URL = "/api/reports";
     public static final String DASHBOARD_BASE_URL = "/api/dashboard";
+    public static final String SCANNERS_BASE_URL = "/api/scanners";
 
     // Path variables
     public static final String APP_ID_PATH = "/{id}";
     public static final String REPORT_ID_PATH = "/{resultId}";
     public static final String REPORT_CSV_PATH = "/{resultId}/csv";
+    public static final String REPORT_ISSUES_PATH = "/{resultId}/issues";
+    public static final String REPORT_EXPORT_PATH = "/{resultId}/export/{format}";
+    public static final String REPORT_JOBS_PATH = "/{resultId}/jobs";
+    public static final String REPORT_JOB_PATH = "/jobs/{jobId}";
+    public static final String REPORT_JOB_DOWNLOAD_PATH = "/jobs/{jobId}/download";
 
     // Scan paths
     public static final String SONARQUBE_SCAN_PATH = "/sonarqube";
     public static final String ZAP_SCAN_PATH = "/zap";
+    public static final String ZAP_ENDPOINT_SCAN_PATH = "/zap/endpoints";
+    public static final String COMBINED_SCAN_PATH = "/combined";
     public static final String FLOW_ANALYSIS_PATH = "/flow";
 
+    // Scan job paths
+    public static final String SCAN_JOB_PATH = "/jobs/{jobId}";
+    public static final String SCAN_JOB_EVENTS_PATH = "/jobs/{jobId}/events";
+    public static final String SCAN_BATCHES_PATH = "/batches";
+    public static final String SCAN_BATCH_PATH = "/batches/{batchId}";
+    public static final String SCAN_SCHEDULE_PATH = "/schedules/{appId}";
+
+    // Raw scanner payload paths
+    public static final String SCAN_RESULT_PAYLOADS_PATH = "/results/{resultId}/payloads";
+    public static final String SCAN_RESULT_REINGEST_PATH = "/results/{resultId}/reingest";
+    public static final String SCAN_PAYLOAD_PATH = "/payloads/{sha256}";
+
+    // Issue backfill paths
+    public static final String ISSUE_BACKFILL_PATH = "/issues/backfill";
+    public static final String ISSUE_BACKFILL_JOB_PATH = "/issues/backfill/{jobId}";
+    public static final String ISSUE_BACKFILL_PAUSE_PATH = "/issues/backfill/{jobId}/pause";
+    public static final String ISSUE_BACKFILL_RESUME_PATH = "/issues/backfill/{jobId}/resume";
+
+    // Scanner upstream paths
+    public static final String SCANNER_HTTP_POOLS_PATH = "/http-pools";
+    public static final String SCANNER_HEALTH_PATH = "/health";
+    public static final String SCANNER_HEALTH_DETAILS_PATH = "/health/details";
+    public static final String SCANNER_INSTANCES_PATH = "/instances";
+    public static final String SCANNER_INSTANCE_DRAIN_PATH = "/instances/drain";
+
     // Module management
     public static final String MODULES_BASE_URL = "/api/modules";
 
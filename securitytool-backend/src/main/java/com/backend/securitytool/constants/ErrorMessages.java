@@ -6,6 +6,15 @@ public class ErrorMessages {
     public static final String APPLICATION_NOT_FOUND = "Application not found with ID: ";
     public static final String BUSINESS_FLOW_NOT_FOUND = "Business flow not found with ID: ";
     public static final String SCAN_RESULT_NOT_FOUND = "Scan result not found with ID: ";
+    public static final String SCAN_JOB_NOT_FOUND = "Scan job not found with ID: ";
+    public static final String SCAN_BATCH_NOT_FOUND = "Scan batch not found with ID: ";
+    public static final String SCAN_SCHEDULE_NOT_FOUND = "Scan schedule not found for application ID: ";
+    public static final String SCANNER_INSTANCE_NOT_FOUND = "Scanner instance not found with URL: ";
+    public static final String SCAN_PAYLOAD_NOT_FOUND = "Scan payload not found with SHA-256: ";
+    public static final String ISSUE_BACKFILL_JOB_NOT_FOUND = "Issue backfill job not found with ID: ";
+    public static final String REPORT_FORMAT_NOT_FOUND = "Report format not supported: ";
+    public static final String REPORT_JOB_NOT_FOUND = "Report job not found with ID: ";
+    public static final String REPORT_ARTIFACT_NOT_FOUND = "No rendered report available for report job ID: ";
 
     // Error types
     public static final String RESOURCE_NOT_FOUND_ERROR = "Resource Not Found";
@@ -18,6 +27,22 @@ public class ErrorMessages {
     public static final String DECRYPTION_FAILED = "Failed to decrypt auth info";
     public static final String EXTERNAL_API_FAILED = "Failed to communicate with external service: ";
     public static final String INTERNAL_SERVER_MESSAGE = "An unexpected error occurred. Please try again later.";
+    public static final String ISSUE_FIELD_UNKNOWN = "Unknown issue field: ";
+    public static final String ISSUE_CURSOR_INVALID = "Invalid issue cursor: ";
+    public static final String SCHEDULE_CRON_INVALID = "Invalid cron expression: ";
+    public static final String SCHEDULE_TIMEZONE_INVALID = "Invalid time zone: ";
+    public static final String SCHEDULE_SCAN_TYPE_UNSUPPORTED = "Unsupported scan type for scheduled scan: ";
+    public static final String SCHEDULE_CATCH_UP_POLICY_UNSUPPORTED = "Unsupported catch-up policy: ";
+    public static final String OPENAPI_DOCUMENT_INVALID = "Invalid OpenAPI document: ";
+    public static final String REINGEST_SCAN_NOT_COMPLETED = "Only completed scans can be re-ingested, scan result %d is %s";
+    public static final String REINGEST_NO_PAYLOADS = "No stored payloads to re-ingest for scan result ID: ";
+    public static final String BULK_SCAN_TYPE_UNSUPPORTED = "Unsupported scan type for bulk scan: ";
+    public static final String BULK_SCAN_APPS_REQUIRED = "Either appIds or appNameFilter is required for bulk scan";
+    public static final String SCAN_TARGET_URL_REQUIRED = "Target URL is required for ZAP scan";
+    public static final String SCAN_PROJECT_KEY_REQUIRED = "Project key is required for SonarQube scan";
+    public static final String SCAN_NO_ENDPOINTS = "No API endpoints to scan for application ID: ";
+    public static final String UPSTREAM_CIRCUIT_OPEN = "Temporarily not calling %s after repeated failures, retry in %d seconds";
+    public static final String UPSTREAM_BULKHEAD_FULL = "Too many concurrent calls to %s, retry in %d seconds";
 
     private ErrorMessages() {
         // Prevent instantiation
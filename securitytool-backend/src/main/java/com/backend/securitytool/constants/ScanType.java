@@ -7,15 +7,37 @@ public class ScanType {
     public static final String SCAN_STATUS_IN_PROGRESS = "in-progress";
     public static final String SCAN_STATUS_COMPLETED = "completed";
     public static final String SCAN_STATUS_FAILED = "failed";
+    // Only background maintenance jobs, e.g. the issue backfill, can be paused
+    public static final String JOB_STATUS_PAUSED = "paused";
+    // Report jobs whose artifact was deleted after its time to live
+    public static final String JOB_STATUS_EXPIRED = "expired";
+
+    // ZAP scan phases
+    public static final String SCAN_PHASE_SPIDER = "spider";
+    public static final String SCAN_PHASE_AJAX_SPIDER = "ajax-spider";
+    public static final String SCAN_PHASE_ACTIVE_SCAN = "active-scan";
+    public static final String SCAN_PHASE_COLLECTING_ALERTS = "collecting-alerts";
 
     // Scan types
     public static final String SCAN_TYPE_STATIC = "static";
     public static final String SCAN_TYPE_DYNAMIC = "dynamic";
+    // SAST and DAST run together and merged into one scan result
+    public static final String SCAN_TYPE_COMBINED = "combined";
+
+    // Catch-up policies for scheduled runs missed while no node was running the scheduler
+    public static final String CATCH_UP_SKIP = "skip";
+    public static final String CATCH_UP_RUN_ONCE = "run-once";
+    public static final String CATCH_UP_RUN_ALL = "run-all";
 
     // Issue statuses
     public static final String ISSUE_STATUS_OPEN = "open";
     public static final String ISSUE_STATUS_RESOLVED = "resolved";
 
+    // Issue change types relative to the baseline scan
+    public static final String ISSUE_CHANGE_NEW = "new";
+    public static final String ISSUE_CHANGE_CHANGED = "changed";
+    public static final String ISSUE_CHANGE_RESOLVED = "resolved";
+
     // Severity levels
     public static final String SEVERITY_LOW = "low";
     public static final String SEVERITY_MEDIUM = "medium";
@@ -2,14 +2,19 @@ package com.backend.securitytool.controller;
 
 import com.backend.securitytool.constants.ApiConstants;
 import com.backend.securitytool.model.dto.request.ApiEndpointRequestDTO;
+import com.backend.securitytool.model.dto.response.ApiEndpointImportResponseDTO;
 import com.backend.securitytool.model.dto.response.ApiEndpointResponseDTO;
 import com.backend.securitytool.model.dto.response.CommonResponse;
 import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -43,4 +48,24 @@ public class ApiEndpointController {
         );
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads the endpoints of an OpenAPI 3 / Swagger 2 document (JSON or YAML) into the catalog of the app.
+     */
+    @PostMapping(value = ApiConstants.API_ENDPOINT_IMPORT_PATH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CommonResponse<ApiEndpointImportResponseDTO>> importOpenApi(@PathVariable Integer appId,
+                                                                                      @RequestParam("file") MultipartFile file,
+                                                                                      @RequestParam(defaultValue = "false") boolean removeMissing) throws IOException {
+        ApiEndpointImportResponseDTO diff;
+        try (InputStream document = file.getInputStream()) {
+            diff = apiEndpointService.importOpenApi(appId, document, removeMissing);
+        }
+        CommonResponse<ApiEndpointImportResponseDTO> response = new CommonResponse<>(
+                "success",
+                "API Endpoints imported successfully",
+                diff,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -1,28 +1,47 @@
 package com.backend.securitytool.controller;
 
 import com.backend.securitytool.constants.ApiConstants;
+import com.backend.securitytool.model.dto.request.IssueQueryRequestDTO;
 import com.backend.securitytool.model.dto.response.CommonResponse;
+import com.backend.securitytool.model.dto.response.IssuePageResponseDTO;
+import com.backend.securitytool.model.dto.response.ReportJobResponseDTO;
 import com.backend.securitytool.model.dto.response.ReportResponseDTO;
+import com.backend.securitytool.service.report.ReportArtifact;
+import com.backend.securitytool.service.report.ReportExportDescriptor;
+import com.backend.securitytool.service.report.ReportJobService;
 import com.backend.securitytool.service.report.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping(ApiConstants.REPORTS_BASE_URL)
 public class ReportController {
+    private static final Pattern ZERO_QUALITY = Pattern.compile("\\s*q\\s*=\\s*0(\\.0{0,3})?\\s*");
 
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
     @GetMapping(ApiConstants.REPORT_ID_PATH)
     public ResponseEntity<CommonResponse<ReportResponseDTO>> getReport(@PathVariable Integer resultId,
                                                                        @RequestParam Integer appId) {
@@ -36,15 +55,183 @@ public class ReportController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Issues of a scan page by page, most severe first. Filters, fields, cursor and limit are query parameters,
+     * see IssueQueryRequestDTO; the next page is requested with the nextCursor of the previous one.
+     */
+    @GetMapping(ApiConstants.REPORT_ISSUES_PATH)
+    public ResponseEntity<CommonResponse<IssuePageResponseDTO>> queryIssues(@PathVariable Integer resultId,
+                                                                            IssueQueryRequestDTO query) {
+        IssuePageResponseDTO page = reportService.queryIssues(resultId, query);
+        CommonResponse<IssuePageResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Issues retrieved successfully",
+                page,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // Raw text/csv, not wrapped in a CommonResponse; see exportReport
     @GetMapping(ApiConstants.REPORT_CSV_PATH)
-    public ResponseEntity<CommonResponse<String>> exportCsv(@PathVariable Integer resultId) {
-        String csv = reportService.exportCsv(resultId);
-        CommonResponse<String> response = new CommonResponse<>(
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable Integer resultId,
+                                                           @RequestHeader HttpHeaders requestHeaders) {
+        return exportStreaming(reportService.describeExport(resultId, "csv"), requestHeaders);
+    }
+
+    /**
+     * Streaming formats (csv, ndjson, sarif) come back as the file itself: from the report cache with ETag,
+     * range and gzip support when the scan's report was rendered before, written while the issues are read otherwise.
+     * Other formats (xlsx, pdf) are queued as a report job and answered with 202 and the job, whose downloadUrl
+     * is set once it completed.
+     */
+    @GetMapping(ApiConstants.REPORT_EXPORT_PATH)
+    public ResponseEntity<?> exportReport(@PathVariable Integer resultId, @PathVariable String format,
+                                          @RequestHeader HttpHeaders requestHeaders) {
+        ReportExportDescriptor export = reportService.describeExport(resultId, format);
+        if (export.streaming()) {
+            return exportStreaming(export, requestHeaders);
+        }
+        return submitReportJob(resultId, format);
+    }
+
+    @PostMapping(ApiConstants.REPORT_JOBS_PATH)
+    public ResponseEntity<CommonResponse<ReportJobResponseDTO>> submitReportJob(@PathVariable Integer resultId,
+                                                                                @RequestParam String format) {
+        ReportJobResponseDTO job = reportJobService.submit(resultId, format);
+        CommonResponse<ReportJobResponseDTO> response = new CommonResponse<>(
                 "success",
-                "CSV report exported successfully",
-                csv,
+                "Report job submitted successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(ApiConstants.REPORT_JOB_PATH)
+    public ResponseEntity<CommonResponse<ReportJobResponseDTO>> getReportJob(@PathVariable Integer jobId) {
+        ReportJobResponseDTO job = reportJobService.getJob(jobId);
+        CommonResponse<ReportJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Report job retrieved successfully",
+                job,
                 LocalDateTime.now()
         );
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    @GetMapping(ApiConstants.REPORT_JOB_DOWNLOAD_PATH)
+    public ResponseEntity<StreamingResponseBody> downloadReportJob(@PathVariable Integer jobId,
+                                                                   @RequestHeader HttpHeaders requestHeaders) {
+        return serveArtifact(reportJobService.getArtifact(jobId), requestHeaders);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportStreaming(ReportExportDescriptor export, HttpHeaders requestHeaders) {
+        Optional<ReportArtifact> cached = reportJobService.findCachedArtifact(export);
+        if (cached.isPresent()) {
+            return serveArtifact(cached.get(), requestHeaders);
+        }
+        StreamingResponseBody body = out -> reportJobService.writeExport(export, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(export.contentType()))
+                .body(body);
+    }
+
+    /**
+     * Serves a stored report: its gzip variant to clients that accept gzip, 304 when the client already has it,
+     * and a single byte range when asked for one (honouring If-Range), so a broken download can be resumed.
+     * A request for several ranges gets the whole file, as RFC 9110 allows. The bytes go out with transferTo.
+     */
+    private ResponseEntity<StreamingResponseBody> serveArtifact(ReportArtifact artifact, HttpHeaders requestHeaders) {
+        boolean gzip = artifact.gzipSizeBytes() != null && acceptsGzip(requestHeaders);
+        long length = gzip ? artifact.gzipSizeBytes() : artifact.sizeBytes();
+        // Strong ETags have to differ between the encodings of a resource
+        String etag = artifact.sha256() != null ? "\"" + artifact.sha256() + (gzip ? "-gzip" : "") + "\"" : null;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + artifact.fileName() + "\"");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (etag != null && ifNoneMatch(requestHeaders, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        HttpStatus status = HttpStatus.OK;
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = requestedRanges(requestHeaders, etag);
+        if (ranges.size() == 1) {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+            if (start >= length || start > end) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            status = HttpStatus.PARTIAL_CONTENT;
+        }
+        long position = start;
+        long count = end - start + 1;
+        StreamingResponseBody body = out -> reportJobService.writeArtifact(artifact, gzip, position, count, out);
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(artifact.contentType()))
+                .contentLength(count)
+                .body(body);
+    }
+
+    // A Range is ignored, i.e. the whole file is sent, if it is malformed or If-Range names another version
+    private static List<HttpRange> requestedRanges(HttpHeaders requestHeaders, String etag) {
+        String range = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    // If-None-Match uses the weak comparison; a malformed header matches nothing
+    private static boolean ifNoneMatch(HttpHeaders requestHeaders, String etag) {
+        List<String> candidates;
+        try {
+            candidates = requestHeaders.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (String candidate : candidates) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                    return parts.length < 2 || !ZERO_QUALITY.matcher(parts[1]).matches();
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -1,17 +1,33 @@
 package com.backend.securitytool.controller;
 
 import com.backend.securitytool.constants.ApiConstants;
-import com.backend.securitytool.model.dto.request.ApiEndpointRequestDTO;
+import com.backend.securitytool.model.dto.request.BulkScanRequestDTO;
+import com.backend.securitytool.model.dto.request.EndpointScanRequestDTO;
 import com.backend.securitytool.model.dto.request.ScanRequestDTO;
+import com.backend.securitytool.model.dto.request.ScanScheduleRequestDTO;
 import com.backend.securitytool.model.dto.response.CommonResponse;
+import com.backend.securitytool.model.dto.response.IssueBackfillJobResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanBatchResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanConfigurationResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanJobResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanPayloadResponseDTO;
 import com.backend.securitytool.model.dto.response.ScanResponseDTO;
+import com.backend.securitytool.service.backfill.IssueBackfillService;
+import com.backend.securitytool.service.payload.ScanPayloadService;
 import com.backend.securitytool.service.scanconfig.SonarQubeScannerService;
+import com.backend.securitytool.service.scanengine.ScanOrchestrator;
 import com.backend.securitytool.service.scanconfig.ZapScannerService;
+import com.backend.securitytool.service.scanjob.ScanJobService;
+import com.backend.securitytool.service.scanschedule.ScanScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +43,21 @@ public class ScanController {
     @Autowired
     private ZapScannerService zapScannerService;
 
+    @Autowired
+    private ScanJobService scanJobService;
+
+    @Autowired
+    private ScanScheduleService scanScheduleService;
+
+    @Autowired
+    private ScanOrchestrator scanOrchestrator;
+
+    @Autowired
+    private ScanPayloadService scanPayloadService;
+
+    @Autowired
+    private IssueBackfillService issueBackfillService;
+
     @GetMapping("/sonarqube/{appId}")
     public ResponseEntity<List<ScanResponseDTO>> getAllScansByAppId(@PathVariable Integer appId) {
         List<ScanResponseDTO> scans = sonarQubeScannerService.getAllScansByAppId(appId);
@@ -40,40 +71,206 @@ public class ScanController {
     }
 
     @PostMapping(ApiConstants.SONARQUBE_SCAN_PATH)
-    public ResponseEntity<CommonResponse<ScanResponseDTO>> runSonarQubeScan(
+    public ResponseEntity<CommonResponse<ScanJobResponseDTO>> runSonarQubeScan(
             @RequestBody ScanRequestDTO requestDTO,
             @RequestParam(required=false) Integer moduleId) {
-        ScanResponseDTO result = sonarQubeScannerService.scan(requestDTO);
-        CommonResponse<ScanResponseDTO> response = new CommonResponse<>(
+        ScanJobResponseDTO job = scanJobService.submitSonarQubeScan(
+                requestDTO.getAppId(), requestDTO.getProjectKey(), requestDTO.getCeTaskId());
+        CommonResponse<ScanJobResponseDTO> response = new CommonResponse<>(
                 "success",
-                "SonarQube scan completed successfully",
-                result,
+                "SonarQube scan submitted successfully",
+                job,
                 LocalDateTime.now()
         );
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
     }
 
     @PostMapping(ApiConstants.ZAP_SCAN_PATH)
-    public ResponseEntity<CommonResponse<ScanResponseDTO>> runZapScan(@RequestBody ScanRequestDTO requestDTO) {
-        ScanResponseDTO result = zapScannerService.scan(requestDTO.getAppId(), requestDTO.getTargetUrl());
+    public ResponseEntity<CommonResponse<ScanJobResponseDTO>> runZapScan(@RequestBody ScanRequestDTO requestDTO) {
+        ScanJobResponseDTO job = scanJobService.submitZapScan(requestDTO.getAppId(), requestDTO.getTargetUrl());
+        CommonResponse<ScanJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "ZAP scan submitted successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(ApiConstants.COMBINED_SCAN_PATH)
+    public ResponseEntity<CommonResponse<ScanJobResponseDTO>> runCombinedScan(@RequestBody ScanRequestDTO requestDTO) {
+        ScanJobResponseDTO job = scanJobService.submitCombinedScan(
+                requestDTO.getAppId(), requestDTO.getTargetUrl(), requestDTO.getProjectKey());
+        CommonResponse<ScanJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Combined SonarQube and ZAP scan submitted successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(ApiConstants.SCAN_BATCHES_PATH)
+    public ResponseEntity<CommonResponse<ScanBatchResponseDTO>> runBulkScan(@RequestBody BulkScanRequestDTO requestDTO) {
+        ScanBatchResponseDTO batch = scanJobService.submitBatch(requestDTO);
+        CommonResponse<ScanBatchResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Bulk scan submitted successfully",
+                batch,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(ApiConstants.SCAN_BATCH_PATH)
+    public ResponseEntity<CommonResponse<ScanBatchResponseDTO>> getScanBatch(@PathVariable Integer batchId) {
+        ScanBatchResponseDTO batch = scanJobService.getBatch(batchId);
+        CommonResponse<ScanBatchResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Scan batch retrieved successfully",
+                batch,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(ApiConstants.SCAN_SCHEDULE_PATH)
+    public ResponseEntity<CommonResponse<ScanConfigurationResponseDTO>> getScanSchedule(@PathVariable Integer appId) {
+        ScanConfigurationResponseDTO schedule = scanScheduleService.getSchedule(appId);
+        CommonResponse<ScanConfigurationResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Scan schedule retrieved successfully",
+                schedule,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PutMapping(ApiConstants.SCAN_SCHEDULE_PATH)
+    public ResponseEntity<CommonResponse<ScanConfigurationResponseDTO>> saveScanSchedule(
+            @PathVariable Integer appId,
+            @RequestBody ScanScheduleRequestDTO requestDTO) {
+        ScanConfigurationResponseDTO schedule = scanScheduleService.saveSchedule(appId, requestDTO);
+        CommonResponse<ScanConfigurationResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Scan schedule saved successfully",
+                schedule,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(ApiConstants.SCAN_JOB_PATH)
+    public ResponseEntity<CommonResponse<ScanJobResponseDTO>> getScanJob(@PathVariable Integer jobId) {
+        ScanJobResponseDTO job = scanJobService.getJob(jobId);
+        CommonResponse<ScanJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Scan job retrieved successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(value = ApiConstants.SCAN_JOB_EVENTS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeScanJob(@PathVariable Integer jobId) {
+        return scanJobService.subscribe(jobId);
+    }
+
+    @PostMapping(ApiConstants.ZAP_ENDPOINT_SCAN_PATH)
+    public ResponseEntity<CommonResponse<ScanJobResponseDTO>> runZapScanOnEndpoints(@RequestBody EndpointScanRequestDTO requestDTO) {
+        ScanJobResponseDTO job = scanJobService.submitZapEndpointScan(requestDTO);
+        CommonResponse<ScanJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "ZAP endpoint scan submitted successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(ApiConstants.SCAN_RESULT_PAYLOADS_PATH)
+    public ResponseEntity<CommonResponse<List<ScanPayloadResponseDTO>>> getScanPayloads(@PathVariable Integer resultId) {
+        List<ScanPayloadResponseDTO> payloads = scanPayloadService.getPayloads(resultId);
+        CommonResponse<List<ScanPayloadResponseDTO>> response = new CommonResponse<>(
+                "success",
+                "Scan payloads retrieved successfully",
+                payloads,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // Served as stored; clients that accept gzip get the original response, others can gunzip the download
+    @GetMapping(ApiConstants.SCAN_PAYLOAD_PATH)
+    public ResponseEntity<StreamingResponseBody> downloadScanPayload(@PathVariable String sha256) {
+        long compressedSize = scanPayloadService.getCompressedSize(sha256);
+        StreamingResponseBody body = out -> scanPayloadService.writeCompressed(sha256, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(compressedSize)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + sha256 + ".json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping(ApiConstants.SCAN_RESULT_REINGEST_PATH)
+    public ResponseEntity<CommonResponse<ScanResponseDTO>> reingestScanResult(@PathVariable Integer resultId) {
+        ScanResponseDTO scan = scanOrchestrator.reingest(resultId);
         CommonResponse<ScanResponseDTO> response = new CommonResponse<>(
                 "success",
-                "ZAP scan completed successfully",
-                result,
+                "Re-ingest from stored payloads started",
+                scan,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(ApiConstants.ISSUE_BACKFILL_PATH)
+    public ResponseEntity<CommonResponse<IssueBackfillJobResponseDTO>> startIssueBackfill() {
+        IssueBackfillJobResponseDTO job = issueBackfillService.startBackfill();
+        CommonResponse<IssueBackfillJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Issue backfill submitted successfully",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(ApiConstants.ISSUE_BACKFILL_JOB_PATH)
+    public ResponseEntity<CommonResponse<IssueBackfillJobResponseDTO>> getIssueBackfill(@PathVariable Integer jobId) {
+        IssueBackfillJobResponseDTO job = issueBackfillService.getBackfillJob(jobId);
+        CommonResponse<IssueBackfillJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Issue backfill job retrieved successfully",
+                job,
                 LocalDateTime.now()
         );
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
-//    @PostMapping(ApiConstants.ZAP_SCAN_PATH + "/endpoints")
-//    public ResponseEntity<CommonResponse<ScanResponseDTO>> runZapScanOnEndpoint(@RequestBody ApiEndpointRequestDTO endpointDTO) {
-//        ScanResponseDTO result = zapScannerService.scanEndpoint(endpointDTO.getAppId(), endpointDTO.getPath());
-//        CommonResponse<ScanResponseDTO> response = new CommonResponse<>(
-//                "success",
-//                "ZAP scan on endpoint completed successfully",
-//                result,
-//                LocalDateTime.now()
-//        );
-//        return new ResponseEntity<>(response, HttpStatus.OK);
-//    }
-}
\ No newline at end of file
+    @PostMapping(ApiConstants.ISSUE_BACKFILL_PAUSE_PATH)
+    public ResponseEntity<CommonResponse<IssueBackfillJobResponseDTO>> pauseIssueBackfill(@PathVariable Integer jobId) {
+        IssueBackfillJobResponseDTO job = issueBackfillService.pauseBackfill(jobId);
+        CommonResponse<IssueBackfillJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Issue backfill job paused",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping(ApiConstants.ISSUE_BACKFILL_RESUME_PATH)
+    public ResponseEntity<CommonResponse<IssueBackfillJobResponseDTO>> resumeIssueBackfill(@PathVariable Integer jobId) {
+        IssueBackfillJobResponseDTO job = issueBackfillService.resumeBackfill(jobId);
+        CommonResponse<IssueBackfillJobResponseDTO> response = new CommonResponse<>(
+                "success",
+                "Issue backfill job resumed",
+                job,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
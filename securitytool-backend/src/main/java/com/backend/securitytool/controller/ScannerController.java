@@ -0,0 +1,109 @@
+package com.backend.securitytool.controller;
+
+import com.backend.securitytool.constants.ApiConstants;
+import com.backend.securitytool.model.dto.response.CommonResponse;
+import com.backend.securitytool.model.dto.response.ScannerInstanceDTO;
+import com.backend.securitytool.model.dto.response.UpstreamHealthDTO;
+import com.backend.securitytool.model.dto.response.UpstreamPoolStatsDTO;
+import com.backend.securitytool.model.dto.response.UpstreamStatusDTO;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerhttp.ScannerHttpClients;
+import com.backend.securitytool.service.scannerpool.ScannerInstance;
+import com.backend.securitytool.service.scannerpool.ScannerInstanceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiConstants.SCANNERS_BASE_URL)
+public class ScannerController {
+    private final ScannerHttpClients scannerHttpClients;
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+    private final ScannerInstanceRegistry scannerInstanceRegistry;
+
+    @Autowired
+    public ScannerController(ScannerHttpClients scannerHttpClients,
+                             UpstreamGuardRegistry upstreamGuardRegistry,
+                             ScannerInstanceRegistry scannerInstanceRegistry) {
+        this.scannerHttpClients = scannerHttpClients;
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+        this.scannerInstanceRegistry = scannerInstanceRegistry;
+    }
+
+    /**
+     * Circuit breaker state of every upstream (ZAP, SonarQube, AI chat), open to unauthenticated probes.
+     * Per-instance breakers are folded into one row per upstream so instance addresses stay internal.
+     * Always 200, the message says whether any breaker is open.
+     */
+    @GetMapping(ApiConstants.SCANNER_HEALTH_PATH)
+    public ResponseEntity<CommonResponse<List<UpstreamStatusDTO>>> getHealth() {
+        List<UpstreamStatusDTO> status = upstreamGuardRegistry.getStatus();
+        boolean degraded = status.stream().anyMatch(upstream -> !"CLOSED".equals(upstream.getState()));
+        CommonResponse<List<UpstreamStatusDTO>> response = new CommonResponse<>(
+                "success",
+                degraded ? "One or more upstreams are failing" : "All upstreams are healthy",
+                status,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Every circuit breaker with its instance and call figures; requires authentication.
+     */
+    @GetMapping(ApiConstants.SCANNER_HEALTH_DETAILS_PATH)
+    public ResponseEntity<CommonResponse<List<UpstreamHealthDTO>>> getHealthDetails() {
+        CommonResponse<List<UpstreamHealthDTO>> response = new CommonResponse<>(
+                "success",
+                "Circuit breaker details retrieved successfully",
+                upstreamGuardRegistry.getHealth(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(ApiConstants.SCANNER_HTTP_POOLS_PATH)
+    public ResponseEntity<CommonResponse<List<UpstreamPoolStatsDTO>>> getHttpPoolStats() {
+        CommonResponse<List<UpstreamPoolStatsDTO>> response = new CommonResponse<>(
+                "success",
+                "Scanner HTTP pool statistics retrieved successfully",
+                scannerHttpClients.getStats(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(ApiConstants.SCANNER_INSTANCES_PATH)
+    public ResponseEntity<CommonResponse<List<ScannerInstanceDTO>>> getInstances() {
+        CommonResponse<List<ScannerInstanceDTO>> response = new CommonResponse<>(
+                "success",
+                "Scanner instances retrieved successfully",
+                scannerInstanceRegistry.getAllInstances().stream().map(ScannerInstance::toDTO).toList(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Takes an instance out of rotation for maintenance (or puts it back). Running scans are not interrupted.
+     */
+    @PutMapping(ApiConstants.SCANNER_INSTANCE_DRAIN_PATH)
+    public ResponseEntity<CommonResponse<ScannerInstanceDTO>> setDraining(@RequestParam String url,
+                                                                          @RequestParam(defaultValue = "true") boolean draining) {
+        CommonResponse<ScannerInstanceDTO> response = new CommonResponse<>(
+                "success",
+                draining ? "Scanner instance is draining" : "Scanner instance accepts scans again",
+                scannerInstanceRegistry.setDraining(url, draining).toDTO(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.securitytool.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown without calling the upstream when its circuit breaker is open or its bulkhead is full.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+    private final String upstream;
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String upstream, String message, long retryAfterSeconds) {
+        super(message);
+        this.upstream = upstream;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.backend.securitytool.mapper;
+
+import com.backend.securitytool.model.dto.response.ScanJobResponseDTO;
+import com.backend.securitytool.model.entity.ScanJob;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+
+@Mapper(componentModel = "spring")
+public interface ScanJobMapper {
+
+    @Mapping(source = "id", target = "jobId")
+    @Mapping(source = "app.id", target = "appId")
+    @Mapping(source = "result.id", target = "resultId")
+    @Mapping(source = "batch.id", target = "batchId")
+    ScanJobResponseDTO toResponseDTO(ScanJob entity);
+}
@@ -12,4 +12,5 @@ public class ApplicationRequestDTO {
     private String authInfo;
     private String description;
     private String techStack;
+    private Integer retentionHotScans;
 }
@@ -0,0 +1,32 @@
+package com.backend.securitytool.model.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class BulkScanRequestDTO {
+    /**
+     * Applications to scan. When empty, {@link #appNameFilter} selects the applications instead.
+     */
+    private List<Integer> appIds;
+
+    /**
+     * Scans every application whose name contains this text (case insensitive); an empty string selects all applications.
+     */
+    private String appNameFilter;
+
+    /**
+     * static (SonarQube), dynamic (ZAP) or combined.
+     */
+    private String scanType;
+
+    /**
+     * SonarQube project key per application id. Applications without an entry reuse the key of their last SonarQube scan.
+     * ZAP always scans the application URL.
+     */
+    private Map<Integer, String> projectKeys;
+}
@@ -0,0 +1,25 @@
+package com.backend.securitytool.model.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class EndpointScanRequestDTO {
+    private Integer appId;
+
+    /**
+     * Base URL the endpoint paths are resolved against; defaults to the application URL.
+     */
+    private String targetUrl;
+
+    /**
+     * Endpoints to scan. When empty, the endpoints of {@link #businessFlowId} are scanned,
+     * and without a business flow every catalogued endpoint of the application.
+     */
+    private List<Integer> endpointIds;
+
+    private Integer businessFlowId;
+}
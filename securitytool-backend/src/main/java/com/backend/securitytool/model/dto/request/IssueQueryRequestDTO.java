@@ -0,0 +1,32 @@
+package com.backend.securitytool.model.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Query parameters of the issue query API. List parameters take several values, repeated or comma-separated;
+ * values of one parameter are ORed, parameters are ANDed.
+ */
+@Data
+@NoArgsConstructor
+public class IssueQueryRequestDTO {
+    private List<String> severity;
+    private List<String> status;
+    private List<String> issueType;
+    private Integer endpointId;
+    private Integer moduleId;
+
+    /**
+     * Fields to return. Defaults to all but description, solution and reference, which are only read when asked for.
+     */
+    private List<String> fields;
+
+    /**
+     * nextCursor of the previous page, absent for the first page.
+     */
+    private String cursor;
+
+    private Integer limit;
+}
@@ -13,6 +13,12 @@ public class ScanRequestDTO {
      */
     private String projectKey;
 
+    /**
+     * Optional SonarQube Compute Engine task id, as printed by the scanner after an analysis upload.
+     * The scan waits for this task to finish; without it the latest task of the project is used.
+     */
+    private String ceTaskId;
+
     /**
      * The URL of the target application to be scanned by ZAP (Zed Attack Proxy).
      * This is required when running a dynamic security scan with ZAP.
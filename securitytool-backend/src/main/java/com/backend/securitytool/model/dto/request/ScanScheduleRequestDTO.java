@@ -0,0 +1,37 @@
+package com.backend.securitytool.model.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ScanScheduleRequestDTO {
+    /**
+     * Spring cron expression with seconds, e.g. "0 0 0 * * *" for every midnight.
+     */
+    private String cron;
+
+    /**
+     * static (SonarQube), dynamic (ZAP) or combined.
+     */
+    private String scanType;
+
+    private Boolean enabled;
+
+    /**
+     * Zone the cron expression is evaluated in, e.g. "Asia/Ho_Chi_Minh". Defaults to the server zone.
+     */
+    private String timezone;
+
+    /**
+     * What to do with runs missed while the scheduler was down: skip, run-once or run-all.
+     */
+    private String catchUpPolicy;
+
+    private String projectKey;
+
+    /**
+     * Overrides the application URL as the ZAP target.
+     */
+    private String targetUrl;
+}
@@ -0,0 +1,27 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diff of an OpenAPI import against the catalog it was imported into. Endpoints are listed as "METHOD path".
+ */
+@Data
+@NoArgsConstructor
+public class ApiEndpointImportResponseDTO {
+    private Integer appId;
+    private int operations;
+    private int added;
+    private int changed;
+    private int unchanged;
+    private int removed;
+    // Whether the removed endpoints were deleted from the catalog or only reported
+    private boolean removedDeleted;
+    private long elapsedMs;
+    private List<String> addedEndpoints = new ArrayList<>();
+    private List<String> changedEndpoints = new ArrayList<>();
+    private List<String> removedEndpoints = new ArrayList<>();
+}
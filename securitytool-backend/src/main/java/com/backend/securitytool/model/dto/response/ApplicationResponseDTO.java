@@ -18,4 +18,5 @@ public class ApplicationResponseDTO {
     private Instant updatedAt;
     private String description;
     private String techStack;
+    private Integer retentionHotScans;
 }
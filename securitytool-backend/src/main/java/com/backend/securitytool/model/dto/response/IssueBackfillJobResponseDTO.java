@@ -0,0 +1,23 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class IssueBackfillJobResponseDTO {
+    private Integer jobId;
+    private String status;
+    private Integer lastIssueId;
+    private Integer maxIssueId;
+    private Long scannedIssues;
+    private Long updatedIssues;
+    private Integer progressPercent;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class IssuePageResponseDTO {
+    private Integer resultId;
+    // Each issue holds the requested fields only
+    private List<Map<String, Object>> issues;
+    private Integer limit;
+    // Pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class ReportJobResponseDTO {
+    private Integer jobId;
+    private Integer resultId;
+    private String format;
+    private String status;
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+    // Set once the job completed, until the artifact expires
+    private String downloadUrl;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Instant expiresAt;
+}
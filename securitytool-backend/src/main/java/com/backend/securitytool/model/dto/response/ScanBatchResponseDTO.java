@@ -0,0 +1,25 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ScanBatchResponseDTO {
+    private Integer batchId;
+    private String scanType;
+    private String status;
+    private Integer totalJobs;
+    private Integer pendingJobs;
+    private Integer inProgressJobs;
+    private Integer completedJobs;
+    private Integer failedJobs;
+    private Integer progressPercent;
+    private Instant createdAt;
+    // Applications left out because no scan target could be resolved for them; only set on submit
+    private List<Integer> skippedAppIds;
+    private List<ScanJobResponseDTO> jobs;
+}
@@ -3,6 +3,8 @@ package com.backend.securitytool.model.dto.response;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 public class ScanConfigurationResponseDTO {
@@ -11,4 +13,11 @@ public class ScanConfigurationResponseDTO {
     private String sonarqubeConfig;
     private String zapConfig;
     private String customRules;
+    private String scheduleCron;
+    private String scheduleScanType;
+    private Boolean scheduleEnabled;
+    private String scheduleTimezone;
+    private String catchUpPolicy;
+    private Instant nextRunAt;
+    private Instant lastRunAt;
 }
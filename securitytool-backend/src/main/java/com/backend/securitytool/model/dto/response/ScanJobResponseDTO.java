@@ -0,0 +1,25 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class ScanJobResponseDTO {
+    private Integer jobId;
+    private Integer appId;
+    private Integer resultId;
+    private Integer batchId;
+    private String scanType;
+    private String target;
+    private String projectKey;
+    private String ceTaskId;
+    private String status;
+    private Integer attempts;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,21 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class ScanPayloadResponseDTO {
+    private Long payloadId;
+    private Integer resultId;
+    private String engine;
+    private String kind;
+    private String target;
+    private String sourceUrl;
+    private String sha256;
+    private Long rawBytes;
+    private Long storedBytes;
+    private Instant createdAt;
+}
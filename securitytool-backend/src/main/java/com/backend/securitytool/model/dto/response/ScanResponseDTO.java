@@ -14,4 +14,16 @@ public class ScanResponseDTO {
     private String scanType;
     private String status;
     private String summary; // JSON as string
+    private String currentPhase;
+    private Integer progressPercent;
+    private Long spiderDurationMs;
+    private Long ajaxSpiderDurationMs;
+    private Long activeScanDurationMs;
+    private Integer baselineResultId;
+    private Integer newIssueCount;
+    private Integer changedIssueCount;
+    private Integer resolvedIssueCount;
+    private Integer carriedIssueCount;
+    private String endpointScope;
+    private Instant archivedAt;
 }
@@ -0,0 +1,19 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class ScannerInstanceDTO {
+    private String upstream;
+    private String url;
+    private Boolean healthy;
+    private Boolean draining;
+    private Integer inFlightScans;
+    private Long latencyMs;
+    private Instant lastCheckedAt;
+    private String lastError;
+}
@@ -0,0 +1,24 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class UpstreamHealthDTO {
+    private String upstream;
+    // Null for guards that cover the whole upstream
+    private String instanceUrl;
+    private String state;
+    private Integer failureRatePercent;
+    private Integer bufferedCalls;
+    private Integer failedCalls;
+    private Long notPermittedCalls;
+    private Instant openedAt;
+    // Bulkhead figures, null for upstreams bounded by their HTTP connection pool instead
+    private Integer activeCalls;
+    private Integer maxConcurrentCalls;
+    private Long rejectedCalls;
+}
@@ -0,0 +1,20 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class UpstreamPoolStatsDTO {
+    private String upstream;
+    private String instanceUrl;
+    private Integer maxConnections;
+    private Integer inUseConnections;
+    private Integer waitingRequests;
+    private Integer utilizationPercent;
+    private Long totalRequests;
+    private Long failedRequests;
+    private Long rejectedRequests;
+    private Long retriedRequests;
+    private Long averageLatencyMs;
+}
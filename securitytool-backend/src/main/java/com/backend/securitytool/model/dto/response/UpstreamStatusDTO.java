@@ -0,0 +1,18 @@
+package com.backend.securitytool.model.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Public summary of one upstream: no instance addresses or call figures, only how many of its circuit
+ * breakers let calls through.
+ */
+@Data
+@NoArgsConstructor
+public class UpstreamStatusDTO {
+    private String upstream;
+    // CLOSED when every breaker of the upstream is closed, otherwise OPEN or HALF_OPEN, whichever is worst
+    private String state;
+    private Integer breakers;
+    private Integer openBreakers;
+}
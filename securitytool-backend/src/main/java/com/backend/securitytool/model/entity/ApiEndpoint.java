@@ -16,6 +16,7 @@ import java.util.Map;
 @Table(name = "api_endpoints", schema = "security_tool")
 public class ApiEndpoint {
     @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "endpoint_id", nullable = false)
     private Integer id;
 
@@ -0,0 +1,56 @@
+package com.backend.securitytool.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "issue_backfill_jobs", schema = "security_tool")
+public class IssueBackfillJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id", nullable = false)
+    private Integer id;
+
+    @ColumnDefault("'pending'")
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    // Checkpoint: every issue up to this id has been processed
+    @ColumnDefault("0")
+    @Column(name = "last_issue_id", nullable = false)
+    private Integer lastIssueId = 0;
+
+    // Highest issue id when the job was created; later rows were ingested with the current mapping already
+    @Column(name = "max_issue_id", nullable = false)
+    private Integer maxIssueId;
+
+    @ColumnDefault("0")
+    @Column(name = "scanned_issues", nullable = false)
+    private Long scannedIssues = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "updated_issues", nullable = false)
+    private Long updatedIssues = 0L;
+
+    @Column(name = "error_message", length = 1024)
+    private String errorMessage;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,75 @@
+package com.backend.securitytool.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "report_jobs", schema = "security_tool")
+public class ReportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id", nullable = false)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "result_id", nullable = false)
+    private ScanResult result;
+
+    @Column(name = "format", nullable = false, length = 20)
+    private String format;
+
+    @ColumnDefault("'pending'")
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    // Name of the rendered file in the report artifact store, set once the job completed
+    @Column(name = "artifact_key", length = 100)
+    private String artifactKey;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    // SHA-256 of the artifact, served as its strong ETag
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    // Size of the pre-compressed gzip variant, null if none is stored
+    @Column(name = "gzip_size_bytes")
+    private Long gzipSizeBytes;
+
+    // Issue mapping version the report was rendered at, null if the scan was still running; see report cache
+    @Column(name = "mapping_version")
+    private Long mappingVersion;
+
+    @Column(name = "error_message", length = 1024)
+    private String errorMessage;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // The artifact is deleted after this, see report.artifacts.ttl-ms
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+}
@@ -0,0 +1,30 @@
+package com.backend.securitytool.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "scan_batches", schema = "security_tool")
+public class ScanBatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "batch_id", nullable = false)
+    private Integer id;
+
+    @Column(name = "scan_type", nullable = false, length = 50)
+    private String scanType;
+
+    @ColumnDefault("0")
+    @Column(name = "total_jobs", nullable = false)
+    private Integer totalJobs = 0;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+}
@@ -3,11 +3,13 @@ package com.backend.securitytool.model.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
 import java.util.Map;
 
 @Getter
@@ -16,6 +18,7 @@ import java.util.Map;
 @Table(name = "scan_configurations", schema = "security_tool")
 public class ScanConfiguration {
     @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "config_id", nullable = false)
     private Integer id;
 
@@ -24,10 +27,12 @@ public class ScanConfiguration {
     @JoinColumn(name = "app_id")
     private TargetApplication app;
 
+    // SonarQube project key used by scheduled scans
     @Column(name = "sonarqube_config")
     @Lob
     private String sonarqubeConfig;
 
+    // ZAP target URL used by scheduled scans; falls back to the application URL
     @Column(name = "zap_config")
     @Lob
     private String zapConfig;
@@ -36,5 +41,29 @@ public class ScanConfiguration {
     @Lob
     private String customRules;
 
+    // Spring cron expression (second minute hour day month weekday)
+    @Column(name = "schedule_cron", length = 100)
+    private String scheduleCron;
+
+    @Column(name = "schedule_scan_type", length = 50)
+    private String scheduleScanType;
+
+    @ColumnDefault("0")
+    @Column(name = "schedule_enabled", nullable = false)
+    private Boolean scheduleEnabled = false;
+
+    @Column(name = "schedule_timezone", length = 64)
+    private String scheduleTimezone;
+
+    // skip, run-once or run-all; null uses scan.schedule.catch-up-policy
+    @Column(name = "catch_up_policy", length = 20)
+    private String catchUpPolicy;
+
+    // Next fire time, jitter included
+    @Column(name = "next_run_at")
+    private Instant nextRunAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
 
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.backend.securitytool.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "scan_jobs", schema = "security_tool")
+public class ScanJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id", nullable = false)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "app_id")
+    private TargetApplication app;
+
+    // Placeholder result created at submit time, filled in by the worker
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "result_id")
+    private ScanResult result;
+
+    // Set when the job was queued as part of a bulk scan
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JoinColumn(name = "batch_id")
+    private ScanBatch batch;
+
+    @Column(name = "scan_type", nullable = false, length = 50)
+    private String scanType;
+
+    // Target URL for ZAP scans, project key for SonarQube scans
+    @Column(name = "target", nullable = false, length = 512)
+    private String target;
+
+    // SonarQube project key of combined jobs, whose target is the ZAP target URL
+    @Column(name = "project_key")
+    private String projectKey;
+
+    // SonarQube Compute Engine task to wait for; null means the latest task of the project
+    @Column(name = "ce_task_id", length = 64)
+    private String ceTaskId;
+
+    @ColumnDefault("'pending'")
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @ColumnDefault("0")
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "error_message", length = 1024)
+    private String errorMessage;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
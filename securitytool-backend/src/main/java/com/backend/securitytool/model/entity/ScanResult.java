@@ -42,4 +42,45 @@ public class ScanResult {
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     private String summary;
 
+    // Live progress of a running scan, updated by the scanner while it polls the upstream tool
+    @Column(name = "current_phase", length = 50)
+    private String currentPhase;
+
+    @Column(name = "progress_percent")
+    private Integer progressPercent;
+
+    @Column(name = "spider_duration_ms")
+    private Long spiderDurationMs;
+
+    @Column(name = "ajax_spider_duration_ms")
+    private Long ajaxSpiderDurationMs;
+
+    @Column(name = "active_scan_duration_ms")
+    private Long activeScanDurationMs;
+
+    // Previous completed scan of the same app and type that this scan was diffed against
+    @Column(name = "baseline_result_id")
+    private Integer baselineResultId;
+
+    @Column(name = "new_issue_count")
+    private Integer newIssueCount;
+
+    @Column(name = "changed_issue_count")
+    private Integer changedIssueCount;
+
+    @Column(name = "resolved_issue_count")
+    private Integer resolvedIssueCount;
+
+    @Column(name = "carried_issue_count")
+    private Integer carriedIssueCount;
+
+    // Comma-separated ids of the API endpoints an endpoint-scoped ZAP scan covered, null for a full-site scan
+    @Lob
+    @Column(name = "endpoint_scope", columnDefinition = "TEXT")
+    private String endpointScope;
+
+    // Set once the issues of this scan were moved to scan_result_archives
+    @Column(name = "archived_at")
+    private Instant archivedAt;
+
 }
@@ -0,0 +1,24 @@
+package com.backend.securitytool.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "scheduler_leases", schema = "security_tool")
+public class SchedulerLease {
+    @Id
+    @Column(name = "lease_name", nullable = false, length = 64)
+    private String name;
+
+    // Node currently holding the lease
+    @Column(name = "owner", length = 128)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -57,5 +57,16 @@ public class SecurityIssue {
     @Column(name = "app_id")
     private Integer appId;
 
+    // Stable identity of the finding across scans, see IssueFingerprint
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // new, changed or resolved relative to the baseline scan; null for rows ingested before fingerprinting
+    @Column(name = "change_type", length = 20)
+    private String changeType;
+
     // Không cần sửa entity nếu đã có trường result và result liên kết với ScanResult, ScanResult đã có app
 }
@@ -49,6 +49,10 @@ public class TargetApplication {
     @Column(name = "tech_stack", length = 256)
     private String techStack;
 
+    // Newest scans that keep their issues hot, null for the retention.hot-scans default
+    @Column(name = "retention_hot_scans")
+    private Integer retentionHotScans;
+
     @OneToMany(mappedBy = "app")
     private Set<ApiEndpoint> apiEndpoints;
 
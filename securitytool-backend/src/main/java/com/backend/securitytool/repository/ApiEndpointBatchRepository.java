@@ -0,0 +1,72 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Bulk write path for the endpoint catalog, used by imports of whole API descriptions.
+ * Like {@link SecurityIssueBatchRepository} it goes through JDBC batches, which IDENTITY ids keep Hibernate from using.
+ */
+@Repository
+public class ApiEndpointBatchRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO api_endpoints (app_id, path, method, params, response_format) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE api_endpoints SET params = ?, response_format = ? WHERE endpoint_id = ?";
+
+    // Findings keep their rows, their endpoint_id is cleared by the foreign key
+    private static final String DELETE_SQL = "DELETE FROM api_endpoints WHERE endpoint_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${api-endpoints.import.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public ApiEndpointBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int insertAll(Integer appId, List<ApiEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, endpoints, batchSize, (ps, endpoint) -> {
+            ps.setInt(1, appId);
+            ps.setString(2, endpoint.getPath());
+            ps.setString(3, endpoint.getMethod());
+            ps.setString(4, endpoint.getParams());
+            ps.setString(5, endpoint.getResponseFormat());
+        });
+        return endpoints.size();
+    }
+
+    /**
+     * Writes the params and response format of endpoints that already exist; path and method are their identity.
+     */
+    public int updateAll(List<ApiEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, endpoints, batchSize, (ps, endpoint) -> {
+            ps.setString(1, endpoint.getParams());
+            ps.setString(2, endpoint.getResponseFormat());
+            ps.setInt(3, endpoint.getId());
+        });
+        return endpoints.size();
+    }
+
+    public int deleteAll(List<Integer> endpointIds) {
+        if (endpointIds.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, endpointIds, batchSize, (ps, endpointId) -> ps.setInt(1, endpointId));
+        return endpointIds.size();
+    }
+}
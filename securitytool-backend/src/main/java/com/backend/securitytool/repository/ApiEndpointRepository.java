@@ -9,4 +9,5 @@ import java.util.List;
 
 public interface ApiEndpointRepository extends JpaRepository<ApiEndpoint, Integer> {
     List<ApiEndpoint> findByAppId(Integer appId);
+    List<ApiEndpoint> findByAppIdAndBusinessFlowId(Integer appId, Integer businessFlowId);
 }
@@ -0,0 +1,186 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.constants.ScanType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Materialized dashboard aggregates per application, see V16__app_stats.sql.
+ * Writers apply deltas in the transaction that changes the raw rows; the app_stats row is always updated before
+ * the severity rows, so it serializes writers of one app and the reconciliation, which locks it first too.
+ */
+@Repository
+public class AppStatsRepository {
+
+    private static final String FIND_SQL =
+            "SELECT static_scan_count, dynamic_scan_count, total_issues FROM app_stats WHERE app_id = ?";
+
+    private static final String FIND_SEVERITIES_SQL =
+            "SELECT severity, issue_count FROM app_severity_stats WHERE app_id = ? AND issue_count <> 0";
+
+    private static final String ADD_SCAN_SQL = "INSERT INTO app_stats (app_id, static_scan_count, dynamic_scan_count) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE static_scan_count = static_scan_count + VALUES(static_scan_count), " +
+            "dynamic_scan_count = dynamic_scan_count + VALUES(dynamic_scan_count)";
+
+    private static final String ADD_ISSUES_SQL = "INSERT INTO app_stats (app_id, total_issues) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_issues = total_issues + VALUES(total_issues)";
+
+    private static final String ADD_SEVERITY_SQL = "INSERT INTO app_severity_stats (app_id, severity, issue_count) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE issue_count = issue_count + VALUES(issue_count)";
+
+    private static final String LOCK_SQL = "INSERT INTO app_stats (app_id) VALUES (?) ON DUPLICATE KEY UPDATE app_id = app_id";
+
+    private static final String FIND_FOR_UPDATE_SQL = FIND_SQL + " FOR UPDATE";
+
+    private static final String COUNT_SCANS_SQL = "SELECT scan_type, COUNT(*) AS scan_count FROM scan_results " +
+            "WHERE app_id = ? AND scan_type IN (?, ?) GROUP BY scan_type";
+
+    private static final String COUNT_ISSUES_SQL = "SELECT severity, COUNT(*) AS issue_count FROM security_issues " +
+            "WHERE app_id = ? GROUP BY severity";
+
+    private static final String OVERWRITE_SQL = "UPDATE app_stats SET static_scan_count = ?, dynamic_scan_count = ?, " +
+            "total_issues = ?, reconciled_at = ? WHERE app_id = ?";
+
+    private static final String MARK_RECONCILED_SQL = "UPDATE app_stats SET reconciled_at = ? WHERE app_id = ?";
+
+    private static final String DELETE_SEVERITIES_SQL = "DELETE FROM app_severity_stats WHERE app_id = ?";
+
+    private static final String INSERT_SEVERITY_SQL =
+            "INSERT INTO app_severity_stats (app_id, severity, issue_count) VALUES (?, ?, ?)";
+
+    /**
+     * Scan and issue totals of one application.
+     */
+    public record AppStats(long staticScanCount, long dynamicScanCount, long totalIssues) {
+    }
+
+    /**
+     * Change of the number of issue rows of one application and severity; negative when rows were removed.
+     */
+    public record IssueDelta(Integer appId, String severity, long count) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AppStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<AppStats> find(Integer appId) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new AppStats(rs.getLong("static_scan_count"),
+                rs.getLong("dynamic_scan_count"), rs.getLong("total_issues")), appId).stream().findFirst();
+    }
+
+    public Map<String, Long> findSeverityCounts(Integer appId) {
+        Map<String, Long> counts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        jdbcTemplate.query(FIND_SEVERITIES_SQL, rs -> {
+            counts.put(rs.getString("severity"), rs.getLong("issue_count"));
+        }, appId);
+        return counts;
+    }
+
+    /**
+     * Counts a new scan result; only static and dynamic scans are shown on the dashboard.
+     */
+    public void addScan(Integer appId, String scanType) {
+        boolean isStatic = ScanType.SCAN_TYPE_STATIC.equals(scanType);
+        if (appId == null || (!isStatic && !ScanType.SCAN_TYPE_DYNAMIC.equals(scanType))) {
+            return;
+        }
+        jdbcTemplate.update(ADD_SCAN_SQL, appId, isStatic ? 1 : 0, isStatic ? 0 : 1);
+    }
+
+    /**
+     * Applies issue deltas. Deltas of the same app and severity are summed first and rows are written in key order,
+     * so concurrent writers lock them in the same order. Must run in the transaction that changed the issue rows.
+     */
+    public void applyIssueDeltas(Collection<IssueDelta> deltas) {
+        Map<Integer, Map<String, Long>> byApp = new TreeMap<>();
+        for (IssueDelta delta : deltas) {
+            if (delta.appId() == null || delta.severity() == null || delta.count() == 0) {
+                continue;
+            }
+            byApp.computeIfAbsent(delta.appId(), appId -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                    .merge(delta.severity(), delta.count(), Long::sum);
+        }
+        for (Map.Entry<Integer, Map<String, Long>> app : byApp.entrySet()) {
+            long total = app.getValue().values().stream().mapToLong(Long::longValue).sum();
+            jdbcTemplate.update(ADD_ISSUES_SQL, app.getKey(), total);
+            List<Map.Entry<String, Long>> severities = app.getValue().entrySet().stream()
+                    .filter(severity -> severity.getValue() != 0)
+                    .toList();
+            if (severities.isEmpty()) {
+                continue;
+            }
+            jdbcTemplate.batchUpdate(ADD_SEVERITY_SQL, severities, severities.size(), (ps, severity) -> {
+                ps.setInt(1, app.getKey());
+                ps.setString(2, severity.getKey());
+                ps.setLong(3, severity.getValue());
+            });
+        }
+    }
+
+    /**
+     * The same deltas with the opposite sign, for rows that were removed.
+     */
+    public static List<IssueDelta> removed(List<IssueDelta> deltas) {
+        return deltas.stream()
+                .map(delta -> new IssueDelta(delta.appId(), delta.severity(), -delta.count()))
+                .toList();
+    }
+
+    /**
+     * Recounts one application from scan_results and security_issues and overwrites its aggregates if they drifted.
+     * Must run in a transaction: the app_stats row is locked before counting, so a delta committed by a writer
+     * waiting on it is applied on top of the recount instead of being lost or counted twice.
+     *
+     * @return whether the aggregates had drifted
+     */
+    public boolean reconcile(Integer appId, Instant now) {
+        jdbcTemplate.update(LOCK_SQL, appId);
+        AppStats stored = jdbcTemplate.queryForObject(FIND_FOR_UPDATE_SQL, (rs, rowNum) -> new AppStats(
+                rs.getLong("static_scan_count"), rs.getLong("dynamic_scan_count"), rs.getLong("total_issues")), appId);
+        Map<String, Long> storedSeverities = findSeverityCounts(appId);
+
+        Map<String, Long> scanCounts = new TreeMap<>();
+        jdbcTemplate.query(COUNT_SCANS_SQL, rs -> {
+            scanCounts.put(rs.getString("scan_type"), rs.getLong("scan_count"));
+        }, appId, ScanType.SCAN_TYPE_STATIC, ScanType.SCAN_TYPE_DYNAMIC);
+        Map<String, Long> severities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        jdbcTemplate.query(COUNT_ISSUES_SQL, rs -> {
+            severities.merge(rs.getString("severity"), rs.getLong("issue_count"), Long::sum);
+        }, appId);
+        AppStats actual = new AppStats(scanCounts.getOrDefault(ScanType.SCAN_TYPE_STATIC, 0L),
+                scanCounts.getOrDefault(ScanType.SCAN_TYPE_DYNAMIC, 0L),
+                severities.values().stream().mapToLong(Long::longValue).sum());
+
+        if (actual.equals(stored) && severities.equals(storedSeverities)) {
+            jdbcTemplate.update(MARK_RECONCILED_SQL, Timestamp.from(now), appId);
+            return false;
+        }
+        jdbcTemplate.update(OVERWRITE_SQL, actual.staticScanCount(), actual.dynamicScanCount(), actual.totalIssues(),
+                Timestamp.from(now), appId);
+        jdbcTemplate.update(DELETE_SEVERITIES_SQL, appId);
+        List<Map.Entry<String, Long>> rows = new ArrayList<>(severities.entrySet());
+        if (rows.isEmpty()) {
+            return true;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SEVERITY_SQL, rows, rows.size(), (ps, severity) -> {
+            ps.setInt(1, appId);
+            ps.setString(2, severity.getKey());
+            ps.setLong(3, severity.getValue());
+        });
+        return true;
+    }
+}
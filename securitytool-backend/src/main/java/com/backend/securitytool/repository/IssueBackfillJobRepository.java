@@ -0,0 +1,62 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.IssueBackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface IssueBackfillJobRepository extends JpaRepository<IssueBackfillJob, Integer> {
+
+    Optional<IssueBackfillJob> findFirstByStatusInOrderByIdAsc(Collection<String> statuses);
+
+    // Grows with every finding a backfill rewrites, committed together with the rewrite itself
+    @Query("SELECT COALESCE(SUM(j.updatedIssues), 0) FROM IssueBackfillJob j")
+    Long sumUpdatedIssues();
+
+    // Pause and resume; conditional, so the API and the running worker never overwrite each other's state
+    @Transactional
+    @Modifying
+    @Query("UPDATE IssueBackfillJob j SET j.status = :status, j.errorMessage = NULL, j.finishedAt = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status IN :from")
+    int transition(@Param("id") Integer id,
+                   @Param("from") Collection<String> from,
+                   @Param("status") String status,
+                   @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IssueBackfillJob j SET j.status = :status, j.startedAt = COALESCE(j.startedAt, :now), j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = :from")
+    int start(@Param("id") Integer id,
+              @Param("from") String from,
+              @Param("status") String status,
+              @Param("now") Instant now);
+
+    // Checkpoint after a chunk; returns 0 once the job is no longer running, e.g. paused meanwhile
+    @Transactional
+    @Modifying
+    @Query("UPDATE IssueBackfillJob j SET j.lastIssueId = :lastIssueId, j.scannedIssues = j.scannedIssues + :scanned, " +
+            "j.updatedIssues = j.updatedIssues + :updated, j.updatedAt = :now WHERE j.id = :id AND j.status = :status")
+    int advance(@Param("id") Integer id,
+                @Param("status") String status,
+                @Param("lastIssueId") Integer lastIssueId,
+                @Param("scanned") long scanned,
+                @Param("updated") long updated,
+                @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IssueBackfillJob j SET j.status = :status, j.errorMessage = :errorMessage, j.updatedAt = :now, " +
+            "j.finishedAt = :now WHERE j.id = :id AND j.status = :from")
+    int finish(@Param("id") Integer id,
+               @Param("from") String from,
+               @Param("status") String status,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") Instant now);
+}
@@ -0,0 +1,35 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReportJobRepository extends JpaRepository<ReportJob, Integer> {
+
+    List<ReportJob> findByStatusAndExpiresAtBefore(String status, Instant expiresBefore);
+
+    List<ReportJob> findByStatusAndStartedAtBefore(String status, Instant startedBefore);
+
+    // Newest report of a scan in a format rendered at the given mapping version, i.e. the cache lookup
+    Optional<ReportJob> findFirstByResultIdAndFormatAndMappingVersionAndStatusInOrderByIdDesc(Integer resultId,
+                                                                                           String format,
+                                                                                           Long mappingVersion,
+                                                                                           Collection<String> statuses);
+
+    // Claims a queued job; returns 0 if it was already picked up
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :status, j.startedAt = :now WHERE j.id = :id AND j.status = :from")
+    int start(@Param("id") Integer id,
+              @Param("from") String from,
+              @Param("status") String status,
+              @Param("now") Instant now);
+}
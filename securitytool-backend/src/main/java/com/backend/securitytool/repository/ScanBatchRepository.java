@@ -0,0 +1,7 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.ScanBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ScanBatchRepository extends JpaRepository<ScanBatch, Integer> {
+}
@@ -1,9 +1,23 @@
 package com.backend.securitytool.repository;
 
 import com.backend.securitytool.model.entity.ScanConfiguration;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 
 public interface ScanConfigurationRepository extends JpaRepository<ScanConfiguration, Integer> {
+
+    Optional<ScanConfiguration> findFirstByAppIdOrderByIdAsc(Integer appId);
+
+    // Enabled schedules that are due, or that have no next run computed yet
+    @Query("SELECT c FROM ScanConfiguration c JOIN FETCH c.app WHERE c.scheduleEnabled = true " +
+            "AND (c.nextRunAt IS NULL OR c.nextRunAt <= :now) ORDER BY c.nextRunAt ASC")
+    List<ScanConfiguration> findDueSchedules(@Param("now") Instant now, Pageable pageable);
 }
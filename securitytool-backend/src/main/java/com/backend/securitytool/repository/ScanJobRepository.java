@@ -0,0 +1,78 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.ScanJob;
+import com.backend.securitytool.model.entity.ScanResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ScanJobRepository extends JpaRepository<ScanJob, Integer> {
+
+    List<ScanJob> findByStatusAndStartedAtBefore(String status, Instant startedBefore);
+
+    // Dispatch candidates: standalone jobs, and per bulk batch its oldest jobs
+    List<ScanJob> findByStatusAndBatchIsNullOrderByCreatedAtAsc(String status, Pageable pageable);
+
+    List<ScanJob> findByStatusAndBatchIdOrderByCreatedAtAsc(String status, Integer batchId, Pageable pageable);
+
+    @Query("SELECT DISTINCT j.batch.id FROM ScanJob j WHERE j.status = :status AND j.batch IS NOT NULL")
+    List<Integer> findBatchIdsByStatus(@Param("status") String status);
+
+    @Query("SELECT DISTINCT j.app.id FROM ScanJob j WHERE j.status = :status")
+    List<Integer> findAppIdsByStatus(@Param("status") String status);
+
+    List<ScanJob> findByBatchIdOrderByIdAsc(Integer batchId);
+
+    @Query("SELECT j.status, COUNT(j) FROM ScanJob j WHERE j.batch.id = :batchId GROUP BY j.status")
+    List<Object[]> countByStatusForBatch(@Param("batchId") Integer batchId);
+
+    // Finished jobs count as 100%, running ones by the live progress of their scan result
+    @Query("SELECT AVG(CASE WHEN j.status IN ('completed', 'failed') THEN 100 ELSE COALESCE(r.progressPercent, 0) END) " +
+            "FROM ScanJob j LEFT JOIN j.result r WHERE j.batch.id = :batchId")
+    Double averageProgressForBatch(@Param("batchId") Integer batchId);
+
+    // Most recent job of an app, used to reuse the SonarQube project key it was scanned with
+    Optional<ScanJob> findFirstByAppIdAndScanTypeOrderByCreatedAtDesc(Integer appId, String scanType);
+
+    // Atomically move a job out of the pending state as the given attempt; returns 0 if another worker already claimed it
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScanJob j SET j.status = :newStatus, j.startedAt = :startedAt, j.attempts = j.attempts + 1 " +
+            "WHERE j.id = :jobId AND j.status = :expectedStatus AND j.attempts = :attempt - 1")
+    int claim(@Param("jobId") Integer jobId,
+              @Param("attempt") Integer attempt,
+              @Param("expectedStatus") String expectedStatus,
+              @Param("newStatus") String newStatus,
+              @Param("startedAt") Instant startedAt);
+
+    // Ends a running attempt; returns 0 if it was superseded (re-queued by the sweeper or already finished)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScanJob j SET j.status = :newStatus, j.errorMessage = :errorMessage, j.finishedAt = :finishedAt " +
+            "WHERE j.id = :jobId AND j.status = :expectedStatus AND j.attempts = :attempt")
+    int finish(@Param("jobId") Integer jobId,
+               @Param("expectedStatus") String expectedStatus,
+               @Param("attempt") Integer attempt,
+               @Param("newStatus") String newStatus,
+               @Param("errorMessage") String errorMessage,
+               @Param("finishedAt") Instant finishedAt);
+
+    // Puts a running attempt back to pending onto a fresh scan result; returns 0 if the attempt was superseded
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScanJob j SET j.status = :newStatus, j.result = :result, j.errorMessage = :errorMessage " +
+            "WHERE j.id = :jobId AND j.status = :expectedStatus AND j.attempts = :attempt")
+    int requeue(@Param("jobId") Integer jobId,
+                @Param("expectedStatus") String expectedStatus,
+                @Param("attempt") Integer attempt,
+                @Param("newStatus") String newStatus,
+                @Param("result") ScanResult result,
+                @Param("errorMessage") String errorMessage);
+}
@@ -0,0 +1,96 @@
+package com.backend.securitytool.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * References from scan results to the raw scanner responses in the payload blob store.
+ */
+@Repository
+public class ScanPayloadRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO scan_result_payloads " +
+            "(result_id, engine, kind, target, source_url, sha256, raw_bytes, stored_bytes, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_BY_RESULT_SQL = "SELECT payload_id, result_id, engine, kind, target, source_url, " +
+            "sha256, raw_bytes, stored_bytes, created_at FROM scan_result_payloads WHERE result_id = ? ORDER BY payload_id";
+
+    // A re-ingested scan references the same blobs as the scan it was derived from
+    private static final String COPY_SQL = "INSERT INTO scan_result_payloads " +
+            "(result_id, engine, kind, target, source_url, sha256, raw_bytes, stored_bytes, created_at) " +
+            "SELECT ?, engine, kind, target, source_url, sha256, raw_bytes, stored_bytes, created_at " +
+            "FROM scan_result_payloads WHERE result_id = ? ORDER BY payload_id";
+
+    private static final String EXISTS_SHA_SQL = "SELECT 1 FROM scan_result_payloads WHERE sha256 = ? LIMIT 1";
+
+    private static final String FIND_REFERENCED_SQL = "SELECT DISTINCT sha256 FROM scan_result_payloads WHERE sha256 IN (%s)";
+
+    /**
+     * One captured response of a scan.
+     */
+    public record StoredPayload(Long id, Integer resultId, String engine, String kind, String target, String sourceUrl,
+                                String sha256, long rawBytes, long storedBytes, Instant createdAt) {
+    }
+
+    private static final RowMapper<StoredPayload> ROW_MAPPER = (rs, rowNum) -> new StoredPayload(
+            rs.getLong("payload_id"),
+            rs.getInt("result_id"),
+            rs.getString("engine"),
+            rs.getString("kind"),
+            rs.getString("target"),
+            rs.getString("source_url"),
+            rs.getString("sha256"),
+            rs.getLong("raw_bytes"),
+            rs.getLong("stored_bytes"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ScanPayloadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(Integer resultId, String engine, String kind, String target, String sourceUrl,
+                       String sha256, long rawBytes, long storedBytes) {
+        jdbcTemplate.update(INSERT_SQL, resultId, engine, kind, target, sourceUrl, sha256, rawBytes, storedBytes,
+                Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Payloads of a scan in the order they were captured.
+     */
+    public List<StoredPayload> findByResultId(Integer resultId) {
+        return jdbcTemplate.query(FIND_BY_RESULT_SQL, ROW_MAPPER, resultId);
+    }
+
+    public int copyToResult(Integer sourceResultId, Integer targetResultId) {
+        return jdbcTemplate.update(COPY_SQL, targetResultId, sourceResultId);
+    }
+
+    public boolean isReferenced(String sha256) {
+        return !jdbcTemplate.queryForList(EXISTS_SHA_SQL, Integer.class, sha256).isEmpty();
+    }
+
+    /**
+     * The subset of {@code hashes} still referenced by some scan.
+     */
+    public Set<String> findReferenced(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", hashes.stream().map(hash -> "?").toList());
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(FIND_REFERENCED_SQL, placeholders), String.class,
+                hashes.toArray()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold storage of scan issues, see ScanRetentionService.
+ * Moving a scan's issues out of security_issues has to respect the carryover links of differential ingestion:
+ * an issue row stored by an old scan stays in place as long as a hot scan still carries it over,
+ * since deleting it would cascade into that scan's carryover rows and silently drop the finding from it.
+ */
+@Repository
+public class ScanResultArchiveRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO scan_result_archives " +
+            "(result_id, codec, payload, issue_count, raw_bytes, compressed_bytes, archived_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_SQL = "SELECT codec, payload FROM scan_result_archives WHERE result_id = ?";
+
+    private static final String DELETE_CARRYOVERS_SQL = "DELETE FROM security_issue_carryover WHERE result_id = ?";
+
+    // Carryovers of archived scans are gone by now, so any link left belongs to a hot scan
+    private static final String DELETE_UNREFERENCED_ISSUES_SQL = "DELETE FROM security_issues " +
+            "WHERE result_id = ? AND NOT EXISTS " +
+            "(SELECT 1 FROM security_issue_carryover c WHERE c.issue_id = security_issues.issue_id)";
+
+    private static final String COUNT_UNREFERENCED_ISSUES_SQL = "SELECT app_id, severity, COUNT(*) AS issue_count " +
+            "FROM security_issues WHERE result_id = ? AND NOT EXISTS " +
+            "(SELECT 1 FROM security_issue_carryover c WHERE c.issue_id = security_issues.issue_id) " +
+            "GROUP BY app_id, severity";
+
+    // Rows an archived scan had to leave behind for a hot scan that has since been archived too
+    private static final String ORPHANED_ISSUES_WHERE = "FROM security_issues s " +
+            "JOIN scan_results r ON r.result_id = s.result_id " +
+            "WHERE r.archived_at IS NOT NULL AND NOT EXISTS " +
+            "(SELECT 1 FROM security_issue_carryover c WHERE c.issue_id = s.issue_id)";
+
+    private static final String DELETE_ORPHANED_ISSUES_SQL = "DELETE s " + ORPHANED_ISSUES_WHERE;
+
+    private static final String COUNT_ORPHANED_ISSUES_SQL = "SELECT s.app_id, s.severity, COUNT(*) AS issue_count " +
+            ORPHANED_ISSUES_WHERE + " GROUP BY s.app_id, s.severity";
+
+    private static final String MARK_ARCHIVED_SQL = "UPDATE scan_results SET archived_at = ? WHERE result_id = ?";
+
+    /**
+     * Compressed issues of one scan as stored.
+     */
+    public record ArchivedPayload(String codec, byte[] payload) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ScanResultArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<ArchivedPayload> findPayload(Integer resultId) {
+        List<ArchivedPayload> payloads = jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> new ArchivedPayload(rs.getString("codec"), rs.getBytes("payload")), resultId);
+        return payloads.stream().findFirst();
+    }
+
+    /**
+     * The issue rows {@link #archive} is going to delete, per app and severity; read in the same transaction.
+     */
+    public List<IssueDelta> countReleasedIssues(Integer resultId) {
+        return jdbcTemplate.query(COUNT_UNREFERENCED_ISSUES_SQL, this::mapIssueCount, resultId);
+    }
+
+    /**
+     * The issue rows {@link #deleteOrphanedIssues} is going to delete, per app and severity; read in the same
+     * transaction.
+     */
+    public List<IssueDelta> countOrphanedIssues() {
+        return jdbcTemplate.query(COUNT_ORPHANED_ISSUES_SQL, this::mapIssueCount);
+    }
+
+    /**
+     * Stores the archive of {@code resultId} and removes its issues from the hot tables.
+     * Must run in the same transaction as the read of the issues that went into {@code payload}.
+     *
+     * @return the number of issue rows deleted
+     */
+    public int archive(Integer resultId, String codec, byte[] payload, int issueCount, long rawBytes, Instant archivedAt) {
+        jdbcTemplate.update(INSERT_SQL, resultId, codec, payload, issueCount, rawBytes, payload.length, Timestamp.from(archivedAt));
+        jdbcTemplate.update(DELETE_CARRYOVERS_SQL, resultId);
+        int deleted = jdbcTemplate.update(DELETE_UNREFERENCED_ISSUES_SQL, resultId);
+        jdbcTemplate.update(MARK_ARCHIVED_SQL, Timestamp.from(archivedAt), resultId);
+        return deleted;
+    }
+
+    /**
+     * Deletes issue rows of archived scans that no hot scan carries over anymore.
+     */
+    public int deleteOrphanedIssues() {
+        return jdbcTemplate.update(DELETE_ORPHANED_ISSUES_SQL);
+    }
+
+    private IssueDelta mapIssueCount(ResultSet rs, int rowNum) throws SQLException {
+        return new IssueDelta(rs.getObject("app_id") == null ? null : rs.getInt("app_id"),
+                rs.getString("severity"), rs.getLong("issue_count"));
+    }
+}
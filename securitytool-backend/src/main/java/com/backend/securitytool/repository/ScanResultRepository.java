@@ -2,8 +2,13 @@ package com.backend.securitytool.repository;
 
 import com.backend.securitytool.model.entity.ScanResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +16,52 @@ import java.util.Optional;
 public interface ScanResultRepository extends JpaRepository<ScanResult, Integer> {
     Optional<ScanResult> findFirstByAppIdOrderByScanDateDesc(Integer appId);
     List<ScanResult> findByAppIdAndScanType(Integer appId, String scanType);
+
+    // Report rendering reads the app name outside of any transaction
+    @Query("SELECT r FROM ScanResult r LEFT JOIN FETCH r.app WHERE r.id = :id")
+    Optional<ScanResult> findWithAppById(@Param("id") Integer id);
     long countByAppIdAndScanType(Integer appId, String scanType);
+
+    // Baseline for differential ingestion: the latest earlier full (not endpoint-scoped) scan of the same app and type
+    Optional<ScanResult> findFirstByAppIdAndScanTypeAndStatusAndEndpointScopeIsNullAndIdLessThanOrderByIdDesc(
+            Integer appId, String scanType, String status, Integer id);
+
+    // Retention: scans whose issues are still in security_issues, per app and newest first
+    @Query("SELECT r.app.id, COUNT(r) FROM ScanResult r WHERE r.archivedAt IS NULL GROUP BY r.app.id")
+    List<Object[]> countHotResultsByApp();
+
+    @Query("SELECT r.id FROM ScanResult r WHERE r.app.id = :appId AND r.archivedAt IS NULL ORDER BY r.id DESC")
+    List<Integer> findHotResultIds(@Param("appId") Integer appId);
+
+    // Current diff baselines of an app, one per scan type
+    @Query("SELECT MAX(r.id) FROM ScanResult r WHERE r.app.id = :appId AND r.status = :status " +
+            "AND r.endpointScope IS NULL GROUP BY r.scanType")
+    List<Integer> findLatestFullScanIds(@Param("appId") Integer appId, @Param("status") String status);
+
+    boolean existsByAppIdAndStatusIn(Integer appId, Collection<String> statuses);
+
+    @Query("SELECT r.status FROM ScanResult r WHERE r.id = :resultId")
+    Optional<String> findStatusById(@Param("resultId") Integer resultId);
+
+    // Serializes the final save of a run with the sweeper abandoning the same result; call within a transaction
+    @Query(value = "SELECT status FROM scan_results WHERE result_id = :resultId FOR UPDATE", nativeQuery = true)
+    Optional<String> lockStatus(@Param("resultId") Integer resultId);
+
+    // Progress updates only touch their own columns so they never race with the final result save.
+    // They match nothing once the result is no longer in progress, which tells a run it was abandoned.
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScanResult r SET r.currentPhase = :phase, r.progressPercent = :percent " +
+            "WHERE r.id = :resultId AND r.status = 'in-progress'")
+    int updateProgress(@Param("resultId") Integer resultId, @Param("phase") String phase, @Param("percent") Integer percent);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScanResult r SET r.spiderDurationMs = :spiderMs, r.ajaxSpiderDurationMs = :ajaxSpiderMs, " +
+            "r.activeScanDurationMs = :activeScanMs WHERE r.id = :resultId")
+    int updatePhaseDurations(@Param("resultId") Integer resultId,
+                             @Param("spiderMs") Long spiderMs,
+                             @Param("ajaxSpiderMs") Long ajaxSpiderMs,
+                             @Param("activeScanMs") Long activeScanMs);
 }
 
@@ -0,0 +1,166 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset access to security_issues for the derived-field backfill.
+ * Chunks are read by issue_id range with the slim columns only; the large text columns are loaded just for
+ * the rows whose content hash has to be recomputed.
+ */
+@Repository
+public class SecurityIssueBackfillRepository {
+
+    private static final String MAX_ISSUE_ID_SQL = "SELECT COALESCE(MAX(issue_id), 0) FROM security_issues";
+
+    // Resolved rows record the lifecycle of a finding, their status is not derived from the severity
+    private static final String FIND_CHUNK_SQL = "SELECT issue_id, issue_type, severity, status, content_hash " +
+            "FROM security_issues WHERE issue_id > ? AND issue_id <= ? AND (change_type IS NULL OR change_type <> ?) " +
+            "ORDER BY issue_id LIMIT ?";
+
+    private static final String FIND_CONTENT_SQL = "SELECT issue_id, description, solution, reference " +
+            "FROM security_issues WHERE issue_id IN (%s)";
+
+    // Only applied while the row still holds the values it was reclassified from
+    private static final String UPDATE_SQL = "UPDATE security_issues SET severity = ?, status = ?, content_hash = ? " +
+            "WHERE issue_id = ? AND severity = ? AND status = ?";
+
+    // Carryover rows keep a copy of their issue's severity rank for the issue query, see V15__issue_query_indexes.sql
+    private static final String SYNC_CARRYOVER_RANK_SQL = "UPDATE security_issue_carryover c " +
+            "JOIN security_issues s ON s.issue_id = c.issue_id SET c.severity_rank = s.severity_rank " +
+            "WHERE c.issue_id = ? AND c.severity_rank <> s.severity_rank";
+
+    private static final String FIND_SEVERITIES_SQL = "SELECT issue_id, app_id, severity FROM security_issues " +
+            "WHERE issue_id IN (%s)";
+
+    /**
+     * The fields of a stored finding a scanner mapping derives.
+     */
+    public record IssueRating(Integer issueId, String issueType, String severity, String status, String contentHash) {
+    }
+
+    /**
+     * The text fields that go into a finding's content hash besides its rating.
+     */
+    public record IssueContent(Integer issueId, String description, String solution, String reference) {
+    }
+
+    /**
+     * New values for a finding, together with the ones they were computed from.
+     */
+    public record Reclassification(IssueRating from, String severity, String status, String contentHash) {
+    }
+
+    private static final RowMapper<IssueRating> RATING_MAPPER = (rs, rowNum) -> new IssueRating(
+            rs.getInt("issue_id"),
+            rs.getString("issue_type"),
+            rs.getString("severity"),
+            rs.getString("status"),
+            rs.getString("content_hash"));
+
+    private static final RowMapper<IssueContent> CONTENT_MAPPER = (rs, rowNum) -> new IssueContent(
+            rs.getInt("issue_id"),
+            rs.getString("description"),
+            rs.getString("solution"),
+            rs.getString("reference"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SecurityIssueBackfillRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int findMaxIssueId() {
+        Integer maxIssueId = jdbcTemplate.queryForObject(MAX_ISSUE_ID_SQL, Integer.class);
+        return maxIssueId != null ? maxIssueId : 0;
+    }
+
+    /**
+     * Up to {@code limit} findings with {@code afterIssueId < issue_id <= maxIssueId}, in issue_id order.
+     */
+    public List<IssueRating> findChunk(int afterIssueId, int maxIssueId, int limit) {
+        return jdbcTemplate.query(FIND_CHUNK_SQL, RATING_MAPPER, afterIssueId, maxIssueId,
+                ScanType.ISSUE_CHANGE_RESOLVED, limit);
+    }
+
+    public List<IssueContent> findContent(Collection<Integer> issueIds) {
+        if (issueIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", issueIds.stream().map(id -> "?").toList());
+        return jdbcTemplate.query(String.format(FIND_CONTENT_SQL, placeholders), CONTENT_MAPPER, issueIds.toArray());
+    }
+
+    /**
+     * Writes the reclassifications in one JDBC batch, then refreshes the severity rank copied into the carryover
+     * rows of the findings whose severity changed. A row changed since it was read is left alone.
+     *
+     * @return the number of rows updated
+     */
+    public int update(List<Reclassification> reclassifications) {
+        if (reclassifications.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, reclassifications, reclassifications.size(), (ps, change) -> {
+            ps.setString(1, change.severity());
+            ps.setString(2, change.status());
+            ps.setString(3, change.contentHash());
+            ps.setInt(4, change.from().issueId());
+            ps.setString(5, change.from().severity());
+            ps.setString(6, change.from().status());
+        });
+        List<Integer> severityChanged = reclassifications.stream()
+                .filter(change -> !Objects.equals(change.severity(), change.from().severity()))
+                .map(change -> change.from().issueId())
+                .toList();
+        if (!severityChanged.isEmpty()) {
+            jdbcTemplate.batchUpdate(SYNC_CARRYOVER_RANK_SQL, severityChanged, severityChanged.size(),
+                    (ps, issueId) -> ps.setInt(1, issueId));
+        }
+        // The MySQL driver reports SUCCESS_NO_INFO (-2) for rewritten batches, count those as written
+        return Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : count)
+                .sum();
+    }
+
+    /**
+     * Dashboard aggregate deltas of the reclassifications that moved a finding to another severity. Rewritten
+     * batches do not report which rows matched, so the rows are read back; must run in the transaction of
+     * {@link #update}.
+     */
+    public List<IssueDelta> findSeverityShifts(List<Reclassification> reclassifications) {
+        Map<Integer, Reclassification> moved = reclassifications.stream()
+                .filter(change -> !Objects.equals(change.severity(), change.from().severity()))
+                .collect(Collectors.toMap(change -> change.from().issueId(), Function.identity()));
+        if (moved.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", moved.keySet().stream().map(id -> "?").toList());
+        List<IssueDelta> deltas = new ArrayList<>();
+        jdbcTemplate.query(String.format(FIND_SEVERITIES_SQL, placeholders), rs -> {
+            Reclassification change = moved.get(rs.getInt("issue_id"));
+            Integer appId = rs.getObject("app_id") == null ? null : rs.getInt("app_id");
+            if (Objects.equals(change.severity(), rs.getString("severity"))) {
+                deltas.add(new IssueDelta(appId, change.from().severity(), -1));
+                deltas.add(new IssueDelta(appId, change.severity(), 1));
+            }
+        }, moved.keySet().toArray());
+        return deltas;
+    }
+}
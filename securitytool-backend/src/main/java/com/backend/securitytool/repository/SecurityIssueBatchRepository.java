@@ -0,0 +1,170 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk insert path for scanner findings.
+ * SecurityIssue uses IDENTITY ids, which stops Hibernate from batching inserts, so scanners write
+ * through plain JDBC batches instead (combined with rewriteBatchedStatements on the MySQL driver).
+ */
+@Repository
+public class SecurityIssueBatchRepository {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityIssueBatchRepository.class);
+
+    private static final String INSERT_SQL = "INSERT INTO security_issues " +
+            "(result_id, endpoint_id, module_id, app_id, issue_type, severity, status, description, solution, reference, " +
+            "fingerprint, content_hash, change_type) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CARRYOVER_SQL =
+            "INSERT INTO security_issue_carryover (result_id, issue_id, severity_rank) VALUES (?, ?, ?)";
+
+    // Resolved findings are copied server side so the large text columns never travel over the wire
+    private static final String COPY_AS_RESOLVED_SQL = "INSERT INTO security_issues " +
+            "(result_id, endpoint_id, module_id, app_id, issue_type, severity, status, description, solution, reference, " +
+            "fingerprint, content_hash, change_type) " +
+            "SELECT ?, endpoint_id, module_id, app_id, issue_type, severity, ?, description, solution, reference, " +
+            "fingerprint, content_hash, ? FROM security_issues WHERE issue_id = ?";
+
+    private static final String COUNT_RESOLVED_SQL = "SELECT app_id, severity, COUNT(*) AS issue_count FROM security_issues " +
+            "WHERE result_id = ? AND change_type = ? GROUP BY app_id, severity";
+
+    // Findings still open after a scan: the rows it stored itself plus the ones it carried over
+    private static final String OPEN_FINGERPRINTS_SQL =
+            "SELECT issue_id, fingerprint, content_hash, endpoint_id, severity_rank FROM security_issues " +
+            "WHERE result_id = ? AND fingerprint IS NOT NULL AND (change_type IS NULL OR change_type <> ?) " +
+            "UNION ALL " +
+            "SELECT s.issue_id, s.fingerprint, s.content_hash, s.endpoint_id, s.severity_rank FROM security_issue_carryover c " +
+            "JOIN security_issues s ON s.issue_id = c.issue_id WHERE c.result_id = ?";
+
+    /**
+     * Slim view of a stored finding, enough to diff a new scan against it and carry it over.
+     */
+    public record StoredFingerprint(Integer issueId, String contentHash, Integer endpointId, int severityRank) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${scan.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public SecurityIssueBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts all issues in JDBC batches of {@code scan.ingest.batch-size} rows.
+     * Generated ids are not read back; callers only need the rows persisted.
+     *
+     * @return the number of rows written
+     */
+    public int insertAll(List<SecurityIssue> issues) {
+        if (issues == null || issues.isEmpty()) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        jdbcTemplate.batchUpdate(INSERT_SQL, issues, batchSize, this::bind);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        logger.debug("Batch inserted {} security issues in {} ms ({} rows/sec)",
+                issues.size(), elapsedMs, issues.size() * 1000L / elapsedMs);
+        return issues.size();
+    }
+
+    /**
+     * Links unchanged findings stored by an earlier scan to {@code resultId}, with the severity rank the issue
+     * query pages them by.
+     */
+    public int insertCarryovers(Integer resultId, List<StoredFingerprint> findings) {
+        if (findings == null || findings.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CARRYOVER_SQL, findings, batchSize, (ps, finding) -> {
+            ps.setInt(1, resultId);
+            ps.setInt(2, finding.issueId());
+            ps.setInt(3, finding.severityRank());
+        });
+        return findings.size();
+    }
+
+    /**
+     * Records findings that disappeared since the baseline scan as resolved rows of {@code resultId}.
+     */
+    public int copyAsResolved(Integer resultId, List<Integer> issueIds) {
+        if (issueIds == null || issueIds.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(COPY_AS_RESOLVED_SQL, issueIds, batchSize, (ps, issueId) -> {
+            ps.setInt(1, resultId);
+            ps.setString(2, ScanType.ISSUE_STATUS_RESOLVED);
+            ps.setString(3, ScanType.ISSUE_CHANGE_RESOLVED);
+            ps.setInt(4, issueId);
+        });
+        return issueIds.size();
+    }
+
+    /**
+     * The resolved rows of {@code resultId} per app and severity, for the dashboard aggregates of the rows
+     * {@link #copyAsResolved} stored.
+     */
+    public List<IssueDelta> countResolved(Integer resultId) {
+        return jdbcTemplate.query(COUNT_RESOLVED_SQL, (rs, rowNum) -> new IssueDelta(
+                rs.getObject("app_id") == null ? null : rs.getInt("app_id"),
+                rs.getString("severity"), rs.getLong("issue_count")), resultId, ScanType.ISSUE_CHANGE_RESOLVED);
+    }
+
+    /**
+     * Fingerprints of the findings that were open after scan {@code resultId}, keyed by fingerprint.
+     * Rows ingested before fingerprinting existed have no fingerprint and are ignored.
+     */
+    public Map<String, StoredFingerprint> findOpenFingerprints(Integer resultId) {
+        Map<String, StoredFingerprint> fingerprints = new HashMap<>();
+        jdbcTemplate.query(OPEN_FINGERPRINTS_SQL, rs -> {
+            fingerprints.put(rs.getString("fingerprint"),
+                    new StoredFingerprint(rs.getInt("issue_id"), rs.getString("content_hash"),
+                            rs.getObject("endpoint_id") == null ? null : rs.getInt("endpoint_id"),
+                            rs.getInt("severity_rank")));
+        }, resultId, ScanType.ISSUE_CHANGE_RESOLVED, resultId);
+        return fingerprints;
+    }
+
+    private void bind(PreparedStatement ps, SecurityIssue issue) throws SQLException {
+        setInteger(ps, 1, issue.getResult() != null ? issue.getResult().getId() : null);
+        setInteger(ps, 2, issue.getEndpoint() != null ? issue.getEndpoint().getId() : null);
+        setInteger(ps, 3, issue.getModule() != null ? issue.getModule().getId() : null);
+        setInteger(ps, 4, issue.getAppId());
+        ps.setString(5, issue.getIssueType());
+        ps.setString(6, issue.getSeverity());
+        ps.setString(7, issue.getStatus() != null ? issue.getStatus() : ScanType.ISSUE_STATUS_OPEN);
+        ps.setString(8, issue.getDescription());
+        ps.setString(9, issue.getSolution());
+        ps.setString(10, issue.getReference());
+        ps.setString(11, issue.getFingerprint());
+        ps.setString(12, issue.getContentHash());
+        ps.setString(13, issue.getChangeType());
+    }
+
+    private void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only reads of security_issues for exports.
+ * The MySQL driver streams rows one by one instead of buffering the whole result set, and each row is mapped
+ * to a detached issue, so neither a persistence context nor a result list grows with the scan.
+ * Only the issue's own columns are mapped, relations stay unset.
+ */
+@Repository
+public class SecurityIssueCursorRepository {
+
+    // Same rows as SecurityIssueRepository.findByResultId: stored by the scan plus carried over into it
+    private static final String STREAM_BY_RESULT_SQL =
+            "SELECT s.issue_id, s.app_id, s.issue_type, s.severity, s.status, s.description, s.solution, s.reference, " +
+            "s.fingerprint, s.content_hash, s.change_type FROM security_issues s WHERE s.result_id = ? " +
+            "UNION ALL " +
+            "SELECT s.issue_id, s.app_id, s.issue_type, s.severity, s.status, s.description, s.solution, s.reference, " +
+            "s.fingerprint, s.content_hash, s.change_type FROM security_issues s " +
+            "JOIN security_issue_carryover c ON c.issue_id = s.issue_id WHERE c.result_id = ?";
+
+    private static final RowMapper<SecurityIssue> ROW_MAPPER = (rs, rowNum) -> {
+        SecurityIssue issue = new SecurityIssue();
+        issue.setId(rs.getInt("issue_id"));
+        issue.setAppId(rs.getObject("app_id") == null ? null : rs.getInt("app_id"));
+        issue.setIssueType(rs.getString("issue_type"));
+        issue.setSeverity(rs.getString("severity"));
+        issue.setStatus(rs.getString("status"));
+        issue.setDescription(rs.getString("description"));
+        issue.setSolution(rs.getString("solution"));
+        issue.setReference(rs.getString("reference"));
+        issue.setFingerprint(rs.getString("fingerprint"));
+        issue.setContentHash(rs.getString("content_hash"));
+        issue.setChangeType(rs.getString("change_type"));
+        return issue;
+    };
+
+    // Fetch size the MySQL driver reads as "stream the result set row by row"
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SecurityIssueCursorRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Issues of a scan in no particular order. The stream holds a connection until it is closed,
+     * so callers must close it, e.g. with try-with-resources.
+     */
+    public Stream<SecurityIssue> streamByResultId(Integer resultId) {
+        return jdbcTemplate.queryForStream(STREAM_BY_RESULT_SQL, ROW_MAPPER, resultId, resultId);
+    }
+}
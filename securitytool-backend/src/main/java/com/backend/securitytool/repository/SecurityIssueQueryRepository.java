@@ -0,0 +1,275 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.util.SeverityRank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated reads of a scan's issues for the issue query API, ordered by severity rank and issue id,
+ * both descending, so the most severe findings come first.
+ * <p>
+ * A page seeks past the last row of the previous one instead of skipping an offset, so page 1000 costs the same
+ * as page 1. A scan's issues are the rows it stored plus the ones it carried over (see SecurityIssueRepository);
+ * each branch is read in index order from (result_id, severity_rank, issue_id) and limited on its own before
+ * the two are merged. Only the requested fields are selected, and the LONGTEXT columns are read in a second
+ * query for the rows of the page alone.
+ */
+@Repository
+public class SecurityIssueQueryRepository {
+
+    /**
+     * A field of the API, the column it is read from and the entity property it mirrors for issues that are not
+     * read from the table (archived scans); text fields are the LONGTEXT columns.
+     */
+    private record Field(String name, String column, boolean text, ColumnReader reader,
+                         Function<SecurityIssue, Object> property) {
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, String column) throws SQLException;
+    }
+
+    private static final ColumnReader INTEGER = (rs, column) -> {
+        Object value = rs.getObject(column);
+        return value == null ? null : ((Number) value).intValue();
+    };
+    private static final ColumnReader STRING = ResultSet::getString;
+    private static final ColumnReader INSTANT = (rs, column) -> {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toInstant();
+    };
+
+    // In the order the fields are returned when none are requested
+    private static final List<Field> FIELDS = List.of(
+            new Field("id", "issue_id", false, INTEGER, SecurityIssue::getId),
+            new Field("resultId", "result_id", false, INTEGER,
+                    issue -> issue.getResult() != null ? issue.getResult().getId() : null),
+            new Field("appId", "app_id", false, INTEGER, SecurityIssue::getAppId),
+            new Field("endpointId", "endpoint_id", false, INTEGER,
+                    issue -> issue.getEndpoint() != null ? issue.getEndpoint().getId() : null),
+            new Field("moduleId", "module_id", false, INTEGER,
+                    issue -> issue.getModule() != null ? issue.getModule().getId() : null),
+            new Field("issueType", "issue_type", false, STRING, SecurityIssue::getIssueType),
+            new Field("severity", "severity", false, STRING, SecurityIssue::getSeverity),
+            new Field("status", "status", false, STRING, SecurityIssue::getStatus),
+            new Field("changeType", "change_type", false, STRING, SecurityIssue::getChangeType),
+            new Field("fingerprint", "fingerprint", false, STRING, SecurityIssue::getFingerprint),
+            // Not mapped on the entity, archived issues have none
+            new Field("createdAt", "created_at", false, INSTANT, issue -> null),
+            new Field("description", "description", true, STRING, SecurityIssue::getDescription),
+            new Field("solution", "solution", true, STRING, SecurityIssue::getSolution),
+            new Field("reference", "reference", true, STRING, SecurityIssue::getReference));
+
+    private static final String OWN_ROWS_SQL =
+            "(SELECT %s, s.severity_rank FROM security_issues s WHERE s.result_id = ?%s " +
+            "ORDER BY s.severity_rank DESC, s.issue_id DESC LIMIT ?)";
+
+    private static final String CARRIED_ROWS_SQL =
+            "(SELECT %s, c.severity_rank FROM security_issue_carryover c JOIN security_issues s ON s.issue_id = c.issue_id " +
+            "WHERE c.result_id = ?%s ORDER BY c.severity_rank DESC, c.issue_id DESC LIMIT ?)";
+
+    private static final String PAGE_SQL = "SELECT * FROM (%s UNION ALL %s) page " +
+            "ORDER BY page.severity_rank DESC, page.issue_id DESC LIMIT ?";
+
+    private static final String TEXT_SQL = "SELECT s.issue_id, %s FROM security_issues s WHERE s.issue_id IN (%s)";
+
+    /**
+     * Filters of a page; null or empty values do not filter.
+     */
+    public record IssueFilter(List<String> severities, List<String> statuses, List<String> issueTypes,
+                              Integer endpointId, Integer moduleId) {
+
+        /**
+         * Same test as the SQL filter, case-insensitive like the table's collation.
+         */
+        public boolean matches(SecurityIssue issue) {
+            return matchesAny(severities, issue.getSeverity())
+                    && matchesAny(statuses, issue.getStatus())
+                    && matchesAny(issueTypes, issue.getIssueType())
+                    && (endpointId == null || (issue.getEndpoint() != null && endpointId.equals(issue.getEndpoint().getId())))
+                    && (moduleId == null || (issue.getModule() != null && moduleId.equals(issue.getModule().getId())));
+        }
+
+        private static boolean matchesAny(List<String> values, String value) {
+            return values == null || values.isEmpty()
+                    || (value != null && values.stream().anyMatch(value::equalsIgnoreCase));
+        }
+    }
+
+    /**
+     * Position of the last row of the previous page.
+     */
+    public record Seek(int severityRank, int issueId) {
+
+        public boolean isBefore(int severityRank, int issueId) {
+            return severityRank < this.severityRank || (severityRank == this.severityRank && issueId < this.issueId);
+        }
+    }
+
+    /**
+     * One issue of a page with the requested fields, in the requested order.
+     */
+    public record IssueRow(int severityRank, int issueId, Map<String, Object> fields) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SecurityIssueQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static List<String> fieldNames() {
+        return FIELDS.stream().map(Field::name).toList();
+    }
+
+    public static List<String> defaultFieldNames() {
+        return FIELDS.stream().filter(field -> !field.text()).map(Field::name).toList();
+    }
+
+    /**
+     * The page row of an issue that was not read from the table, with the requested fields.
+     */
+    public static IssueRow toRow(SecurityIssue issue, List<String> fieldNames) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String name : fieldNames) {
+            values.put(name, field(name).property().apply(issue));
+        }
+        return new IssueRow(SeverityRank.of(issue.getSeverity()), issue.getId(), values);
+    }
+
+    /**
+     * Up to {@code limit} issues of scan {@code resultId} after {@code after} (from the start if null).
+     *
+     * @param fieldNames fields to return, all known to {@link #fieldNames()}
+     */
+    public List<IssueRow> findPage(Integer resultId, IssueFilter filter, Seek after, List<String> fieldNames, int limit) {
+        List<Field> fields = fieldNames.stream().map(SecurityIssueQueryRepository::field).toList();
+        List<Field> rowFields = fields.stream().filter(field -> !field.text() && !"issue_id".equals(field.column())).toList();
+        List<Field> textFields = fields.stream().filter(Field::text).toList();
+
+        StringBuilder columns = new StringBuilder("s.issue_id");
+        for (Field field : rowFields) {
+            columns.append(", s.").append(field.column());
+        }
+        List<Object> ownArgs = new ArrayList<>();
+        String ownWhere = where(filter, after, "s", ownArgs);
+        List<Object> carriedArgs = new ArrayList<>();
+        String carriedWhere = where(filter, after, "c", carriedArgs);
+
+        List<Object> args = new ArrayList<>();
+        args.add(resultId);
+        args.addAll(ownArgs);
+        args.add(limit);
+        args.add(resultId);
+        args.addAll(carriedArgs);
+        args.add(limit);
+        args.add(limit);
+        String sql = String.format(PAGE_SQL,
+                String.format(OWN_ROWS_SQL, columns, ownWhere),
+                String.format(CARRIED_ROWS_SQL, columns, carriedWhere));
+
+        List<Map<String, Object>> rowValues = new ArrayList<>();
+        List<Seek> positions = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            Map<String, Object> values = new HashMap<>();
+            values.put("issue_id", rs.getInt("issue_id"));
+            for (Field field : rowFields) {
+                values.put(field.column(), field.reader().read(rs, field.column()));
+            }
+            rowValues.add(values);
+            positions.add(new Seek(rs.getInt("severity_rank"), rs.getInt("issue_id")));
+        }, args.toArray());
+
+        Map<Integer, Map<String, Object>> texts = textFields.isEmpty() || positions.isEmpty()
+                ? Map.of()
+                : findTexts(textFields, positions);
+
+        List<IssueRow> page = new ArrayList<>(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            Seek position = positions.get(i);
+            Map<String, Object> values = rowValues.get(i);
+            Map<String, Object> text = texts.getOrDefault(position.issueId(), Map.of());
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (Field field : fields) {
+                result.put(field.name(), field.text() ? text.get(field.column()) : values.get(field.column()));
+            }
+            page.add(new IssueRow(position.severityRank(), position.issueId(), result));
+        }
+        return page;
+    }
+
+    private Map<Integer, Map<String, Object>> findTexts(List<Field> textFields, List<Seek> positions) {
+        StringBuilder columns = new StringBuilder();
+        for (Field field : textFields) {
+            columns.append(columns.length() == 0 ? "" : ", ").append("s.").append(field.column());
+        }
+        String placeholders = String.join(", ", positions.stream().map(position -> "?").toList());
+        Map<Integer, Map<String, Object>> texts = new HashMap<>();
+        jdbcTemplate.query(String.format(TEXT_SQL, columns, placeholders), rs -> {
+            Map<String, Object> values = new HashMap<>();
+            for (Field field : textFields) {
+                values.put(field.column(), field.reader().read(rs, field.column()));
+            }
+            texts.put(rs.getInt("issue_id"), values);
+        }, positions.stream().map(Seek::issueId).toArray());
+        return texts;
+    }
+
+    /**
+     * Filter and seek predicates of one branch; {@code rankAlias} is the table the rank and id are read from,
+     * so the carried-over branch seeks on the carryover index.
+     */
+    private static String where(IssueFilter filter, Seek after, String rankAlias, List<Object> args) {
+        StringBuilder where = new StringBuilder();
+        in(where, "s.severity", filter.severities(), args);
+        in(where, "s.status", filter.statuses(), args);
+        in(where, "s.issue_type", filter.issueTypes(), args);
+        if (filter.endpointId() != null) {
+            where.append(" AND s.endpoint_id = ?");
+            args.add(filter.endpointId());
+        }
+        if (filter.moduleId() != null) {
+            where.append(" AND s.module_id = ?");
+            args.add(filter.moduleId());
+        }
+        if (after != null) {
+            // Expanded instead of a row comparison, which MySQL does not turn into an index range
+            where.append(" AND (").append(rankAlias).append(".severity_rank < ? OR (")
+                    .append(rankAlias).append(".severity_rank = ? AND ").append(rankAlias).append(".issue_id < ?))");
+            args.add(after.severityRank());
+            args.add(after.severityRank());
+            args.add(after.issueId());
+        }
+        return where.toString();
+    }
+
+    private static void in(StringBuilder where, String column, List<String> values, List<Object> args) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        where.append(" AND ").append(column).append(" IN (")
+                .append(String.join(", ", values.stream().map(value -> "?").toList())).append(")");
+        args.addAll(values);
+    }
+
+    private static Field field(String name) {
+        return FIELDS.stream()
+                .filter(field -> field.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown issue field: " + name));
+    }
+}
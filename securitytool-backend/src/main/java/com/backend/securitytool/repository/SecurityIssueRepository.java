@@ -24,6 +24,12 @@ public interface SecurityIssueRepository extends JpaRepository<SecurityIssue, In
     List<Object[]> countBySeverity();
 
     List<SecurityIssue> findByResultAppId(Integer appId);
-    List<SecurityIssue> findByResultId(Integer resultId);
+
+    // Issues of a scan: the rows it stored (new, changed, resolved) plus the unchanged ones carried over from earlier scans
+    @Query(value = "SELECT s.* FROM security_issues s WHERE s.result_id = :resultId " +
+            "UNION ALL " +
+            "SELECT s.* FROM security_issues s JOIN security_issue_carryover c ON c.issue_id = s.issue_id " +
+            "WHERE c.result_id = :resultId", nativeQuery = true)
+    List<SecurityIssue> findByResultId(@Param("resultId") Integer resultId);
     // Other existing methods...
 }
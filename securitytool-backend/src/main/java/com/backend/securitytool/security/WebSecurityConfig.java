@@ -37,6 +37,7 @@ public class WebSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                             "/api/auth/**",
+                            "/api/scanners/health", // summary only, /api/scanners/health/details needs auth
                             "/v3/api-docs/**",
                             "/swagger-ui/**",
                             "/swagger-ui.html",
@@ -10,6 +10,7 @@ import com.backend.securitytool.model.dto.response.PagedApplicationResponseDTO;
 import com.backend.securitytool.model.entity.TargetApplication;
 import com.backend.securitytool.util.EncryptionUtil;
 import com.backend.securitytool.repository.TargetApplicationRepository;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcherCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -112,7 +114,10 @@ public class AppManagementServiceImpl implements AppManagementService{
         return applicationMapper.toResponseDTO(updatedApp);
     }
 
-    @CacheEvict(value = "apps", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "apps", allEntries = true),
+            @CacheEvict(value = ApiEndpointMatcherCache.CACHE_NAME, key = "#id")
+    })
     public void deleteApp(Integer id) {
         logger.debug("Deleting application with ID: {}", id);
         TargetApplication app = repository.findById(id)
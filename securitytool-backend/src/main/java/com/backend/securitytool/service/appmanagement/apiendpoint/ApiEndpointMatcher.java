@@ -0,0 +1,109 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves request paths to the catalogued API endpoints of one application.
+ * The endpoint paths are compiled into a trie of path segments, so a lookup costs one map probe per
+ * segment of the request path no matter how large the catalog is. Template segments such as {@code {id}}
+ * match any single segment; at every position a literal segment wins over a template, so
+ * {@code /users/me} beats {@code /users/{id}}. Matchers are immutable and safe to share between threads.
+ */
+public class ApiEndpointMatcher {
+    private static final String ANY_METHOD = "*";
+
+    private final Node root = new Node();
+    private final List<ApiEndpoint> endpoints;
+
+    public ApiEndpointMatcher(Collection<ApiEndpoint> endpoints) {
+        this.endpoints = List.copyOf(endpoints);
+        for (ApiEndpoint endpoint : this.endpoints) {
+            if (endpoint.getPath() == null) {
+                continue;
+            }
+            Node node = root;
+            for (String segment : segments(endpoint.getPath())) {
+                node = isTemplate(segment)
+                        ? (node.template != null ? node.template : (node.template = new Node()))
+                        : node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+            String method = endpoint.getMethod() == null || endpoint.getMethod().isBlank()
+                    ? ANY_METHOD : endpoint.getMethod().toUpperCase();
+            // The first endpoint of a path and method wins, duplicates in the catalog are ignored
+            node.endpointsByMethod.putIfAbsent(method, endpoint);
+        }
+    }
+
+    /**
+     * The endpoints the matcher was built from.
+     */
+    public List<ApiEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @param method HTTP method of the request; blank matches endpoints of any method
+     * @param path   request path, with or without query
+     * @return the best matching endpoint, or null when none matches
+     */
+    public ApiEndpoint match(String method, String path) {
+        String normalizedMethod = method == null || method.isBlank() ? null : method.toUpperCase();
+        return match(root, segments(path), 0, normalizedMethod);
+    }
+
+    private ApiEndpoint match(Node node, String[] segments, int index, String method) {
+        if (index == segments.length) {
+            return node.endpointFor(method);
+        }
+        Node literal = node.literals.get(segments[index]);
+        if (literal != null) {
+            ApiEndpoint found = match(literal, segments, index + 1, method);
+            if (found != null) {
+                return found;
+            }
+        }
+        // Only backtracks into the template branch when the literal branch has no endpoint for the rest of the path
+        return node.template == null ? null : match(node.template, segments, index + 1, method);
+    }
+
+    public static boolean isTemplate(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    /**
+     * Path segments with empty ones dropped, so leading, trailing and doubled slashes do not matter.
+     */
+    public static String[] segments(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+        int query = path.indexOf('?');
+        String pathOnly = query >= 0 ? path.substring(0, query) : path;
+        return Arrays.stream(pathOnly.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, ApiEndpoint> endpointsByMethod = new HashMap<>(4);
+        private Node template;
+
+        private ApiEndpoint endpointFor(String method) {
+            if (endpointsByMethod.isEmpty()) {
+                return null;
+            }
+            if (method == null) {
+                return endpointsByMethod.values().iterator().next();
+            }
+            ApiEndpoint endpoint = endpointsByMethod.get(method);
+            return endpoint != null ? endpoint : endpointsByMethod.get(ANY_METHOD);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.backend.securitytool.repository.ApiEndpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * One compiled {@link ApiEndpointMatcher} per application, built on first use and kept in the
+ * {@value #CACHE_NAME} cache. Writers of the endpoint catalog evict the entry of their app.
+ */
+@Component
+public class ApiEndpointMatcherCache {
+    public static final String CACHE_NAME = "endpointMatchers";
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiEndpointMatcherCache.class);
+
+    private final ApiEndpointRepository apiEndpointRepository;
+
+    @Autowired
+    public ApiEndpointMatcherCache(ApiEndpointRepository apiEndpointRepository) {
+        this.apiEndpointRepository = apiEndpointRepository;
+    }
+
+    @Cacheable(value = CACHE_NAME, key = "#appId")
+    public ApiEndpointMatcher forApp(Integer appId) {
+        long startedAt = System.currentTimeMillis();
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(apiEndpointRepository.findByAppId(appId));
+        logger.debug("Compiled endpoint matcher for appId: {} ({} endpoints) in {} ms",
+                appId, matcher.getEndpoints().size(), System.currentTimeMillis() - startedAt);
+        return matcher;
+    }
+}
@@ -1,11 +1,14 @@
 package com.backend.securitytool.service.appmanagement.apiendpoint;
 
 import com.backend.securitytool.model.dto.request.ApiEndpointRequestDTO;
+import com.backend.securitytool.model.dto.response.ApiEndpointImportResponseDTO;
 import com.backend.securitytool.model.dto.response.ApiEndpointResponseDTO;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ApiEndpointService {
     List<ApiEndpointResponseDTO> getApiEndpoints(Integer appId);
     ApiEndpointResponseDTO addApiEndpoint(Integer appId, ApiEndpointRequestDTO dto);
+    ApiEndpointImportResponseDTO importOpenApi(Integer appId, InputStream document, boolean removeMissing);
 }
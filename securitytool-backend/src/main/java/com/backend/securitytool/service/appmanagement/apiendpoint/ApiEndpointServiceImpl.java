@@ -1,12 +1,15 @@
 package com.backend.securitytool.service.appmanagement.apiendpoint;
 
 import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.exception.BadRequestException;
 import com.backend.securitytool.exception.ResourceNotFoundException;
 import com.backend.securitytool.mapper.ApiEndpointMapper;
 import com.backend.securitytool.model.dto.request.ApiEndpointRequestDTO;
+import com.backend.securitytool.model.dto.response.ApiEndpointImportResponseDTO;
 import com.backend.securitytool.model.dto.response.ApiEndpointResponseDTO;
 import com.backend.securitytool.model.entity.ApiEndpoint;
 import com.backend.securitytool.model.entity.TargetApplication;
+import com.backend.securitytool.repository.ApiEndpointBatchRepository;
 import com.backend.securitytool.repository.ApiEndpointRepository;
 import com.backend.securitytool.repository.TargetApplicationRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +17,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,17 +38,26 @@ import java.util.stream.Collectors;
 public class ApiEndpointServiceImpl implements ApiEndpointService {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiEndpointServiceImpl.class);
+    // Column sizes of api_endpoints
+    private static final int MAX_PATH_LENGTH = 255;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final OpenApiEndpointReader openApiReader = new OpenApiEndpointReader();
 
 
     private ApiEndpointRepository apiEndpointRepository;
     private TargetApplicationRepository targetApplicationRepository;
     private ApiEndpointMapper apiEndpointMapper;
+    private ApiEndpointBatchRepository apiEndpointBatchRepository;
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
-    public ApiEndpointServiceImpl(ApiEndpointRepository apiEndpointRepository, TargetApplicationRepository targetApplicationRepository, ApiEndpointMapper apiEndpointMapper) {
+    public ApiEndpointServiceImpl(ApiEndpointRepository apiEndpointRepository, TargetApplicationRepository targetApplicationRepository, ApiEndpointMapper apiEndpointMapper,
+                                  ApiEndpointBatchRepository apiEndpointBatchRepository, TransactionTemplate transactionTemplate) {
         this.apiEndpointRepository = apiEndpointRepository;
         this.targetApplicationRepository = targetApplicationRepository;
         this.apiEndpointMapper = apiEndpointMapper;
+        this.apiEndpointBatchRepository = apiEndpointBatchRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public List<ApiEndpointResponseDTO> getApiEndpoints(Integer appId) {
@@ -48,6 +70,7 @@ public class ApiEndpointServiceImpl implements ApiEndpointService {
                 .collect(Collectors.toList());
     }
 
+    @CacheEvict(value = ApiEndpointMatcherCache.CACHE_NAME, key = "#appId")
     public ApiEndpointResponseDTO addApiEndpoint(Integer appId, ApiEndpointRequestDTO dto) {
         logger.debug("Adding API endpoint for appId: {}", appId);
         TargetApplication app = targetApplicationRepository.findById(appId)
@@ -58,4 +81,92 @@ public class ApiEndpointServiceImpl implements ApiEndpointService {
         ApiEndpoint savedEndpoint = apiEndpointRepository.save(endpoint);
         return apiEndpointMapper.toResponseDTO(savedEndpoint);
     }
+
+    /**
+     * Upserts every operation of an OpenAPI 3 / Swagger 2 document into the catalog of the app, keyed by method and path.
+     * The document is streamed, the diff against the current catalog is computed in memory and written in JDBC batches.
+     * Endpoints missing from the document are reported as removed, and only deleted when {@code removeMissing} is set.
+     * All writes commit together. The cached matcher is evicted up front, so a failed import never leaves it behind,
+     * and again after the commit, dropping a matcher compiled from the old catalog while the import ran.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = ApiEndpointMatcherCache.CACHE_NAME, key = "#appId", beforeInvocation = true),
+            @CacheEvict(value = ApiEndpointMatcherCache.CACHE_NAME, key = "#appId")
+    })
+    public ApiEndpointImportResponseDTO importOpenApi(Integer appId, InputStream document, boolean removeMissing) {
+        long startedAt = System.currentTimeMillis();
+        targetApplicationRepository.findById(appId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
+        Map<String, ApiEndpoint> existing = apiEndpointRepository.findByAppId(appId).stream()
+                .collect(Collectors.toMap(this::key, Function.identity(), (first, duplicate) -> first, LinkedHashMap::new));
+
+        Map<String, ApiEndpoint> imported = new LinkedHashMap<>();
+        int operations;
+        try {
+            operations = openApiReader.read(document, operation -> {
+                if (operation.path().length() > MAX_PATH_LENGTH) {
+                    logger.warn("Skipping {} {}: path longer than {} characters", operation.method(), operation.path(), MAX_PATH_LENGTH);
+                    return;
+                }
+                ApiEndpoint endpoint = new ApiEndpoint();
+                endpoint.setPath(operation.path());
+                endpoint.setMethod(operation.method());
+                endpoint.setParams(truncate(operation.params()));
+                endpoint.setResponseFormat(truncate(operation.responseFormat()));
+                imported.putIfAbsent(key(endpoint), endpoint);
+            });
+        } catch (IOException e) {
+            throw new BadRequestException(ErrorMessages.OPENAPI_DOCUMENT_INVALID + e.getMessage());
+        }
+
+        ApiEndpointImportResponseDTO diff = new ApiEndpointImportResponseDTO();
+        diff.setAppId(appId);
+        diff.setOperations(operations);
+        List<ApiEndpoint> toInsert = new ArrayList<>();
+        List<ApiEndpoint> toUpdate = new ArrayList<>();
+        for (Map.Entry<String, ApiEndpoint> entry : imported.entrySet()) {
+            ApiEndpoint current = existing.remove(entry.getKey());
+            ApiEndpoint incoming = entry.getValue();
+            if (current == null) {
+                toInsert.add(incoming);
+                diff.getAddedEndpoints().add(entry.getKey());
+            } else if (!Objects.equals(current.getParams(), incoming.getParams())
+                    || !Objects.equals(current.getResponseFormat(), incoming.getResponseFormat())) {
+                current.setParams(incoming.getParams());
+                current.setResponseFormat(incoming.getResponseFormat());
+                toUpdate.add(current);
+                diff.getChangedEndpoints().add(entry.getKey());
+            } else {
+                diff.setUnchanged(diff.getUnchanged() + 1);
+            }
+        }
+        diff.getRemovedEndpoints().addAll(existing.keySet());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            diff.setAdded(apiEndpointBatchRepository.insertAll(appId, toInsert));
+            diff.setChanged(apiEndpointBatchRepository.updateAll(toUpdate));
+            if (removeMissing) {
+                apiEndpointBatchRepository.deleteAll(existing.values().stream().map(ApiEndpoint::getId).toList());
+                diff.setRemovedDeleted(true);
+            }
+        });
+        diff.setRemoved(existing.size());
+        diff.setElapsedMs(System.currentTimeMillis() - startedAt);
+        logger.info("Imported OpenAPI document for appId: {} ({} operations): {} added, {} changed, {} unchanged, {} removed{} in {} ms",
+                appId, operations, diff.getAdded(), diff.getChanged(), diff.getUnchanged(), diff.getRemoved(),
+                removeMissing ? "" : " (kept)", diff.getElapsedMs());
+        return diff;
+    }
+
+    private String key(ApiEndpoint endpoint) {
+        return endpoint.getMethod().toUpperCase() + " " + endpoint.getPath();
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH - 3) + "..." : value;
+    }
 }
@@ -0,0 +1,157 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams the operations out of an OpenAPI 3 or Swagger 2 document, JSON or YAML.
+ * Only one path item is held in memory at a time, so documents of many megabytes are read in constant memory.
+ * {@code $ref}s are not resolved; a referenced parameter is recorded under the name of its definition.
+ */
+class OpenApiEndpointReader {
+    private static final Set<String> METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+
+    /**
+     * An operation of the document: {@code params} lists {@code name:location} pairs, {@code responseFormat}
+     * the media types of its success response.
+     */
+    record Operation(String path, String method, String params, String responseFormat) {
+    }
+
+    /**
+     * @return the number of operations read
+     */
+    int read(InputStream document, Consumer<Operation> consumer) throws IOException {
+        InputStream input = new BufferedInputStream(document);
+        ObjectMapper mapper = isJson(input) ? jsonMapper : yamlMapper;
+        int operations = 0;
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not an OpenAPI document: expected an object at the top level");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (!"paths".equals(field) || parser.currentToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String path = parser.currentName();
+                    parser.nextToken();
+                    JsonNode pathItem = parser.readValueAsTree();
+                    operations += readPathItem(path, pathItem, consumer);
+                }
+            }
+        }
+        return operations;
+    }
+
+    private int readPathItem(String path, JsonNode pathItem, Consumer<Operation> consumer) {
+        int operations = 0;
+        Iterator<Map.Entry<String, JsonNode>> fields = pathItem.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!METHODS.contains(field.getKey())) {
+                continue;
+            }
+            JsonNode operation = field.getValue();
+            // Path level parameters apply to every operation unless the operation redefines them
+            Map<String, String> params = new LinkedHashMap<>();
+            addParameters(pathItem.path("parameters"), params);
+            addParameters(operation.path("parameters"), params);
+            addSchemaProperties(firstMediaType(operation.path("requestBody").path("content")).path("schema"), params);
+
+            List<String> paramList = new ArrayList<>();
+            params.forEach((name, location) -> paramList.add(name + ":" + location));
+            consumer.accept(new Operation(path, field.getKey().toUpperCase(), String.join(", ", paramList),
+                    responseFormat(operation)));
+            operations++;
+        }
+        return operations;
+    }
+
+    private void addParameters(JsonNode parameters, Map<String, String> params) {
+        for (JsonNode parameter : parameters) {
+            if (parameter.has("$ref")) {
+                String ref = parameter.path("$ref").asText();
+                params.put(ref.substring(ref.lastIndexOf('/') + 1), "ref");
+            } else if ("body".equals(parameter.path("in").asText())) {
+                // Swagger 2 body parameter: its properties are what the endpoint actually takes
+                if (!addSchemaProperties(parameter.path("schema"), params)) {
+                    params.put(parameter.path("name").asText("body"), "body");
+                }
+            } else if (parameter.hasNonNull("name")) {
+                params.put(parameter.path("name").asText(), parameter.path("in").asText("query"));
+            }
+        }
+    }
+
+    private boolean addSchemaProperties(JsonNode schema, Map<String, String> params) {
+        Iterator<String> names = schema.path("properties").fieldNames();
+        boolean any = names.hasNext();
+        names.forEachRemaining(name -> params.putIfAbsent(name, "body"));
+        return any;
+    }
+
+    /**
+     * Media types of the first 2xx response (OpenAPI 3), or the operation's {@code produces} (Swagger 2).
+     */
+    private String responseFormat(JsonNode operation) {
+        if (operation.has("produces")) {
+            List<String> produces = new ArrayList<>();
+            operation.path("produces").forEach(mediaType -> produces.add(mediaType.asText()));
+            return String.join(", ", produces);
+        }
+        Iterator<Map.Entry<String, JsonNode>> responses = operation.path("responses").fields();
+        while (responses.hasNext()) {
+            Map.Entry<String, JsonNode> response = responses.next();
+            if (response.getKey().startsWith("2") || "default".equals(response.getKey())) {
+                List<String> mediaTypes = new ArrayList<>();
+                response.getValue().path("content").fieldNames().forEachRemaining(mediaTypes::add);
+                if (!mediaTypes.isEmpty()) {
+                    return String.join(", ", mediaTypes);
+                }
+            }
+        }
+        return null;
+    }
+
+    private JsonNode firstMediaType(JsonNode content) {
+        Iterator<JsonNode> mediaTypes = content.elements();
+        return mediaTypes.hasNext() ? mediaTypes.next() : content;
+    }
+
+    /**
+     * JSON documents start with '{'; anything else is read as YAML (a superset of JSON anyway).
+     */
+    private boolean isJson(InputStream input) throws IOException {
+        input.mark(4096);
+        try {
+            int c;
+            do {
+                c = input.read();
+            } while (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == 0xEF || c == 0xBB || c == 0xBF);
+            return c == '{';
+        } finally {
+            input.reset();
+        }
+    }
+}
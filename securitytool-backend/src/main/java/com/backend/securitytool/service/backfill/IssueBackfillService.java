@@ -0,0 +1,31 @@
+package com.backend.securitytool.service.backfill;
+
+import com.backend.securitytool.model.dto.response.IssueBackfillJobResponseDTO;
+
+public interface IssueBackfillService {
+
+    /**
+     * Queues a backfill over every finding stored so far. While another backfill is unfinished
+     * (pending, running or paused) that one is returned instead and nothing new is queued.
+     */
+    IssueBackfillJobResponseDTO startBackfill();
+
+    IssueBackfillJobResponseDTO getBackfillJob(Integer jobId);
+
+    /**
+     * Stops the job after its current chunk; it keeps its checkpoint.
+     */
+    IssueBackfillJobResponseDTO pauseBackfill(Integer jobId);
+
+    /**
+     * Continues a paused or failed job from its checkpoint.
+     */
+    IssueBackfillJobResponseDTO resumeBackfill(Integer jobId);
+
+    /**
+     * Version of the severity and status mapping the stored findings reflect. It changes whenever a backfill
+     * rewrites findings and only then, so anything derived from the findings of a finished scan (e.g. a rendered
+     * report) stays valid for as long as the version is the same.
+     */
+    long getMappingVersion();
+}
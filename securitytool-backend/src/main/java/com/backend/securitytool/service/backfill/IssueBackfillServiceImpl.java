@@ -0,0 +1,335 @@
+package com.backend.securitytool.service.backfill;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.model.dto.response.IssueBackfillJobResponseDTO;
+import com.backend.securitytool.model.entity.IssueBackfillJob;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.IssueBackfillJobRepository;
+import com.backend.securitytool.repository.SchedulerLeaseRepository;
+import com.backend.securitytool.repository.SecurityIssueBackfillRepository;
+import com.backend.securitytool.repository.SecurityIssueBackfillRepository.IssueContent;
+import com.backend.securitytool.repository.SecurityIssueBackfillRepository.IssueRating;
+import com.backend.securitytool.repository.SecurityIssueBackfillRepository.Reclassification;
+import com.backend.securitytool.service.scanengine.ScannerEngine;
+import com.backend.securitytool.util.IssueFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Brings stored findings in line with the current severity and status mapping of their engine
+ * (see {@link ScannerEngine#reclassify}), which otherwise only applies to scans ingested after it changed.
+ * <p>
+ * A job walks security_issues in issue_id order, one keyset chunk of {@code issue-backfill.chunk-size} rows
+ * per transaction, and stores its checkpoint in the same transaction as the chunk's updates, so a stopped
+ * node or a pause never loses or repeats work. The content hash of an updated row is recomputed too,
+ * otherwise the next scan would report every backfilled finding as changed.
+ * <p>
+ * Throttling: after each chunk the worker sleeps so that it is busy at most {@code issue-backfill.max-duty-cycle}
+ * of the time, and a run gives the scheduler thread back after {@code issue-backfill.slice-ms}; the next run
+ * continues from the checkpoint. Only the holder of the {@code issue-backfill} lease works on a job.
+ * Findings of archived scans live in the archive blobs and are not touched.
+ */
+@Service
+public class IssueBackfillServiceImpl implements IssueBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(IssueBackfillServiceImpl.class);
+    private static final String LEASE_NAME = "issue-backfill";
+    private static final List<String> RUNNABLE = List.of(ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS);
+    private static final List<String> UNFINISHED = List.of(ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS,
+            ScanType.JOB_STATUS_PAUSED);
+
+    private final IssueBackfillJobRepository issueBackfillJobRepository;
+    private final SecurityIssueBackfillRepository securityIssueBackfillRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, ScannerEngine> enginesByName;
+    private final String nodeId;
+
+    @Value("${issue-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${issue-backfill.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${issue-backfill.max-duty-cycle:0.25}")
+    private double maxDutyCycle;
+
+    @Value("${issue-backfill.min-pause-ms:50}")
+    private long minPauseMs;
+
+    @Value("${issue-backfill.slice-ms:20000}")
+    private long sliceMs;
+
+    @Value("${issue-backfill.lease-ms:120000}")
+    private long leaseMs;
+
+    @Autowired
+    public IssueBackfillServiceImpl(IssueBackfillJobRepository issueBackfillJobRepository,
+                                    SecurityIssueBackfillRepository securityIssueBackfillRepository,
+                                    AppStatsRepository appStatsRepository,
+                                    SchedulerLeaseRepository schedulerLeaseRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    List<ScannerEngine> engines) {
+        this.issueBackfillJobRepository = issueBackfillJobRepository;
+        this.securityIssueBackfillRepository = securityIssueBackfillRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enginesByName = engines.stream().collect(Collectors.toMap(ScannerEngine::getName, Function.identity()));
+        this.nodeId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public IssueBackfillJobResponseDTO startBackfill() {
+        return issueBackfillJobRepository.findFirstByStatusInOrderByIdAsc(UNFINISHED)
+                .map(this::toResponseDTO)
+                .orElseGet(() -> {
+                    IssueBackfillJob job = new IssueBackfillJob();
+                    job.setStatus(ScanType.SCAN_STATUS_PENDING);
+                    job.setMaxIssueId(securityIssueBackfillRepository.findMaxIssueId());
+                    job = issueBackfillJobRepository.save(job);
+                    logger.info("Queued issue backfill job {} up to issue {}", job.getId(), job.getMaxIssueId());
+                    return toResponseDTO(job);
+                });
+    }
+
+    @Override
+    public IssueBackfillJobResponseDTO getBackfillJob(Integer jobId) {
+        return toResponseDTO(findJob(jobId));
+    }
+
+    @Override
+    public IssueBackfillJobResponseDTO pauseBackfill(Integer jobId) {
+        findJob(jobId);
+        if (issueBackfillJobRepository.transition(jobId, RUNNABLE, ScanType.JOB_STATUS_PAUSED, Instant.now()) > 0) {
+            logger.info("Paused issue backfill job {}", jobId);
+        }
+        return toResponseDTO(findJob(jobId));
+    }
+
+    @Override
+    public IssueBackfillJobResponseDTO resumeBackfill(Integer jobId) {
+        findJob(jobId);
+        if (issueBackfillJobRepository.transition(jobId, List.of(ScanType.JOB_STATUS_PAUSED, ScanType.SCAN_STATUS_FAILED),
+                ScanType.SCAN_STATUS_PENDING, Instant.now()) > 0) {
+            logger.info("Resumed issue backfill job {}", jobId);
+        }
+        return toResponseDTO(findJob(jobId));
+    }
+
+    /**
+     * The number of findings rewritten by all backfills so far. A chunk's updates and its job's counter are
+     * committed in one transaction, so the version never lags behind the rows.
+     */
+    @Override
+    public long getMappingVersion() {
+        return issueBackfillJobRepository.sumUpdatedIssues();
+    }
+
+    /**
+     * Works on the oldest pending or running job for one slice. A running job whose node stopped is picked up
+     * here as soon as that node's lease expires.
+     */
+    @Scheduled(initialDelayString = "${issue-backfill.initial-delay-ms:60000}", fixedDelayString = "${issue-backfill.poll-interval-ms:10000}")
+    public void runPendingBackfill() {
+        if (!enabled) {
+            return;
+        }
+        IssueBackfillJob job = issueBackfillJobRepository.findFirstByStatusInOrderByIdAsc(RUNNABLE).orElse(null);
+        if (job == null || !renewLease()) {
+            return;
+        }
+        if (ScanType.SCAN_STATUS_PENDING.equals(job.getStatus())) {
+            if (issueBackfillJobRepository.start(job.getId(), ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS,
+                    Instant.now()) == 0) {
+                return;
+            }
+            logger.info("Issue backfill job {} running from issue {}", job.getId(), job.getLastIssueId());
+        }
+        runSlice(job.getId());
+    }
+
+    private void runSlice(Integer jobId) {
+        long sliceEndNanos = System.nanoTime() + sliceMs * 1_000_000;
+        try {
+            while (true) {
+                // Re-read every chunk, the job may have been paused through the API meanwhile
+                IssueBackfillJob job = issueBackfillJobRepository.findById(jobId).orElse(null);
+                if (job == null || !ScanType.SCAN_STATUS_IN_PROGRESS.equals(job.getStatus())) {
+                    return;
+                }
+                long chunkStartNanos = System.nanoTime();
+                if (!processChunk(job)) {
+                    return;
+                }
+                if (System.nanoTime() >= sliceEndNanos || !renewLease()) {
+                    return;
+                }
+                Thread.sleep(pauseAfter((System.nanoTime() - chunkStartNanos) / 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Issue backfill job {} failed: {}", jobId, e.getMessage(), e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            issueBackfillJobRepository.finish(jobId, ScanType.SCAN_STATUS_IN_PROGRESS, ScanType.SCAN_STATUS_FAILED,
+                    message.length() > 1024 ? message.substring(0, 1024) : message, Instant.now());
+        }
+    }
+
+    /**
+     * Reclassifies the next chunk after the job's checkpoint and advances the checkpoint.
+     *
+     * @return whether the job has more chunks to process
+     */
+    private boolean processChunk(IssueBackfillJob job) {
+        List<IssueRating> chunk = securityIssueBackfillRepository.findChunk(job.getLastIssueId(), job.getMaxIssueId(), chunkSize);
+        if (chunk.isEmpty()) {
+            complete(job);
+            return false;
+        }
+        List<Reclassification> reclassifications = reclassify(chunk);
+        Integer lastIssueId = chunk.get(chunk.size() - 1).issueId();
+        Boolean advanced = transactionTemplate.execute(status -> {
+            int updated = securityIssueBackfillRepository.update(reclassifications);
+            appStatsRepository.applyIssueDeltas(securityIssueBackfillRepository.findSeverityShifts(reclassifications));
+            if (issueBackfillJobRepository.advance(job.getId(), ScanType.SCAN_STATUS_IN_PROGRESS, lastIssueId,
+                    chunk.size(), updated, Instant.now()) == 0) {
+                // Paused while the chunk was computed; its updates are redone after resuming
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(advanced)) {
+            return false;
+        }
+        logger.debug("Issue backfill job {} processed issues up to {}: {} of {} reclassified",
+                job.getId(), lastIssueId, reclassifications.size(), chunk.size());
+        if (chunk.size() < chunkSize || lastIssueId >= job.getMaxIssueId()) {
+            job.setLastIssueId(lastIssueId);
+            complete(job);
+            return false;
+        }
+        return true;
+    }
+
+    private List<Reclassification> reclassify(List<IssueRating> chunk) {
+        List<IssueRating> changed = new ArrayList<>();
+        Map<Integer, SecurityIssue> reclassified = new HashMap<>();
+        for (IssueRating rating : chunk) {
+            ScannerEngine engine = enginesByName.get(rating.issueType());
+            if (engine == null) {
+                continue;
+            }
+            SecurityIssue issue = new SecurityIssue();
+            issue.setId(rating.issueId());
+            issue.setIssueType(rating.issueType());
+            issue.setSeverity(rating.severity());
+            issue.setStatus(rating.status());
+            engine.reclassify(issue);
+            if (!Objects.equals(issue.getSeverity(), rating.severity()) || !Objects.equals(issue.getStatus(), rating.status())) {
+                changed.add(rating);
+                reclassified.put(rating.issueId(), issue);
+            }
+        }
+
+        // The hash covers the text fields too, load them only for the rows that changed and have a hash
+        List<Integer> hashed = changed.stream()
+                .filter(rating -> rating.contentHash() != null)
+                .map(IssueRating::issueId)
+                .toList();
+        Map<Integer, IssueContent> contents = securityIssueBackfillRepository.findContent(hashed).stream()
+                .collect(Collectors.toMap(IssueContent::issueId, Function.identity()));
+
+        List<Reclassification> reclassifications = new ArrayList<>(changed.size());
+        for (IssueRating rating : changed) {
+            SecurityIssue issue = reclassified.get(rating.issueId());
+            String contentHash = rating.contentHash();
+            IssueContent content = contents.get(rating.issueId());
+            if (content != null) {
+                issue.setDescription(content.description());
+                issue.setSolution(content.solution());
+                issue.setReference(content.reference());
+                contentHash = IssueFingerprint.contentHash(issue);
+            }
+            reclassifications.add(new Reclassification(rating, issue.getSeverity(), issue.getStatus(), contentHash));
+        }
+        return reclassifications;
+    }
+
+    /**
+     * Pause that keeps the worker busy at most {@code maxDutyCycle} of the time: a chunk that took longer,
+     * e.g. because the database is under load, is followed by a longer pause.
+     */
+    private long pauseAfter(long busyMs) {
+        double dutyCycle = Math.min(1.0, Math.max(0.01, maxDutyCycle));
+        return Math.max(minPauseMs, (long) (busyMs * (1 - dutyCycle) / dutyCycle));
+    }
+
+    private void complete(IssueBackfillJob job) {
+        if (issueBackfillJobRepository.finish(job.getId(), ScanType.SCAN_STATUS_IN_PROGRESS, ScanType.SCAN_STATUS_COMPLETED,
+                null, Instant.now()) > 0) {
+            IssueBackfillJob finished = issueBackfillJobRepository.findById(job.getId()).orElse(job);
+            logger.info("Issue backfill job {} completed: {} issues scanned, {} updated",
+                    finished.getId(), finished.getScannedIssues(), finished.getUpdatedIssues());
+        }
+    }
+
+    private boolean renewLease() {
+        Instant now = Instant.now();
+        return schedulerLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, now.plusMillis(leaseMs)) > 0;
+    }
+
+    private IssueBackfillJob findJob(Integer jobId) {
+        return issueBackfillJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.ISSUE_BACKFILL_JOB_NOT_FOUND + jobId));
+    }
+
+    private IssueBackfillJobResponseDTO toResponseDTO(IssueBackfillJob job) {
+        IssueBackfillJobResponseDTO dto = new IssueBackfillJobResponseDTO();
+        dto.setJobId(job.getId());
+        dto.setStatus(job.getStatus());
+        dto.setLastIssueId(job.getLastIssueId());
+        dto.setMaxIssueId(job.getMaxIssueId());
+        dto.setScannedIssues(job.getScannedIssues());
+        dto.setUpdatedIssues(job.getUpdatedIssues());
+        // Progress over the issue id range; ids are dense enough for an estimate
+        dto.setProgressPercent(ScanType.SCAN_STATUS_COMPLETED.equals(job.getStatus()) || job.getMaxIssueId() <= 0
+                ? 100
+                : (int) Math.min(100, job.getLastIssueId() * 100L / job.getMaxIssueId()));
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.backend.securitytool.service.chat;
 
 import com.backend.securitytool.model.dto.request.ChatRequestDTO;
+import com.backend.securitytool.service.resilience.UpstreamGuard;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
@@ -15,10 +17,12 @@ import org.springframework.web.multipart.MultipartFile;
 public class ChatServiceImpl implements ChatService{
 
     private final ChatClient chatClient;
+    private final UpstreamGuard chatGuard;
 
     @Autowired
-    public ChatServiceImpl(ChatClient chatClient) {
+    public ChatServiceImpl(ChatClient chatClient, UpstreamGuardRegistry upstreamGuardRegistry) {
         this.chatClient = chatClient;
+        this.chatGuard = upstreamGuardRegistry.guard(UpstreamGuardRegistry.AI_CHAT);
     }
 
     @Override
@@ -33,9 +37,9 @@ public class ChatServiceImpl implements ChatService{
         UserMessage userMessage = new UserMessage(requestDTO.message());
 
         Prompt prompt = new Prompt(userMessage, systemMessage);
-        return chatClient
+        return chatGuard.call(() -> chatClient
                 .prompt(prompt)
-                .call().content();
+                .call().content());
     }
 
     @Override
@@ -45,7 +49,7 @@ public class ChatServiceImpl implements ChatService{
                 .data(file.getResource())
                 .build();
 
-        return chatClient
+        return chatGuard.call(() -> chatClient
                 .prompt()
                 .system("You are Security-Tool Assistant for supporting user on recognizing security" +
                         "                You should response in informal way\n" +
@@ -55,6 +59,6 @@ public class ChatServiceImpl implements ChatService{
                                 -> promptUserSpec.media(media)
                                 .text(message))
                                 .call()
-                                .content();
+                                .content());
     }
 }
@@ -4,4 +4,11 @@ import com.backend.securitytool.model.dto.response.DashboardStatsResponseDTO;
 
 public interface DashboardService {
     DashboardStatsResponseDTO getStats(Integer appId);
+
+    /**
+     * Rebuilds the dashboard aggregates of every app from the raw tables.
+     *
+     * @return the number of apps whose aggregates had drifted
+     */
+    int reconcileStats();
 }
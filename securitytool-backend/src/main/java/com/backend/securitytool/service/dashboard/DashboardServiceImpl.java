@@ -2,31 +2,65 @@ package com.backend.securitytool.service.dashboard;
 
 import com.backend.securitytool.mapper.DashboardStatsMapper;
 import com.backend.securitytool.model.dto.response.DashboardStatsResponseDTO;
-import com.backend.securitytool.repository.ScanResultRepository;
-import com.backend.securitytool.repository.SecurityIssueRepository;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.AppStatsRepository.AppStats;
+import com.backend.securitytool.repository.SchedulerLeaseRepository;
 import com.backend.securitytool.repository.TargetApplicationRepository;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
+import java.net.InetAddress;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Dashboard statistics are read from the aggregates in app_stats, which ingestion, the issue backfill and
+ * retention keep current with deltas in their own transactions (see AppStatsRepository), so a dashboard read
+ * costs two primary key lookups however many scans and issues an app has.
+ * <p>
+ * A delta lost to a bug or a manual change of the raw tables would stick, so the holder of the
+ * {@code app-stats-reconcile} lease periodically recounts every app from the raw tables and fixes any drift.
+ */
 @Service
-@RequiredArgsConstructor
-@Slf4j
 public class DashboardServiceImpl implements DashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
+    private static final String LEASE_NAME = "app-stats-reconcile";
 
     private final TargetApplicationRepository targetApplicationRepository;
-    private final ScanResultRepository scanResultRepository;
-    private final SecurityIssueRepository securityIssueRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
     private final DashboardStatsMapper dashboardStatsMapper;
+    private final String nodeId;
+
+    @Value("${dashboard.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${dashboard.reconcile.lease-ms:3600000}")
+    private long leaseMs;
+
+    @Autowired
+    public DashboardServiceImpl(TargetApplicationRepository targetApplicationRepository,
+                                AppStatsRepository appStatsRepository,
+                                SchedulerLeaseRepository schedulerLeaseRepository,
+                                TransactionTemplate transactionTemplate,
+                                DashboardStatsMapper dashboardStatsMapper) {
+        this.targetApplicationRepository = targetApplicationRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dashboardStatsMapper = dashboardStatsMapper;
+        this.nodeId = hostName() + "-" + UUID.randomUUID();
+    }
 
     @Override
     public DashboardStatsResponseDTO getStats(Integer appId) {
@@ -39,26 +73,13 @@ public class DashboardServiceImpl implements DashboardService {
         }
 
         try {
-            // Scan counts by type for this app
-            long staticScanCount = scanResultRepository.countByAppIdAndScanType(appId, "static");
-            long dynamicScanCount = scanResultRepository.countByAppIdAndScanType(appId, "dynamic");
-            stats.setStaticScanCount(staticScanCount);
-            stats.setDynamicScanCount(dynamicScanCount);
-            
-            // Total issues for this app
-            long totalIssues = securityIssueRepository.countByAppId(appId);
-            stats.setTotalIssues(totalIssues);
-
-            // Severity distribution for this app
-            List<Object[]> severityCounts = securityIssueRepository.countBySeverityAndAppId(appId);
-            if (severityCounts != null && !severityCounts.isEmpty()) {
-                stats.setSeverityDistribution(
-                    dashboardStatsMapper.mapSeverityDistribution(severityCounts)
-                );
-            } else {
-                // If no issues found for this app, set empty distribution
-                stats.setSeverityDistribution(new HashMap<>());
-            }
+            // An app without a row has neither scans nor issues yet
+            Optional<AppStats> appStats = appStatsRepository.find(appId);
+            stats.setStaticScanCount(appStats.map(AppStats::staticScanCount).orElse(0L));
+            stats.setDynamicScanCount(appStats.map(AppStats::dynamicScanCount).orElse(0L));
+            stats.setTotalIssues(appStats.map(AppStats::totalIssues).orElse(0L));
+            stats.setSeverityDistribution(
+                    dashboardStatsMapper.mapSeverityDistribution(appStatsRepository.findSeverityCounts(appId)));
         } catch (Exception e) {
             logger.error("Error fetching dashboard statistics for appId {}: {}", appId, e.getMessage());
             // Set default values in case of error
@@ -69,4 +90,50 @@ public class DashboardServiceImpl implements DashboardService {
         logger.info("Dashboard statistics for appId {} retrieved successfully", appId);
         return stats;
     }
+
+    /**
+     * Reconciliation loop. Only the holder of the {@code app-stats-reconcile} lease recounts, so two nodes never
+     * lock the same aggregates at once.
+     */
+    @Scheduled(initialDelayString = "${dashboard.reconcile.initial-delay-ms:900000}",
+            fixedDelayString = "${dashboard.reconcile.interval-ms:21600000}")
+    public void runReconciliation() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (schedulerLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, now.plusMillis(leaseMs)) == 0) {
+            return;
+        }
+        reconcileStats();
+    }
+
+    /**
+     * One transaction per app, so the row lock that holds back that app's writers is only kept for its recount.
+     */
+    @Override
+    public int reconcileStats() {
+        List<Integer> appIds = targetApplicationRepository.findAllIds();
+        int drifted = 0;
+        for (Integer appId : appIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> appStatsRepository.reconcile(appId, Instant.now())))) {
+                    logger.warn("Dashboard statistics of appId {} had drifted from the raw tables and were rebuilt", appId);
+                    drifted++;
+                }
+            } catch (Exception e) {
+                logger.error("Reconciling dashboard statistics of appId {} failed: {}", appId, e.getMessage(), e);
+            }
+        }
+        logger.info("Reconciled dashboard statistics of {} apps, {} had drifted", appIds.size(), drifted);
+        return drifted;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
 }
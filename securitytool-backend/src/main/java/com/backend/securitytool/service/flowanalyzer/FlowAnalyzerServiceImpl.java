@@ -6,11 +6,14 @@ import com.backend.securitytool.model.dto.request.ApiEndpointParamDTO;
 import com.backend.securitytool.model.dto.response.BusinessFlowAnalysisResponseDTO;
 import com.backend.securitytool.model.dto.response.BusinessFlowResponseDTO;
 import com.backend.securitytool.model.dto.response.BusinessFlowStepResultDTO;
+import com.backend.securitytool.model.entity.ApiEndpoint;
 import com.backend.securitytool.model.entity.BusinessFlow;
 import com.backend.securitytool.model.entity.SecurityIssue;
 import com.backend.securitytool.repository.BusinessFlowRepository;
 import com.backend.securitytool.repository.ScanResultRepository;
-import com.backend.securitytool.repository.SecurityIssueRepository;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcher;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcherCache;
+import com.backend.securitytool.service.retention.ScanRetentionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -38,7 +41,8 @@ public class FlowAnalyzerServiceImpl implements FlowAnalyzerService {
     private final BusinessFlowRepository businessFlowRepository;
     private final ScanResultRepository scanResultRepository;
     private final BusinessFlowMapper businessFlowMapper;
-    private final SecurityIssueRepository securityIssueRepository;
+    private final ApiEndpointMatcherCache apiEndpointMatcherCache;
+    private final ScanRetentionService scanRetentionService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -189,16 +193,17 @@ public class FlowAnalyzerServiceImpl implements FlowAnalyzerService {
             }
         }
 
-        List<SecurityIssue> issues = securityIssueRepository.findByResultId(requestDTO.getResultId());
+        List<SecurityIssue> issues = scanRetentionService.findIssues(requestDTO.getResultId());
         Map<String, List<SecurityIssue>> issueMap = issues.stream()
                 .filter(issue -> issue.getEndpoint() != null && issue.getEndpoint().getPath() != null)
                 .collect(Collectors.groupingBy(issue -> issue.getEndpoint().getPath()));
+        ApiEndpointMatcher matcher = requestDTO.getAppId() != null ? apiEndpointMatcherCache.forApp(requestDTO.getAppId()) : null;
 
         List<BusinessFlowStepResultDTO> stepResults = new ArrayList<>();
         int totalStaticIssues = 0;
         int passedSteps = 0;
         for (String endpoint : endpointPaths) {
-            int staticCount = issueMap.getOrDefault(endpoint, Collections.emptyList()).size();
+            int staticCount = issuesOf(endpoint, issueMap, matcher).size();
             boolean passed = staticCount == 0;
             if (passed) passedSteps++;
             totalStaticIssues += staticCount;
@@ -212,7 +217,7 @@ public class FlowAnalyzerServiceImpl implements FlowAnalyzerService {
         int happyPassed = 0;
         for (String happyEndpoint : ECOMMERCE_HAPPY_PATH_ENDPOINTS) {
             happyTotal++;
-            int staticCount = issueMap.getOrDefault(happyEndpoint, Collections.emptyList()).size();
+            int staticCount = issuesOf(happyEndpoint, issueMap, matcher).size();
             boolean present = endpointPaths.contains(happyEndpoint);
             boolean passed = present && staticCount == 0;
             if (passed) happyPassed++;
@@ -230,4 +235,14 @@ public class FlowAnalyzerServiceImpl implements FlowAnalyzerService {
                 stepResults
         );
     }
+
+    /**
+     * Findings of a flow step. Steps may name a concrete URL such as {@code /api/orders/42}, findings are
+     * keyed by the catalogued endpoint path ({@code /api/orders/{id}}), so the step is resolved through the catalog first.
+     */
+    private List<SecurityIssue> issuesOf(String endpoint, Map<String, List<SecurityIssue>> issueMap, ApiEndpointMatcher matcher) {
+        ApiEndpoint catalogued = matcher == null ? null : matcher.match(null, endpoint);
+        String key = catalogued != null ? catalogued.getPath() : endpoint;
+        return issueMap.getOrDefault(key, Collections.emptyList());
+    }
 }
@@ -0,0 +1,12 @@
+package com.backend.securitytool.service.ingest;
+
+import com.backend.securitytool.model.entity.ScanResult;
+
+public interface IssueIngestionService {
+
+    /**
+     * Starts differential ingestion of the findings of {@code scanResult} against the previous
+     * completed full scan of the same app and scan type.
+     */
+    IssueIngestionSession open(ScanResult scanResult);
+}
@@ -0,0 +1,65 @@
+package com.backend.securitytool.service.ingest;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository.StoredFingerprint;
+import com.backend.securitytool.util.EndpointScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class IssueIngestionServiceImpl implements IssueIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(IssueIngestionServiceImpl.class);
+
+    private final ScanResultRepository scanResultRepository;
+    private final SecurityIssueBatchRepository securityIssueBatchRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public IssueIngestionServiceImpl(ScanResultRepository scanResultRepository,
+                                     SecurityIssueBatchRepository securityIssueBatchRepository,
+                                     AppStatsRepository appStatsRepository,
+                                     TransactionTemplate transactionTemplate) {
+        this.scanResultRepository = scanResultRepository;
+        this.securityIssueBatchRepository = securityIssueBatchRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * An endpoint-scoped scan is diffed against the last full scan restricted to its endpoints,
+     * so findings elsewhere in the app are neither carried over nor resolved by it.
+     */
+    @Override
+    public IssueIngestionSession open(ScanResult scanResult) {
+        Integer baselineResultId = scanResultRepository
+                .findFirstByAppIdAndScanTypeAndStatusAndEndpointScopeIsNullAndIdLessThanOrderByIdDesc(scanResult.getApp().getId(),
+                        scanResult.getScanType(), ScanType.SCAN_STATUS_COMPLETED, scanResult.getId())
+                .map(ScanResult::getId)
+                .orElse(null);
+
+        Map<String, StoredFingerprint> baseline = baselineResultId == null
+                ? new HashMap<>()
+                : securityIssueBatchRepository.findOpenFingerprints(baselineResultId);
+        Set<Integer> scope = EndpointScope.parse(scanResult.getEndpointScope());
+        if (!scope.isEmpty()) {
+            baseline.values().removeIf(fingerprint -> !scope.contains(fingerprint.endpointId()));
+        }
+        logger.debug("Ingesting findings of resultId: {} against baseline resultId: {} ({} open findings)",
+                scanResult.getId(), baselineResultId, baseline.size());
+
+        return new IssueIngestionSession(securityIssueBatchRepository, appStatsRepository, transactionTemplate,
+                scanResult.getId(), baselineResultId, baseline);
+    }
+}
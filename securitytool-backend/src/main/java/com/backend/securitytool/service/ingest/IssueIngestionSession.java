@@ -0,0 +1,131 @@
+package com.backend.securitytool.service.ingest;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository.StoredFingerprint;
+import com.backend.securitytool.util.IssueFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diffs the findings of one scan against its baseline while they are being ingested.
+ * Only new and changed findings are inserted; unchanged ones are linked to the row that already holds them,
+ * and whatever is left of the baseline when the scan finishes is recorded as resolved.
+ * <p>
+ * A combined scan feeds one session from several engines at once; pages are applied one at a time.
+ * Each page is written in one transaction together with its delta to the app's dashboard aggregates.
+ */
+public class IssueIngestionSession {
+    private static final Logger logger = LoggerFactory.getLogger(IssueIngestionSession.class);
+
+    private final SecurityIssueBatchRepository securityIssueBatchRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Integer resultId;
+    private final Integer baselineResultId;
+    // Baseline findings not yet seen in this scan
+    private final Map<String, StoredFingerprint> remaining;
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    private int newCount;
+    private int changedCount;
+    private int carriedCount;
+    private int resolvedCount;
+
+    IssueIngestionSession(SecurityIssueBatchRepository securityIssueBatchRepository, AppStatsRepository appStatsRepository,
+                          TransactionTemplate transactionTemplate, Integer resultId,
+                          Integer baselineResultId, Map<String, StoredFingerprint> baseline) {
+        this.securityIssueBatchRepository = securityIssueBatchRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.resultId = resultId;
+        this.baselineResultId = baselineResultId;
+        this.remaining = baseline;
+    }
+
+    /**
+     * Diffs and persists one page of findings. Issues are expected to carry a fingerprint;
+     * issues without one are always stored as new.
+     */
+    public synchronized void accept(List<SecurityIssue> issues) {
+        List<SecurityIssue> toInsert = new ArrayList<>();
+        List<StoredFingerprint> carried = new ArrayList<>();
+        for (SecurityIssue issue : issues) {
+            issue.setContentHash(IssueFingerprint.contentHash(issue));
+            if (issue.getFingerprint() == null) {
+                issue.setChangeType(ScanType.ISSUE_CHANGE_NEW);
+                toInsert.add(issue);
+                continue;
+            }
+            // The same finding can be reported more than once; number the repeats so each keeps a stable identity
+            int occurrence = occurrences.merge(issue.getFingerprint(), 1, Integer::sum);
+            if (occurrence > 1) {
+                issue.setFingerprint(IssueFingerprint.of(issue.getFingerprint(), occurrence));
+            }
+
+            StoredFingerprint previous = remaining.remove(issue.getFingerprint());
+            if (previous == null) {
+                issue.setChangeType(ScanType.ISSUE_CHANGE_NEW);
+                toInsert.add(issue);
+            } else if (previous.contentHash() != null && previous.contentHash().equals(issue.getContentHash())) {
+                carried.add(previous);
+            } else {
+                issue.setChangeType(ScanType.ISSUE_CHANGE_CHANGED);
+                toInsert.add(issue);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            securityIssueBatchRepository.insertAll(toInsert);
+            securityIssueBatchRepository.insertCarryovers(resultId, carried);
+            appStatsRepository.applyIssueDeltas(toInsert.stream()
+                    .map(issue -> new IssueDelta(issue.getAppId(), issue.getSeverity(), 1))
+                    .toList());
+        });
+        for (SecurityIssue issue : toInsert) {
+            if (ScanType.ISSUE_CHANGE_CHANGED.equals(issue.getChangeType())) {
+                changedCount++;
+            } else {
+                newCount++;
+            }
+        }
+        carriedCount += carried.size();
+    }
+
+    /**
+     * Records the baseline findings that were not reported again as resolved and stores the diff
+     * counters on {@code scanResult}. The caller saves the scan result.
+     */
+    public synchronized void finish(ScanResult scanResult) {
+        List<Integer> resolved = new ArrayList<>(remaining.size());
+        for (StoredFingerprint fingerprint : remaining.values()) {
+            resolved.add(fingerprint.issueId());
+        }
+        resolvedCount = transactionTemplate.execute(status -> {
+            int copied = securityIssueBatchRepository.copyAsResolved(resultId, resolved);
+            if (copied > 0) {
+                appStatsRepository.applyIssueDeltas(securityIssueBatchRepository.countResolved(resultId));
+            }
+            return copied;
+        });
+        remaining.clear();
+
+        scanResult.setBaselineResultId(baselineResultId);
+        scanResult.setNewIssueCount(newCount);
+        scanResult.setChangedIssueCount(changedCount);
+        scanResult.setResolvedIssueCount(resolvedCount);
+        scanResult.setCarriedIssueCount(carriedCount);
+        logger.info("Ingested resultId: {} against baseline {}: {} new, {} changed, {} resolved, {} carried over",
+                resultId, baselineResultId, newCount, changedCount, resolvedCount, carriedCount);
+    }
+}
@@ -0,0 +1,250 @@
+package com.backend.securitytool.service.payload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for raw scanner responses under {@code payload.store.dir}.
+ * A blob is keyed by the SHA-256 of its uncompressed bytes and kept gzip-compressed as
+ * {@code <dir>/<first two hex digits>/<sha256>.gz}, so a response that did not change between scans is stored once.
+ * Blobs are written to a temp file in the same directory and renamed into place, readers never see a partial blob.
+ */
+@Component
+public class PayloadBlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(PayloadBlobStore.class);
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final String SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    /**
+     * Key and sizes of a stored blob.
+     */
+    public record StoredBlob(String sha256, long rawBytes, long storedBytes) {
+    }
+
+    @Autowired
+    public PayloadBlobStore(@Value("${payload.store.dir:./data/payloads}") String dir) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create payload store directory " + root, e);
+        }
+        logger.info("Raw scanner payloads are stored under {}", root);
+    }
+
+    /**
+     * Starts a new blob. Whatever is written to the writer's stream is hashed and compressed on the fly;
+     * {@link BlobWriter#commit()} moves it into the store, {@link BlobWriter#close()} discards it if not committed.
+     */
+    public BlobWriter newWriter() throws IOException {
+        return new BlobWriter(Files.createTempFile(root, "incoming-", ".tmp"));
+    }
+
+    public boolean exists(String sha256) {
+        return Files.exists(pathOf(sha256));
+    }
+
+    public long storedSize(String sha256) throws IOException {
+        return Files.size(pathOf(sha256));
+    }
+
+    /**
+     * Uncompressed content of a blob.
+     */
+    public InputStream open(String sha256) throws IOException {
+        FileChannel channel = FileChannel.open(pathOf(sha256), StandardOpenOption.READ);
+        return new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+    }
+
+    /**
+     * Copies the compressed blob as stored to {@code target} with {@link FileChannel#transferTo},
+     * which lets the kernel move the bytes when the target is a file or socket channel.
+     *
+     * @return the number of bytes transferred
+     */
+    public long transferCompressed(String sha256, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(sha256), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Keys of all stored blobs last written or reused before {@code olderThan}.
+     */
+    public List<String> listBlobs(Instant olderThan) throws IOException {
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .filter(file -> lastModified(file).isBefore(olderThan))
+                    .map(file -> file.getFileName().toString())
+                    .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                    .filter(name -> SHA256.matcher(name).matches())
+                    .toList();
+        }
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(pathOf(sha256));
+    }
+
+    /**
+     * Removes temp files of writes that never finished, e.g. because the node stopped mid-scan.
+     */
+    public int deleteAbandonedWrites(Instant olderThan) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith("incoming-")).toList()) {
+                if (lastModified(file).isBefore(olderThan) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Path pathOf(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 payload key: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256 + SUFFIX);
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.now();
+        }
+    }
+
+    /**
+     * One blob being written. Not thread safe, meant to be filled by the thread that reads the response.
+     */
+    public final class BlobWriter implements AutoCloseable {
+        private final Path tempFile;
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final CountingOutputStream raw;
+        private final GZIPOutputStream compressed;
+        private final OutputStream stream;
+        private boolean finished;
+
+        private BlobWriter(Path tempFile) throws IOException {
+            this.tempFile = tempFile;
+            this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            this.compressed = new GZIPOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), BUFFER_SIZE);
+            this.raw = new CountingOutputStream(compressed);
+            this.stream = new DigestOutputStream(raw, digest);
+        }
+
+        /**
+         * Receives the uncompressed payload.
+         */
+        public OutputStream stream() {
+            return stream;
+        }
+
+        public StoredBlob commit() throws IOException {
+            finished = true;
+            compressed.finish();
+            compressed.flush();
+            long storedBytes = channel.size();
+            channel.close();
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(sha256);
+            if (Files.exists(target)) {
+                // Same content stored before; bump its time so a concurrent cleanup sees it as in use
+                Files.delete(tempFile);
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StoredBlob(sha256, raw.count, storedBytes);
+        }
+
+        @Override
+        public void close() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                channel.close();
+                Files.deleteIfExists(tempFile);
+            } catch (NoSuchFileException ignored) {
+                // already gone
+            } catch (IOException e) {
+                logger.warn("Could not discard payload temp file {}: {}", tempFile, e.getMessage());
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private long count;
+
+        private CountingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+}
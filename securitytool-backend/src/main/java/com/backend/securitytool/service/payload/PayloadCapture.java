@@ -0,0 +1,158 @@
+package com.backend.securitytool.service.payload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+/**
+ * Records one upstream response into the blob store while the scanner consumes it.
+ * Capturing is best effort: a full disk or any other store error is logged and the scan goes on without
+ * the payload, it never fails the scan itself.
+ */
+public final class PayloadCapture implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PayloadCapture.class);
+
+    private final String description;
+    private final PayloadBlobStore.BlobWriter writer;
+    private final Consumer<PayloadBlobStore.StoredBlob> onCommit;
+    private boolean failed;
+    private boolean done;
+
+    PayloadCapture(String description, PayloadBlobStore.BlobWriter writer, Consumer<PayloadBlobStore.StoredBlob> onCommit) {
+        this.description = description;
+        this.writer = writer;
+        this.onCommit = onCommit;
+        this.failed = writer == null;
+    }
+
+    static PayloadCapture disabled() {
+        return new PayloadCapture(null, null, blob -> {
+        });
+    }
+
+    /**
+     * Wraps a response body so every byte the caller reads is also captured. Closing the returned stream
+     * reads whatever the caller left unread, so the stored payload is always the complete response.
+     */
+    public InputStream tee(InputStream body) {
+        if (failed || body == null) {
+            return body;
+        }
+        return new FilterInputStream(body) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    capture(new byte[]{(byte) b}, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    capture(buffer, offset, read);
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    if (!failed) {
+                        byte[] buffer = new byte[8192];
+                        while (read(buffer, 0, buffer.length) >= 0) {
+                            // drained into the capture by read
+                        }
+                    }
+                } finally {
+                    super.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Direct access for payloads the scanner already holds in memory, e.g. a parsed page.
+     * The stream handed to {@code content} may be closed by it (as Jackson does), the capture stays open.
+     */
+    public void write(IOConsumer<OutputStream> content) {
+        if (failed) {
+            return;
+        }
+        OutputStream target = writer.stream();
+        try {
+            content.accept(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    target.write(buffer, offset, length);
+                }
+
+                @Override
+                public void close() {
+                    // commit() finishes the blob
+                }
+            });
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Stores the payload captured so far and references it from the scan.
+     */
+    public void commit() {
+        if (failed || done) {
+            return;
+        }
+        done = true;
+        try {
+            onCommit.accept(writer.commit());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private void capture(byte[] buffer, int offset, int length) {
+        if (failed) {
+            return;
+        }
+        try {
+            writer.stream().write(buffer, offset, length);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Exception e) {
+        if (!failed) {
+            failed = true;
+            logger.warn("Raw payload of {} is not stored: {}", description, e.getMessage());
+            writer.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+}
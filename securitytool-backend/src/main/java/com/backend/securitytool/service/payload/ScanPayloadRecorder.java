@@ -0,0 +1,67 @@
+package com.backend.securitytool.service.payload;
+
+import com.backend.securitytool.repository.ScanPayloadRepository;
+import com.backend.securitytool.service.scanengine.ScanContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Entry point for engines to keep the raw responses a scan is built from, so its findings can be derived
+ * again later without calling the scanner. Each captured response is stored in the {@link PayloadBlobStore}
+ * and referenced from the scan result with the engine, the kind of response and where it came from.
+ */
+@Component
+public class ScanPayloadRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(ScanPayloadRecorder.class);
+
+    private final PayloadBlobStore payloadBlobStore;
+    private final ScanPayloadRepository scanPayloadRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${payload.store.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    public ScanPayloadRecorder(PayloadBlobStore payloadBlobStore, ScanPayloadRepository scanPayloadRepository) {
+        this.payloadBlobStore = payloadBlobStore;
+        this.scanPayloadRepository = scanPayloadRepository;
+    }
+
+    /**
+     * Starts capturing one response of {@code kind} read from {@code sourceUrl} (the scanner instance).
+     * Close the capture in any case; only a committed capture is kept.
+     */
+    public PayloadCapture capture(ScanContext context, String kind, String sourceUrl) {
+        if (!enabled) {
+            return PayloadCapture.disabled();
+        }
+        String description = kind + " of resultId " + context.getResultId();
+        try {
+            return new PayloadCapture(description, payloadBlobStore.newWriter(), blob -> {
+                scanPayloadRepository.insert(context.getResultId(), context.getEngineName(), kind, context.getTarget(),
+                        sourceUrl, blob.sha256(), blob.rawBytes(), blob.storedBytes());
+                logger.debug("Stored {} as {} ({} -> {} bytes)", description, blob.sha256(), blob.rawBytes(), blob.storedBytes());
+            });
+        } catch (IOException e) {
+            logger.warn("Raw payload of {} is not stored: {}", description, e.getMessage());
+            return PayloadCapture.disabled();
+        }
+    }
+
+    /**
+     * Captures a response the engine already parsed, written back as JSON.
+     */
+    public void record(ScanContext context, String kind, String sourceUrl, JsonNode payload) {
+        try (PayloadCapture capture = capture(context, kind, sourceUrl)) {
+            capture.write(out -> objectMapper.writeValue(out, payload));
+            capture.commit();
+        }
+    }
+}
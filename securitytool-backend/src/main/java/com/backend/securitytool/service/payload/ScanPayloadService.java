@@ -0,0 +1,28 @@
+package com.backend.securitytool.service.payload;
+
+import com.backend.securitytool.model.dto.response.ScanPayloadResponseDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface ScanPayloadService {
+    List<ScanPayloadResponseDTO> getPayloads(Integer resultId);
+
+    /**
+     * Size of a stored payload as kept in the blob store, fails if no scan references it.
+     */
+    long getCompressedSize(String sha256);
+
+    /**
+     * Writes a stored payload gzip-compressed, exactly as kept in the blob store.
+     */
+    void writeCompressed(String sha256, OutputStream out) throws IOException;
+
+    /**
+     * Deletes blobs no scan result references anymore.
+     *
+     * @return the number of blobs deleted
+     */
+    int deleteUnreferencedBlobs();
+}
@@ -0,0 +1,117 @@
+package com.backend.securitytool.service.payload;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.model.dto.response.ScanPayloadResponseDTO;
+import com.backend.securitytool.repository.ScanPayloadRepository;
+import com.backend.securitytool.repository.ScanPayloadRepository.StoredPayload;
+import com.backend.securitytool.repository.ScanResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ScanPayloadServiceImpl implements ScanPayloadService {
+    private static final Logger logger = LoggerFactory.getLogger(ScanPayloadServiceImpl.class);
+    private static final int GC_CHUNK_SIZE = 500;
+
+    private final ScanPayloadRepository scanPayloadRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final PayloadBlobStore payloadBlobStore;
+
+    // Blobs younger than this are never collected, their scan may not have referenced them yet
+    @Value("${payload.store.gc-grace-ms:86400000}")
+    private long gcGraceMs;
+
+    @Autowired
+    public ScanPayloadServiceImpl(ScanPayloadRepository scanPayloadRepository,
+                                  ScanResultRepository scanResultRepository,
+                                  PayloadBlobStore payloadBlobStore) {
+        this.scanPayloadRepository = scanPayloadRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.payloadBlobStore = payloadBlobStore;
+    }
+
+    @Override
+    public List<ScanPayloadResponseDTO> getPayloads(Integer resultId) {
+        if (!scanResultRepository.existsById(resultId)) {
+            throw new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId);
+        }
+        return scanPayloadRepository.findByResultId(resultId).stream()
+                .map(this::toResponseDTO)
+                .toList();
+    }
+
+    @Override
+    public long getCompressedSize(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}") || !scanPayloadRepository.isReferenced(sha256)
+                || !payloadBlobStore.exists(sha256)) {
+            throw new ResourceNotFoundException(ErrorMessages.SCAN_PAYLOAD_NOT_FOUND + sha256);
+        }
+        try {
+            return payloadBlobStore.storedSize(sha256);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException(ErrorMessages.SCAN_PAYLOAD_NOT_FOUND + sha256);
+        }
+    }
+
+    @Override
+    public void writeCompressed(String sha256, OutputStream out) throws IOException {
+        payloadBlobStore.transferCompressed(sha256, Channels.newChannel(out));
+    }
+
+    /**
+     * Blobs lose their last reference when their scan results are deleted, e.g. together with their application.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${payload.store.gc-initial-delay-ms:600000}", fixedDelayString = "${payload.store.gc-interval-ms:86400000}")
+    public int deleteUnreferencedBlobs() {
+        Instant olderThan = Instant.now().minusMillis(gcGraceMs);
+        int deleted = 0;
+        try {
+            List<String> candidates = payloadBlobStore.listBlobs(olderThan);
+            for (int i = 0; i < candidates.size(); i += GC_CHUNK_SIZE) {
+                List<String> chunk = candidates.subList(i, Math.min(candidates.size(), i + GC_CHUNK_SIZE));
+                Set<String> referenced = scanPayloadRepository.findReferenced(chunk);
+                for (String sha256 : chunk) {
+                    if (!referenced.contains(sha256)) {
+                        payloadBlobStore.delete(sha256);
+                        deleted++;
+                    }
+                }
+            }
+            int abandoned = payloadBlobStore.deleteAbandonedWrites(olderThan);
+            if (deleted > 0 || abandoned > 0) {
+                logger.info("Payload store cleanup deleted {} unreferenced blobs and {} abandoned writes", deleted, abandoned);
+            }
+        } catch (IOException e) {
+            logger.error("Payload store cleanup failed after deleting {} blobs: {}", deleted, e.getMessage(), e);
+        }
+        return deleted;
+    }
+
+    private ScanPayloadResponseDTO toResponseDTO(StoredPayload payload) {
+        ScanPayloadResponseDTO dto = new ScanPayloadResponseDTO();
+        dto.setPayloadId(payload.id());
+        dto.setResultId(payload.resultId());
+        dto.setEngine(payload.engine());
+        dto.setKind(payload.kind());
+        dto.setTarget(payload.target());
+        dto.setSourceUrl(payload.sourceUrl());
+        dto.setSha256(payload.sha256());
+        dto.setRawBytes(payload.rawBytes());
+        dto.setStoredBytes(payload.storedBytes());
+        dto.setCreatedAt(payload.createdAt());
+        return dto;
+    }
+}
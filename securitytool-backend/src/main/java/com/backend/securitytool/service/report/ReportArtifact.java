@@ -0,0 +1,9 @@
+package com.backend.securitytool.service.report;
+
+/**
+ * A rendered report in the artifact store, as it is served for download. {@code sha256} is null for reports
+ * rendered before artifacts were hashed, {@code gzipSizeBytes} is null if there is no gzip variant.
+ */
+public record ReportArtifact(Integer jobId, String artifactKey, String fileName, String contentType, long sizeBytes,
+                             String sha256, Long gzipSizeBytes) {
+}
@@ -0,0 +1,256 @@
+package com.backend.securitytool.service.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local files of rendered reports under {@code report.artifacts.dir}.
+ * A report is rendered into a temp file and renamed into place when complete, so a download never sees
+ * a partial file. Keys are random, knowing one job's key does not reveal another's.
+ * <p>
+ * A compressible report gets a gzip variant {@code <key>.gz}, compressed once while the report is written,
+ * so clients that accept gzip are served the smaller file without compressing on every download.
+ */
+@Component
+public class ReportArtifactStore {
+    private static final Logger logger = LoggerFactory.getLogger(ReportArtifactStore.class);
+    private static final Pattern KEY = Pattern.compile("[0-9a-f-]{36}\\.[a-z0-9]{1,10}");
+    private static final String TEMP_PREFIX = "rendering-";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // A gzip variant saving less than this share of the size is dropped, it is not worth a second file
+    private static final double MIN_GZIP_SAVING = 0.1;
+
+    private final Path root;
+    private final int gzipLevel;
+
+    /**
+     * Key, sizes and SHA-256 of a stored artifact; {@code gzipSizeBytes} is null if it has no gzip variant.
+     */
+    public record StoredArtifact(String key, long sizeBytes, String sha256, Long gzipSizeBytes) {
+    }
+
+    @Autowired
+    public ReportArtifactStore(@Value("${report.artifacts.dir:./data/reports}") String dir,
+                               @Value("${report.artifacts.gzip-level:6}") int gzipLevel) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.gzipLevel = gzipLevel;
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create report artifact directory " + root, e);
+        }
+        logger.info("Rendered reports are stored under {}", root);
+    }
+
+    /**
+     * Starts a new artifact. {@link ArtifactWriter#commit} moves it into the store, {@link ArtifactWriter#close()}
+     * discards it if not committed.
+     *
+     * @param compressible whether to write a gzip variant along with the file
+     */
+    public ArtifactWriter newWriter(boolean compressible) throws IOException {
+        Path tempFile = Files.createTempFile(root, TEMP_PREFIX, ".tmp");
+        Path gzipTempFile = null;
+        try {
+            if (compressible) {
+                gzipTempFile = Files.createTempFile(root, TEMP_PREFIX, ".gz.tmp");
+            }
+            return new ArtifactWriter(tempFile, gzipTempFile);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            if (gzipTempFile != null) {
+                deleteQuietly(gzipTempFile);
+            }
+            throw e;
+        }
+    }
+
+    public boolean exists(String key) {
+        return Files.exists(pathOf(key));
+    }
+
+    /**
+     * Copies {@code count} bytes from {@code position} of the artifact, or of its gzip variant, to {@code target}
+     * with {@link FileChannel#transferTo}, which lets the kernel move the bytes when the target is a file or socket.
+     */
+    public void transferTo(String key, boolean gzip, long position, long count, WritableByteChannel target) throws IOException {
+        Path file = gzip ? gzipPathOf(key) : pathOf(key);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = Math.min(channel.size(), position + count);
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+        }
+    }
+
+    /**
+     * Deletes the artifact and its gzip variant.
+     */
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(gzipPathOf(key));
+        Files.deleteIfExists(pathOf(key));
+    }
+
+    public void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report temp file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes temp files of renders that never finished, e.g. because the node stopped mid-render.
+     */
+    public int deleteAbandonedRenders(Instant olderThan) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith(TEMP_PREFIX)).toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(olderThan) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Path pathOf(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Not a report artifact key: " + key);
+        }
+        return root.resolve(key);
+    }
+
+    private Path gzipPathOf(String key) {
+        return pathOf(key).resolveSibling(key + GZIP_SUFFIX);
+    }
+
+    /**
+     * One artifact being written. Not thread safe, meant to be filled by the thread rendering the report.
+     */
+    public final class ArtifactWriter implements AutoCloseable {
+        private final Path tempFile;
+        private final Path gzipTempFile;
+        private final MessageDigest digest;
+        private final OutputStream file;
+        private final GZIPOutputStream gzip;
+        private final OutputStream stream;
+        private long sizeBytes;
+        private boolean finished;
+
+        private ArtifactWriter(Path tempFile, Path gzipTempFile) throws IOException {
+            this.tempFile = tempFile;
+            this.gzipTempFile = gzipTempFile;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            this.file = new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE);
+            if (gzipTempFile != null) {
+                this.gzip = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(gzipTempFile), BUFFER_SIZE), BUFFER_SIZE) {
+                    {
+                        def.setLevel(gzipLevel);
+                    }
+                };
+            } else {
+                this.gzip = null;
+            }
+            this.stream = new DigestOutputStream(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    file.write(buffer, offset, length);
+                    if (gzip != null) {
+                        gzip.write(buffer, offset, length);
+                    }
+                    sizeBytes += length;
+                }
+            }, digest);
+        }
+
+        /**
+         * Receives the report. Closing it does not finish the artifact, {@link #commit} does.
+         */
+        public OutputStream stream() {
+            return stream;
+        }
+
+        public StoredArtifact commit(String fileExtension) throws IOException {
+            finished = true;
+            try {
+                file.close();
+                Long gzipSizeBytes = null;
+                if (gzip != null) {
+                    gzip.close();
+                    long compressed = Files.size(gzipTempFile);
+                    if (compressed < sizeBytes * (1 - MIN_GZIP_SAVING)) {
+                        gzipSizeBytes = compressed;
+                    }
+                }
+                String key = UUID.randomUUID() + "." + fileExtension;
+                // The gzip variant goes first, an artifact that exists always has the variant its job refers to
+                if (gzipSizeBytes != null) {
+                    Files.move(gzipTempFile, gzipPathOf(key), StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.move(tempFile, pathOf(key), StandardCopyOption.ATOMIC_MOVE);
+                return new StoredArtifact(key, sizeBytes, HexFormat.of().formatHex(digest.digest()), gzipSizeBytes);
+            } finally {
+                deleteTempFiles();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                file.close();
+                if (gzip != null) {
+                    gzip.close();
+                }
+            } catch (IOException e) {
+                logger.debug("Closing discarded report render failed: {}", e.getMessage());
+            }
+            deleteTempFiles();
+        }
+
+        private void deleteTempFiles() {
+            deleteQuietly(tempFile);
+            if (gzipTempFile != null) {
+                deleteQuietly(gzipTempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.backend.securitytool.service.report;
+
+/**
+ * How a report of one scan in one format is delivered: inline for streaming formats, through a report job otherwise.
+ * Only reports of finished scans are cached, the issues of a running scan still change.
+ */
+public record ReportExportDescriptor(Integer resultId, String format, String fileName, String contentType,
+                                     boolean streaming, boolean compressible, boolean scanFinished) {
+}
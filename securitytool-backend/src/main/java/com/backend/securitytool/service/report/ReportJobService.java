@@ -0,0 +1,39 @@
+package com.backend.securitytool.service.report;
+
+import com.backend.securitytool.model.dto.response.ReportJobResponseDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+public interface ReportJobService {
+
+    /**
+     * Queues rendering the report of a scan in {@code format} into the artifact store. If the same report is
+     * cached or already being rendered, that job is returned instead and nothing new is queued.
+     */
+    ReportJobResponseDTO submit(Integer resultId, String format);
+
+    ReportJobResponseDTO getJob(Integer jobId);
+
+    /**
+     * The artifact of a completed job; fails with ResourceNotFoundException if there is none (any more).
+     */
+    ReportArtifact getArtifact(Integer jobId);
+
+    /**
+     * A report of a finished scan rendered earlier at the current issue mapping version, if one is stored.
+     */
+    Optional<ReportArtifact> findCachedArtifact(ReportExportDescriptor export);
+
+    /**
+     * Renders a streaming report into {@code out}. A report of a finished scan is stored at the same time,
+     * so the next export is served by {@link #findCachedArtifact}.
+     */
+    void writeExport(ReportExportDescriptor export, OutputStream out) throws IOException;
+
+    /**
+     * Copies {@code count} bytes from {@code position} of the artifact, or of its gzip variant, to {@code out}.
+     */
+    void writeArtifact(ReportArtifact artifact, boolean gzip, long position, long count, OutputStream out) throws IOException;
+}
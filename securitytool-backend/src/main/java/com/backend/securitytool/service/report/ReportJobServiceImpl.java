@@ -0,0 +1,339 @@
+package com.backend.securitytool.service.report;
+
+import com.backend.securitytool.constants.ApiConstants;
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.model.dto.response.ReportJobResponseDTO;
+import com.backend.securitytool.model.entity.ReportJob;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.repository.ReportJobRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.service.backfill.IssueBackfillService;
+import com.backend.securitytool.service.report.ReportArtifactStore.ArtifactWriter;
+import com.backend.securitytool.service.report.ReportArtifactStore.StoredArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Renders reports in the background on the {@code reportExecutor} pool, so large XLSX or PDF renders never
+ * hold a request thread. The rendered file goes to the {@link ReportArtifactStore} and is downloadable until
+ * it expires after {@code report.artifacts.ttl-ms}.
+ * <p>
+ * The job runs on the node that accepted it; a job left running by a node that stopped is failed after
+ * {@code report.jobs.stale-after-ms} and can simply be submitted again.
+ * <p>
+ * Completed jobs are the report cache as well. A report of a finished scan can only change when a backfill
+ * rewrites its issues, so a job records the issue mapping version it was rendered at and is reused for the same
+ * scan and format until that version moves on or the artifact expires. Streaming formats are stored while they
+ * are sent, the first export of a scan is not slower than without the cache.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+    private static final List<String> COMPLETED = List.of(ScanType.SCAN_STATUS_COMPLETED);
+    private static final List<String> REUSABLE = List.of(ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS,
+            ScanType.SCAN_STATUS_COMPLETED);
+
+    private final ReportJobRepository reportJobRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final ReportService reportService;
+    private final ReportArtifactStore reportArtifactStore;
+    private final IssueBackfillService issueBackfillService;
+    private final TaskExecutor reportExecutor;
+
+    @Value("${report.artifacts.ttl-ms:86400000}")
+    private long artifactTtlMs;
+
+    @Value("${report.jobs.stale-after-ms:3600000}")
+    private long staleAfterMs;
+
+    @Autowired
+    public ReportJobServiceImpl(ReportJobRepository reportJobRepository,
+                                ScanResultRepository scanResultRepository,
+                                ReportService reportService,
+                                ReportArtifactStore reportArtifactStore,
+                                IssueBackfillService issueBackfillService,
+                                @Qualifier("reportExecutor") TaskExecutor reportExecutor) {
+        this.reportJobRepository = reportJobRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.reportService = reportService;
+        this.reportArtifactStore = reportArtifactStore;
+        this.issueBackfillService = issueBackfillService;
+        this.reportExecutor = reportExecutor;
+    }
+
+    @Override
+    public ReportJobResponseDTO submit(Integer resultId, String format) {
+        ReportExportDescriptor export = reportService.describeExport(resultId, format);
+        Long mappingVersion = export.scanFinished() ? issueBackfillService.getMappingVersion() : null;
+        if (mappingVersion != null) {
+            Optional<ReportJob> reusable = reportJobRepository.findFirstByResultIdAndFormatAndMappingVersionAndStatusInOrderByIdDesc(
+                    resultId, export.format(), mappingVersion, REUSABLE);
+            if (reusable.isPresent() && (!ScanType.SCAN_STATUS_COMPLETED.equals(reusable.get().getStatus()) || isServable(reusable.get()))) {
+                logger.debug("Reusing report job {} for {} report of resultId: {}", reusable.get().getId(), export.format(), resultId);
+                return toResponseDTO(reusable.get(), resultId);
+            }
+        }
+        ReportJob job = newJob(export, mappingVersion);
+        job.setStatus(ScanType.SCAN_STATUS_PENDING);
+        job = reportJobRepository.save(job);
+
+        Integer jobId = job.getId();
+        try {
+            reportExecutor.execute(() -> render(jobId));
+            logger.info("Queued {} report job {} for resultId: {}", job.getFormat(), jobId, resultId);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Report job {} rejected, the render queue is full", jobId);
+            fail(job, "Too many reports are being rendered, try again later");
+        }
+        return toResponseDTO(job, resultId);
+    }
+
+    @Override
+    public ReportJobResponseDTO getJob(Integer jobId) {
+        ReportJob job = findJob(jobId);
+        return toResponseDTO(job, job.getResult().getId());
+    }
+
+    @Override
+    public ReportArtifact getArtifact(Integer jobId) {
+        ReportJob job = findJob(jobId);
+        if (!ScanType.SCAN_STATUS_COMPLETED.equals(job.getStatus()) || !reportArtifactStore.exists(job.getArtifactKey())) {
+            throw new ResourceNotFoundException(ErrorMessages.REPORT_ARTIFACT_NOT_FOUND + jobId);
+        }
+        return toArtifact(job);
+    }
+
+    @Override
+    public Optional<ReportArtifact> findCachedArtifact(ReportExportDescriptor export) {
+        if (!export.scanFinished()) {
+            return Optional.empty();
+        }
+        return reportJobRepository.findFirstByResultIdAndFormatAndMappingVersionAndStatusInOrderByIdDesc(
+                        export.resultId(), export.format(), issueBackfillService.getMappingVersion(), COMPLETED)
+                .filter(this::isServable)
+                .map(this::toArtifact);
+    }
+
+    @Override
+    public void writeExport(ReportExportDescriptor export, OutputStream out) throws IOException {
+        if (!export.scanFinished()) {
+            reportService.writeExport(export.resultId(), export.format(), out);
+            return;
+        }
+        // Read before rendering: if a backfill rewrites issues meanwhile, the version moves on and this copy is never hit
+        long mappingVersion = issueBackfillService.getMappingVersion();
+        Instant startedAt = Instant.now();
+        ArtifactWriter writer;
+        try {
+            writer = reportArtifactStore.newWriter(export.compressible());
+        } catch (IOException e) {
+            logger.warn("{} report of resultId: {} is not cached: {}", export.format(), export.resultId(), e.getMessage());
+            reportService.writeExport(export.resultId(), export.format(), out);
+            return;
+        }
+        try (writer) {
+            CachingOutputStream caching = new CachingOutputStream(out, writer.stream());
+            reportService.writeExport(export.resultId(), export.format(), caching);
+            if (caching.cacheError != null) {
+                logger.warn("{} report of resultId: {} is not cached: {}", export.format(), export.resultId(),
+                        caching.cacheError.getMessage());
+                return;
+            }
+            StoredArtifact artifact;
+            try {
+                artifact = writer.commit(extensionOf(export.fileName()));
+            } catch (IOException e) {
+                logger.warn("{} report of resultId: {} is not cached: {}", export.format(), export.resultId(), e.getMessage());
+                return;
+            }
+            ReportJob job = newJob(export, mappingVersion);
+            job.setCreatedAt(startedAt);
+            job.setStartedAt(startedAt);
+            complete(job, artifact);
+            logger.debug("Cached {} report of resultId: {} as job {}", export.format(), export.resultId(), job.getId());
+        }
+    }
+
+    @Override
+    public void writeArtifact(ReportArtifact artifact, boolean gzip, long position, long count, OutputStream out) throws IOException {
+        reportArtifactStore.transferTo(artifact.artifactKey(), gzip, position, count, Channels.newChannel(out));
+    }
+
+    private void render(Integer jobId) {
+        if (reportJobRepository.start(jobId, ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS, Instant.now()) == 0) {
+            return;
+        }
+        ReportJob job = findJob(jobId);
+        Integer resultId = job.getResult().getId();
+        try {
+            ReportExportDescriptor export = reportService.describeExport(resultId, job.getFormat());
+            try (ArtifactWriter writer = reportArtifactStore.newWriter(export.compressible())) {
+                reportService.writeExport(resultId, job.getFormat(), writer.stream());
+                complete(job, writer.commit(extensionOf(job.getFileName())));
+            }
+            logger.info("Report job {} rendered {} report of resultId: {} ({} bytes)", jobId, job.getFormat(), resultId,
+                    job.getSizeBytes());
+        } catch (Exception e) {
+            logger.error("Report job {} failed for resultId: {}: {}", jobId, resultId, e.getMessage(), e);
+            fail(job, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private ReportJob newJob(ReportExportDescriptor export, Long mappingVersion) {
+        ReportJob job = new ReportJob();
+        job.setResult(scanResultRepository.getReferenceById(export.resultId()));
+        job.setFormat(export.format());
+        job.setFileName(export.fileName());
+        job.setContentType(export.contentType());
+        job.setMappingVersion(mappingVersion);
+        return job;
+    }
+
+    private void complete(ReportJob job, StoredArtifact artifact) {
+        job.setArtifactKey(artifact.key());
+        job.setSizeBytes(artifact.sizeBytes());
+        job.setContentSha256(artifact.sha256());
+        job.setGzipSizeBytes(artifact.gzipSizeBytes());
+        job.setStatus(ScanType.SCAN_STATUS_COMPLETED);
+        job.setFinishedAt(Instant.now());
+        job.setExpiresAt(job.getFinishedAt().plusMillis(artifactTtlMs));
+        reportJobRepository.save(job);
+    }
+
+    // The cleanup may not have caught up with an expired artifact yet
+    private boolean isServable(ReportJob job) {
+        return job.getExpiresAt() != null && job.getExpiresAt().isAfter(Instant.now())
+                && reportArtifactStore.exists(job.getArtifactKey());
+    }
+
+    private static String extensionOf(String fileName) {
+        return fileName.substring(fileName.lastIndexOf('.') + 1);
+    }
+
+    private void fail(ReportJob job, String message) {
+        job.setStatus(ScanType.SCAN_STATUS_FAILED);
+        job.setErrorMessage(message.length() > 1024 ? message.substring(0, 1024) : message);
+        job.setFinishedAt(Instant.now());
+        reportJobRepository.save(job);
+    }
+
+    /**
+     * Deletes expired artifacts, fails jobs left running by a stopped node and removes their temp files.
+     */
+    @Scheduled(initialDelayString = "${report.artifacts.cleanup-initial-delay-ms:300000}", fixedDelayString = "${report.artifacts.cleanup-interval-ms:600000}")
+    public void cleanUp() {
+        Instant now = Instant.now();
+        for (ReportJob job : reportJobRepository.findByStatusAndExpiresAtBefore(ScanType.SCAN_STATUS_COMPLETED, now)) {
+            try {
+                reportArtifactStore.delete(job.getArtifactKey());
+                job.setStatus(ScanType.JOB_STATUS_EXPIRED);
+                reportJobRepository.save(job);
+            } catch (IOException e) {
+                logger.warn("Could not delete expired report artifact of job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+        Instant staleBefore = now.minusMillis(staleAfterMs);
+        for (ReportJob job : reportJobRepository.findByStatusAndStartedAtBefore(ScanType.SCAN_STATUS_IN_PROGRESS, staleBefore)) {
+            logger.warn("Report job {} has been rendering since {}, marking it failed", job.getId(), job.getStartedAt());
+            fail(job, "Rendering did not finish, the node running it may have stopped");
+        }
+        try {
+            int abandoned = reportArtifactStore.deleteAbandonedRenders(staleBefore);
+            if (abandoned > 0) {
+                logger.info("Deleted {} abandoned report renders", abandoned);
+            }
+        } catch (IOException e) {
+            logger.warn("Report artifact cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private ReportJob findJob(Integer jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.REPORT_JOB_NOT_FOUND + jobId));
+    }
+
+    private ReportArtifact toArtifact(ReportJob job) {
+        return new ReportArtifact(job.getId(), job.getArtifactKey(), job.getFileName(), job.getContentType(),
+                job.getSizeBytes(), job.getContentSha256(), job.getGzipSizeBytes());
+    }
+
+    private ReportJobResponseDTO toResponseDTO(ReportJob job, Integer resultId) {
+        ReportJobResponseDTO dto = new ReportJobResponseDTO();
+        dto.setJobId(job.getId());
+        dto.setResultId(resultId);
+        dto.setFormat(job.getFormat());
+        dto.setStatus(job.getStatus());
+        dto.setFileName(job.getFileName());
+        dto.setContentType(job.getContentType());
+        dto.setSizeBytes(job.getSizeBytes());
+        if (ScanType.SCAN_STATUS_COMPLETED.equals(job.getStatus())) {
+            dto.setDownloadUrl(ApiConstants.REPORTS_BASE_URL
+                    + ApiConstants.REPORT_JOB_DOWNLOAD_PATH.replace("{jobId}", String.valueOf(job.getId())));
+        }
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setExpiresAt(job.getExpiresAt());
+        return dto;
+    }
+
+    /**
+     * Sends the report to the client and keeps a copy in the artifact store. The copy is best effort: if the store
+     * fails (e.g. a full disk) the client still gets the whole report, it is just not cached.
+     */
+    private static final class CachingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final OutputStream cache;
+        private IOException cacheError;
+
+        private CachingOutputStream(OutputStream out, OutputStream cache) {
+            this.out = out;
+            this.cache = cache;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            if (cacheError == null) {
+                try {
+                    cache.write(buffer, offset, length);
+                } catch (IOException e) {
+                    cacheError = e;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // The response is closed by Spring and the cached copy by its writer
+            out.flush();
+        }
+    }
+}
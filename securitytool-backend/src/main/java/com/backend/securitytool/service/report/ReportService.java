@@ -1,11 +1,31 @@
 package com.backend.securitytool.service.report;
 
+import com.backend.securitytool.model.dto.request.IssueQueryRequestDTO;
+import com.backend.securitytool.model.dto.response.IssuePageResponseDTO;
 import com.backend.securitytool.model.dto.response.ReportResponseDTO;
 import com.backend.securitytool.model.dto.response.SecurityIssueResponseDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ReportService {
     ReportResponseDTO getReport(Integer resultId, Integer appId);
-    String exportCsv(Integer resultId);
+
+    /**
+     * One page of the issues of a scan, most severe first, filtered and with the requested fields only.
+     * Fails with BadRequestException for an unknown field or a cursor this API did not hand out.
+     */
+    IssuePageResponseDTO queryIssues(Integer resultId, IssueQueryRequestDTO query);
+
+    /**
+     * Resolves the renderer of {@code format} for a scan; fails with ResourceNotFoundException if either does not
+     * exist. Call it before the response is committed, {@link #writeExport} can no longer report them as 404.
+     */
+    ReportExportDescriptor describeExport(Integer resultId, String format);
+
+    /**
+     * Renders the report of a scan to {@code out}, reading its issues as a stream.
+     */
+    void writeExport(Integer resultId, String format, OutputStream out) throws IOException;
 }
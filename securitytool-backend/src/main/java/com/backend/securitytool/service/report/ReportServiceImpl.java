@@ -1,24 +1,47 @@
 package com.backend.securitytool.service.report;
 
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.BadRequestException;
+import com.backend.securitytool.exception.ResourceNotFoundException;
 import com.backend.securitytool.mapper.SecurityIssueMapper;
+import com.backend.securitytool.model.dto.request.IssueQueryRequestDTO;
+import com.backend.securitytool.model.dto.response.IssuePageResponseDTO;
 import com.backend.securitytool.model.dto.response.ReportResponseDTO;
 import com.backend.securitytool.model.dto.response.SecurityIssueResponseDTO;
 import com.backend.securitytool.model.entity.SecurityIssue;
 import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.TargetApplication;
 import com.backend.securitytool.repository.SecurityIssueRepository;
 import com.backend.securitytool.repository.ScanResultRepository;
-import com.backend.securitytool.util.ReportExporter;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueFilter;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueRow;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.Seek;
+import com.backend.securitytool.service.report.render.ReportContext;
+import com.backend.securitytool.service.report.render.ReportRenderer;
+import com.backend.securitytool.service.report.render.ReportRendererRegistry;
+import com.backend.securitytool.service.retention.ScanRetentionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,16 +49,29 @@ import java.util.stream.Collectors;
 public class ReportServiceImpl implements ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
+    private static final Pattern FILE_NAME_UNSAFE = Pattern.compile("[^A-Za-z0-9._-]+");
+    private static final Pattern CURSOR = Pattern.compile("(\\d{1,2}):(\\d{1,10})");
 
     private SecurityIssueRepository securityIssueRepository;
     private SecurityIssueMapper securityIssueMapper;
     private ScanResultRepository scanResultRepository;
+    private ScanRetentionService scanRetentionService;
+    private ReportRendererRegistry reportRendererRegistry;
+
+    @Value("${report.issues.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${report.issues.max-page-size:500}")
+    private int maxPageSize;
 
     @Autowired
-    public ReportServiceImpl(SecurityIssueRepository securityIssueRepository, SecurityIssueMapper securityIssueMapper, ScanResultRepository scanResultRepository) {
+    public ReportServiceImpl(SecurityIssueRepository securityIssueRepository, SecurityIssueMapper securityIssueMapper, ScanResultRepository scanResultRepository,
+                             ScanRetentionService scanRetentionService, ReportRendererRegistry reportRendererRegistry) {
         this.securityIssueRepository = securityIssueRepository;
         this.securityIssueMapper = securityIssueMapper;
         this.scanResultRepository = scanResultRepository;
+        this.scanRetentionService = scanRetentionService;
+        this.reportRendererRegistry = reportRendererRegistry;
     }
 
     @Override
@@ -50,7 +86,7 @@ public class ReportServiceImpl implements ReportService {
             throw new RuntimeException("Scan result does not belong to the specified application");
         }
 
-        List<SecurityIssue> issues = securityIssueRepository.findByResultId(resultId);
+        List<SecurityIssue> issues = scanRetentionService.findIssues(resultId);
         List<SecurityIssueResponseDTO> issueDTOs = issues.stream()
                 .map(securityIssueMapper::toResponseDTO)
                 .collect(Collectors.toList());
@@ -65,11 +101,100 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
-    public String exportCsv(Integer resultId) {
-        logger.debug("Exporting CSV for resultId: {}", resultId);
-        List<SecurityIssue> issues = securityIssueRepository.findByResultId(resultId);
-        String csv = ReportExporter.toCsv(issues);
-        logger.info("CSV export completed for resultId: {}", resultId);
-        return csv;
+    public IssuePageResponseDTO queryIssues(Integer resultId, IssueQueryRequestDTO query) {
+        if (!scanResultRepository.existsById(resultId)) {
+            throw new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId);
+        }
+        List<String> fields = resolveFields(query.getFields());
+        Seek after = decodeCursor(query.getCursor());
+        int limit = query.getLimit() == null ? defaultPageSize : Math.max(1, Math.min(maxPageSize, query.getLimit()));
+        IssueFilter filter = new IssueFilter(query.getSeverity(), query.getStatus(), query.getIssueType(),
+                query.getEndpointId(), query.getModuleId());
+
+        // One row more than the page tells whether there is a next page
+        List<IssueRow> rows = scanRetentionService.findIssuePage(resultId, filter, after, fields, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<IssueRow> page = hasMore ? rows.subList(0, limit) : rows;
+
+        IssuePageResponseDTO response = new IssuePageResponseDTO();
+        response.setResultId(resultId);
+        response.setIssues(page.stream().map(IssueRow::fields).toList());
+        response.setLimit(limit);
+        response.setNextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null);
+        logger.debug("Issue page of resultId: {} after {} returned {} issues", resultId, query.getCursor(), page.size());
+        return response;
+    }
+
+    @Override
+    public ReportExportDescriptor describeExport(Integer resultId, String format) {
+        ReportRenderer renderer = reportRendererRegistry.get(format);
+        ScanResult scanResult = findScanResult(resultId);
+        String appName = scanResult.getApp() != null ? scanResult.getApp().getAppName() : null;
+        String fileName = (appName != null ? FILE_NAME_UNSAFE.matcher(appName).replaceAll("_") : "report")
+                + "_scan_" + resultId + "_report." + renderer.getFileExtension();
+        return new ReportExportDescriptor(resultId, renderer.getFormat(), fileName, renderer.getContentType(),
+                renderer.isStreaming(), renderer.isCompressible(),
+                ScanType.SCAN_STATUS_COMPLETED.equals(scanResult.getStatus()) || ScanType.SCAN_STATUS_FAILED.equals(scanResult.getStatus()));
+    }
+
+    @Override
+    public void writeExport(Integer resultId, String format, OutputStream out) throws IOException {
+        ReportRenderer renderer = reportRendererRegistry.get(format);
+        ScanResult scanResult = findScanResult(resultId);
+        TargetApplication app = scanResult.getApp();
+        ReportContext context = new ReportContext(resultId, app != null ? app.getId() : null,
+                app != null ? app.getAppName() : null, scanResult.getScanType(), scanResult.getStatus(),
+                scanResult.getScanDate());
+
+        logger.debug("Rendering {} report for resultId: {}", renderer.getFormat(), resultId);
+        long startNanos = System.nanoTime();
+        try (Stream<SecurityIssue> issues = scanRetentionService.streamIssues(resultId)) {
+            renderer.render(context, issues, out);
+        }
+        logger.info("{} report rendered for resultId: {} in {} ms",
+                renderer.getFormat(), resultId, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private List<String> resolveFields(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return SecurityIssueQueryRepository.defaultFieldNames();
+        }
+        List<String> known = SecurityIssueQueryRepository.fieldNames();
+        LinkedHashSet<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            String name = field.trim();
+            if (!known.contains(name)) {
+                throw new BadRequestException(ErrorMessages.ISSUE_FIELD_UNKNOWN + name);
+            }
+            fields.add(name);
+        }
+        return List.copyOf(fields);
+    }
+
+    // Opaque to clients: the severity rank and issue id of the last issue of a page
+    private static String encodeCursor(IssueRow last) {
+        String position = last.severityRank() + ":" + last.issueId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Seek decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            Matcher matcher = CURSOR.matcher(position);
+            if (matcher.matches()) {
+                return new Seek(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            }
+        } catch (IllegalArgumentException e) {
+            // not Base64 or out of range, reported below
+        }
+        throw new BadRequestException(ErrorMessages.ISSUE_CURSOR_INVALID + cursor);
+    }
+
+    private ScanResult findScanResult(Integer resultId) {
+        return scanResultRepository.findWithAppById(resultId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId));
     }
 }
@@ -0,0 +1,42 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.util.ReportExporter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Component
+public class CsvReportRenderer implements ReportRenderer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getFormat() {
+        return "csv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv;charset=UTF-8";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException {
+        ReportExporter.writeCsv(issues, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+}
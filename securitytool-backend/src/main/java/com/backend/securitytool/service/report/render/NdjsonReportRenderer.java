@@ -0,0 +1,81 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * One JSON object per issue and line, for log pipelines and ticketing imports that read records one by one.
+ */
+@Component
+public class NdjsonReportRenderer implements ReportRenderer {
+    private static final int FLUSH_EVERY = 500;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public String getFormat() {
+        return "ndjson";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-ndjson";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "ndjson";
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Root values are separated by a newline instead of the default space
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            long rows = 0;
+            Iterator<SecurityIssue> iterator = issues.iterator();
+            while (iterator.hasNext()) {
+                writeIssue(generator, context, iterator.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeIssue(JsonGenerator generator, ReportContext context, SecurityIssue issue) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", issue.getId());
+        generator.writeNumberField("resultId", context.resultId());
+        if (context.appId() != null) {
+            generator.writeNumberField("appId", context.appId());
+        }
+        generator.writeStringField("issueType", issue.getIssueType());
+        generator.writeStringField("severity", issue.getSeverity());
+        generator.writeStringField("status", issue.getStatus());
+        generator.writeStringField("description", issue.getDescription());
+        generator.writeStringField("solution", issue.getSolution());
+        generator.writeStringField("reference", issue.getReference());
+        generator.writeStringField("fingerprint", issue.getFingerprint());
+        generator.writeStringField("changeType", issue.getChangeType());
+        generator.writeEndObject();
+    }
+}
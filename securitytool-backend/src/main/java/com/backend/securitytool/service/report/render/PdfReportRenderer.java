@@ -0,0 +1,132 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Printable issue table. The table is added to the document in slices of {@link #ROWS_PER_SLICE} rows,
+ * each slice is laid out and written to the output before the next one is built, so only one slice is held.
+ * Long descriptions are shortened, the full text is in the other formats.
+ */
+@Component
+public class PdfReportRenderer implements ReportRenderer {
+    private static final int ROWS_PER_SLICE = 200;
+    private static final int MAX_DESCRIPTION_LENGTH = 1500;
+    private static final float[] COLUMN_WIDTHS = {6, 10, 8, 14, 46, 16};
+    private static final String[] COLUMNS = {"ID", "Issue Type", "Severity", "Status", "Description", "Reference"};
+
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
+    private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    @Override
+    public String getFormat() {
+        return "pdf";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/pdf";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "pdf";
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    // Page content streams are deflated by OpenPDF already
+    @Override
+    public boolean isCompressible() {
+        return false;
+    }
+
+    @Override
+    public void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate(), 24, 24, 24, 24);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            document.add(new Paragraph("Security report: " + (context.appName() != null ? context.appName() : "scan " + context.resultId()), TITLE_FONT));
+            document.add(new Paragraph(String.format("Scan result %d, %s scan, %s, %s", context.resultId(), context.scanType(),
+                    context.scanStatus(), context.scanDate() != null ? context.scanDate().toString() : "date unknown"), CELL_FONT));
+            document.add(new Paragraph(" "));
+
+            PdfPTable table = newTable();
+            int rows = 0;
+            Iterator<SecurityIssue> iterator = issues.iterator();
+            while (iterator.hasNext()) {
+                SecurityIssue issue = iterator.next();
+                addCell(table, String.valueOf(issue.getId()));
+                addCell(table, issue.getIssueType());
+                addCell(table, issue.getSeverity());
+                addCell(table, issue.getStatus());
+                addCell(table, shorten(issue.getDescription()));
+                addCell(table, issue.getReference());
+                if (++rows % ROWS_PER_SLICE == 0) {
+                    // Lays out and writes the rows added so far, then drops them from the table
+                    document.add(table);
+                }
+            }
+            if (rows == 0) {
+                PdfPCell empty = new PdfPCell(new Phrase("No issues", CELL_FONT));
+                empty.setColspan(COLUMNS.length);
+                table.addCell(empty);
+            }
+            table.setComplete(true);
+            document.add(table);
+        } catch (DocumentException e) {
+            throw new IOException("Rendering the PDF report failed: " + e.getMessage(), e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private static PdfPTable newTable() {
+        PdfPTable table = new PdfPTable(COLUMN_WIDTHS);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        // Incomplete: every document.add writes the finished rows and keeps the table open for more
+        table.setComplete(false);
+        for (String column : COLUMNS) {
+            PdfPCell cell = new PdfPCell(new Phrase(column, HEADER_FONT));
+            cell.setBackgroundColor(new Color(230, 230, 230));
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private static void addCell(PdfPTable table, String value) {
+        table.addCell(new PdfPCell(new Phrase(value != null ? value : "", CELL_FONT)));
+    }
+
+    private static String shorten(String value) {
+        if (value == null || value.length() <= MAX_DESCRIPTION_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_DESCRIPTION_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,10 @@
+package com.backend.securitytool.service.report.render;
+
+import java.time.Instant;
+
+/**
+ * The scan a report is rendered for; the issues are passed to the renderer separately as a stream.
+ */
+public record ReportContext(Integer resultId, Integer appId, String appName, String scanType, String scanStatus,
+                            Instant scanDate) {
+}
@@ -0,0 +1,41 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * One report format. Renderers are Spring beans picked up by {@link ReportRendererRegistry}; adding a format
+ * means adding a bean.
+ * <p>
+ * A streaming renderer writes each issue as it is read and holds nothing else, it is rendered inline into the
+ * response. Others build a document that has to be finished before it can be sent (e.g. XLSX, PDF) and are
+ * rendered by a background report job into the artifact store.
+ */
+public interface ReportRenderer {
+
+    /**
+     * Format key used in the API, lower case, e.g. {@code sarif}.
+     */
+    String getFormat();
+
+    String getContentType();
+
+    String getFileExtension();
+
+    boolean isStreaming();
+
+    /**
+     * Whether a gzip variant of the rendered file is worth storing; false for formats that are compressed already.
+     */
+    default boolean isCompressible() {
+        return true;
+    }
+
+    /**
+     * Writes the report to {@code out}. The issues arrive in no particular order; the stream is closed by the caller.
+     */
+    void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException;
+}
@@ -0,0 +1,32 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ReportRendererRegistry {
+
+    private final Map<String, ReportRenderer> renderersByFormat;
+
+    @Autowired
+    public ReportRendererRegistry(List<ReportRenderer> renderers) {
+        this.renderersByFormat = renderers.stream()
+                .collect(Collectors.toMap(ReportRenderer::getFormat, Function.identity()));
+    }
+
+    public ReportRenderer get(String format) {
+        ReportRenderer renderer = format != null ? renderersByFormat.get(format.toLowerCase(Locale.ROOT)) : null;
+        if (renderer == null) {
+            throw new ResourceNotFoundException(ErrorMessages.REPORT_FORMAT_NOT_FOUND + format);
+        }
+        return renderer;
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * SARIF 2.1.0 for CI systems, written with a streaming generator so the results array is never held in memory.
+ * <p>
+ * Findings keep no rule id or structured source location, so every result carries its engine as rule id, its
+ * description as message and the finding fingerprint as partial fingerprint, which is what CI uses to track a
+ * result across runs. All engines of a combined scan share one run.
+ */
+@Component
+public class SarifReportRenderer implements ReportRenderer {
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String TOOL_NAME = "securitytool";
+    private static final String FINGERPRINT_KEY = "securitytoolFingerprint/v1";
+    private static final int FLUSH_EVERY = 500;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public String getFormat() {
+        return "sarif";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/sarif+json";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "sarif";
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("$schema", SCHEMA);
+            generator.writeStringField("version", "2.1.0");
+            generator.writeArrayFieldStart("runs");
+            generator.writeStartObject();
+
+            generator.writeObjectFieldStart("tool");
+            generator.writeObjectFieldStart("driver");
+            generator.writeStringField("name", TOOL_NAME);
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("automationDetails");
+            generator.writeStringField("id", TOOL_NAME + "/app-" + context.appId() + "/scan-" + context.resultId());
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("properties");
+            generator.writeNumberField("resultId", context.resultId());
+            generator.writeStringField("appName", context.appName());
+            generator.writeStringField("scanType", context.scanType());
+            generator.writeStringField("scanDate", context.scanDate() != null ? context.scanDate().toString() : null);
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("results");
+            long rows = 0;
+            Iterator<SecurityIssue> iterator = issues.iterator();
+            while (iterator.hasNext()) {
+                writeResult(generator, iterator.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeResult(JsonGenerator generator, SecurityIssue issue) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ruleId", issue.getIssueType());
+        generator.writeStringField("level", levelOf(issue.getSeverity()));
+        generator.writeObjectFieldStart("message");
+        generator.writeStringField("text", issue.getDescription() != null ? issue.getDescription() : "");
+        generator.writeEndObject();
+        if (issue.getFingerprint() != null) {
+            generator.writeObjectFieldStart("partialFingerprints");
+            generator.writeStringField(FINGERPRINT_KEY, issue.getFingerprint());
+            generator.writeEndObject();
+        }
+        generator.writeObjectFieldStart("properties");
+        generator.writeNumberField("issueId", issue.getId());
+        generator.writeStringField("severity", issue.getSeverity());
+        generator.writeStringField("status", issue.getStatus());
+        generator.writeStringField("solution", issue.getSolution());
+        generator.writeStringField("reference", issue.getReference());
+        generator.writeStringField("changeType", issue.getChangeType());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * SARIF levels from the severities the engines store (ZAP risk names, mapped SonarQube levels).
+     */
+    private static String levelOf(String severity) {
+        if (severity == null) {
+            return "note";
+        }
+        switch (severity.trim().toLowerCase(Locale.ROOT)) {
+            case "high":
+                return "error";
+            case "medium":
+                return "warning";
+            default:
+                return "note";
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.securitytool.service.report.render;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Excel workbook with a summary sheet and one row per issue. Written with POI's streaming SXSSF workbook:
+ * only the last {@code report.xlsx.row-window} rows stay in memory, older ones are flushed to a compressed
+ * temp file, so the heap does not grow with the scan. The zip container is only complete at the end,
+ * which is why the format is rendered by a background report job.
+ */
+@Component
+public class XlsxReportRenderer implements ReportRenderer {
+    private static final String[] COLUMNS = {"ID", "Issue Type", "Severity", "Status", "Change", "Description", "Solution", "Reference"};
+    private static final int[] COLUMN_WIDTHS = {10, 14, 12, 24, 10, 80, 60, 50};
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    @Value("${report.xlsx.row-window:200}")
+    private int rowWindow;
+
+    @Override
+    public String getFormat() {
+        return "xlsx";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    // An xlsx file is a zip archive already
+    @Override
+    public boolean isCompressible() {
+        return false;
+    }
+
+    @Override
+    public void render(ReportContext context, Stream<SecurityIssue> issues, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+
+            // Created first so it is the sheet the workbook opens on; filled once the counts are known
+            Sheet summary = workbook.createSheet("Summary");
+            Sheet sheet = workbook.createSheet("Issues");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                header.createCell(i).setCellValue(COLUMNS[i]);
+                header.getCell(i).setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+            }
+            sheet.createFreezePane(0, 1);
+
+            Map<String, Long> bySeverity = new TreeMap<>();
+            int rowIndex = 1;
+            Iterator<SecurityIssue> iterator = issues.iterator();
+            while (iterator.hasNext()) {
+                SecurityIssue issue = iterator.next();
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(issue.getId());
+                row.createCell(1).setCellValue(cellText(issue.getIssueType()));
+                row.createCell(2).setCellValue(cellText(issue.getSeverity()));
+                row.createCell(3).setCellValue(cellText(issue.getStatus()));
+                row.createCell(4).setCellValue(cellText(issue.getChangeType()));
+                row.createCell(5).setCellValue(cellText(issue.getDescription()));
+                row.createCell(6).setCellValue(cellText(issue.getSolution()));
+                row.createCell(7).setCellValue(cellText(issue.getReference()));
+                bySeverity.merge(issue.getSeverity() != null ? issue.getSeverity() : "Unknown", 1L, Long::sum);
+            }
+
+            int summaryRow = 0;
+            summaryRow = addSummaryRow(summary, summaryRow, "Application", context.appName());
+            summaryRow = addSummaryRow(summary, summaryRow, "Scan result", String.valueOf(context.resultId()));
+            summaryRow = addSummaryRow(summary, summaryRow, "Scan type", context.scanType());
+            summaryRow = addSummaryRow(summary, summaryRow, "Scan status", context.scanStatus());
+            summaryRow = addSummaryRow(summary, summaryRow, "Scan date", context.scanDate() != null ? context.scanDate().toString() : null);
+            summaryRow = addSummaryRow(summary, summaryRow, "Issues", String.valueOf(rowIndex - 1));
+            for (Map.Entry<String, Long> entry : bySeverity.entrySet()) {
+                summaryRow = addSummaryRow(summary, summaryRow, entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            summary.setColumnWidth(0, 20 * 256);
+            summary.setColumnWidth(1, 40 * 256);
+
+            workbook.write(out);
+        } finally {
+            // Deletes the temp files holding the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static int addSummaryRow(Sheet summary, int rowIndex, String label, String value) {
+        Row row = summary.createRow(rowIndex);
+        row.createCell(0).setCellValue(label);
+        row.createCell(1).setCellValue(cellText(value));
+        return rowIndex + 1;
+    }
+
+    // Excel rejects cells longer than 32767 characters
+    private static String cellText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > MAX_CELL_LENGTH ? value.substring(0, MAX_CELL_LENGTH - 3) + "..." : value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.securitytool.service.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of threads that may be inside calls to one upstream at the same time,
+ * so a hanging upstream holds at most {@code maxConcurrentCalls} request threads.
+ */
+public class Bulkhead {
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public Bulkhead(int maxConcurrentCalls, Duration maxWait) {
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(this.maxConcurrentCalls, true);
+    }
+
+    public boolean tryEnter() {
+        try {
+            boolean entered = maxWait.isZero()
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            if (!entered) {
+                rejectedCalls.incrementAndGet();
+            }
+            return entered;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+}
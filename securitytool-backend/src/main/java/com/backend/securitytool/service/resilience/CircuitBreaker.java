@@ -0,0 +1,201 @@
+package com.backend.securitytool.service.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker.
+ * <ul>
+ *     <li>CLOSED: calls pass, the outcome of the last {@code windowSize} calls is kept. Once at least
+ *     {@code minimumCalls} are recorded and the failure rate reaches the threshold, the breaker opens.</li>
+ *     <li>OPEN: calls are refused without touching the upstream until {@code openDuration} has passed.</li>
+ *     <li>HALF_OPEN: up to {@code halfOpenCalls} trial calls pass. All of them succeeding closes the breaker,
+ *     any failure opens it again.</li>
+ * </ul>
+ * Every permission carries the generation of the breaker it was granted in, which changes with each transition.
+ * Outcomes only count towards the generation they were admitted in, so a slow call let through while CLOSED
+ * can neither close nor reopen the breaker after it moved on, and only real trial calls decide HALF_OPEN.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * A granted call, tagged with the state and generation it was admitted in.
+     */
+    public record Permission(State state, long generation) {
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    // Ring buffer of the last outcomes, true = failed
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private Instant openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+    private long notPermittedCalls;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * Takes a permission for one call. Every granted permission must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #releasePermission} with the same permission.
+     *
+     * @return the permission, or null when the call is not permitted
+     */
+    public synchronized Permission tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (Instant.now().isBefore(openedAt.plus(openDuration))) {
+                notPermittedCalls++;
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                notPermittedCalls++;
+                return null;
+            }
+            halfOpenInFlight++;
+        }
+        return new Permission(state, generation);
+    }
+
+    /**
+     * Whether a call would currently be let through, without taking a permission.
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || !Instant.now().isBefore(openedAt.plus(openDuration));
+    }
+
+    /**
+     * Gives back a permission whose call was never made.
+     */
+    public synchronized void releasePermission(Permission permission) {
+        if (isCurrent(permission) && state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void onSuccess(Permission permission) {
+        if (!isCurrent(permission)) {
+            // Admitted before the last transition, e.g. a slow call that started while CLOSED
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            halfOpenSucceeded++;
+            if (halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(Permission permission) {
+        if (!isCurrent(permission)) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 / recorded >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getFailureRatePercent() {
+        return recorded == 0 ? 0 : failures * 100 / recorded;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return recorded;
+    }
+
+    public synchronized int getFailedCalls() {
+        return failures;
+    }
+
+    public synchronized long getNotPermittedCalls() {
+        return notPermittedCalls;
+    }
+
+    public synchronized Instant getOpenedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Seconds until an open breaker lets a trial call through, 0 when it is not open.
+     */
+    public synchronized long getRetryAfterSeconds() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(1, Duration.between(Instant.now(), openedAt.plus(openDuration)).toSeconds());
+    }
+
+    private boolean isCurrent(Permission permission) {
+        return permission.generation() == generation && permission.state() == state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State newState) {
+        logger.warn("Circuit breaker {} changed from {} to {} (failure rate {}% over {} calls)",
+                name, state, newState, getFailureRatePercent(), recorded);
+        state = newState;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAt = Instant.now();
+        } else if (newState == State.CLOSED) {
+            openedAt = null;
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
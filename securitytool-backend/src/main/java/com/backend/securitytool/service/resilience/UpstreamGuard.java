@@ -0,0 +1,104 @@
+package com.backend.securitytool.service.resilience;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.exception.UpstreamUnavailableException;
+import com.backend.securitytool.model.dto.response.UpstreamHealthDTO;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus optional bulkhead in front of one upstream, or one instance of it. Refused calls fail fast
+ * with {@link UpstreamUnavailableException} instead of waiting on a service that is known to be failing.
+ */
+public class UpstreamGuard {
+    private final String name;
+    // Null when the guard covers the whole upstream
+    private final String instanceUrl;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public UpstreamGuard(String name, String instanceUrl, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.name = name;
+        this.instanceUrl = instanceUrl;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Enters the guard. Must be paired with {@link #release} with the returned permission once the call is over.
+     *
+     * @throws UpstreamUnavailableException when the breaker is open or the bulkhead is full
+     */
+    public CircuitBreaker.Permission acquire() {
+        CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission();
+        if (permission == null) {
+            long retryAfter = circuitBreaker.getRetryAfterSeconds();
+            throw new UpstreamUnavailableException(name, String.format(ErrorMessages.UPSTREAM_CIRCUIT_OPEN, displayName(), retryAfter), retryAfter);
+        }
+        if (bulkhead != null && !bulkhead.tryEnter()) {
+            circuitBreaker.releasePermission(permission);
+            throw new UpstreamUnavailableException(name, String.format(ErrorMessages.UPSTREAM_BULKHEAD_FULL, displayName(), 1), 1);
+        }
+        return permission;
+    }
+
+    public void release(CircuitBreaker.Permission permission, boolean failed) {
+        if (bulkhead != null) {
+            bulkhead.exit();
+        }
+        if (failed) {
+            circuitBreaker.onFailure(permission);
+        } else {
+            circuitBreaker.onSuccess(permission);
+        }
+    }
+
+    /**
+     * Runs {@code action} inside the guard; any exception it throws counts as a failure of the upstream.
+     */
+    public <T> T call(Supplier<T> action) {
+        CircuitBreaker.Permission permission = acquire();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            release(permission, failed);
+        }
+    }
+
+    public boolean isCallPermitted() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getInstanceUrl() {
+        return instanceUrl;
+    }
+
+    public UpstreamHealthDTO health() {
+        UpstreamHealthDTO health = new UpstreamHealthDTO();
+        health.setUpstream(name);
+        health.setInstanceUrl(instanceUrl);
+        health.setState(circuitBreaker.getState().name());
+        health.setFailureRatePercent(circuitBreaker.getFailureRatePercent());
+        health.setBufferedCalls(circuitBreaker.getBufferedCalls());
+        health.setFailedCalls(circuitBreaker.getFailedCalls());
+        health.setNotPermittedCalls(circuitBreaker.getNotPermittedCalls());
+        health.setOpenedAt(circuitBreaker.getOpenedAt());
+        if (bulkhead != null) {
+            health.setActiveCalls(bulkhead.getActiveCalls());
+            health.setMaxConcurrentCalls(bulkhead.getMaxConcurrentCalls());
+            health.setRejectedCalls(bulkhead.getRejectedCalls());
+        }
+        return health;
+    }
+
+    private String displayName() {
+        return instanceUrl == null ? name : name + " (" + instanceUrl + ")";
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.securitytool.service.resilience;
+
+import com.backend.securitytool.model.dto.response.UpstreamHealthDTO;
+import com.backend.securitytool.model.dto.response.UpstreamStatusDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link UpstreamGuard} per upstream, or per instance for upstreams that run on several instances
+ * (ZAP daemons, SonarQube nodes), configured under {@code resilience.<upstream>.*} with fallbacks from
+ * {@code resilience.defaults.*}. Instances of one upstream share the settings but trip independently.
+ */
+@Component
+public class UpstreamGuardRegistry {
+    public static final String ZAP = "zap";
+    public static final String SONARQUBE = "sonarqube";
+    public static final String AI_CHAT = "ai-chat";
+
+    private final Environment environment;
+    private final Map<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamGuardRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Guard of {@code upstream}, created on first use. A bulkhead is only added when
+     * {@code resilience.<upstream>.max-concurrent-calls} is set.
+     */
+    public UpstreamGuard guard(String upstream) {
+        return guards.computeIfAbsent(upstream, key -> create(upstream, null));
+    }
+
+    /**
+     * Guard of one instance of {@code upstream}, created on first use with the settings of the upstream.
+     */
+    public UpstreamGuard guard(String upstream, String instanceUrl) {
+        return guards.computeIfAbsent(upstream + " " + instanceUrl, key -> create(upstream, instanceUrl));
+    }
+
+    public boolean isCallPermitted(String upstream) {
+        return guard(upstream).isCallPermitted();
+    }
+
+    public boolean isCallPermitted(String upstream, String instanceUrl) {
+        return guard(upstream, instanceUrl).isCallPermitted();
+    }
+
+    public List<UpstreamHealthDTO> getHealth() {
+        return guards.values().stream()
+                .map(UpstreamGuard::health)
+                .toList();
+    }
+
+    /**
+     * One row per upstream, folding its per-instance breakers together so no instance address is exposed.
+     */
+    public List<UpstreamStatusDTO> getStatus() {
+        Map<String, UpstreamStatusDTO> statuses = new TreeMap<>();
+        for (UpstreamHealthDTO health : getHealth()) {
+            UpstreamStatusDTO status = statuses.computeIfAbsent(health.getUpstream(), upstream -> {
+                UpstreamStatusDTO created = new UpstreamStatusDTO();
+                created.setUpstream(upstream);
+                created.setState(CircuitBreaker.State.CLOSED.name());
+                created.setBreakers(0);
+                created.setOpenBreakers(0);
+                return created;
+            });
+            status.setBreakers(status.getBreakers() + 1);
+            if (CircuitBreaker.State.OPEN.name().equals(health.getState())) {
+                status.setOpenBreakers(status.getOpenBreakers() + 1);
+                status.setState(CircuitBreaker.State.OPEN.name());
+            } else if (CircuitBreaker.State.HALF_OPEN.name().equals(health.getState())
+                    && !CircuitBreaker.State.OPEN.name().equals(status.getState())) {
+                status.setState(CircuitBreaker.State.HALF_OPEN.name());
+            }
+        }
+        return List.copyOf(statuses.values());
+    }
+
+    private UpstreamGuard create(String upstream, String instanceUrl) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(instanceUrl == null ? upstream : upstream + " " + instanceUrl,
+                setting(upstream, "sliding-window-size", Integer.class, 20),
+                setting(upstream, "minimum-calls", Integer.class, 10),
+                setting(upstream, "failure-rate-threshold", Integer.class, 50),
+                Duration.ofMillis(setting(upstream, "open-duration-ms", Long.class, 30000L)),
+                setting(upstream, "half-open-calls", Integer.class, 2));
+        Integer maxConcurrentCalls = environment.getProperty("resilience." + upstream + ".max-concurrent-calls", Integer.class);
+        Bulkhead bulkhead = maxConcurrentCalls == null ? null : new Bulkhead(maxConcurrentCalls,
+                Duration.ofMillis(setting(upstream, "max-wait-ms", Long.class, 0L)));
+        return new UpstreamGuard(upstream, instanceUrl, circuitBreaker, bulkhead);
+    }
+
+    private <T> T setting(String upstream, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("resilience." + upstream + "." + key, type);
+        return value != null ? value : environment.getProperty("resilience.defaults." + key, type, defaultValue);
+    }
+}
@@ -0,0 +1,73 @@
+package com.backend.securitytool.service.retention;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.model.entity.SourceCodeModule;
+
+/**
+ * One issue as written into a scan archive. Relations are kept as ids, the endpoint is looked up again
+ * when the archive is read so endpoints deleted in the meantime come back as null, as they would in the table.
+ */
+record ArchivedIssue(Integer id,
+                     Integer resultId,
+                     Integer endpointId,
+                     Integer moduleId,
+                     Integer appId,
+                     String issueType,
+                     String severity,
+                     String description,
+                     String reference,
+                     String solution,
+                     String status,
+                     String fingerprint,
+                     String contentHash,
+                     String changeType) {
+
+    static ArchivedIssue of(SecurityIssue issue) {
+        return new ArchivedIssue(issue.getId(),
+                issue.getResult() != null ? issue.getResult().getId() : null,
+                issue.getEndpoint() != null ? issue.getEndpoint().getId() : null,
+                issue.getModule() != null ? issue.getModule().getId() : null,
+                issue.getAppId(),
+                issue.getIssueType(),
+                issue.getSeverity(),
+                issue.getDescription(),
+                issue.getReference(),
+                issue.getSolution(),
+                issue.getStatus(),
+                issue.getFingerprint(),
+                issue.getContentHash(),
+                issue.getChangeType());
+    }
+
+    /**
+     * Detached issue for read paths, never meant to be saved.
+     */
+    SecurityIssue toIssue(ApiEndpoint endpoint) {
+        SecurityIssue issue = new SecurityIssue();
+        issue.setId(id);
+        if (resultId != null) {
+            ScanResult result = new ScanResult();
+            result.setId(resultId);
+            issue.setResult(result);
+        }
+        if (moduleId != null) {
+            SourceCodeModule module = new SourceCodeModule();
+            module.setId(moduleId);
+            issue.setModule(module);
+        }
+        issue.setEndpoint(endpoint);
+        issue.setAppId(appId);
+        issue.setIssueType(issueType);
+        issue.setSeverity(severity);
+        issue.setDescription(description);
+        issue.setReference(reference);
+        issue.setSolution(solution);
+        issue.setStatus(status);
+        issue.setFingerprint(fingerprint);
+        issue.setContentHash(contentHash);
+        issue.setChangeType(changeType);
+        return issue;
+    }
+}
@@ -0,0 +1,34 @@
+package com.backend.securitytool.service.retention;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueFilter;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueRow;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.Seek;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ScanRetentionService {
+    /**
+     * Issues of a scan, read from security_issues while the scan is hot and from its archive once it is cold.
+     */
+    List<SecurityIssue> findIssues(Integer resultId);
+
+    /**
+     * Same issues as {@link #findIssues}, for exports: hot scans are read with a forward-only cursor,
+     * archived ones from their archive. The stream must be closed.
+     */
+    Stream<SecurityIssue> streamIssues(Integer resultId);
+
+    /**
+     * One keyset page of the issues of a scan, most severe first, with only the requested {@code fields}.
+     */
+    List<IssueRow> findIssuePage(Integer resultId, IssueFilter filter, Seek after, List<String> fields, int limit);
+
+    /**
+     * Archives the scans that fell out of their application's hot window.
+     *
+     * @return the number of scans archived
+     */
+    int archiveExpiredResults();
+}
@@ -0,0 +1,278 @@
+package com.backend.securitytool.service.retention;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.model.entity.TargetApplication;
+import com.backend.securitytool.repository.ApiEndpointRepository;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import com.backend.securitytool.repository.ScanResultArchiveRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.repository.SchedulerLeaseRepository;
+import com.backend.securitytool.repository.SecurityIssueCursorRepository;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueFilter;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.IssueRow;
+import com.backend.securitytool.repository.SecurityIssueQueryRepository.Seek;
+import com.backend.securitytool.repository.SecurityIssueRepository;
+import com.backend.securitytool.repository.TargetApplicationRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps security_issues bounded by the number of applications rather than by the scan history.
+ * The newest {@code retention.hot-scans} scans of each application (or the app's own retentionHotScans)
+ * stay hot; the issues of older ones, stored and carried over alike, are moved into one compressed blob
+ * per scan. Reads go through {@link #findIssues(Integer)} and do not need to know which tier a scan is in.
+ * <p>
+ * A scan is never archived while it is the diff baseline of its type, and apps with a pending or running
+ * scan are skipped for the run, so ingestion always finds its baseline issues in the hot tables.
+ */
+@Service
+public class ScanRetentionServiceImpl implements ScanRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(ScanRetentionServiceImpl.class);
+    private static final String LEASE_NAME = "scan-retention";
+    static final String CODEC_GZIP_JSON = "gzip-json";
+
+    private final ScanResultRepository scanResultRepository;
+    private final TargetApplicationRepository targetApplicationRepository;
+    private final SecurityIssueRepository securityIssueRepository;
+    private final SecurityIssueCursorRepository securityIssueCursorRepository;
+    private final SecurityIssueQueryRepository securityIssueQueryRepository;
+    private final ScanResultArchiveRepository scanResultArchiveRepository;
+    private final ApiEndpointRepository apiEndpointRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String nodeId;
+
+    @Value("${retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${retention.hot-scans:20}")
+    private int defaultHotScans;
+
+    @Value("${retention.batch-size:50}")
+    private int batchSize;
+
+    @Value("${retention.lease-ms:900000}")
+    private long leaseMs;
+
+    @Autowired
+    public ScanRetentionServiceImpl(ScanResultRepository scanResultRepository,
+                                    TargetApplicationRepository targetApplicationRepository,
+                                    SecurityIssueRepository securityIssueRepository,
+                                    SecurityIssueCursorRepository securityIssueCursorRepository,
+                                    SecurityIssueQueryRepository securityIssueQueryRepository,
+                                    ScanResultArchiveRepository scanResultArchiveRepository,
+                                    ApiEndpointRepository apiEndpointRepository,
+                                    AppStatsRepository appStatsRepository,
+                                    SchedulerLeaseRepository schedulerLeaseRepository,
+                                    TransactionTemplate transactionTemplate) {
+        this.scanResultRepository = scanResultRepository;
+        this.targetApplicationRepository = targetApplicationRepository;
+        this.securityIssueRepository = securityIssueRepository;
+        this.securityIssueCursorRepository = securityIssueCursorRepository;
+        this.securityIssueQueryRepository = securityIssueQueryRepository;
+        this.scanResultArchiveRepository = scanResultArchiveRepository;
+        this.apiEndpointRepository = apiEndpointRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public List<SecurityIssue> findIssues(Integer resultId) {
+        return scanResultArchiveRepository.findPayload(resultId)
+                .map(archived -> rehydrate(resultId, archived))
+                .orElseGet(() -> securityIssueRepository.findByResultId(resultId));
+    }
+
+    @Override
+    public Stream<SecurityIssue> streamIssues(Integer resultId) {
+        // An archive is bounded by one scan and already held compressed, so it is read whole
+        return scanResultArchiveRepository.findPayload(resultId)
+                .map(archived -> rehydrate(resultId, archived).stream())
+                .orElseGet(() -> securityIssueCursorRepository.streamByResultId(resultId));
+    }
+
+    @Override
+    public List<IssueRow> findIssuePage(Integer resultId, IssueFilter filter, Seek after, List<String> fields, int limit) {
+        // An archive is read whole anyway, so its page is cut in memory in the same order as the keyset query
+        return scanResultArchiveRepository.findPayload(resultId)
+                .map(archived -> rehydrate(resultId, archived).stream()
+                        .filter(filter::matches)
+                        .map(issue -> SecurityIssueQueryRepository.toRow(issue, fields))
+                        .filter(row -> after == null || after.isBefore(row.severityRank(), row.issueId()))
+                        .sorted(Comparator.comparingInt(IssueRow::severityRank).thenComparingInt(IssueRow::issueId).reversed())
+                        .limit(limit)
+                        .toList())
+                .orElseGet(() -> securityIssueQueryRepository.findPage(resultId, filter, after, fields, limit));
+    }
+
+    /**
+     * Retention loop. Only the holder of the {@code scan-retention} lease archives, so two nodes never
+     * move the same scan at once.
+     */
+    @Scheduled(initialDelayString = "${retention.initial-delay-ms:300000}", fixedDelayString = "${retention.interval-ms:3600000}")
+    public void runRetention() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (schedulerLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, now.plusMillis(leaseMs)) == 0) {
+            return;
+        }
+        archiveExpiredResults();
+    }
+
+    @Override
+    public int archiveExpiredResults() {
+        List<Integer> candidates = findExpiredResultIds();
+        int archived = 0;
+        for (Integer resultId : candidates) {
+            try {
+                archive(resultId);
+                archived++;
+            } catch (Exception e) {
+                logger.error("Archiving scan result {} failed: {}", resultId, e.getMessage(), e);
+            }
+        }
+        if (archived > 0) {
+            int orphans = transactionTemplate.execute(status -> {
+                List<IssueDelta> released = scanResultArchiveRepository.countOrphanedIssues();
+                int deleted = scanResultArchiveRepository.deleteOrphanedIssues();
+                appStatsRepository.applyIssueDeltas(AppStatsRepository.removed(released));
+                return deleted;
+            });
+            logger.info("Archived {} scan results, released {} issue rows left behind by earlier archives", archived, orphans);
+        }
+        return archived;
+    }
+
+    /**
+     * Scans past the hot window of their app, oldest windows first, at most {@code retention.batch-size}.
+     */
+    private List<Integer> findExpiredResultIds() {
+        Map<Integer, Long> hotCounts = scanResultRepository.countHotResultsByApp().stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> (Long) row[1]));
+        List<Integer> expired = new ArrayList<>();
+        for (TargetApplication app : targetApplicationRepository.findAllById(hotCounts.keySet())) {
+            int hotScans = app.getRetentionHotScans() != null ? app.getRetentionHotScans() : defaultHotScans;
+            if (hotScans <= 0 || hotCounts.get(app.getId()) <= hotScans) {
+                continue;
+            }
+            if (scanResultRepository.existsByAppIdAndStatusIn(app.getId(),
+                    List.of(ScanType.SCAN_STATUS_PENDING, ScanType.SCAN_STATUS_IN_PROGRESS))) {
+                logger.debug("Skipping retention for appId: {}, it has scans in flight", app.getId());
+                continue;
+            }
+            Set<Integer> baselines = new HashSet<>(
+                    scanResultRepository.findLatestFullScanIds(app.getId(), ScanType.SCAN_STATUS_COMPLETED));
+            List<Integer> hotIds = scanResultRepository.findHotResultIds(app.getId());
+            for (Integer resultId : hotIds.subList(hotScans, hotIds.size())) {
+                if (!baselines.contains(resultId)) {
+                    expired.add(resultId);
+                }
+                if (expired.size() >= batchSize) {
+                    return expired;
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void archive(Integer resultId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ArchivedIssue> issues = securityIssueRepository.findByResultId(resultId).stream()
+                    .map(ArchivedIssue::of)
+                    .toList();
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(issues);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] payload = gzip(json);
+            List<IssueDelta> released = scanResultArchiveRepository.countReleasedIssues(resultId);
+            int deleted = scanResultArchiveRepository.archive(resultId, CODEC_GZIP_JSON, payload, issues.size(),
+                    json.length, Instant.now());
+            appStatsRepository.applyIssueDeltas(AppStatsRepository.removed(released));
+            logger.debug("Archived scan result {}: {} issues, {} -> {} bytes, {} hot rows deleted",
+                    resultId, issues.size(), json.length, payload.length, deleted);
+        });
+    }
+
+    private List<SecurityIssue> rehydrate(Integer resultId, ScanResultArchiveRepository.ArchivedPayload archived) {
+        if (!CODEC_GZIP_JSON.equals(archived.codec())) {
+            throw new IllegalStateException("Unsupported archive codec '" + archived.codec() + "' for scan result " + resultId);
+        }
+        List<ArchivedIssue> issues;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.payload()))) {
+            issues = objectMapper.readValue(in, new TypeReference<List<ArchivedIssue>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Scan result " + resultId + " has an unreadable archive", e);
+        }
+
+        Set<Integer> endpointIds = issues.stream()
+                .map(ArchivedIssue::endpointId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, ApiEndpoint> endpoints = apiEndpointRepository.findAllById(endpointIds).stream()
+                .collect(Collectors.toMap(ApiEndpoint::getId, Function.identity()));
+        logger.debug("Read {} issues of scan result {} from its archive", issues.size(), resultId);
+        return issues.stream()
+                .map(issue -> issue.toIssue(issue.endpointId() != null ? endpoints.get(issue.endpointId()) : null))
+                .toList();
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.securitytool.service.scanconfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls evenly so that no more than {@code requestsPerSecond} start in any second.
+ * Callers reserve the next free slot under the lock and sleep outside of it, so waiting threads queue up in order.
+ */
+final class RequestRateLimiter {
+    private final long intervalNanos;
+    private long nextFreeAt = System.nanoTime();
+
+    RequestRateLimiter(double requestsPerSecond) {
+        this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+    }
+
+    void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeAt);
+            nextFreeAt = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a SonarQube request slot", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.backend.securitytool.exception.UpstreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Polls long-running scanner operations on a small shared scheduler instead of blocking a thread per scan.
+ * Each poll reschedules itself with exponential backoff while progress is unchanged and resets the delay
+ * as soon as progress moves. A probe that throws {@link PollAbortedException} or
+ * {@link UpstreamUnavailableException} ends polling at once, any other exception is treated as transient.
+ */
+@Component
+public class ScanProgressPoller {
+    private static final Logger logger = LoggerFactory.getLogger(ScanProgressPoller.class);
+    public static final int DONE = 100;
+
+    private final ScheduledExecutorService scheduler;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final double backoffMultiplier;
+    private final int maxConsecutiveFailures;
+
+    @Autowired
+    public ScanProgressPoller(@Value("${scan.poll.threads:2}") int threads,
+                              @Value("${scan.poll.initial-delay-ms:1000}") long initialDelayMs,
+                              @Value("${scan.poll.max-delay-ms:15000}") long maxDelayMs,
+                              @Value("${scan.poll.backoff-multiplier:1.5}") double backoffMultiplier,
+                              @Value("${scan.poll.max-consecutive-failures:5}") int maxConsecutiveFailures) {
+        this.scheduler = Executors.newScheduledThreadPool(threads, new PollerThreadFactory());
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    /**
+     * Polls {@code probe} until it reports {@link #DONE} percent.
+     *
+     * @param label      name used in logs and in the timeout message
+     * @param probe      returns the current progress in percent; may throw on transient upstream errors
+     * @param onProgress called with the new percent whenever progress changes
+     * @param timeout    overall time allowed before the future fails with a {@link TimeoutException}
+     */
+    public CompletableFuture<Void> poll(String label, Callable<Integer> probe, IntConsumer onProgress, Duration timeout) {
+        PollState state = new PollState(label, probe, onProgress, System.nanoTime() + timeout.toNanos());
+        schedule(state, initialDelayMs);
+        return state.future;
+    }
+
+    private void schedule(PollState state, long delayMs) {
+        try {
+            scheduler.schedule(() -> tick(state), delayMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            state.future.completeExceptionally(e);
+        }
+    }
+
+    private void tick(PollState state) {
+        if (state.future.isDone()) {
+            // Cancelled by the caller
+            return;
+        }
+        try {
+            int percent = state.probe.call();
+            state.failures = 0;
+            if (percent != state.lastPercent) {
+                state.lastPercent = percent;
+                state.delayMs = initialDelayMs;
+                state.onProgress.accept(Math.min(percent, DONE));
+            } else {
+                state.delayMs = Math.min(maxDelayMs, (long) (state.delayMs * backoffMultiplier));
+            }
+            if (percent >= DONE) {
+                state.future.complete(null);
+                return;
+            }
+        } catch (PollAbortedException | UpstreamUnavailableException e) {
+            state.future.completeExceptionally(e);
+            return;
+        } catch (Exception e) {
+            state.failures++;
+            logger.warn("Polling {} failed ({}/{}): {}", state.label, state.failures, maxConsecutiveFailures, e.getMessage());
+            if (state.failures >= maxConsecutiveFailures) {
+                state.future.completeExceptionally(e);
+                return;
+            }
+            state.delayMs = Math.min(maxDelayMs, (long) (state.delayMs * backoffMultiplier));
+        }
+
+        if (System.nanoTime() - state.deadlineNanos > 0) {
+            state.future.completeExceptionally(new TimeoutException(state.label + " did not finish in time"));
+            return;
+        }
+        schedule(state, state.delayMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Thrown by a probe when the polled operation has failed for good, e.g. was cancelled upstream.
+     */
+    public static class PollAbortedException extends RuntimeException {
+        public PollAbortedException(String message) {
+            super(message);
+        }
+    }
+
+    private final class PollState {
+        private final String label;
+        private final Callable<Integer> probe;
+        private final IntConsumer onProgress;
+        private final long deadlineNanos;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private long delayMs = initialDelayMs;
+        private int lastPercent = -1;
+        private int failures;
+
+        private PollState(String label, Callable<Integer> probe, IntConsumer onProgress, long deadlineNanos) {
+            this.label = label;
+            this.probe = probe;
+            this.onProgress = onProgress;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final class PollerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ScanPoller-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Pages through {@code api/issues/search} and {@code api/hotspots/search} for one project.
+ * SonarQube refuses to page past 10,000 results per query, so a larger result set is cut into slices that each
+ * stay under the cap: issues by creation date (bisecting the time range), and by file when a single second
+ * still holds too many issues, which happens on the first analysis of a big project; hotspots by file.
+ * Every request goes through a shared rate limiter so a large import cannot flood SonarQube.
+ */
+@Component
+class SonarQubeIssueImporter {
+    private static final Logger logger = LoggerFactory.getLogger(SonarQubeIssueImporter.class);
+
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final int MAX_PAGE_SIZE = 500;
+    static final DateTimeFormatter SONAR_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+
+    private final RestTemplate restTemplate;
+    private final RequestRateLimiter rateLimiter;
+    private final int pageSize;
+    private final String issueTypes;
+    private final int filesPerSlice;
+
+    @Autowired
+    SonarQubeIssueImporter(@Qualifier("sonarQubeRestTemplate") RestTemplate restTemplate,
+                           @Value("${sonarqube.import.page-size:500}") int pageSize,
+                           @Value("${sonarqube.import.requests-per-second:5}") double requestsPerSecond,
+                           @Value("${sonarqube.import.issue-types:VULNERABILITY,BUG}") String issueTypes,
+                           @Value("${sonarqube.import.files-per-slice:50}") int filesPerSlice) {
+        this.restTemplate = restTemplate;
+        this.rateLimiter = new RequestRateLimiter(requestsPerSecond);
+        this.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        this.issueTypes = issueTypes;
+        this.filesPerSlice = Math.max(1, filesPerSlice);
+    }
+
+    /**
+     * Streams every unresolved issue of the project, one {@code issues} array per page.
+     *
+     * @return the number of issues handed to {@code pageConsumer}
+     */
+    int importIssues(String sonarQubeUrl, String projectKey, HttpHeaders headers, Consumer<JsonNode> pageConsumer) {
+        ImportRun run = new ImportRun(sonarQubeUrl, projectKey, headers, pageConsumer);
+        JsonNode first = issuesPage(run, null, null, null, 1);
+        if (total(first) <= MAX_RESULT_WINDOW) {
+            drain(run, "issues", first, page -> issuesPage(run, null, null, null, page));
+        } else {
+            // Sorted by creation date ascending, so the first issue is the oldest one
+            Instant oldest = creationDate(first.path("issues").path(0));
+            logger.info("SonarQube project {} has {} issues, importing in creation date slices", projectKey, total(first));
+            sliceIssuesByDate(run, oldest, Instant.now().plusSeconds(1));
+        }
+        logger.info("{} SonarQube issues imported for project {}", run.imported, projectKey);
+        return run.imported;
+    }
+
+    /**
+     * Streams every hotspot of the project that is still to be reviewed, one {@code hotspots} array per page.
+     *
+     * @return the number of hotspots handed to {@code pageConsumer}
+     */
+    int importHotspots(String sonarQubeUrl, String projectKey, HttpHeaders headers, Consumer<JsonNode> pageConsumer) {
+        ImportRun run = new ImportRun(sonarQubeUrl, projectKey, headers, pageConsumer);
+        JsonNode first = hotspotsPage(run, null, 1);
+        if (total(first) <= MAX_RESULT_WINDOW) {
+            drain(run, "hotspots", first, page -> hotspotsPage(run, null, page));
+        } else {
+            logger.info("SonarQube project {} has {} hotspots, importing in file slices", projectKey, total(first));
+            for (String files : chunks(run.files().paths())) {
+                drain(run, "hotspots", hotspotsPage(run, files, 1), page -> hotspotsPage(run, files, page));
+            }
+        }
+        logger.info("{} SonarQube hotspots imported for project {}", run.imported, projectKey);
+        return run.imported;
+    }
+
+    /**
+     * Imports issues created in [from, to), halving the range until every half fits under the result cap.
+     */
+    private void sliceIssuesByDate(ImportRun run, Instant from, Instant to) {
+        JsonNode first = issuesPage(run, from, to, null, 1);
+        int total = total(first);
+        if (total <= MAX_RESULT_WINDOW) {
+            drain(run, "issues", first, page -> issuesPage(run, from, to, null, page));
+            return;
+        }
+        long seconds = Duration.between(from, to).getSeconds();
+        if (seconds <= 1) {
+            // Creation dates have second precision, the range cannot be split any further
+            for (String components : chunks(run.files().keys())) {
+                drain(run, "issues", issuesPage(run, from, to, components, 1),
+                        page -> issuesPage(run, from, to, components, page));
+            }
+            return;
+        }
+        Instant middle = from.plusSeconds(seconds / 2);
+        sliceIssuesByDate(run, from, middle);
+        sliceIssuesByDate(run, middle, to);
+    }
+
+    /**
+     * Hands over the first page and fetches the remaining ones, up to the last page SonarQube still serves.
+     */
+    private void drain(ImportRun run, String arrayField, JsonNode first, IntFunction<JsonNode> nextPage) {
+        int total = total(first);
+        if (total > MAX_RESULT_WINDOW) {
+            logger.warn("SonarQube slice of project {} still holds {} {}, only the first {} are imported",
+                    run.projectKey, total, arrayField, MAX_RESULT_WINDOW);
+        }
+        run.accept(first.path(arrayField));
+        int pages = Math.min((total + pageSize - 1) / pageSize, MAX_RESULT_WINDOW / pageSize);
+        for (int page = 2; page <= pages; page++) {
+            run.accept(nextPage.apply(page).path(arrayField));
+        }
+    }
+
+    private JsonNode issuesPage(ImportRun run, Instant createdAfter, Instant createdBefore, String components, int page) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("components", components != null ? components : run.projectKey);
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(run.sonarQubeUrl + "/api/issues/search")
+                .queryParam("componentKeys", "{components}")
+                .queryParam("resolved", false)
+                .queryParam("types", issueTypes)
+                .queryParam("s", "CREATION_DATE")
+                .queryParam("asc", true)
+                .queryParam("ps", pageSize)
+                .queryParam("p", page);
+        if (createdAfter != null) {
+            builder.queryParam("createdAfter", "{createdAfter}");
+            variables.put("createdAfter", createdAfter.atOffset(ZoneOffset.UTC).format(SONAR_DATE_TIME));
+        }
+        if (createdBefore != null) {
+            builder.queryParam("createdBefore", "{createdBefore}");
+            variables.put("createdBefore", createdBefore.atOffset(ZoneOffset.UTC).format(SONAR_DATE_TIME));
+        }
+        return get(run, builder.encode().buildAndExpand(variables).toUri());
+    }
+
+    private JsonNode hotspotsPage(ImportRun run, String files, int page) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("project", run.projectKey);
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(run.sonarQubeUrl + "/api/hotspots/search")
+                .queryParam("project", "{project}")
+                .queryParam("status", "TO_REVIEW")
+                .queryParam("ps", pageSize)
+                .queryParam("p", page);
+        if (files != null) {
+            builder.queryParam("files", "{files}");
+            variables.put("files", files);
+        }
+        return get(run, builder.encode().buildAndExpand(variables).toUri());
+    }
+
+    /**
+     * All files of the project, fetched once per import and only when a slice needs them.
+     */
+    private ProjectFiles listFiles(ImportRun run) {
+        List<String> keys = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        for (int page = 1; ; page++) {
+            URI uri = UriComponentsBuilder.fromHttpUrl(run.sonarQubeUrl + "/api/components/tree")
+                    .queryParam("component", "{project}")
+                    .queryParam("qualifiers", "FIL")
+                    .queryParam("ps", MAX_PAGE_SIZE)
+                    .queryParam("p", page)
+                    .encode()
+                    .buildAndExpand(run.projectKey)
+                    .toUri();
+            JsonNode response = get(run, uri);
+            JsonNode components = response.path("components");
+            for (JsonNode component : components) {
+                keys.add(component.path("key").asText());
+                paths.add(component.path("path").asText());
+            }
+            if (components.size() < MAX_PAGE_SIZE || keys.size() >= total(response)) {
+                break;
+            }
+        }
+        logger.debug("Listed {} files of SonarQube project {}", keys.size(), run.projectKey);
+        return new ProjectFiles(keys, paths);
+    }
+
+    private JsonNode get(ImportRun run, URI uri) {
+        rateLimiter.acquire();
+        try {
+            JsonNode body = restTemplate.exchange(uri, HttpMethod.GET, run.entity, JsonNode.class).getBody();
+            return body != null ? body : JsonNodeFactory.instance.objectNode();
+        } catch (HttpStatusCodeException e) {
+            throw new RuntimeException(String.format("SonarQube request %s failed for projectKey '%s'. Status: %s. Response: %s",
+                    uri.getPath(), run.projectKey, e.getStatusCode(), e.getResponseBodyAsString()), e);
+        }
+    }
+
+    private List<String> chunks(List<String> values) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += filesPerSlice) {
+            chunks.add(String.join(",", values.subList(i, Math.min(values.size(), i + filesPerSlice))));
+        }
+        return chunks;
+    }
+
+    private static int total(JsonNode response) {
+        JsonNode paging = response.path("paging");
+        return paging.has("total") ? paging.path("total").asInt() : response.path("total").asInt();
+    }
+
+    private static Instant creationDate(JsonNode issue) {
+        String creationDate = issue.path("creationDate").asText(null);
+        return creationDate != null ? OffsetDateTime.parse(creationDate, SONAR_DATE_TIME).toInstant() : Instant.EPOCH;
+    }
+
+    private record ProjectFiles(List<String> keys, List<String> paths) {
+    }
+
+    /**
+     * State of one import call: which instance and project it reads, what was handed over so far and the lazily listed files.
+     */
+    private final class ImportRun {
+        private final String sonarQubeUrl;
+        private final String projectKey;
+        private final HttpEntity<Void> entity;
+        private final Consumer<JsonNode> pageConsumer;
+        private ProjectFiles files;
+        private int imported;
+
+        private ImportRun(String sonarQubeUrl, String projectKey, HttpHeaders headers, Consumer<JsonNode> pageConsumer) {
+            this.sonarQubeUrl = sonarQubeUrl;
+            this.projectKey = projectKey;
+            this.entity = new HttpEntity<>(headers);
+            this.pageConsumer = pageConsumer;
+        }
+
+        private void accept(JsonNode page) {
+            if (page.isArray() && !page.isEmpty()) {
+                imported += page.size();
+                pageConsumer.accept(page);
+            }
+        }
+
+        private ProjectFiles files() {
+            if (files == null) {
+                files = listFiles(this);
+            }
+            return files;
+        }
+    }
+}
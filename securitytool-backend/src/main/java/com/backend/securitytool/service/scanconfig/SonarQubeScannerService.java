@@ -1,12 +1,13 @@
 package com.backend.securitytool.service.scanconfig;
 
-import com.backend.securitytool.model.dto.request.ScanRequestDTO;
 import com.backend.securitytool.model.dto.response.ScanResponseDTO;
 
 import java.util.List;
 
 public interface SonarQubeScannerService {
-    ScanResponseDTO scan(ScanRequestDTO requestDTO);
+    // Scan context attribute naming the Compute Engine task to wait for
+    String CE_TASK_ID_ATTRIBUTE = "sonarqube.ce-task-id";
+
     List<ScanResponseDTO> getAllScansByAppId(Integer appId);
 }
 
@@ -4,52 +4,101 @@ import com.backend.securitytool.constants.ErrorMessages;
 import com.backend.securitytool.constants.ScanType;
 import com.backend.securitytool.exception.ResourceNotFoundException;
 import com.backend.securitytool.mapper.ScanResultMapper;
-import com.backend.securitytool.model.dto.request.ScanRequestDTO;
 import com.backend.securitytool.model.dto.response.ScanResponseDTO;
 import com.backend.securitytool.model.entity.ScanResult;
 import com.backend.securitytool.model.entity.SecurityIssue;
 import com.backend.securitytool.model.entity.TargetApplication;
+import com.backend.securitytool.repository.ScanPayloadRepository.StoredPayload;
 import com.backend.securitytool.repository.ScanResultRepository;
 import com.backend.securitytool.repository.SecurityIssueRepository;
 import com.backend.securitytool.repository.TargetApplicationRepository;
+import com.backend.securitytool.service.payload.PayloadBlobStore;
+import com.backend.securitytool.service.payload.PayloadCapture;
+import com.backend.securitytool.service.payload.ScanPayloadRecorder;
+import com.backend.securitytool.service.scanengine.ScanContext;
+import com.backend.securitytool.service.scanengine.ScannerEngine;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerpool.ScannerInstance;
+import com.backend.securitytool.service.scannerpool.ScannerRouter;
+import com.backend.securitytool.util.IssueFingerprint;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-public class SonarQubeScannerServiceImpl implements SonarQubeScannerService {
+public class SonarQubeScannerServiceImpl implements SonarQubeScannerService, ScannerEngine {
     private static final Logger logger = LoggerFactory.getLogger(SonarQubeScannerServiceImpl.class);
 
+    private static final String HEADERS_ATTRIBUTE = "sonarqube.headers";
+    private static final String INSTANCE_ATTRIBUTE = "sonarqube.instance";
+    // Captured responses: the issues/hotspots array of each search page and the measures of the analysis
+    private static final String ISSUES_PAYLOAD = "sonarqube-issues";
+    private static final String HOTSPOTS_PAYLOAD = "sonarqube-hotspots";
+    private static final String MEASURES_PAYLOAD = "sonarqube-measures";
+    // SonarQube's own ratings, a stored finding that still holds one is mapped like a freshly imported one
+    private static final Set<String> ISSUE_SEVERITIES = Set.of("BLOCKER", "CRITICAL", "MAJOR", "MINOR", "INFO");
+    private static final Set<String> HOTSPOT_PROBABILITIES = Set.of("HIGH", "MEDIUM", "LOW");
+
     private final ScanResultRepository scanResultRepository;
     private final ScanResultMapper scanResultMapper;
     private final TargetApplicationRepository targetApplicationRepository;
     private final RestTemplate restTemplate;
     private final SecurityIssueRepository securityIssueRepository;
+    private final SonarQubeIssueImporter sonarQubeIssueImporter;
+    private final ScanProgressPoller scanProgressPoller;
+    private final ScannerRouter scannerRouter;
+    private final ScanPayloadRecorder scanPayloadRecorder;
+    private final PayloadBlobStore payloadBlobStore;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${sonarqube.ce-task.timeout-ms:1800000}")
+    private long ceTaskTimeoutMs;
 
     @Autowired
     public SonarQubeScannerServiceImpl(ScanResultRepository scanResultRepository,
                                        ScanResultMapper scanResultMapper,
-                                       TargetApplicationRepository targetApplicationRepository, SecurityIssueRepository securityIssueRepository, SecurityIssueRepository securityIssueRepository1) {
+                                       TargetApplicationRepository targetApplicationRepository, SecurityIssueRepository securityIssueRepository, SecurityIssueRepository securityIssueRepository1,
+                                       @Qualifier("sonarQubeRestTemplate") RestTemplate restTemplate,
+                                       SonarQubeIssueImporter sonarQubeIssueImporter,
+                                       ScanProgressPoller scanProgressPoller,
+                                       ScannerRouter scannerRouter,
+                                       ScanPayloadRecorder scanPayloadRecorder,
+                                       PayloadBlobStore payloadBlobStore) {
         this.scanResultRepository = scanResultRepository;
         this.scanResultMapper = scanResultMapper;
         this.targetApplicationRepository = targetApplicationRepository;
         this.securityIssueRepository = securityIssueRepository1;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
+        this.sonarQubeIssueImporter = sonarQubeIssueImporter;
+        this.scanProgressPoller = scanProgressPoller;
+        this.scannerRouter = scannerRouter;
+        this.scanPayloadRecorder = scanPayloadRecorder;
+        this.payloadBlobStore = payloadBlobStore;
     }
 
     @Override
@@ -74,11 +123,21 @@ public class SonarQubeScannerServiceImpl implements SonarQubeScannerService {
     }
 
     @Override
-    public ScanResponseDTO scan(ScanRequestDTO requestDTO) {
-        Integer appId = requestDTO.getAppId();
-        String projectKey = requestDTO.getProjectKey();
-        logger.debug("Starting SonarQube scan for appId: {}, projectKey: {}", appId, projectKey);
+    public String getName() {
+        return "SonarQube";
+    }
+
+    @Override
+    public String getScanType() {
+        return ScanType.SCAN_TYPE_STATIC;
+    }
 
+    @Override
+    public void prepare(ScanContext context) {
+        if (context.getTarget() == null || context.getTarget().isBlank()) {
+            throw new RuntimeException("Project key is required for SonarQube scan");
+        }
+        Integer appId = context.getAppId();
         TargetApplication app = targetApplicationRepository.findById(appId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
 
@@ -97,43 +156,266 @@ public class SonarQubeScannerServiceImpl implements SonarQubeScannerService {
         } else {
             logger.warn("No authInfo found for SonarQube scan for app ID: {}. Proceeding without authentication. This may fail if the SonarQube project is not public.", appId);
         }
+        context.setAttribute(HEADERS_ATTRIBUTE, headers);
+        context.setAttribute(INSTANCE_ATTRIBUTE, scannerRouter.acquire(UpstreamGuardRegistry.SONARQUBE));
+    }
+
+    @Override
+    public void release(ScanContext context) {
+        scannerRouter.release(context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class));
+    }
+
+    /**
+     * Findings store the severity already mapped from SonarQube's rating. Rows that still hold the rating itself
+     * (issue severity or hotspot probability) are mapped again; the status always follows the stored severity.
+     */
+    @Override
+    public void reclassify(SecurityIssue issue) {
+        String severity = issue.getSeverity();
+        if (severity == null) {
+            return;
+        }
+        if (ISSUE_SEVERITIES.contains(severity)) {
+            severity = getSeverityForIssue(severity);
+        } else if (HOTSPOT_PROBABILITIES.contains(severity)) {
+            severity = getSeverityForProbability(severity);
+        }
+        issue.setSeverity(severity);
+        issue.setStatus(getStatusForSeverity(severity));
+    }
+
+    /**
+     * Waits for the SonarQube Compute Engine to finish the analysis before anything is read, so the import
+     * never sees a stale or half-computed analysis. The task is polled on the shared {@link ScanProgressPoller},
+     * no thread is held while SonarQube is computing.
+     */
+    @Override
+    public CompletableFuture<Void> run(ScanContext context) {
+        String projectKey = context.getTarget();
+        HttpEntity<String> entity = new HttpEntity<>(context.getAttribute(HEADERS_ATTRIBUTE, HttpHeaders.class));
+        String sonarQubeUrl = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class).getUrl();
+        String taskId = context.getAttribute(CE_TASK_ID_ATTRIBUTE, String.class);
+        if (taskId == null || taskId.isBlank()) {
+            taskId = findLatestTaskId(sonarQubeUrl, projectKey, entity);
+        }
+        logger.debug("Starting SonarQube scan for appId: {}, resultId: {}, projectKey: {}, ceTask: {}",
+                context.getAppId(), context.getResultId(), projectKey, taskId);
+
+        String ceTaskId = taskId;
+        return scanProgressPoller.poll("SonarQube CE task " + ceTaskId + " for resultId " + context.getResultId(),
+                () -> ceTaskProgress(sonarQubeUrl, ceTaskId, entity),
+                percent -> logger.debug("SonarQube CE task {} at {}%", ceTaskId, percent),
+                Duration.ofMillis(ceTaskTimeoutMs));
+    }
+
+    /**
+     * Imports the real findings of the project: unresolved issues and hotspots still to review.
+     * Each SonarQube page becomes one batch for the sink, so issues are persisted while the next page is fetched.
+     * Pages are captured as they arrive; SonarQube responses are parsed for paging, so they are stored re-serialized.
+     */
+    @Override
+    public void streamFindings(ScanContext context, Consumer<List<SecurityIssue>> sink) {
+        String projectKey = context.getTarget();
+        HttpHeaders headers = context.getAttribute(HEADERS_ATTRIBUTE, HttpHeaders.class);
+        String sonarQubeUrl = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class).getUrl();
+        long startedAt = System.currentTimeMillis();
+
+        int issues = sonarQubeIssueImporter.importIssues(sonarQubeUrl, projectKey, headers, page -> {
+            scanPayloadRecorder.record(context, ISSUES_PAYLOAD, sonarQubeUrl, page);
+            sink.accept(toSecurityIssues(ISSUES_PAYLOAD, page, projectKey, sonarQubeUrl, context));
+        });
+        int hotspots = sonarQubeIssueImporter.importHotspots(sonarQubeUrl, projectKey, headers, page -> {
+            scanPayloadRecorder.record(context, HOTSPOTS_PAYLOAD, sonarQubeUrl, page);
+            sink.accept(toSecurityIssues(HOTSPOTS_PAYLOAD, page, projectKey, sonarQubeUrl, context));
+        });
+        logger.info("{} issues and {} hotspots streamed from SonarQube for scan result ID: {} in {} ms",
+                issues, hotspots, context.getResultId(), System.currentTimeMillis() - startedAt);
+    }
 
+    /**
+     * Reads the project measures of the finished analysis for the scan summary.
+     */
+    @Override
+    public void finish(ScanContext context) {
+        String projectKey = context.getTarget();
+        HttpHeaders headers = context.getAttribute(HEADERS_ATTRIBUTE, HttpHeaders.class);
         HttpEntity<String> entity = new HttpEntity<>(headers);
-        String sonarQubeUrl = "http://localhost:9000/api/measures/component?component=" + projectKey +
-                "&metricKeys=bugs,reliability_rating,vulnerabilities,security_rating,security_hotspots," +
-                "code_smells,sqale_debt_ratio,coverage,duplicated_lines_density";
+        String sonarQubeUrl = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class).getUrl();
+        String measuresUrl = UriComponentsBuilder.fromHttpUrl(sonarQubeUrl + "/api/measures/component")
+                .queryParam("component", projectKey)
+                .queryParam("metricKeys", "bugs,reliability_rating,vulnerabilities,security_rating,security_hotspots," +
+                        "code_smells,sqale_debt_ratio,coverage,duplicated_lines_density")
+                .toUriString();
 
         ResponseEntity<String> responseEntity;
         try {
-            // Fixed syntax error in the log statement
-            logger.debug("Calling SonarQube API: URL='{}', Headers='{}'", sonarQubeUrl,
+            logger.debug("Calling SonarQube API: URL='{}', Headers='{}'", measuresUrl,
                     headers.containsKey(HttpHeaders.AUTHORIZATION) ? "Authorization: [PRESENT]" : "Authorization: [NOT PRESENT]");
-            responseEntity = restTemplate.exchange(sonarQubeUrl, HttpMethod.GET, entity, String.class);
+            responseEntity = restTemplate.exchange(measuresUrl, HttpMethod.GET, entity, String.class);
         } catch (HttpClientErrorException e) {
             logger.error("HttpClientErrorException from SonarQube API: Status={}, Body={}, URL={}",
-                    e.getStatusCode(), e.getResponseBodyAsString(), sonarQubeUrl, e);
+                    e.getStatusCode(), e.getResponseBodyAsString(), measuresUrl, e);
             String errorMessage = String.format("Failed to fetch data from SonarQube for projectKey '%s'. Status: %s. Response: %s. " +
                             "Ensure SonarQube is running and the project exists. If authentication is required, verify the token in authInfo.",
                     projectKey, e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException(errorMessage, e);
         } catch (Exception e) {
-            logger.error("Generic exception while calling SonarQube API: URL={}, Error={}", sonarQubeUrl, e.getMessage(), e);
+            logger.error("Generic exception while calling SonarQube API: URL={}, Error={}", measuresUrl, e.getMessage(), e);
             throw new RuntimeException("An unexpected error occurred while communicating with SonarQube: " + e.getMessage(), e);
         }
+        String body = responseEntity.getBody();
+        if (body != null) {
+            try (PayloadCapture capture = scanPayloadRecorder.capture(context, MEASURES_PAYLOAD, sonarQubeUrl)) {
+                capture.write(out -> out.write(body.getBytes(StandardCharsets.UTF_8)));
+                capture.commit();
+            }
+        }
+        context.setSummary(summarize(body));
+    }
+
+    /**
+     * Maps the stored search pages and measures of a scan again. Links in the findings keep pointing to
+     * the SonarQube instance the scan originally read from.
+     */
+    @Override
+    public void replayFindings(ScanContext context, List<StoredPayload> payloads, Consumer<List<SecurityIssue>> sink) throws IOException {
+        String projectKey = context.getTarget();
+        int replayed = 0;
+        for (StoredPayload payload : payloads) {
+            try (InputStream body = payloadBlobStore.open(payload.sha256())) {
+                if (MEASURES_PAYLOAD.equals(payload.kind())) {
+                    context.setSummary(summarize(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+                } else if (ISSUES_PAYLOAD.equals(payload.kind()) || HOTSPOTS_PAYLOAD.equals(payload.kind())) {
+                    List<SecurityIssue> batch = toSecurityIssues(payload.kind(), objectMapper.readTree(body),
+                            projectKey, payload.sourceUrl(), context);
+                    sink.accept(batch);
+                    replayed += batch.size();
+                }
+            }
+        }
+        logger.info("{} SonarQube findings replayed from {} stored payloads for scan result ID: {}",
+                replayed, payloads.size(), context.getResultId());
+    }
 
-        // Process the JSON response to extract only measures in a readable format
+    private List<SecurityIssue> toSecurityIssues(String kind, JsonNode page, String projectKey, String sonarQubeUrl, ScanContext context) {
+        List<SecurityIssue> batch = new ArrayList<>(page.size());
+        for (JsonNode finding : page) {
+            batch.add(HOTSPOTS_PAYLOAD.equals(kind)
+                    ? hotspotToSecurityIssue(finding, projectKey, sonarQubeUrl, context)
+                    : toSecurityIssue(finding, projectKey, sonarQubeUrl, context));
+        }
+        return batch;
+    }
+
+    /**
+     * Most recent Compute Engine task of the project: the newest queued or running one, else the last finished one.
+     */
+    private String findLatestTaskId(String sonarQubeUrl, String projectKey, HttpEntity<String> entity) {
+        JsonNode response = sonarQubeGet(UriComponentsBuilder.fromHttpUrl(sonarQubeUrl + "/api/ce/component")
+                .queryParam("component", projectKey)
+                .toUriString(), entity);
+        JsonNode latest = null;
+        for (JsonNode task : response.path("queue")) {
+            if (latest == null || submittedAt(task).isAfter(submittedAt(latest))) {
+                latest = task;
+            }
+        }
+        if (latest == null) {
+            latest = response.path("current");
+        }
+        String taskId = latest.path("id").asText(null);
+        if (taskId == null) {
+            throw new RuntimeException("No SonarQube analysis found for projectKey '" + projectKey
+                    + "'. Run the SonarQube scanner for the project first.");
+        }
+        return taskId;
+    }
+
+    /**
+     * Maps the task status to the poller's percent scale. A failed or cancelled analysis ends polling
+     * right away, there is nothing to wait for.
+     */
+    private int ceTaskProgress(String sonarQubeUrl, String taskId, HttpEntity<String> entity) {
+        JsonNode task = sonarQubeGet(UriComponentsBuilder.fromHttpUrl(sonarQubeUrl + "/api/ce/task")
+                .queryParam("id", taskId)
+                .toUriString(), entity).path("task");
+        String status = task.path("status").asText();
+        switch (status) {
+            case "SUCCESS":
+                return ScanProgressPoller.DONE;
+            case "IN_PROGRESS":
+                return 50;
+            case "PENDING":
+                return 10;
+            case "FAILED":
+            case "CANCELED":
+                throw new ScanProgressPoller.PollAbortedException("SonarQube analysis task " + taskId + " ended with status "
+                        + status + (task.has("errorMessage") ? ": " + task.path("errorMessage").asText() : ""));
+            default:
+                throw new RuntimeException("Unexpected status '" + status + "' for SonarQube analysis task " + taskId);
+        }
+    }
+
+    private JsonNode sonarQubeGet(String url, HttpEntity<String> entity) {
+        try {
+            JsonNode body = restTemplate.exchange(url, HttpMethod.GET, entity, JsonNode.class).getBody();
+            return body != null ? body : new ObjectMapper().createObjectNode();
+        } catch (HttpClientErrorException e) {
+            throw new ScanProgressPoller.PollAbortedException(String.format("SonarQube request %s failed. Status: %s. Response: %s",
+                    url, e.getStatusCode(), e.getResponseBodyAsString()));
+        }
+    }
+
+    private Instant submittedAt(JsonNode task) {
+        String submittedAt = task.path("submittedAt").asText(null);
+        return submittedAt != null
+                ? OffsetDateTime.parse(submittedAt, SonarQubeIssueImporter.SONAR_DATE_TIME).toInstant()
+                : Instant.EPOCH;
+    }
+
+    private SecurityIssue toSecurityIssue(JsonNode issue, String projectKey, String sonarQubeUrl, ScanContext context) {
+        String type = issue.path("type").asText();
+        String severity = getSeverityForIssue(issue.path("severity").asText());
+        SecurityIssue securityIssue = context.newIssue();
+        securityIssue.setSeverity(severity);
+        securityIssue.setStatus(getStatusForSeverity(severity));
+        securityIssue.setDescription(formatDescription(issue.path("message").asText(), issue.path("rule").asText(),
+                issue.path("component").asText(), projectKey, issue.path("line").asText(null)));
+        securityIssue.setSolution(formatSolution(metricForType(type)));
+        securityIssue.setReference(sonarQubeUrl + "/project/issues?id=" + projectKey + "&open=" + issue.path("key").asText());
+        // SonarQube keeps the issue key stable across analyses of the same project
+        securityIssue.setFingerprint(IssueFingerprint.of(securityIssue.getIssueType(), "issue", issue.path("key").asText()));
+        return securityIssue;
+    }
+
+    private SecurityIssue hotspotToSecurityIssue(JsonNode hotspot, String projectKey, String sonarQubeUrl, ScanContext context) {
+        String severity = getSeverityForProbability(hotspot.path("vulnerabilityProbability").asText());
+        SecurityIssue securityIssue = context.newIssue();
+        securityIssue.setSeverity(severity);
+        securityIssue.setStatus(getStatusForSeverity(severity));
+        securityIssue.setDescription(formatDescription(hotspot.path("message").asText(), hotspot.path("ruleKey").asText(),
+                hotspot.path("component").asText(), projectKey, hotspot.path("line").asText(null)));
+        securityIssue.setSolution(formatSolution("security_hotspots"));
+        securityIssue.setReference(sonarQubeUrl + "/security_hotspots?id=" + projectKey + "&hotspots=" + hotspot.path("key").asText());
+        securityIssue.setFingerprint(IssueFingerprint.of(securityIssue.getIssueType(), "hotspot", hotspot.path("key").asText()));
+        return securityIssue;
+    }
+
+    /**
+     * Process the JSON response to extract only measures in a readable format
+     */
+    private String summarize(String responseBody) {
         String summaryText = "";
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            com.fasterxml.jackson.databind.JsonNode rootNode = mapper.readTree(responseEntity.getBody());
-            com.fasterxml.jackson.databind.JsonNode measuresArray = rootNode.path("component").path("measures");
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode rootNode = mapper.readTree(responseBody == null ? "{}" : responseBody);
+            JsonNode measuresArray = rootNode.path("component").path("measures");
 
             if (!measuresArray.isMissingNode() && measuresArray.isArray()) {
                 StringBuilder summaryBuilder = new StringBuilder();
 
-                for (com.fasterxml.jackson.databind.JsonNode measure : measuresArray) {
+                for (JsonNode measure : measuresArray) {
                     String metric = measure.path("metric").asText();
-                    String value = measure.path("value").asText();
                     boolean bestValue = measure.path("bestValue").asBoolean();
 
                     String status = bestValue ? "good" : "bad";
@@ -154,28 +436,7 @@ public class SonarQubeScannerServiceImpl implements SonarQubeScannerService {
             logger.error("Error parsing SonarQube response: {}", e.getMessage());
             summaryText = "Error parsing response: " + e.getMessage();
         }
-
-        ScanResult scanResult = new ScanResult();
-        scanResult.setApp(app);
-        scanResult.setScanDate(Instant.now());
-        scanResult.setScanType(ScanType.SCAN_TYPE_STATIC);
-        scanResult.setStatus(ScanType.SCAN_STATUS_COMPLETED);
-        scanResult.setSummary(summaryText);
-
-        ScanResult savedResult = scanResultRepository.save(scanResult);
-        logger.info("SonarQube scan completed and result saved for appId: {}", appId);
-
-        logger.info("SonarQube scan completed and result saved for appId: {}", appId);
-
-        // Extract security issues from the response and save them
-        try {
-            saveSecurityIssues(responseEntity.getBody(), savedResult);
-            logger.info("Security issues extracted and saved for scan result ID: {}", savedResult.getId());
-        } catch (Exception e) {
-            logger.error("Failed to extract and save security issues: {}", e.getMessage(), e);
-        }
-
-        return scanResultMapper.toResponseDTO(savedResult);
+        return summaryText;
     }
 
     private String getStatusForSeverity(String severity) {
@@ -195,75 +456,54 @@ public class SonarQubeScannerServiceImpl implements SonarQubeScannerService {
         }
     }
 
-    private void saveSecurityIssues(String responseBody, ScanResult scanResult) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(responseBody);
-        JsonNode measuresArray = rootNode.path("component").path("measures");
-
-        if (measuresArray.isArray()) {
-            for (JsonNode measure : measuresArray) {
-                String metric = measure.path("metric").asText();
-                String value = measure.path("value").asText();
-                boolean bestValue = measure.path("bestValue").asBoolean();
-
-                // Only create issues for metrics that aren't at their best value
-                if (!bestValue) {
-                    SecurityIssue issue = new SecurityIssue();
-                    issue.setResult(scanResult);
-                    issue.setAppId(scanResult.getApp().getId()); // Set appId from the scan result's app
-                    issue.setIssueType("SonarQube");
-                    String severity = getSeverityForMetric(metric);
-                    issue.setSeverity(severity);
-                    issue.setStatus(getStatusForSeverity(severity));
-                    issue.setDescription(formatDescription(metric, value));
-                    issue.setSolution(formatSolution(metric));
-
-                    securityIssueRepository.save(issue);
-                }
-            }
+    private String getSeverityForIssue(String severity) {
+        switch (severity) {
+            case "BLOCKER":
+            case "CRITICAL":
+                return "High";
+            case "MAJOR":
+                return "Medium";
+            case "MINOR":
+                return "Low";
+            case "INFO":
+            default:
+                return "Info";
         }
     }
 
-    private String getSeverityForMetric(String metric) {
-        switch (metric) {
-            case "vulnerabilities":
-            case "security_hotspots":
+    private String getSeverityForProbability(String vulnerabilityProbability) {
+        switch (vulnerabilityProbability) {
+            case "HIGH":
                 return "High";
-            case "bugs":
-            case "reliability_rating":
+            case "MEDIUM":
                 return "Medium";
-            case "code_smells":
-            case "duplicated_lines_density":
-            case "sqale_debt_ratio":
-            case "coverage":
+            case "LOW":
             default:
                 return "Low";
         }
     }
 
-    private String formatDescription(String metric, String value) {
-        switch (metric) {
-            case "vulnerabilities":
-                return "Found " + value + " security vulnerabilities";
-            case "bugs":
-                return "Found " + value + " bugs in the code";
-            case "code_smells":
-                return "Found " + value + " code smells";
-            case "security_hotspots":
-                return "Found " + value + " security hotspots to review";
-            case "coverage":
-                return "Code coverage is only " + value + "%";
-            case "reliability_rating":
-                return "Reliability rating is " + value + " (1=best, 5=worst)";
-            case "security_rating":
-                return "Security rating is " + value + " (1=best, 5=worst)";
-            case "duplicated_lines_density":
-                return "Code duplication is " + value + "%";
-            case "sqale_debt_ratio":
-                return "Technical debt ratio is " + value + "%";
+    private String metricForType(String type) {
+        switch (type) {
+            case "VULNERABILITY":
+                return "vulnerabilities";
+            case "BUG":
+                return "bugs";
             default:
-                return metric + ": " + value;
+                return "code_smells";
+        }
+    }
+
+    /**
+     * "message (rule) at path:line", with the project prefix stripped from the component key.
+     */
+    private String formatDescription(String message, String rule, String component, String projectKey, String line) {
+        String path = component.startsWith(projectKey + ":") ? component.substring(projectKey.length() + 1) : component;
+        StringBuilder description = new StringBuilder(message).append(" (").append(rule).append(") at ").append(path);
+        if (line != null && !line.isEmpty()) {
+            description.append(':').append(line);
         }
+        return description.toString();
     }
 
     private String formatSolution(String metric) {
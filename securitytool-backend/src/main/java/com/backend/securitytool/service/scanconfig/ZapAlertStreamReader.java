@@ -0,0 +1,55 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads the {@code alerts} array of a ZAP {@code core/view/alerts} response straight from the HTTP stream.
+ * Only one alert object is materialized at a time, so memory use does not grow with the response size.
+ */
+final class ZapAlertStreamReader {
+    private static final String ALERTS_FIELD = "alerts";
+
+    private final ObjectMapper objectMapper;
+
+    ZapAlertStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Calls {@code alertConsumer} for every element of the top-level {@code alerts} array.
+     *
+     * @return the number of alerts read
+     */
+    int forEachAlert(InputStream body, Consumer<JsonNode> alertConsumer) throws IOException {
+        if (body == null) {
+            return 0;
+        }
+        int count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (ALERTS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode alert = objectMapper.readTree(parser);
+                        alertConsumer.accept(alert);
+                        count++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,49 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Collects the names of the first N alerts seen while streaming, for the scan result summary.
+ */
+final class ZapAlertSummary {
+    private static final int MAX_ALERT_NAME_LENGTH = 255;
+
+    private final ArrayNode alertNames;
+    private final int maxAlerts;
+    private final int maxLength;
+
+    ZapAlertSummary(ObjectMapper objectMapper, int maxAlerts, int maxLength) {
+        this.alertNames = objectMapper.createArrayNode();
+        this.maxAlerts = maxAlerts;
+        this.maxLength = maxLength;
+    }
+
+    void add(JsonNode alert) {
+        if (alertNames.size() >= maxAlerts || !alert.has("alert")) {
+            return;
+        }
+        String alertName = alert.get("alert").asText();
+        // Truncate very long alert names
+        if (alertName.length() > MAX_ALERT_NAME_LENGTH) {
+            alertName = alertName.substring(0, MAX_ALERT_NAME_LENGTH - 3) + "...";
+        }
+        alertNames.add(alertName);
+    }
+
+    /**
+     * Returns the alert names as a comma separated list of JSON strings, without the surrounding brackets.
+     */
+    String toSummary() {
+        String result = alertNames.toString();
+        if (result.length() > maxLength) {
+            result = result.substring(0, maxLength - 3) + "...]";
+        }
+        // Remove square brackets if present
+        if (result.startsWith("[") && result.endsWith("]")) {
+            result = result.substring(1, result.length() - 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcher;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The catalogued endpoints an endpoint-scoped ZAP scan covers, resolved against the target URL.
+ * Provides the regexes of the ZAP context that limits the active scan to them, and a seed request per
+ * endpoint so ZAP knows its method and parameters without spidering the site.
+ */
+class ZapEndpointScope {
+    private static final String SAMPLE_VALUE = "1";
+    // The params column holds conditions such as "orderId != null && quantity > 0"; the names are what ZAP attacks
+    private static final Pattern CONDITION_SEPARATOR = Pattern.compile("&&|\\|\\||[,;\\n]");
+    private static final Pattern PARAMETER_NAME = Pattern.compile("^\\s*([A-Za-z_][A-Za-z0-9_]*)");
+
+    private final String contextName;
+    private final String baseUrl;
+    private final List<ApiEndpoint> endpoints;
+
+    ZapEndpointScope(Integer resultId, String targetUrl, List<ApiEndpoint> endpoints) {
+        this.contextName = "securitytool-result-" + resultId;
+        this.baseUrl = stripQueryAndTrailingSlash(targetUrl);
+        this.endpoints = endpoints;
+    }
+
+    String getContextName() {
+        return contextName;
+    }
+
+    List<ApiEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Regex of every URL of the endpoint, template segments match any single segment.
+     */
+    String includeRegex(ApiEndpoint endpoint) {
+        StringBuilder regex = new StringBuilder(Pattern.quote(baseUrl));
+        for (String segment : ApiEndpointMatcher.segments(endpoint.getPath())) {
+            regex.append('/').append(ApiEndpointMatcher.isTemplate(segment) ? "[^/?]+" : Pattern.quote(segment));
+        }
+        return regex.append("/?(\\?.*)?").toString();
+    }
+
+    boolean sendsBody(ApiEndpoint endpoint) {
+        String method = endpoint.getMethod() == null ? "GET" : endpoint.getMethod().toUpperCase();
+        return !method.equals("GET") && !method.equals("DELETE") && !method.equals("HEAD");
+    }
+
+    /**
+     * A concrete URL of the endpoint: template segments get a sample value and, for methods without a body,
+     * the parameters are sent in the query string.
+     */
+    String seedUrl(ApiEndpoint endpoint) {
+        StringBuilder url = new StringBuilder(baseUrl);
+        for (String segment : ApiEndpointMatcher.segments(endpoint.getPath())) {
+            url.append('/').append(ApiEndpointMatcher.isTemplate(segment) ? SAMPLE_VALUE : segment);
+        }
+        List<String> parameters = parameterNames(endpoint.getParams());
+        if (!sendsBody(endpoint) && !parameters.isEmpty()) {
+            url.append('?').append(parameters.stream()
+                    .map(name -> URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + SAMPLE_VALUE)
+                    .collect(Collectors.joining("&")));
+        }
+        return url.toString();
+    }
+
+    /**
+     * Raw HTTP request for ZAP's {@code core/action/sendRequest}, with the parameters as a JSON body.
+     */
+    String seedRequest(ApiEndpoint endpoint) {
+        URI uri = URI.create(seedUrl(endpoint));
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String body = parameterNames(endpoint.getParams()).stream()
+                .map(name -> "\"" + name + "\":\"" + SAMPLE_VALUE + "\"")
+                .collect(Collectors.joining(",", "{", "}"));
+        return endpoint.getMethod().toUpperCase() + " " + uri + " HTTP/1.1\r\n"
+                + "Host: " + host + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n"
+                + "\r\n"
+                + body;
+    }
+
+    static List<String> parameterNames(String params) {
+        List<String> names = new ArrayList<>();
+        if (params == null || params.isBlank()) {
+            return names;
+        }
+        for (String condition : CONDITION_SEPARATOR.split(params)) {
+            Matcher matcher = PARAMETER_NAME.matcher(condition);
+            if (matcher.find() && !names.contains(matcher.group(1))) {
+                names.add(matcher.group(1));
+            }
+        }
+        return names;
+    }
+
+    private static String stripQueryAndTrailingSlash(String url) {
+        int query = url.indexOf('?');
+        String base = query >= 0 ? url.substring(0, query) : url;
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.backend.securitytool.constants.ScanType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks phase timings and overall progress of one ZAP scan pipeline.
+ * Each phase owns a slice of the overall percentage proportional to its weight.
+ */
+class ZapScanState {
+    private static final int SPIDER_WEIGHT = 20;
+    private static final int AJAX_SPIDER_WEIGHT = 20;
+    private static final int ACTIVE_SCAN_WEIGHT = 55;
+    // Remaining share is reserved for collecting and persisting alerts
+    private static final int ALERTS_WEIGHT = 5;
+
+    private final Integer resultId;
+    private final Map<String, Integer> phaseOffsets = new LinkedHashMap<>();
+    private final Map<String, Integer> phaseWeights = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final int totalWeight;
+
+    private volatile String currentPhase;
+    private volatile long phaseStartedAt;
+    // ZAP context the active scan is limited to, null for a full-site scan
+    private volatile String contextId;
+
+    ZapScanState(Integer resultId, boolean spiderEnabled, boolean ajaxSpiderEnabled) {
+        this.resultId = resultId;
+        int offset = 0;
+        if (spiderEnabled) {
+            offset = addPhase(ScanType.SCAN_PHASE_SPIDER, SPIDER_WEIGHT, offset);
+        }
+        if (ajaxSpiderEnabled) {
+            offset = addPhase(ScanType.SCAN_PHASE_AJAX_SPIDER, AJAX_SPIDER_WEIGHT, offset);
+        }
+        offset = addPhase(ScanType.SCAN_PHASE_ACTIVE_SCAN, ACTIVE_SCAN_WEIGHT, offset);
+        offset = addPhase(ScanType.SCAN_PHASE_COLLECTING_ALERTS, ALERTS_WEIGHT, offset);
+        this.totalWeight = offset;
+    }
+
+    private int addPhase(String phase, int weight, int offset) {
+        phaseOffsets.put(phase, offset);
+        phaseWeights.put(phase, weight);
+        return offset + weight;
+    }
+
+    Integer getResultId() {
+        return resultId;
+    }
+
+    String getCurrentPhase() {
+        return currentPhase;
+    }
+
+    String getContextId() {
+        return contextId;
+    }
+
+    void setContextId(String contextId) {
+        this.contextId = contextId;
+    }
+
+    void begin(String phase) {
+        this.currentPhase = phase;
+        this.phaseStartedAt = System.currentTimeMillis();
+    }
+
+    void end(String phase) {
+        durations.put(phase, System.currentTimeMillis() - phaseStartedAt);
+    }
+
+    Long getDuration(String phase) {
+        return durations.get(phase);
+    }
+
+    /**
+     * Converts the percent reported by ZAP for the current phase into an overall scan percent.
+     */
+    int overallPercent(int phasePercent) {
+        String phase = currentPhase;
+        int clamped = Math.max(0, Math.min(100, phasePercent));
+        int weighted = phaseOffsets.get(phase) * 100 + phaseWeights.get(phase) * clamped;
+        return weighted / totalWeight;
+    }
+}
@@ -3,22 +3,36 @@ package com.backend.securitytool.service.scanconfig;
 import com.backend.securitytool.constants.ErrorMessages;
 import com.backend.securitytool.constants.ScanType;
 import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.exception.UpstreamUnavailableException;
 import com.backend.securitytool.mapper.ScanResultMapper;
 import com.backend.securitytool.model.dto.response.ScanResponseDTO;
+import com.backend.securitytool.model.entity.ApiEndpoint;
 import com.backend.securitytool.model.entity.ScanResult;
 import com.backend.securitytool.model.entity.TargetApplication;
 import com.backend.securitytool.model.entity.SecurityIssue;
 import com.backend.securitytool.repository.ScanResultRepository;
-import com.backend.securitytool.repository.TargetApplicationRepository;
-import com.backend.securitytool.repository.SecurityIssueRepository;
+import com.backend.securitytool.repository.ScanPayloadRepository.StoredPayload;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcher;
+import com.backend.securitytool.service.appmanagement.apiendpoint.ApiEndpointMatcherCache;
+import com.backend.securitytool.service.payload.PayloadBlobStore;
+import com.backend.securitytool.service.payload.PayloadCapture;
+import com.backend.securitytool.service.payload.ScanPayloadRecorder;
+import com.backend.securitytool.service.scanengine.ScanContext;
+import com.backend.securitytool.service.scanengine.ScannerEngine;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerpool.ScannerInstance;
+import com.backend.securitytool.service.scannerpool.ScannerRouter;
+import com.backend.securitytool.util.EndpointScope;
+import com.backend.securitytool.util.IssueFingerprint;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -26,88 +40,497 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ZapScannerServiceImpl implements ZapScannerService {
+public class ZapScannerServiceImpl implements ZapScannerService, ScannerEngine {
     private static final Logger logger = LoggerFactory.getLogger(ZapScannerServiceImpl.class);
-    private static final String ZAP_HOST = "http://localhost:8080";
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ZapAlertStreamReader alertStreamReader = new ZapAlertStreamReader(objectMapper);
+
+    private static final String TARGET_URL_ATTRIBUTE = "zap.targetUrl";
+    private static final String STATE_ATTRIBUTE = "zap.state";
+    private static final String SUMMARY_ATTRIBUTE = "zap.summary";
+    private static final String INSTANCE_ATTRIBUTE = "zap.instance";
+    private static final String ENDPOINT_MATCHER_ATTRIBUTE = "zap.endpointMatcher";
+    private static final String ENDPOINT_SCOPE_ATTRIBUTE = "zap.endpointScope";
+    // Raw core/view/alerts pages, one payload per start/count window
+    private static final String ALERTS_PAYLOAD = "zap-alerts";
 
-    private TargetApplicationRepository targetApplicationRepository;
     private ScanResultRepository scanResultRepository;
     private ScanResultMapper scanResultMapper;
-    private SecurityIssueRepository securityIssueRepository;
+    private ApiEndpointMatcherCache apiEndpointMatcherCache;
     private final RestTemplate restTemplate;
 
     // Maximum size for the summary field to prevent database column overflow
     private static final int MAX_SUMMARY_LENGTH = 65000; // Safe limit for most TEXT columns
     private static final int MAX_ALERTS_TO_INCLUDE = 5; // Top 5 alerts
+    private static final int MAX_SOLUTION_LENGTH = 1000; // adjust to your DB column size
+
+    private final ScanProgressPoller scanProgressPoller;
+    private final ScannerRouter scannerRouter;
+    private final ScanPayloadRecorder scanPayloadRecorder;
+    private final PayloadBlobStore payloadBlobStore;
+
+    @Value("${zap.alerts.page-size:500}")
+    private int alertPageSize;
+
+    @Value("${zap.ajax-spider.enabled:true}")
+    private boolean ajaxSpiderEnabled;
+
+    @Value("${zap.spider.timeout-ms:900000}")
+    private long spiderTimeoutMs;
+
+    @Value("${zap.ajax-spider.timeout-ms:600000}")
+    private long ajaxSpiderTimeoutMs;
+
+    @Value("${zap.active-scan.timeout-ms:3600000}")
+    private long activeScanTimeoutMs;
 
     @Autowired
-    public ZapScannerServiceImpl(TargetApplicationRepository targetApplicationRepository, ScanResultRepository scanResultRepository, ScanResultMapper scanResultMapper, SecurityIssueRepository securityIssueRepository) {
-        this.targetApplicationRepository = targetApplicationRepository;
+    public ZapScannerServiceImpl(ScanResultRepository scanResultRepository, ScanResultMapper scanResultMapper,
+                                 ScanProgressPoller scanProgressPoller, @Qualifier("zapRestTemplate") RestTemplate restTemplate,
+                                 ScannerRouter scannerRouter, ApiEndpointMatcherCache apiEndpointMatcherCache,
+                                 ScanPayloadRecorder scanPayloadRecorder, PayloadBlobStore payloadBlobStore) {
         this.scanResultRepository = scanResultRepository;
         this.scanResultMapper = scanResultMapper;
-        this.securityIssueRepository = securityIssueRepository;
-        this.restTemplate = new RestTemplate();
+        this.scanProgressPoller = scanProgressPoller;
+        this.restTemplate = restTemplate;
+        this.scannerRouter = scannerRouter;
+        this.apiEndpointMatcherCache = apiEndpointMatcherCache;
+        this.scanPayloadRecorder = scanPayloadRecorder;
+        this.payloadBlobStore = payloadBlobStore;
+    }
+
+    @Override
+    public String getName() {
+        return "Zap";
     }
 
-    public ScanResponseDTO scan(Integer appId, String targetUrl) {
-        logger.debug("Starting ZAP scan for appId: {}, targetUrl: {}", appId, targetUrl);
-        TargetApplication app = targetApplicationRepository.findById(appId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
+    @Override
+    public String getScanType() {
+        return ScanType.SCAN_TYPE_DYNAMIC;
+    }
 
-        String finalTargetUrl = processTargetUrl(targetUrl);
+    @Override
+    public void prepare(ScanContext context) {
+        boolean scoped = prepareMapping(context);
+        // Scoped scans seed the endpoints directly, crawling the site is what they exist to avoid
+        context.setAttribute(STATE_ATTRIBUTE, new ZapScanState(context.getResultId(), !scoped, ajaxSpiderEnabled && !scoped));
+        ScannerInstance zap = scannerRouter.acquire(UpstreamGuardRegistry.ZAP);
+        context.setAttribute(INSTANCE_ATTRIBUTE, zap);
+        logger.info("ZAP scan for resultId: {} runs on {}", context.getResultId(), zap.getUrl());
+    }
+
+    /**
+     * What turning alerts into findings needs, shared by live scans and replays: the target URL,
+     * the endpoint matcher, the endpoint scope and the summary.
+     *
+     * @return whether the scan is limited to catalogued endpoints
+     */
+    private boolean prepareMapping(ScanContext context) {
+        if (context.getTarget() == null || context.getTarget().isBlank()) {
+            throw new RuntimeException("Target URL is required for ZAP scan");
+        }
+        String finalTargetUrl = processTargetUrl(context.getTarget());
         logger.info("Final target URL for ZAP scan: {}", finalTargetUrl);
+        context.setAttribute(TARGET_URL_ATTRIBUTE, finalTargetUrl);
 
-        String scanUrl = UriComponentsBuilder.fromHttpUrl(ZAP_HOST + "/JSON/core/action/accessUrl/")
-                .queryParam("url", finalTargetUrl)
-                .toUriString();
+        // Findings are attributed to catalogued endpoints; a scoped scan only covers, and only reports, its own
+        ApiEndpointMatcher matcher = apiEndpointMatcherCache.forApp(context.getAppId());
+        Set<Integer> scopeIds = EndpointScope.parse(context.getResult().getEndpointScope());
+        boolean scoped = !scopeIds.isEmpty();
+        if (scoped) {
+            List<ApiEndpoint> scopedEndpoints = matcher.getEndpoints().stream()
+                    .filter(endpoint -> scopeIds.contains(endpoint.getId()))
+                    .toList();
+            if (scopedEndpoints.isEmpty()) {
+                throw new RuntimeException("None of the endpoints of this scan exist anymore: " + scopeIds);
+            }
+            context.setAttribute(ENDPOINT_SCOPE_ATTRIBUTE, new ZapEndpointScope(context.getResultId(), finalTargetUrl, scopedEndpoints));
+            matcher = new ApiEndpointMatcher(scopedEndpoints);
+        }
+        context.setAttribute(ENDPOINT_MATCHER_ATTRIBUTE, matcher);
+        context.setAttribute(SUMMARY_ATTRIBUTE, new ZapAlertSummary(objectMapper, MAX_ALERTS_TO_INCLUDE, MAX_SUMMARY_LENGTH));
+        return scoped;
+    }
+
+    @Override
+    public void release(ScanContext context) {
+        ScannerInstance zap = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class);
+        ZapEndpointScope scope = context.getAttribute(ENDPOINT_SCOPE_ATTRIBUTE, ZapEndpointScope.class);
+        ZapScanState state = context.getAttribute(STATE_ATTRIBUTE, ZapScanState.class);
+        if (zap != null && scope != null && state.getContextId() != null) {
+            try {
+                zapGet(zap, "/JSON/context/action/removeContext/", "contextName", scope.getContextName());
+            } catch (Exception e) {
+                logger.warn("Failed to remove ZAP context {}: {}", scope.getContextName(), e.getMessage());
+            }
+        }
+        scannerRouter.release(zap);
+    }
+
+    /**
+     * Runs the ZAP pipeline (spider, AJAX spider, active scan). Progress of each phase is polled on the
+     * shared {@link ScanProgressPoller}, so no thread is held while ZAP is working.
+     * An endpoint-scoped scan skips the spiders and actively scans only its endpoints.
+     */
+    @Override
+    public CompletableFuture<Void> run(ScanContext context) {
+        String finalTargetUrl = context.getAttribute(TARGET_URL_ATTRIBUTE, String.class);
+        ZapScanState state = context.getAttribute(STATE_ATTRIBUTE, ZapScanState.class);
+        ScannerInstance zap = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class);
+        ZapEndpointScope scope = context.getAttribute(ENDPOINT_SCOPE_ATTRIBUTE, ZapEndpointScope.class);
+        logger.debug("Starting ZAP scan for appId: {}, resultId: {}, targetUrl: {}", context.getAppId(), context.getResultId(), finalTargetUrl);
 
-        logger.info("Calling ZAP scan API: {}", scanUrl);
-        restTemplate.exchange(scanUrl, HttpMethod.GET, null, String.class);
+        if (scope != null) {
+            try {
+                createEndpointContext(zap, state, scope);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return runPhase(zap, state, ScanType.SCAN_PHASE_ACTIVE_SCAN, finalTargetUrl, activeScanTimeoutMs);
+        }
 
-        logger.info("ZAP scan initiated, waiting for completion");
+        CompletableFuture<Void> pipeline = runPhase(zap, state, ScanType.SCAN_PHASE_SPIDER, finalTargetUrl, spiderTimeoutMs);
+        if (ajaxSpiderEnabled) {
+            pipeline = pipeline.thenCompose(v -> runAjaxSpider(zap, state, finalTargetUrl));
+        }
+        return pipeline.thenCompose(v -> runPhase(zap, state, ScanType.SCAN_PHASE_ACTIVE_SCAN, finalTargetUrl, activeScanTimeoutMs));
+    }
+
+    /**
+     * Creates a ZAP context holding only the scoped endpoints and puts one request per endpoint into the
+     * sites tree, which is all the active scan needs to attack them.
+     */
+    private void createEndpointContext(ScannerInstance zap, ZapScanState state, ZapEndpointScope scope) throws IOException {
+        String contextId = zapGet(zap, "/JSON/context/action/newContext/", "contextName", scope.getContextName())
+                .path("contextId").asText();
+        state.setContextId(contextId);
+        for (ApiEndpoint endpoint : scope.getEndpoints()) {
+            zapGet(zap, "/JSON/context/action/includeInContext/",
+                    "contextName", scope.getContextName(), "regex", scope.includeRegex(endpoint));
+            try {
+                if (scope.sendsBody(endpoint)) {
+                    zapGet(zap, "/JSON/core/action/sendRequest/", "request", scope.seedRequest(endpoint));
+                } else {
+                    zapGet(zap, "/JSON/core/action/accessUrl/", "url", scope.seedUrl(endpoint));
+                }
+            } catch (Exception e) {
+                // An endpoint answering with an error is still worth attacking, only a seed ZAP rejected is lost
+                logger.warn("Could not seed endpoint {} {} into ZAP: {}", endpoint.getMethod(), endpoint.getPath(), e.getMessage());
+            }
+        }
+        logger.info("ZAP context {} (id {}) created with {} endpoints", scope.getContextName(), contextId, scope.getEndpoints().size());
+    }
+
+    /**
+     * ZAP runs one AJAX spider per daemon and reports its status daemon-wide, so two scans sharing an instance
+     * would poll, and stop, each other's spider. The phase is claimed per instance; a scan that finds the AJAX
+     * spider busy, whether by a scan of this server or one started elsewhere, skips it and goes on with what
+     * the regular spider found.
+     */
+    private CompletableFuture<Void> runAjaxSpider(ScannerInstance zap, ZapScanState state, String targetUrl) {
+        if (!zap.tryClaimAjaxSpider()) {
+            logger.info("ZAP AJAX spider on {} is used by another scan, skipping it for resultId: {}", zap.getUrl(), state.getResultId());
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            String status = zapGet(zap, "/JSON/ajaxSpider/view/status/").path("status").asText();
+            if ("running".equalsIgnoreCase(status)) {
+                zap.releaseAjaxSpider();
+                logger.info("ZAP AJAX spider on {} is already running, skipping it for resultId: {}", zap.getUrl(), state.getResultId());
+                return CompletableFuture.completedFuture(null);
+            }
+        } catch (Exception e) {
+            zap.releaseAjaxSpider();
+            return CompletableFuture.failedFuture(e);
+        }
+        return runPhase(zap, state, ScanType.SCAN_PHASE_AJAX_SPIDER, targetUrl, ajaxSpiderTimeoutMs)
+                .whenComplete((v, e) -> zap.releaseAjaxSpider());
+    }
+
+    /**
+     * Starts one ZAP phase and completes when ZAP reports it finished. A phase that exceeds its timeout
+     * is stopped in ZAP and the pipeline continues with whatever it found so far.
+     */
+    private CompletableFuture<Void> runPhase(ScannerInstance zap, ZapScanState state, String phase, String targetUrl, long timeoutMs) {
+        state.begin(phase);
+        reportProgress(state, 0);
+        String zapScanId;
+        try {
+            zapScanId = startPhase(zap, state, phase, targetUrl);
+            logger.info("ZAP {} started for resultId: {} (zap scan id: {})", phase, state.getResultId(), zapScanId);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return scanProgressPoller.poll("ZAP " + phase + " for resultId " + state.getResultId(),
+                        () -> phaseProgress(zap, phase, zapScanId),
+                        percent -> reportProgress(state, percent),
+                        Duration.ofMillis(timeoutMs))
+                .handle((v, e) -> {
+                    if (e != null) {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof ScanProgressPoller.PollAbortedException) {
+                            // The scan was abandoned, do not leave ZAP attacking the target for nobody
+                            stopPhase(zap, phase, zapScanId);
+                        }
+                        if (!(cause instanceof TimeoutException)) {
+                            throw new CompletionException(cause);
+                        }
+                        logger.warn("ZAP {} timed out after {} ms for resultId: {}, stopping it and continuing",
+                                phase, timeoutMs, state.getResultId());
+                        stopPhase(zap, phase, zapScanId);
+                    }
+                    state.end(phase);
+                    scanResultRepository.updatePhaseDurations(state.getResultId(),
+                            state.getDuration(ScanType.SCAN_PHASE_SPIDER),
+                            state.getDuration(ScanType.SCAN_PHASE_AJAX_SPIDER),
+                            state.getDuration(ScanType.SCAN_PHASE_ACTIVE_SCAN));
+                    logger.info("ZAP {} finished for resultId: {} in {} ms", phase, state.getResultId(), state.getDuration(phase));
+                    return null;
+                });
+    }
+
+    private String startPhase(ScannerInstance zap, ZapScanState state, String phase, String targetUrl) throws IOException {
+        switch (phase) {
+            case ScanType.SCAN_PHASE_SPIDER:
+                // Seed the sites tree before spidering
+                zapGet(zap, "/JSON/core/action/accessUrl/", "url", targetUrl);
+                return zapGet(zap, "/JSON/spider/action/scan/", "url", targetUrl).path("scan").asText();
+            case ScanType.SCAN_PHASE_AJAX_SPIDER:
+                zapGet(zap, "/JSON/ajaxSpider/action/scan/", "url", targetUrl);
+                return null; // ZAP runs a single AJAX spider at a time, there is no scan id
+            case ScanType.SCAN_PHASE_ACTIVE_SCAN:
+                if (state.getContextId() != null) {
+                    return zapGet(zap, "/JSON/ascan/action/scan/", "url", targetUrl, "recurse", "true",
+                            "contextId", state.getContextId()).path("scan").asText();
+                }
+                return zapGet(zap, "/JSON/ascan/action/scan/", "url", targetUrl, "recurse", "true").path("scan").asText();
+            default:
+                throw new IllegalArgumentException("Unknown ZAP phase: " + phase);
+        }
+    }
+
+    private int phaseProgress(ScannerInstance zap, String phase, String zapScanId) throws IOException {
+        if (!zap.isHealthy()) {
+            // The scan state lives in that daemon, move the job to another instance instead of waiting for it
+            throw new UpstreamUnavailableException(UpstreamGuardRegistry.ZAP,
+                    "ZAP instance " + zap.getUrl() + " became unhealthy during the " + phase, 0);
+        }
+        switch (phase) {
+            case ScanType.SCAN_PHASE_SPIDER:
+                return zapGet(zap, "/JSON/spider/view/status/", "scanId", zapScanId).path("status").asInt();
+            case ScanType.SCAN_PHASE_AJAX_SPIDER:
+                // The AJAX spider only reports running/stopped
+                String status = zapGet(zap, "/JSON/ajaxSpider/view/status/").path("status").asText();
+                return "stopped".equalsIgnoreCase(status) ? ScanProgressPoller.DONE : 0;
+            case ScanType.SCAN_PHASE_ACTIVE_SCAN:
+                return zapGet(zap, "/JSON/ascan/view/status/", "scanId", zapScanId).path("status").asInt();
+            default:
+                throw new IllegalArgumentException("Unknown ZAP phase: " + phase);
+        }
+    }
 
-        String alertsUrl = UriComponentsBuilder.fromHttpUrl(ZAP_HOST + "/JSON/core/view/alerts/")
+    private void stopPhase(ScannerInstance zap, String phase, String zapScanId) {
+        try {
+            switch (phase) {
+                case ScanType.SCAN_PHASE_SPIDER:
+                    zapGet(zap, "/JSON/spider/action/stop/", "scanId", zapScanId);
+                    break;
+                case ScanType.SCAN_PHASE_AJAX_SPIDER:
+                    zapGet(zap, "/JSON/ajaxSpider/action/stop/");
+                    break;
+                case ScanType.SCAN_PHASE_ACTIVE_SCAN:
+                    zapGet(zap, "/JSON/ascan/action/stop/", "scanId", zapScanId);
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to stop ZAP {} (zap scan id: {}): {}", phase, zapScanId, e.getMessage());
+        }
+    }
+
+    private void reportProgress(ZapScanState state, int phasePercent) {
+        if (scanResultRepository.updateProgress(state.getResultId(), state.getCurrentPhase(), state.overallPercent(phasePercent)) == 0) {
+            throw new ScanProgressPoller.PollAbortedException("Scan result " + state.getResultId()
+                    + " is no longer in progress, abandoning this run");
+        }
+    }
+
+    /**
+     * Calls a ZAP JSON API endpoint with the given query parameters (name/value pairs).
+     */
+    private JsonNode zapGet(ScannerInstance zap, String path, String... params) throws IOException {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(zap.getUrl() + path);
+        for (int i = 0; i + 1 < params.length; i += 2) {
+            builder.queryParam(params[i], params[i + 1]);
+        }
+        // Encoded once here; a String URL would be encoded again by the RestTemplate, breaking values such as raw requests
+        URI uri = builder.build().encode().toUri();
+        logger.debug("Calling ZAP API: {}", uri);
+        ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.GET, null, String.class);
+        return objectMapper.readTree(response.getBody() == null ? "{}" : response.getBody());
+    }
+
+    /**
+     * Pages through the ZAP alerts with start/count windows. Each page is streamed into SecurityIssue rows
+     * and handed to the sink, which persists it while the next page is being fetched, so memory stays flat
+     * regardless of alert count.
+     */
+    @Override
+    public void streamFindings(ScanContext context, Consumer<List<SecurityIssue>> sink) {
+        String finalTargetUrl = context.getAttribute(TARGET_URL_ATTRIBUTE, String.class);
+        ZapScanState state = context.getAttribute(STATE_ATTRIBUTE, ZapScanState.class);
+        ZapAlertSummary summary = context.getAttribute(SUMMARY_ATTRIBUTE, ZapAlertSummary.class);
+        state.begin(ScanType.SCAN_PHASE_COLLECTING_ALERTS);
+        reportProgress(state, 0);
+
+        ScannerInstance zap = context.getAttribute(INSTANCE_ATTRIBUTE, ScannerInstance.class);
+        int totalAlerts = countAlerts(zap, finalTargetUrl);
+        int ingested = 0;
+        long ingestStartedAt = System.currentTimeMillis();
+        int start = 0;
+        while (true) {
+            List<SecurityIssue> page = new ArrayList<>(alertPageSize);
+            int read = fetchAlertPage(zap, finalTargetUrl, start, page, summary, context);
+            sink.accept(page);
+            ingested += page.size();
+            if (totalAlerts > 0) {
+                reportProgress(state, (start + read) * 100 / totalAlerts);
+            }
+            if (read < alertPageSize) {
+                break;
+            }
+            start += alertPageSize;
+        }
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - ingestStartedAt);
+        logger.info("{} ZAP alerts streamed for scan result ID: {} in {} ms ({} rows/sec)",
+                ingested, context.getResultId(), elapsedMs, ingested * 1000L / elapsedMs);
+    }
+
+    @Override
+    public void finish(ScanContext context) {
+        context.setSummary(context.getAttribute(SUMMARY_ATTRIBUTE, ZapAlertSummary.class).toSummary());
+    }
+
+    /**
+     * Streams one start/count window of {@code core/view/alerts} into SecurityIssue entities,
+     * feeding the summary along the way. A scoped scan drops alerts outside its endpoints, which the ZAP
+     * session may still hold from earlier scans of the same site. The raw page is captured as it is read.
+     *
+     * @return the number of alerts read, including dropped ones
+     */
+    private int fetchAlertPage(ScannerInstance zap, String finalTargetUrl, int start, List<SecurityIssue> page,
+                               ZapAlertSummary summary, ScanContext context) {
+        // Encoded once, like zapGet; a String URL would be encoded again, mangling targets with query strings
+        URI alertsUrl = UriComponentsBuilder.fromHttpUrl(zap.getUrl() + "/JSON/core/view/alerts/")
                 .queryParam("baseurl", finalTargetUrl)
-                .toUriString();
+                .queryParam("start", start)
+                .queryParam("count", alertPageSize)
+                .build()
+                .encode()
+                .toUri();
+
+        logger.debug("Calling ZAP alerts API: {}", alertsUrl);
+        Integer read = restTemplate.execute(alertsUrl, HttpMethod.GET, null, response -> {
+            try (PayloadCapture capture = scanPayloadRecorder.capture(context, ALERTS_PAYLOAD, zap.getUrl())) {
+                int alerts = readAlerts(capture.tee(response.getBody()), page, summary, context);
+                capture.commit();
+                return alerts;
+            }
+        });
+        return read == null ? 0 : read;
+    }
 
-        logger.info("Calling ZAP alerts API: {}", alertsUrl);
-        ResponseEntity<String> alertsResponse = restTemplate.exchange(
-                alertsUrl, HttpMethod.GET, null, String.class);
+    private int readAlerts(InputStream body, List<SecurityIssue> page, ZapAlertSummary summary, ScanContext context) throws IOException {
+        String finalTargetUrl = context.getAttribute(TARGET_URL_ATTRIBUTE, String.class);
+        ApiEndpointMatcher matcher = context.getAttribute(ENDPOINT_MATCHER_ATTRIBUTE, ApiEndpointMatcher.class);
+        boolean scoped = context.getAttribute(ENDPOINT_SCOPE_ATTRIBUTE, ZapEndpointScope.class) != null;
+        return alertStreamReader.forEachAlert(body, alert -> {
+            ApiEndpoint endpoint = resolveEndpoint(alert, finalTargetUrl, matcher);
+            if (endpoint == null && scoped) {
+                return;
+            }
+            summary.add(alert);
+            page.add(toSecurityIssue(alert, endpoint, context));
+        });
+    }
 
-        // Only top 5 alerts for summary
-        String alertsJson = extractTop5AlertsFieldOnly(alertsResponse.getBody());
+    /**
+     * Maps the stored alert pages of a scan again, against the current endpoint catalog and mapping rules.
+     */
+    @Override
+    public void replayFindings(ScanContext context, List<StoredPayload> payloads, Consumer<List<SecurityIssue>> sink) throws IOException {
+        prepareMapping(context);
+        ZapAlertSummary summary = context.getAttribute(SUMMARY_ATTRIBUTE, ZapAlertSummary.class);
+        int replayed = 0;
+        for (StoredPayload payload : payloads) {
+            if (!ALERTS_PAYLOAD.equals(payload.kind())) {
+                continue;
+            }
+            List<SecurityIssue> page = new ArrayList<>(alertPageSize);
+            try (InputStream body = payloadBlobStore.open(payload.sha256())) {
+                readAlerts(body, page, summary, context);
+            }
+            sink.accept(page);
+            replayed += page.size();
+        }
+        finish(context);
+        logger.info("{} ZAP alerts replayed from {} stored pages for scan result ID: {}", replayed, payloads.size(), context.getResultId());
+    }
 
-        // Remove square brackets if present
-        if (alertsJson.startsWith("[") && alertsJson.endsWith("]")) {
-            alertsJson = alertsJson.substring(1, alertsJson.length() - 1);
+    /**
+     * Catalogued endpoint an alert was raised on. Endpoint paths may be relative to the target URL
+     * (e.g. {@code /users/{id}} under {@code http://host/api}), so both forms of the alert path are tried.
+     */
+    private ApiEndpoint resolveEndpoint(JsonNode alert, String finalTargetUrl, ApiEndpointMatcher matcher) {
+        String path = pathOf(alert.path("url").asText());
+        if (path == null) {
+            return null;
         }
+        String method = alert.path("method").asText();
+        ApiEndpoint endpoint = matcher.match(method, path);
+        String basePath = pathOf(finalTargetUrl);
+        if (endpoint == null && basePath != null && basePath.length() > 1 && path.startsWith(basePath)) {
+            endpoint = matcher.match(method, path.substring(basePath.length()));
+        }
+        return endpoint;
+    }
 
-        ScanResult scanResult = new ScanResult();
-        scanResult.setApp(app);
-        scanResult.setScanDate(Instant.now());
-        scanResult.setScanType(ScanType.SCAN_TYPE_DYNAMIC);
-        scanResult.setStatus(ScanType.SCAN_STATUS_COMPLETED);
-        scanResult.setSummary(alertsJson);
-        // Save to ensure ID is generated
-        ScanResult savedResult = scanResultRepository.save(scanResult);
+    private String pathOf(String url) {
+        try {
+            return URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        // Save SecurityIssue for each alert (all alerts, not limited to top 5)
+    /**
+     * Total number of alerts for the target, used only to report ingestion progress.
+     */
+    private int countAlerts(ScannerInstance zap, String finalTargetUrl) {
         try {
-            saveAllZapAlertsToSecurityIssues(alertsResponse.getBody(), savedResult);
-            logger.info("Security issues extracted and saved for scan result ID: {}", savedResult.getId());
+            return zapGet(zap, "/JSON/core/view/numberOfAlerts/", "baseurl", finalTargetUrl).path("numberOfAlerts").asInt();
         } catch (Exception e) {
-            logger.error("Failed to extract and save security issues: {}", e.getMessage(), e);
+            logger.warn("Could not read number of ZAP alerts for {}: {}", finalTargetUrl, e.getMessage());
+            return 0;
         }
-        logger.info("ZAP scan completed for appId: {}", appId);
-        return scanResultMapper.toResponseDTO(savedResult);
     }
 
     /**
@@ -127,45 +550,6 @@ public class ZapScannerServiceImpl implements ZapScannerService {
         return url;
     }
 
-    /**
-     * Extracts only the value of the "alert" field from each alert object in the ZAP response,
-     * limited to the top 5, and returns as a JSON array of strings.
-     */
-    private String extractTop5AlertsFieldOnly(String zapResponse) {
-        try {
-            JsonNode rootNode = objectMapper.readTree(zapResponse);
-            ArrayNode simplifiedAlerts = objectMapper.createArrayNode();
-
-            if (rootNode.has("alerts") && rootNode.get("alerts").isArray()) {
-                JsonNode alertsNode = rootNode.get("alerts");
-                int alertCount = 0;
-
-                for (JsonNode alert : alertsNode) {
-                    if (alertCount >= MAX_ALERTS_TO_INCLUDE) break;
-                    if (alert.has("alert")) {
-                        String alertName = alert.get("alert").asText();
-                        // Truncate very long alert names
-                        if (alertName.length() > 255) {
-                            alertName = alertName.substring(0, 252) + "...";
-                        }
-                        simplifiedAlerts.add(alertName);
-                        alertCount++;
-                    }
-                }
-            }
-
-            String result = simplifiedAlerts.toString();
-            if (result.length() > MAX_SUMMARY_LENGTH) {
-                result = result.substring(0, MAX_SUMMARY_LENGTH - 3) + "...]";
-            }
-            return result;
-
-        } catch (Exception e) {
-            logger.error("Error extracting alert names from ZAP response", e);
-            return "[]";
-        }
-    }
-
     /**
      * Standardize the solution text for database storage.
      * - Remove excessive whitespace and line breaks.
@@ -198,33 +582,39 @@ public class ZapScannerServiceImpl implements ZapScannerService {
     }
 
     /**
-     * Save all alerts from ZAP response as SecurityIssue entities (no top 5 limit).
+     * Build a SecurityIssue from a single ZAP alert.
      * Extract only risk, description, solution, and reference fields.
      * Standardize solution before saving.
      */
-    private void saveAllZapAlertsToSecurityIssues(String zapResponse, ScanResult scanResult) throws IOException {
-        final int MAX_SOLUTION_LENGTH = 1000; // adjust to your DB column size
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(zapResponse);
-        JsonNode alerts = rootNode.path("alerts");
-        if (alerts.isArray()) {
-            for (JsonNode alert : alerts) {
-                SecurityIssue issue = new SecurityIssue();
-                issue.setResult(scanResult);
-                issue.setAppId(scanResult.getApp().getId()); // Set appId from the scan result's app
-                issue.setIssueType("Zap");
-                String risk = alert.path("risk").asText();
-                issue.setSeverity(risk);
-                issue.setStatus(mapZapRiskToStatus(risk));
-                issue.setDescription(alert.path("description").asText());
-                String solution = alert.path("solution").asText();
-                solution = standardizeSolution(solution, MAX_SOLUTION_LENGTH);
-                issue.setSolution(solution);
-                // Lưu trường reference từ alert
-                issue.setReference(alert.path("reference").asText());
-                securityIssueRepository.save(issue);
-            }
-        }
+    private SecurityIssue toSecurityIssue(JsonNode alert, ApiEndpoint endpoint, ScanContext context) {
+        SecurityIssue issue = context.newIssue();
+        issue.setEndpoint(endpoint);
+        String risk = alert.path("risk").asText();
+        issue.setSeverity(risk);
+        issue.setStatus(mapZapRiskToStatus(risk));
+        issue.setDescription(alert.path("description").asText());
+        String solution = alert.path("solution").asText();
+        solution = standardizeSolution(solution, MAX_SOLUTION_LENGTH);
+        issue.setSolution(solution);
+        // Lưu trường reference từ alert
+        issue.setReference(alert.path("reference").asText());
+        // Same rule on the same URL/parameter is the same finding across scans. The endpoint follows from the URL,
+        // so it stays out of the identity (empty slot, keeps earlier fingerprints) and catalog edits reopen nothing
+        issue.setFingerprint(IssueFingerprint.of(issue.getIssueType(),
+                alert.path("alertRef").asText(alert.path("pluginId").asText()),
+                alert.path("method").asText(),
+                alert.path("url").asText(),
+                alert.path("param").asText(),
+                null));
+        return issue;
+    }
+
+    /**
+     * ZAP findings keep the alert's risk as their severity, so the status follows from it alone.
+     */
+    @Override
+    public void reclassify(SecurityIssue issue) {
+        issue.setStatus(mapZapRiskToStatus(issue.getSeverity()));
     }
 
     /**
@@ -0,0 +1,57 @@
+package com.backend.securitytool.service.scanengine;
+
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of one engine run within a scan. Engines keep tool specific state in the attributes,
+ * the orchestrator reads the summary back when it completes the scan result.
+ */
+@Getter
+public class ScanContext {
+    private final String engineName;
+    private final ScanResult result;
+    private final String target;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    @Setter
+    private volatile String summary;
+
+    public ScanContext(String engineName, ScanResult result, String target) {
+        this.engineName = engineName;
+        this.result = result;
+        this.target = target;
+    }
+
+    public Integer getResultId() {
+        return result.getId();
+    }
+
+    public Integer getAppId() {
+        return result.getApp().getId();
+    }
+
+    /**
+     * New finding attached to this scan, with app and issue type already filled in.
+     */
+    public SecurityIssue newIssue() {
+        SecurityIssue issue = new SecurityIssue();
+        issue.setResult(result);
+        issue.setAppId(getAppId());
+        issue.setIssueType(engineName);
+        return issue;
+    }
+
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    public <T> T getAttribute(String key, Class<T> type) {
+        return type.cast(attributes.get(key));
+    }
+}
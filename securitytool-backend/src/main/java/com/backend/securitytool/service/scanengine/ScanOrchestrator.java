@@ -0,0 +1,30 @@
+package com.backend.securitytool.service.scanengine;
+
+import com.backend.securitytool.model.dto.response.ScanResponseDTO;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface ScanOrchestrator {
+
+    /**
+     * Runs one engine per entry of {@code targetsByScanType} concurrently and merges their findings
+     * into the pending scan result {@code resultId}. Completes once every engine is done.
+     */
+    default CompletableFuture<ScanResponseDTO> run(Integer resultId, Map<String, String> targetsByScanType) {
+        return run(resultId, targetsByScanType, Map.of());
+    }
+
+    /**
+     * Same as {@link #run(Integer, Map)}, with {@code attributes} copied into every engine's {@link ScanContext}
+     * before it is prepared, for engine specific options of the job.
+     */
+    CompletableFuture<ScanResponseDTO> run(Integer resultId, Map<String, String> targetsByScanType, Map<String, Object> attributes);
+
+    /**
+     * Derives the findings of the completed scan {@code sourceResultId} again from its stored raw payloads,
+     * without calling any scanner, into a new scan result of the same app and type that is diffed like a fresh scan.
+     * Returns the new, still running scan result right away.
+     */
+    ScanResponseDTO reingest(Integer sourceResultId);
+}
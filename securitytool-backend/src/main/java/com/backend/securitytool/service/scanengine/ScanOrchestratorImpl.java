@@ -0,0 +1,286 @@
+package com.backend.securitytool.service.scanengine;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.BadRequestException;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.mapper.ScanResultMapper;
+import com.backend.securitytool.model.dto.response.ScanResponseDTO;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.ScanPayloadRepository;
+import com.backend.securitytool.repository.ScanPayloadRepository.StoredPayload;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.service.ingest.IssueIngestionService;
+import com.backend.securitytool.service.ingest.IssueIngestionSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ScanOrchestratorImpl implements ScanOrchestrator {
+    private static final Logger logger = LoggerFactory.getLogger(ScanOrchestratorImpl.class);
+
+    private final Map<String, ScannerEngine> enginesByScanType = new HashMap<>();
+    private final Map<String, ScannerEngine> enginesByName = new HashMap<>();
+    private final ScanResultRepository scanResultRepository;
+    private final ScanPayloadRepository scanPayloadRepository;
+    private final ScanResultMapper scanResultMapper;
+    private final IssueIngestionService issueIngestionService;
+    private final AppStatsRepository appStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+    private final Executor issueWriterExecutor;
+
+    @Autowired
+    public ScanOrchestratorImpl(List<ScannerEngine> engines,
+                                ScanResultRepository scanResultRepository,
+                                ScanResultMapper scanResultMapper,
+                                IssueIngestionService issueIngestionService,
+                                ScanPayloadRepository scanPayloadRepository,
+                                AppStatsRepository appStatsRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Qualifier("taskExecutor") Executor taskExecutor,
+                                @Qualifier("issueWriterExecutor") Executor issueWriterExecutor) {
+        for (ScannerEngine engine : engines) {
+            enginesByScanType.put(engine.getScanType(), engine);
+            enginesByName.put(engine.getName(), engine);
+        }
+        this.scanResultRepository = scanResultRepository;
+        this.scanResultMapper = scanResultMapper;
+        this.issueIngestionService = issueIngestionService;
+        this.scanPayloadRepository = scanPayloadRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.issueWriterExecutor = issueWriterExecutor;
+    }
+
+    /**
+     * Every engine runs independently on the shared executor, so a combined scan takes as long as
+     * its slowest engine. Findings of all engines are diffed in one ingestion session against the
+     * previous scan of the same type; the scan result is completed once, after the last engine.
+     */
+    @Override
+    public CompletableFuture<ScanResponseDTO> run(Integer resultId, Map<String, String> targetsByScanType, Map<String, Object> attributes) {
+        ScanResult scanResult = scanResultRepository.findById(resultId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId));
+
+        List<ScanContext> contexts = new ArrayList<>();
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        IssueIngestionSession ingestion = issueIngestionService.open(scanResult);
+        for (Map.Entry<String, String> entry : targetsByScanType.entrySet()) {
+            ScannerEngine engine = enginesByScanType.get(entry.getKey());
+            if (engine == null) {
+                throw new RuntimeException("No scanner engine registered for scan type: " + entry.getKey());
+            }
+            ScanContext context = new ScanContext(engine.getName(), scanResult, entry.getValue());
+            attributes.forEach(context::setAttribute);
+            contexts.add(context);
+            runs.add(runEngine(engine, context, ingestion));
+        }
+
+        return CompletableFuture.allOf(runs.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(v -> complete(resultId, contexts, ingestion), taskExecutor);
+    }
+
+    private CompletableFuture<Void> runEngine(ScannerEngine engine, ScanContext context, IssueIngestionSession ingestion) {
+        long startedAt = System.currentTimeMillis();
+        return CompletableFuture.supplyAsync(() -> {
+                    engine.prepare(context);
+                    logger.info("{} scan started for resultId: {}, target: {}", engine.getName(), context.getResultId(), context.getTarget());
+                    return engine.run(context);
+                }, taskExecutor)
+                .thenCompose(Function.identity())
+                // Ingestion is database heavy, keep it off the threads that completed the run (e.g. the poller)
+                .thenRunAsync(() -> ingest(engine, context, ingestion), taskExecutor)
+                .whenComplete((v, error) -> {
+                    engine.release(context);
+                    long elapsedMs = System.currentTimeMillis() - startedAt;
+                    if (error == null) {
+                        logger.info("{} scan finished for resultId: {} in {} ms", engine.getName(), context.getResultId(), elapsedMs);
+                    } else {
+                        logger.warn("{} scan failed for resultId: {} after {} ms", engine.getName(), context.getResultId(), elapsedMs);
+                    }
+                });
+    }
+
+    private void ingest(ScannerEngine engine, ScanContext context, IssueIngestionSession ingestion) {
+        ensureActive(context.getResultId());
+        PageWriter writer = new PageWriter(context.getResultId(), ingestion);
+        try {
+            engine.streamFindings(context, writer);
+            writer.flush();
+        } catch (Exception e) {
+            throw new CompletionException("Failed to ingest " + engine.getName() + " findings: " + e.getMessage(), e);
+        }
+        engine.finish(context);
+    }
+
+    @Override
+    public ScanResponseDTO reingest(Integer sourceResultId) {
+        ScanResult source = scanResultRepository.findById(sourceResultId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + sourceResultId));
+        if (!ScanType.SCAN_STATUS_COMPLETED.equals(source.getStatus())) {
+            throw new BadRequestException(String.format(ErrorMessages.REINGEST_SCAN_NOT_COMPLETED, sourceResultId, source.getStatus()));
+        }
+        Map<String, List<StoredPayload>> payloadsByEngine = scanPayloadRepository.findByResultId(sourceResultId).stream()
+                .collect(Collectors.groupingBy(StoredPayload::engine, LinkedHashMap::new, Collectors.toList()));
+        if (payloadsByEngine.isEmpty()) {
+            throw new BadRequestException(ErrorMessages.REINGEST_NO_PAYLOADS + sourceResultId);
+        }
+        for (String engineName : payloadsByEngine.keySet()) {
+            if (!enginesByName.containsKey(engineName)) {
+                throw new RuntimeException("No scanner engine registered for stored payloads of: " + engineName);
+            }
+        }
+
+        ScanResult result = new ScanResult();
+        result.setApp(source.getApp());
+        result.setScanType(source.getScanType());
+        result.setEndpointScope(source.getEndpointScope());
+        result.setStatus(ScanType.SCAN_STATUS_IN_PROGRESS);
+        result.setScanDate(Instant.now());
+        result.setProgressPercent(0);
+        ScanResult saved = transactionTemplate.execute(status -> {
+            ScanResult stored = scanResultRepository.save(result);
+            appStatsRepository.addScan(source.getApp().getId(), source.getScanType());
+            return stored;
+        });
+        Integer resultId = saved.getId();
+        // The new scan is built from the same blobs, so it can be re-ingested in turn
+        scanPayloadRepository.copyToResult(sourceResultId, resultId);
+        logger.info("Re-ingesting scan result {} from {} stored payload groups into resultId: {}",
+                sourceResultId, payloadsByEngine.size(), resultId);
+
+        CompletableFuture.supplyAsync(() -> replay(resultId, payloadsByEngine), taskExecutor)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        logger.error("Re-ingesting scan result {} into resultId: {} failed: {}", sourceResultId, resultId, cause.getMessage(), cause);
+                        scanResultRepository.findById(resultId).ifPresent(failed -> {
+                            failed.setStatus(ScanType.SCAN_STATUS_FAILED);
+                            failed.setSummary("Re-ingest of scan result " + sourceResultId + " failed: " + cause.getMessage());
+                            failed.setCurrentPhase(null);
+                            scanResultRepository.save(failed);
+                        });
+                    }
+                });
+        return scanResultMapper.toResponseDTO(saved);
+    }
+
+    private ScanResponseDTO replay(Integer resultId, Map<String, List<StoredPayload>> payloadsByEngine) {
+        ScanResult scanResult = scanResultRepository.findById(resultId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId));
+        IssueIngestionSession ingestion = issueIngestionService.open(scanResult);
+        List<ScanContext> contexts = new ArrayList<>();
+        for (Map.Entry<String, List<StoredPayload>> entry : payloadsByEngine.entrySet()) {
+            ScannerEngine engine = enginesByName.get(entry.getKey());
+            ScanContext context = new ScanContext(engine.getName(), scanResult, entry.getValue().get(0).target());
+            contexts.add(context);
+            PageWriter writer = new PageWriter(resultId, ingestion);
+            try {
+                engine.replayFindings(context, entry.getValue(), writer);
+                writer.flush();
+            } catch (Exception e) {
+                throw new CompletionException("Failed to replay " + engine.getName() + " payloads: " + e.getMessage(), e);
+            }
+        }
+        return complete(resultId, contexts, ingestion);
+    }
+
+    private ScanResponseDTO complete(Integer resultId, List<ScanContext> contexts, IssueIngestionSession ingestion) {
+        ensureActive(resultId);
+        // Reload so the progress columns written by the engines are not overwritten with stale values
+        ScanResult scanResult = scanResultRepository.findById(resultId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + resultId));
+        ingestion.finish(scanResult);
+
+        scanResult.setScanDate(Instant.now());
+        scanResult.setStatus(ScanType.SCAN_STATUS_COMPLETED);
+        scanResult.setSummary(mergeSummaries(contexts));
+        scanResult.setCurrentPhase(null);
+        scanResult.setProgressPercent(100);
+        ScanResult savedResult = transactionTemplate.execute(status -> {
+            // Locked so the sweeper cannot abandon the result between this check and the save
+            String current = scanResultRepository.lockStatus(resultId).orElse(null);
+            if (!ScanType.SCAN_STATUS_IN_PROGRESS.equals(current)) {
+                throw abandoned(resultId, current);
+            }
+            return scanResultRepository.save(scanResult);
+        });
+
+        logger.info("Scan completed for resultId: {} ({})", resultId,
+                contexts.stream().map(ScanContext::getEngineName).collect(Collectors.joining(", ")));
+        return scanResultMapper.toResponseDTO(savedResult);
+    }
+
+    /**
+     * Stops a run whose scan result is no longer in progress, e.g. because the sweeper abandoned it and
+     * re-queued the job onto a new result, so the run does not keep writing findings nobody will look at.
+     */
+    private void ensureActive(Integer resultId) {
+        String status = scanResultRepository.findStatusById(resultId).orElse(null);
+        if (!ScanType.SCAN_STATUS_IN_PROGRESS.equals(status)) {
+            throw abandoned(resultId, status);
+        }
+    }
+
+    private IllegalStateException abandoned(Integer resultId, String status) {
+        return new IllegalStateException("Scan result " + resultId + " is " + status + ", abandoning this run");
+    }
+
+    private String mergeSummaries(List<ScanContext> contexts) {
+        if (contexts.size() == 1) {
+            return contexts.get(0).getSummary();
+        }
+        return contexts.stream()
+                .map(context -> context.getEngineName() + ": " + (context.getSummary() == null ? "" : context.getSummary()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Hands pages to the issue writer so a page is persisted while the engine fetches the next one.
+     * At most one page per engine is in flight.
+     */
+    private class PageWriter implements Consumer<List<SecurityIssue>> {
+        private final Integer resultId;
+        private final IssueIngestionSession ingestion;
+        private CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+
+        PageWriter(Integer resultId, IssueIngestionSession ingestion) {
+            this.resultId = resultId;
+            this.ingestion = ingestion;
+        }
+
+        @Override
+        public void accept(List<SecurityIssue> page) {
+            pendingWrite.join();
+            ensureActive(resultId);
+            if (!page.isEmpty()) {
+                pendingWrite = CompletableFuture.runAsync(() -> ingestion.accept(page), issueWriterExecutor);
+            }
+        }
+
+        void flush() {
+            pendingWrite.join();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.securitytool.service.scanengine;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.ScanPayloadRepository.StoredPayload;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A security scanner the {@link ScanOrchestrator} can drive.
+ * The orchestrator owns the scan result and persistence; an engine only talks to its tool
+ * and turns what the tool reports into findings. Lifecycle, per scan:
+ * <ol>
+ *     <li>{@link #prepare} validates the target and resolves what the scan needs</li>
+ *     <li>{@link #run} drives the tool until its findings are ready</li>
+ *     <li>{@link #streamFindings} hands the findings over page by page</li>
+ *     <li>{@link #finish} fills in the engine's part of the scan summary</li>
+ *     <li>{@link #release} gives back what {@link #prepare} took, called however the scan ended</li>
+ * </ol>
+ * Engines that capture their raw responses can also {@link #replayFindings replay} a finished scan offline.
+ * Stored findings are brought in line with a changed severity or status mapping through {@link #reclassify}.
+ */
+public interface ScannerEngine {
+
+    /**
+     * Name of the engine, also used as the issue type of its findings.
+     */
+    String getName();
+
+    /**
+     * Scan type the engine produces, {@code ScanType.SCAN_TYPE_STATIC} or {@code ScanType.SCAN_TYPE_DYNAMIC}.
+     */
+    String getScanType();
+
+    void prepare(ScanContext context);
+
+    /**
+     * Starts the scan. Engines whose tool works asynchronously should complete the future
+     * when the tool is done instead of blocking the calling thread.
+     */
+    CompletableFuture<Void> run(ScanContext context);
+
+    /**
+     * Passes findings to {@code sink} in pages. The sink may block until the previous page is persisted,
+     * so engines should fetch lazily rather than collecting everything up front.
+     */
+    void streamFindings(ScanContext context, Consumer<List<SecurityIssue>> sink) throws Exception;
+
+    default void finish(ScanContext context) {
+    }
+
+    /**
+     * Derives the findings again from the responses captured while a scan ran, without calling the tool,
+     * and fills in the engine's part of the summary. Nothing is prepared or released around a replay.
+     *
+     * @param payloads this engine's captured responses of the original scan, in capture order
+     */
+    default void replayFindings(ScanContext context, List<StoredPayload> payloads, Consumer<List<SecurityIssue>> sink) throws Exception {
+        throw new UnsupportedOperationException(getName() + " findings cannot be re-ingested from stored payloads");
+    }
+
+    default void release(ScanContext context) {
+    }
+
+    /**
+     * Recomputes the fields of a stored finding of this engine that are derived from the tool's rating,
+     * severity and status, with the current mapping. Only those fields and the issue type are loaded.
+     */
+    default void reclassify(SecurityIssue issue) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ScanJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many scans each engine runs at once on this node.
+ * A job holds one permit per engine it uses from dispatch until it finishes; combined jobs need both.
+ * Permits belong to one attempt of a job, so a superseded attempt can never give back those of the next one.
+ */
+@Component
+public class ScanAdmissionControl {
+    private static final Logger logger = LoggerFactory.getLogger(ScanAdmissionControl.class);
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    // Admitted jobs with the app they scan and the attempt they were admitted for,
+    // until they finish or turn out to be claimed elsewhere
+    private final Map<Integer, Admission> admittedJobs = new ConcurrentHashMap<>();
+    private final List<Runnable> releaseListeners = new CopyOnWriteArrayList<>();
+
+    public ScanAdmissionControl(@Value("${scan.limits.dynamic:2}") int dynamicLimit,
+                                @Value("${scan.limits.static:4}") int staticLimit) {
+        permits.put(ScanType.SCAN_TYPE_DYNAMIC, new Semaphore(dynamicLimit));
+        permits.put(ScanType.SCAN_TYPE_STATIC, new Semaphore(staticLimit));
+    }
+
+    private record Admission(Integer appId, int attempt) {
+    }
+
+    /**
+     * Reserves permits for every engine of the job, all or nothing, for the given attempt.
+     *
+     * @return false if an engine is at its limit
+     */
+    public synchronized boolean tryAdmit(ScanJob job, int attempt) {
+        if (admittedJobs.containsKey(job.getId())) {
+            return false;
+        }
+        List<String> engines = enginesOf(job.getScanType());
+        for (int i = 0; i < engines.size(); i++) {
+            if (!permits.get(engines.get(i)).tryAcquire()) {
+                for (int j = 0; j < i; j++) {
+                    permits.get(engines.get(j)).release();
+                }
+                return false;
+            }
+        }
+        admittedJobs.put(job.getId(), new Admission(job.getApp().getId(), attempt));
+        return true;
+    }
+
+    /**
+     * Returns the permits of an attempt that finished and lets listeners dispatch the next job.
+     */
+    public void release(ScanJob job, int attempt) {
+        if (cancel(job, attempt)) {
+            releaseListeners.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Returns the permits of an attempt that never ran on this node (rejected by the executor or claimed elsewhere)
+     * or was abandoned. Does nothing unless this node holds permits for exactly that attempt.
+     */
+    public synchronized boolean cancel(ScanJob job, int attempt) {
+        Admission admission = admittedJobs.get(job.getId());
+        if (admission == null || admission.attempt() != attempt) {
+            return false;
+        }
+        admittedJobs.remove(job.getId());
+        for (String engine : enginesOf(job.getScanType())) {
+            permits.get(engine).release();
+        }
+        return true;
+    }
+
+    public boolean isAdmitted(Integer jobId) {
+        return admittedJobs.containsKey(jobId);
+    }
+
+    public boolean isAppBusy(Integer appId) {
+        return admittedJobs.values().stream().anyMatch(admission -> admission.appId().equals(appId));
+    }
+
+    public boolean hasCapacity(String scanType) {
+        return enginesOf(scanType).stream().allMatch(engine -> permits.get(engine).availablePermits() > 0);
+    }
+
+    public void addReleaseListener(Runnable listener) {
+        releaseListeners.add(listener);
+    }
+
+    private List<String> enginesOf(String scanType) {
+        if (ScanType.SCAN_TYPE_COMBINED.equals(scanType)) {
+            return List.of(ScanType.SCAN_TYPE_DYNAMIC, ScanType.SCAN_TYPE_STATIC);
+        }
+        if (!permits.containsKey(scanType)) {
+            logger.warn("Unknown scan type {}, no engine limit applies", scanType);
+            return List.of();
+        }
+        return List.of(scanType);
+    }
+}
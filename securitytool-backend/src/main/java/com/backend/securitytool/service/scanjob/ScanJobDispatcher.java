@@ -0,0 +1,139 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ScanJob;
+import com.backend.securitytool.repository.ScanJobRepository;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerpool.ScannerRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hands pending jobs to workers as engine capacity frees up.
+ * Jobs are taken round-robin across groups, where every bulk batch is one group and every standalone job its own,
+ * so a large batch never starves a single scan submitted after it. An app runs at most one scan at a time.
+ */
+@Component
+public class ScanJobDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ScanJobDispatcher.class);
+
+    private final ScanJobRepository scanJobRepository;
+    private final ScanJobWorker scanJobWorker;
+    private final ScanAdmissionControl scanAdmissionControl;
+    private final ScannerRouter scannerRouter;
+
+    @Value("${scan.jobs.dispatch-batch-size:20}")
+    private int dispatchBatchSize;
+
+    @Autowired
+    public ScanJobDispatcher(ScanJobRepository scanJobRepository,
+                             ScanJobWorker scanJobWorker,
+                             ScanAdmissionControl scanAdmissionControl,
+                             ScannerRouter scannerRouter) {
+        this.scanJobRepository = scanJobRepository;
+        this.scanJobWorker = scanJobWorker;
+        this.scanAdmissionControl = scanAdmissionControl;
+        this.scannerRouter = scannerRouter;
+        // A finished job frees a permit, use it right away instead of waiting for the sweeper
+        scanAdmissionControl.addReleaseListener(this::dispatchPending);
+    }
+
+    /**
+     * Dispatches as many pending jobs as the engine limits allow.
+     *
+     * @return the number of jobs handed to workers
+     */
+    public synchronized int dispatchPending() {
+        if (!scanAdmissionControl.hasCapacity(ScanType.SCAN_TYPE_DYNAMIC)
+                && !scanAdmissionControl.hasCapacity(ScanType.SCAN_TYPE_STATIC)) {
+            return 0;
+        }
+        Set<Integer> busyApps = new HashSet<>(scanJobRepository.findAppIdsByStatus(ScanType.SCAN_STATUS_IN_PROGRESS));
+        int dispatched = 0;
+        for (ScanJob job : fairOrder(loadCandidates())) {
+            Integer appId = job.getApp().getId();
+            // The attempt the worker will claim; permits and the claim are tied to it
+            int attempt = job.getAttempts() + 1;
+            if (scanAdmissionControl.isAdmitted(job.getId())
+                    || !upstreamsAvailable(job.getScanType())
+                    || busyApps.contains(appId)
+                    || scanAdmissionControl.isAppBusy(appId)
+                    || !scanAdmissionControl.tryAdmit(job, attempt)) {
+                continue;
+            }
+            try {
+                scanJobWorker.process(job.getId(), attempt);
+                busyApps.add(appId);
+                dispatched++;
+            } catch (TaskRejectedException e) {
+                // Executor queue is full; the job stays pending in the database and the sweeper retries it
+                scanAdmissionControl.cancel(job, attempt);
+                logger.warn("Scan job {} not dispatched, executor is saturated: {}", job.getId(), e.getMessage());
+                break;
+            }
+        }
+        if (dispatched > 0) {
+            logger.debug("Dispatched {} pending scan jobs", dispatched);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Jobs whose scanner has no healthy instance accepting scans with a closed circuit breaker stay pending
+     * instead of burning an attempt on a failing upstream. One tripped instance does not hold back the others.
+     */
+    private boolean upstreamsAvailable(String scanType) {
+        boolean needsZap = !ScanType.SCAN_TYPE_STATIC.equals(scanType);
+        boolean needsSonarQube = !ScanType.SCAN_TYPE_DYNAMIC.equals(scanType);
+        return (!needsZap || scannerRouter.hasAvailableInstance(UpstreamGuardRegistry.ZAP))
+                && (!needsSonarQube || scannerRouter.hasAvailableInstance(UpstreamGuardRegistry.SONARQUBE));
+    }
+
+    private List<Deque<ScanJob>> loadCandidates() {
+        List<Deque<ScanJob>> groups = new ArrayList<>();
+        PageRequest window = PageRequest.of(0, dispatchBatchSize);
+        for (ScanJob job : scanJobRepository.findByStatusAndBatchIsNullOrderByCreatedAtAsc(ScanType.SCAN_STATUS_PENDING, window)) {
+            groups.add(new ArrayDeque<>(List.of(job)));
+        }
+        for (Integer batchId : scanJobRepository.findBatchIdsByStatus(ScanType.SCAN_STATUS_PENDING)) {
+            List<ScanJob> jobs = scanJobRepository.findByStatusAndBatchIdOrderByCreatedAtAsc(ScanType.SCAN_STATUS_PENDING, batchId, window);
+            if (!jobs.isEmpty()) {
+                groups.add(new ArrayDeque<>(jobs));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Interleaves the groups, oldest group first: one job of every group per round.
+     */
+    private List<ScanJob> fairOrder(List<Deque<ScanJob>> groups) {
+        groups.sort(Comparator.comparing(group -> group.peekFirst().getCreatedAt()));
+        List<ScanJob> ordered = new ArrayList<>();
+        boolean remaining = true;
+        while (remaining) {
+            remaining = false;
+            for (Deque<ScanJob> group : groups) {
+                ScanJob job = group.pollFirst();
+                if (job != null) {
+                    ordered.add(job);
+                    remaining |= !group.isEmpty();
+                }
+            }
+        }
+        return ordered;
+    }
+}
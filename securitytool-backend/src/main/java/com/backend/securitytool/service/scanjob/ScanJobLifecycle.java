@@ -0,0 +1,128 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.model.entity.ScanJob;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.ScanJobRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * State transitions of claimed scan jobs. Every transition only applies to the attempt the caller ran,
+ * so a run that was already superseded cannot overwrite the state of a newer one.
+ */
+@Component
+public class ScanJobLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(ScanJobLifecycle.class);
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final ScanJobRepository scanJobRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ScanJobLifecycle(ScanJobRepository scanJobRepository,
+                            ScanResultRepository scanResultRepository,
+                            AppStatsRepository appStatsRepository,
+                            TransactionTemplate transactionTemplate) {
+        this.scanJobRepository = scanJobRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Marks an attempt completed; its scan result was already completed by the orchestrator.
+     *
+     * @return false if the attempt was superseded and nothing changed
+     */
+    public boolean complete(ScanJob job, int attempt) {
+        return scanJobRepository.finish(job.getId(), ScanType.SCAN_STATUS_IN_PROGRESS, attempt,
+                ScanType.SCAN_STATUS_COMPLETED, null, Instant.now()) > 0;
+    }
+
+    /**
+     * Marks an attempt and its scan result failed.
+     *
+     * @return false if the attempt was superseded and nothing changed
+     */
+    public boolean fail(ScanJob job, int attempt, String errorMessage) {
+        Integer resultId = job.getResult().getId();
+        Boolean failed = transactionTemplate.execute(status -> {
+            if (scanJobRepository.finish(job.getId(), ScanType.SCAN_STATUS_IN_PROGRESS, attempt,
+                    ScanType.SCAN_STATUS_FAILED, truncate(errorMessage), Instant.now()) == 0) {
+                return false;
+            }
+            scanResultRepository.findById(resultId).ifPresent(result -> {
+                result.setStatus(ScanType.SCAN_STATUS_FAILED);
+                result.setCurrentPhase(null);
+                scanResultRepository.save(result);
+            });
+            return true;
+        });
+        return Boolean.TRUE.equals(failed);
+    }
+
+    /**
+     * Puts an in-progress job back to pending with a fresh scan result, and fails the result of the abandoned
+     * attempt. Rows the attempt already ingested stay with the failed result, so the retry never adds its
+     * findings or stats on top of them. A run still working on the abandoned result stops at its next check.
+     *
+     * @return false if the attempt was superseded, or its scan result already completed, and nothing changed
+     */
+    public boolean requeue(ScanJob job, int attempt, String reason) {
+        Integer abandonedId = job.getResult().getId();
+        Integer retryId = transactionTemplate.execute(status -> {
+            // Locked first, so a run completing the result right now either wins or sees it abandoned
+            String resultStatus = scanResultRepository.lockStatus(abandonedId).orElse(null);
+            if (ScanType.SCAN_STATUS_COMPLETED.equals(resultStatus)) {
+                return null;
+            }
+            ScanResult abandoned = scanResultRepository.findById(abandonedId)
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_RESULT_NOT_FOUND + abandonedId));
+            ScanResult retry = new ScanResult();
+            retry.setApp(abandoned.getApp());
+            retry.setScanDate(Instant.now());
+            retry.setScanType(abandoned.getScanType());
+            retry.setStatus(ScanType.SCAN_STATUS_PENDING);
+            retry.setEndpointScope(abandoned.getEndpointScope());
+            ScanResult savedRetry = scanResultRepository.save(retry);
+            if (scanJobRepository.requeue(job.getId(), ScanType.SCAN_STATUS_IN_PROGRESS, attempt,
+                    ScanType.SCAN_STATUS_PENDING, savedRetry, truncate(reason)) == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            appStatsRepository.addScan(abandoned.getApp().getId(), abandoned.getScanType());
+
+            abandoned.setStatus(ScanType.SCAN_STATUS_FAILED);
+            abandoned.setCurrentPhase(null);
+            abandoned.setSummary("Abandoned after attempt " + attempt + ", retried as scan result " + savedRetry.getId()
+                    + (reason == null ? "" : ": " + reason));
+            scanResultRepository.save(abandoned);
+            return savedRetry.getId();
+        });
+        if (retryId == null) {
+            return false;
+        }
+        logger.info("Scan job {} re-queued after attempt {}, scan result {} abandoned, retrying as {}",
+                job.getId(), attempt, abandonedId, retryId);
+        return true;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH - 3) + "..." : message;
+    }
+}
@@ -0,0 +1,83 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.dto.response.ScanJobResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the open server-sent event subscriptions per scan job and pushes status changes to them.
+ */
+@Component
+public class ScanJobNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(ScanJobNotifier.class);
+    private static final String STATUS_EVENT = "status";
+
+    private final Map<Integer, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @Value("${scan.jobs.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    public SseEmitter subscribe(ScanJobResponseDTO job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Integer jobId = job.getJobId();
+
+        emitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> remove(jobId, emitter));
+        emitter.onTimeout(() -> remove(jobId, emitter));
+        emitter.onError(e -> remove(jobId, emitter));
+
+        // Send the current state right away so late subscribers do not wait for the next change
+        send(emitter, job);
+        if (isFinished(job.getStatus())) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    public void publish(ScanJobResponseDTO job) {
+        List<SseEmitter> subscribers = emitters.get(job.getJobId());
+        if (subscribers == null) {
+            return;
+        }
+        boolean finished = isFinished(job.getStatus());
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, job);
+            if (finished) {
+                emitter.complete();
+            }
+        }
+        if (finished) {
+            emitters.remove(job.getJobId());
+        }
+    }
+
+    private void send(SseEmitter emitter, ScanJobResponseDTO job) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(job));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping scan job subscriber for jobId {}: {}", job.getJobId(), e.getMessage());
+            remove(job.getJobId(), emitter);
+        }
+    }
+
+    private void remove(Integer jobId, SseEmitter emitter) {
+        emitters.computeIfPresent(jobId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private boolean isFinished(String status) {
+        return ScanType.SCAN_STATUS_COMPLETED.equals(status) || ScanType.SCAN_STATUS_FAILED.equals(status);
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.model.dto.request.BulkScanRequestDTO;
+import com.backend.securitytool.model.dto.request.EndpointScanRequestDTO;
+import com.backend.securitytool.model.dto.response.ScanBatchResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanJobResponseDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ScanJobService {
+    ScanJobResponseDTO submitZapScan(Integer appId, String targetUrl);
+    ScanJobResponseDTO submitZapEndpointScan(EndpointScanRequestDTO requestDTO);
+    ScanJobResponseDTO submitSonarQubeScan(Integer appId, String projectKey, String ceTaskId);
+    ScanJobResponseDTO submitCombinedScan(Integer appId, String targetUrl, String projectKey);
+    ScanBatchResponseDTO submitBatch(BulkScanRequestDTO requestDTO);
+    ScanBatchResponseDTO getBatch(Integer batchId);
+    ScanJobResponseDTO getJob(Integer jobId);
+    SseEmitter subscribe(Integer jobId);
+}
@@ -0,0 +1,335 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.BadRequestException;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.mapper.ScanJobMapper;
+import com.backend.securitytool.model.dto.request.BulkScanRequestDTO;
+import com.backend.securitytool.model.dto.request.EndpointScanRequestDTO;
+import com.backend.securitytool.model.dto.response.ScanBatchResponseDTO;
+import com.backend.securitytool.model.dto.response.ScanJobResponseDTO;
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import com.backend.securitytool.model.entity.ScanBatch;
+import com.backend.securitytool.model.entity.ScanJob;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.TargetApplication;
+import com.backend.securitytool.repository.ApiEndpointRepository;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.ScanBatchRepository;
+import com.backend.securitytool.repository.ScanJobRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.repository.TargetApplicationRepository;
+import com.backend.securitytool.util.EndpointScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class ScanJobServiceImpl implements ScanJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ScanJobServiceImpl.class);
+
+    private final ScanJobRepository scanJobRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final TargetApplicationRepository targetApplicationRepository;
+    private final ScanJobMapper scanJobMapper;
+    private final ScanBatchRepository scanBatchRepository;
+    private final ScanJobDispatcher scanJobDispatcher;
+    private final ScanAdmissionControl scanAdmissionControl;
+    private final ScanJobNotifier scanJobNotifier;
+    private final ApiEndpointRepository apiEndpointRepository;
+    private final AppStatsRepository appStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScanJobLifecycle scanJobLifecycle;
+
+    @Value("${scan.jobs.stale-after-ms:10800000}")
+    private long staleAfterMs;
+
+    @Value("${scan.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Autowired
+    public ScanJobServiceImpl(ScanJobRepository scanJobRepository,
+                              ScanResultRepository scanResultRepository,
+                              TargetApplicationRepository targetApplicationRepository,
+                              ScanJobMapper scanJobMapper,
+                              ScanBatchRepository scanBatchRepository,
+                              ScanJobDispatcher scanJobDispatcher,
+                              ScanAdmissionControl scanAdmissionControl,
+                              ScanJobNotifier scanJobNotifier,
+                              ApiEndpointRepository apiEndpointRepository,
+                              AppStatsRepository appStatsRepository,
+                              TransactionTemplate transactionTemplate,
+                              ScanJobLifecycle scanJobLifecycle) {
+        this.scanJobRepository = scanJobRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.targetApplicationRepository = targetApplicationRepository;
+        this.scanJobMapper = scanJobMapper;
+        this.scanBatchRepository = scanBatchRepository;
+        this.scanJobDispatcher = scanJobDispatcher;
+        this.scanAdmissionControl = scanAdmissionControl;
+        this.scanJobNotifier = scanJobNotifier;
+        this.apiEndpointRepository = apiEndpointRepository;
+        this.appStatsRepository = appStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.scanJobLifecycle = scanJobLifecycle;
+    }
+
+    @Override
+    public ScanJobResponseDTO submitZapScan(Integer appId, String targetUrl) {
+        requireTarget(targetUrl, ErrorMessages.SCAN_TARGET_URL_REQUIRED);
+        return submit(appId, ScanType.SCAN_TYPE_DYNAMIC, targetUrl, null, null, null);
+    }
+
+    /**
+     * Queues a ZAP scan limited to catalogued API endpoints. It skips the spiders and only reports, and
+     * resolves, findings on those endpoints, so re-checking a changed endpoint does not need a full-site scan.
+     */
+    @Override
+    public ScanJobResponseDTO submitZapEndpointScan(EndpointScanRequestDTO requestDTO) {
+        Integer appId = requestDTO.getAppId();
+        TargetApplication app = targetApplicationRepository.findById(appId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
+        String targetUrl = requestDTO.getTargetUrl() != null && !requestDTO.getTargetUrl().isBlank()
+                ? requestDTO.getTargetUrl() : app.getAppUrl();
+        requireTarget(targetUrl, ErrorMessages.SCAN_TARGET_URL_REQUIRED);
+
+        List<ApiEndpoint> endpoints;
+        if (requestDTO.getEndpointIds() != null && !requestDTO.getEndpointIds().isEmpty()) {
+            endpoints = apiEndpointRepository.findAllById(requestDTO.getEndpointIds()).stream()
+                    .filter(endpoint -> endpoint.getApp() != null && appId.equals(endpoint.getApp().getId()))
+                    .toList();
+        } else if (requestDTO.getBusinessFlowId() != null) {
+            endpoints = apiEndpointRepository.findByAppIdAndBusinessFlowId(appId, requestDTO.getBusinessFlowId());
+        } else {
+            endpoints = apiEndpointRepository.findByAppId(appId);
+        }
+        if (endpoints.isEmpty()) {
+            throw new BadRequestException(ErrorMessages.SCAN_NO_ENDPOINTS + appId);
+        }
+        String endpointScope = EndpointScope.format(endpoints.stream().map(ApiEndpoint::getId).sorted().toList());
+        return submit(appId, ScanType.SCAN_TYPE_DYNAMIC, targetUrl, null, null, endpointScope);
+    }
+
+    @Override
+    public ScanJobResponseDTO submitSonarQubeScan(Integer appId, String projectKey, String ceTaskId) {
+        requireTarget(projectKey, ErrorMessages.SCAN_PROJECT_KEY_REQUIRED);
+        return submit(appId, ScanType.SCAN_TYPE_STATIC, projectKey, null, ceTaskId, null);
+    }
+
+    @Override
+    public ScanJobResponseDTO submitCombinedScan(Integer appId, String targetUrl, String projectKey) {
+        requireTarget(targetUrl, ErrorMessages.SCAN_TARGET_URL_REQUIRED);
+        requireTarget(projectKey, ErrorMessages.SCAN_PROJECT_KEY_REQUIRED);
+        return submit(appId, ScanType.SCAN_TYPE_COMBINED, targetUrl, projectKey, null, null);
+    }
+
+    /**
+     * Queues one job per selected application under a single batch. Jobs are dispatched by the
+     * {@link ScanJobDispatcher} within the per-engine limits, interleaved with other batches and single scans.
+     */
+    @Override
+    public ScanBatchResponseDTO submitBatch(BulkScanRequestDTO requestDTO) {
+        String scanType = requestDTO.getScanType();
+        if (!ScanType.SCAN_TYPE_STATIC.equals(scanType) && !ScanType.SCAN_TYPE_DYNAMIC.equals(scanType)
+                && !ScanType.SCAN_TYPE_COMBINED.equals(scanType)) {
+            throw new BadRequestException(ErrorMessages.BULK_SCAN_TYPE_UNSUPPORTED + scanType);
+        }
+        List<TargetApplication> apps;
+        if (requestDTO.getAppIds() != null && !requestDTO.getAppIds().isEmpty()) {
+            apps = targetApplicationRepository.findAllById(requestDTO.getAppIds());
+        } else if (requestDTO.getAppNameFilter() != null) {
+            apps = targetApplicationRepository.findByAppNameContainingIgnoreCase(requestDTO.getAppNameFilter());
+        } else {
+            throw new BadRequestException(ErrorMessages.BULK_SCAN_APPS_REQUIRED);
+        }
+
+        ScanBatch batch = new ScanBatch();
+        batch.setScanType(scanType);
+        ScanBatch savedBatch = scanBatchRepository.save(batch);
+
+        List<ScanJob> jobs = new ArrayList<>();
+        List<Integer> skippedAppIds = new ArrayList<>();
+        for (TargetApplication app : apps) {
+            String targetUrl = app.getAppUrl();
+            String projectKey = resolveProjectKey(app.getId(), requestDTO.getProjectKeys());
+            boolean needsUrl = !ScanType.SCAN_TYPE_STATIC.equals(scanType);
+            boolean needsKey = !ScanType.SCAN_TYPE_DYNAMIC.equals(scanType);
+            if ((needsUrl && (targetUrl == null || targetUrl.isBlank())) || (needsKey && projectKey == null)) {
+                skippedAppIds.add(app.getId());
+                continue;
+            }
+            ScanJob job = ScanType.SCAN_TYPE_STATIC.equals(scanType)
+                    ? newJob(app, scanType, projectKey, null, null)
+                    : newJob(app, scanType, targetUrl, needsKey ? projectKey : null, null);
+            job.setBatch(savedBatch);
+            jobs.add(job);
+        }
+        List<ScanJob> savedJobs = scanJobRepository.saveAll(jobs);
+        savedBatch.setTotalJobs(savedJobs.size());
+        scanBatchRepository.save(savedBatch);
+
+        scanJobDispatcher.dispatchPending();
+        logger.info("Scan batch {} queued {} {} jobs, skipped {} applications without a scan target",
+                savedBatch.getId(), savedJobs.size(), scanType, skippedAppIds.size());
+        ScanBatchResponseDTO response = toBatchResponse(savedBatch);
+        response.setSkippedAppIds(skippedAppIds);
+        return response;
+    }
+
+    @Override
+    public ScanBatchResponseDTO getBatch(Integer batchId) {
+        ScanBatch batch = scanBatchRepository.findById(batchId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_BATCH_NOT_FOUND + batchId));
+        return toBatchResponse(batch);
+    }
+
+    @Override
+    public ScanJobResponseDTO getJob(Integer jobId) {
+        ScanJob job = scanJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_JOB_NOT_FOUND + jobId));
+        return scanJobMapper.toResponseDTO(job);
+    }
+
+    @Override
+    public SseEmitter subscribe(Integer jobId) {
+        return scanJobNotifier.subscribe(getJob(jobId));
+    }
+
+    /**
+     * Persists a pending scan result and a job pointing at it; the dispatcher hands the job to a worker
+     * as soon as its engine has a free slot.
+     * The result id is available to clients immediately, the scan itself runs in the background.
+     */
+    private ScanJobResponseDTO submit(Integer appId, String scanType, String target, String projectKey, String ceTaskId,
+                                      String endpointScope) {
+        logger.debug("Submitting {} scan job for appId: {}, target: {}", scanType, appId, target);
+        TargetApplication app = targetApplicationRepository.findById(appId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
+
+        ScanJob job = newJob(app, scanType, target, projectKey, endpointScope);
+        job.setCeTaskId(ceTaskId);
+        ScanJob savedJob = scanJobRepository.save(job);
+        scanJobDispatcher.dispatchPending();
+        logger.info("Scan job {} queued for appId: {}, resultId: {}", savedJob.getId(), appId, savedJob.getResult().getId());
+        return scanJobMapper.toResponseDTO(savedJob);
+    }
+
+    /**
+     * A pending job together with the pending scan result it will fill in.
+     */
+    private ScanJob newJob(TargetApplication app, String scanType, String target, String projectKey, String endpointScope) {
+        ScanResult scanResult = new ScanResult();
+        scanResult.setApp(app);
+        scanResult.setScanDate(Instant.now());
+        scanResult.setScanType(scanType);
+        scanResult.setStatus(ScanType.SCAN_STATUS_PENDING);
+        scanResult.setEndpointScope(endpointScope);
+        ScanResult savedResult = transactionTemplate.execute(status -> {
+            ScanResult saved = scanResultRepository.save(scanResult);
+            appStatsRepository.addScan(app.getId(), scanType);
+            return saved;
+        });
+
+        ScanJob job = new ScanJob();
+        job.setApp(app);
+        job.setResult(savedResult);
+        job.setScanType(scanType);
+        job.setTarget(target);
+        job.setProjectKey(projectKey);
+        job.setStatus(ScanType.SCAN_STATUS_PENDING);
+        return job;
+    }
+
+    private String resolveProjectKey(Integer appId, Map<Integer, String> projectKeys) {
+        if (projectKeys != null && projectKeys.get(appId) != null && !projectKeys.get(appId).isBlank()) {
+            return projectKeys.get(appId);
+        }
+        return scanJobRepository.findFirstByAppIdAndScanTypeOrderByCreatedAtDesc(appId, ScanType.SCAN_TYPE_STATIC)
+                .map(ScanJob::getTarget)
+                .or(() -> scanJobRepository.findFirstByAppIdAndScanTypeOrderByCreatedAtDesc(appId, ScanType.SCAN_TYPE_COMBINED)
+                        .map(ScanJob::getProjectKey))
+                .orElse(null);
+    }
+
+    private ScanBatchResponseDTO toBatchResponse(ScanBatch batch) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Object[] row : scanJobRepository.countByStatusForBatch(batch.getId())) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        int pending = counts.getOrDefault(ScanType.SCAN_STATUS_PENDING, 0);
+        int inProgress = counts.getOrDefault(ScanType.SCAN_STATUS_IN_PROGRESS, 0);
+        Double progress = scanJobRepository.averageProgressForBatch(batch.getId());
+
+        ScanBatchResponseDTO response = new ScanBatchResponseDTO();
+        response.setBatchId(batch.getId());
+        response.setScanType(batch.getScanType());
+        response.setTotalJobs(batch.getTotalJobs());
+        response.setPendingJobs(pending);
+        response.setInProgressJobs(inProgress);
+        response.setCompletedJobs(counts.getOrDefault(ScanType.SCAN_STATUS_COMPLETED, 0));
+        response.setFailedJobs(counts.getOrDefault(ScanType.SCAN_STATUS_FAILED, 0));
+        response.setProgressPercent(progress == null ? 100 : (int) Math.round(progress));
+        response.setStatus(inProgress > 0 ? ScanType.SCAN_STATUS_IN_PROGRESS
+                : pending > 0 ? ScanType.SCAN_STATUS_PENDING : ScanType.SCAN_STATUS_COMPLETED);
+        response.setCreatedAt(batch.getCreatedAt());
+        response.setJobs(scanJobRepository.findByBatchIdOrderByIdAsc(batch.getId()).stream()
+                .map(scanJobMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private void requireTarget(String target, String message) {
+        if (target == null || target.isBlank()) {
+            throw new BadRequestException(message);
+        }
+    }
+
+    /**
+     * Picks up jobs that were never dispatched (executor saturated, node restarted) and
+     * re-queues jobs whose worker died while the job was in progress.
+     */
+    @Scheduled(fixedDelayString = "${scan.jobs.sweep-interval-ms:15000}")
+    public void sweep() {
+        Instant staleBefore = Instant.now().minus(Duration.ofMillis(staleAfterMs));
+        for (ScanJob stale : scanJobRepository.findByStatusAndStartedAtBefore(ScanType.SCAN_STATUS_IN_PROGRESS, staleBefore)) {
+            // Every transition is conditional on the attempt seen here, so a worker finishing right now wins
+            int attempt = stale.getAttempts();
+            boolean applied;
+            String resultStatus = scanResultRepository.findStatusById(stale.getResult().getId()).orElse(null);
+            if (ScanType.SCAN_STATUS_COMPLETED.equals(resultStatus)) {
+                // The scan itself finished, only its worker died before recording that
+                logger.warn("Scan job {} has a completed scan result but is still in progress, completing it", stale.getId());
+                applied = scanJobLifecycle.complete(stale, attempt);
+            } else if (attempt >= maxAttempts) {
+                logger.warn("Scan job {} exceeded {} attempts, marking as failed", stale.getId(), maxAttempts);
+                applied = scanJobLifecycle.fail(stale, attempt, "Scan job timed out after " + attempt + " attempts");
+            } else {
+                // The retry gets a new scan result; a run still working on the old one stops once it sees it abandoned
+                logger.warn("Scan job {} has been in progress since {}, re-queueing", stale.getId(), stale.getStartedAt());
+                applied = scanJobLifecycle.requeue(stale, attempt, "Scan job timed out in progress since " + stale.getStartedAt());
+            }
+            if (applied) {
+                scanJobRepository.findById(stale.getId())
+                        .ifPresent(updated -> scanJobNotifier.publish(scanJobMapper.toResponseDTO(updated)));
+            }
+            // If the stuck attempt ran on this node its engine slots are given back, those of a newer one are kept
+            scanAdmissionControl.cancel(stale, attempt);
+        }
+
+        scanJobDispatcher.dispatchPending();
+    }
+}
@@ -0,0 +1,166 @@
+package com.backend.securitytool.service.scanjob;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.exception.UpstreamUnavailableException;
+import com.backend.securitytool.mapper.ScanJobMapper;
+import com.backend.securitytool.model.dto.response.ScanResponseDTO;
+import com.backend.securitytool.model.entity.ScanJob;
+import com.backend.securitytool.repository.ScanJobRepository;
+import com.backend.securitytool.repository.ScanResultRepository;
+import com.backend.securitytool.service.scanconfig.SonarQubeScannerService;
+import com.backend.securitytool.service.scanengine.ScanOrchestrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Executes queued scan jobs on the shared async executor.
+ */
+@Component
+public class ScanJobWorker {
+    private static final Logger logger = LoggerFactory.getLogger(ScanJobWorker.class);
+
+    private final ScanJobRepository scanJobRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final ScanJobMapper scanJobMapper;
+    private final ScanJobNotifier scanJobNotifier;
+    private final ScanOrchestrator scanOrchestrator;
+    private final ScanAdmissionControl scanAdmissionControl;
+    private final ScanJobLifecycle scanJobLifecycle;
+
+    @Value("${scan.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Autowired
+    public ScanJobWorker(ScanJobRepository scanJobRepository,
+                         ScanResultRepository scanResultRepository,
+                         ScanJobMapper scanJobMapper,
+                         ScanJobNotifier scanJobNotifier,
+                         ScanOrchestrator scanOrchestrator,
+                         ScanAdmissionControl scanAdmissionControl,
+                         ScanJobLifecycle scanJobLifecycle) {
+        this.scanJobRepository = scanJobRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.scanJobMapper = scanJobMapper;
+        this.scanJobNotifier = scanJobNotifier;
+        this.scanOrchestrator = scanOrchestrator;
+        this.scanAdmissionControl = scanAdmissionControl;
+        this.scanJobLifecycle = scanJobLifecycle;
+    }
+
+    /**
+     * Runs the given attempt of a job; the dispatcher admitted it for exactly that attempt.
+     */
+    @Async
+    public void process(Integer jobId, int attempt) {
+        // Only one worker may move the job out of pending, duplicate dispatches are ignored
+        int claimed = scanJobRepository.claim(jobId, attempt, ScanType.SCAN_STATUS_PENDING,
+                ScanType.SCAN_STATUS_IN_PROGRESS, Instant.now());
+
+        ScanJob job = scanJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_JOB_NOT_FOUND + jobId));
+        if (claimed == 0) {
+            logger.debug("Scan job {} already claimed by another worker, skipping", jobId);
+            scanAdmissionControl.cancel(job, attempt);
+            return;
+        }
+        Integer resultId = job.getResult().getId();
+        updateResultStatus(resultId, ScanType.SCAN_STATUS_IN_PROGRESS);
+        scanJobNotifier.publish(scanJobMapper.toResponseDTO(job));
+        logger.info("Scan job {} started: type={}, target={}, attempt={}", jobId, job.getScanType(), job.getTarget(), job.getAttempts());
+
+        // Engines run asynchronously; the worker thread is released as soon as the scan is started
+        CompletableFuture<ScanResponseDTO> execution;
+        try {
+            execution = scanOrchestrator.run(resultId, targetsOf(job), attributesOf(job));
+        } catch (Exception e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        execution.whenComplete((result, error) -> finish(job, attempt, error));
+    }
+
+    /**
+     * Engine targets of a job, keyed by the scan type of the engine that should scan them.
+     */
+    private Map<String, String> targetsOf(ScanJob job) {
+        Map<String, String> targets = new LinkedHashMap<>();
+        if (ScanType.SCAN_TYPE_COMBINED.equals(job.getScanType())) {
+            targets.put(ScanType.SCAN_TYPE_DYNAMIC, job.getTarget());
+            targets.put(ScanType.SCAN_TYPE_STATIC, job.getProjectKey());
+        } else {
+            targets.put(job.getScanType(), job.getTarget());
+        }
+        return targets;
+    }
+
+    private Map<String, Object> attributesOf(ScanJob job) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (job.getCeTaskId() != null) {
+            attributes.put(SonarQubeScannerService.CE_TASK_ID_ATTRIBUTE, job.getCeTaskId());
+        }
+        return attributes;
+    }
+
+    /**
+     * Records the outcome of an attempt. Each transition only applies while the job is still in progress with
+     * this attempt; if the sweeper re-queued it meanwhile, the outcome is dropped and only the permits are freed.
+     */
+    private void finish(ScanJob job, int attempt, Throwable error) {
+        boolean applied;
+        if (error == null) {
+            applied = scanJobLifecycle.complete(job, attempt);
+        } else if (shouldRequeue(attempt, error)) {
+            // The scanner instance went away under the scan, another healthy instance gets the next attempt.
+            // It starts over on a new scan result, what this attempt ingested stays with the failed one.
+            logger.warn("Scan job {} lost its scanner instance, re-queueing: {}", job.getId(), error.getMessage());
+            applied = scanJobLifecycle.requeue(job, attempt, error.getMessage());
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            logger.error("Scan job {} failed: {}", job.getId(), cause.getMessage(), cause);
+            applied = scanJobLifecycle.fail(job, attempt, cause.getMessage());
+        }
+
+        if (applied) {
+            if (error == null) {
+                logger.info("Scan job {} completed", job.getId());
+            }
+            scanJobRepository.findById(job.getId())
+                    .ifPresent(updated -> scanJobNotifier.publish(scanJobMapper.toResponseDTO(updated)));
+        } else {
+            logger.warn("Scan job {} attempt {} was superseded while it ran, its outcome is dropped", job.getId(), attempt);
+        }
+        // Free the engine slots last, this may dispatch the next pending job
+        scanAdmissionControl.release(job, attempt);
+    }
+
+    private boolean shouldRequeue(int attempt, Throwable error) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UpstreamUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateResultStatus(Integer resultId, String status) {
+        scanResultRepository.findById(resultId).ifPresent(result -> {
+            result.setStatus(status);
+            scanResultRepository.save(result);
+        });
+    }
+}
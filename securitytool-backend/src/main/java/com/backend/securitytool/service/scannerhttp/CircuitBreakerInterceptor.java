@@ -0,0 +1,38 @@
+package com.backend.securitytool.service.scannerhttp;
+
+import com.backend.securitytool.service.resilience.CircuitBreaker;
+import com.backend.securitytool.service.resilience.UpstreamGuard;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Puts the circuit breaker of the instance a request goes to in front of the HTTP client. Must be the first interceptor,
+ * so an open breaker fails the call before it waits for a pooled connection or retries.
+ * I/O errors and 5xx responses count as failures; 4xx means the upstream answered and counts as success.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    private final Function<HttpRequest, UpstreamGuard> guards;
+
+    public CircuitBreakerInterceptor(Function<HttpRequest, UpstreamGuard> guards) {
+        this.guards = guards;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        UpstreamGuard guard = guards.apply(request);
+        CircuitBreaker.Permission permission = guard.acquire();
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            failed = response.getStatusCode().is5xxServerError();
+            return response;
+        } finally {
+            guard.release(permission, failed);
+        }
+    }
+}
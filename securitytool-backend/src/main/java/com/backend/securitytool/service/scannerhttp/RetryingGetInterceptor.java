@@ -0,0 +1,92 @@
+package com.backend.securitytool.service.scannerhttp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.function.Function;
+
+/**
+ * Retries idempotent requests (GET, HEAD) on I/O errors and on 502/503/504 with exponential backoff.
+ * ZAP's JSON API uses GET for actions too (e.g. {@code spider/action/scan}), so only paths under
+ * {@code /view/} or outside ZAP's {@code /action/} namespace are treated as idempotent.
+ * Must be the last interceptor: it re-runs the remaining execution chain on every attempt.
+ */
+public class RetryingGetInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RetryingGetInterceptor.class);
+
+    // Pool of the instance a request goes to, where retries are counted
+    private final Function<HttpRequest, UpstreamHttpPool> pools;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final double multiplier;
+
+    public RetryingGetInterceptor(Function<HttpRequest, UpstreamHttpPool> pools, int maxAttempts, long initialBackoffMs, double multiplier) {
+        this.pools = pools;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.multiplier = multiplier;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!isIdempotent(request)) {
+            return execution.execute(request, body);
+        }
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= maxAttempts;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (lastAttempt || !isRetryable(response.getStatusCode())) {
+                    return response;
+                }
+                logger.warn("{} {} returned {}, retrying in {} ms (attempt {}/{})",
+                        request.getMethod(), request.getURI().getPath(), response.getStatusCode(), backoffMs, attempt, maxAttempts);
+                response.close();
+            } catch (InterruptedIOException e) {
+                // Covers connect/read timeouts: a hung upstream is not retried, the caller already waited long enough
+                throw e;
+            } catch (IOException e) {
+                if (lastAttempt) {
+                    throw e;
+                }
+                logger.warn("{} {} failed: {}, retrying in {} ms (attempt {}/{})",
+                        request.getMethod(), request.getURI().getPath(), e.getMessage(), backoffMs, attempt, maxAttempts);
+            }
+            pools.apply(request).recordRetry();
+            sleep(backoffMs);
+            backoffMs = (long) (backoffMs * multiplier);
+        }
+    }
+
+    private boolean isIdempotent(HttpRequest request) {
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return false;
+        }
+        String path = request.getURI().getPath();
+        return path == null || !path.contains("/action/");
+    }
+
+    private boolean isRetryable(HttpStatusCode status) {
+        int code = status.value();
+        return code == 502 || code == 503 || code == 504;
+    }
+
+    private void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retry");
+        }
+    }
+}
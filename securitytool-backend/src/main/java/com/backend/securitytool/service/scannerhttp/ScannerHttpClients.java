@@ -0,0 +1,93 @@
+package com.backend.securitytool.service.scannerhttp;
+
+import com.backend.securitytool.model.dto.response.UpstreamPoolStatsDTO;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerpool.ScannerInstanceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Builds one long-lived HTTP client per scanner upstream and keeps track of its pools.
+ * A single {@link HttpClient} reuses keep-alive connections across requests, which a fresh
+ * {@code new RestTemplate()} per service (one {@code HttpURLConnection} per call) does not.
+ * Circuit breaker and connection budget are per instance, taken from the URL each request goes to,
+ * so one failing daemon neither trips nor starves the others.
+ */
+@Component
+public class ScannerHttpClients {
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+    private final ScannerInstanceRegistry scannerInstanceRegistry;
+    // Keyed by upstream and instance URL
+    private final Map<String, UpstreamHttpPool> pools = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScannerHttpClients(UpstreamGuardRegistry upstreamGuardRegistry, ScannerInstanceRegistry scannerInstanceRegistry) {
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+        this.scannerInstanceRegistry = scannerInstanceRegistry;
+    }
+
+    public RestTemplate create(String upstream, UpstreamHttpSettings settings) {
+        int instances = Math.max(1, scannerInstanceRegistry.getInstances(upstream).size());
+        ExecutorService executor = Executors.newFixedThreadPool(settings.maxConnections() * instances, runnable -> {
+            Thread thread = new Thread(runnable, upstream + "-http-" + runnable.hashCode());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(settings.connectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(settings.readTimeoutMs()));
+
+        Function<HttpRequest, UpstreamHttpPool> poolOf = request -> pool(upstream, instanceUrlOf(upstream, request), settings);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Order matters: an open breaker refuses before anything else, the pool bounds and times the whole exchange,
+        // retries happen inside one pool slot
+        restTemplate.getInterceptors().add(new CircuitBreakerInterceptor(
+                request -> upstreamGuardRegistry.guard(upstream, instanceUrlOf(upstream, request))));
+        restTemplate.getInterceptors().add((request, body, execution) -> poolOf.apply(request).intercept(request, body, execution));
+        restTemplate.getInterceptors().add(new RetryingGetInterceptor(poolOf, settings.retryMaxAttempts(),
+                settings.retryInitialBackoffMs(), settings.retryMultiplier()));
+        return restTemplate;
+    }
+
+    public List<UpstreamPoolStatsDTO> getStats() {
+        return pools.values().stream()
+                .map(UpstreamHttpPool::stats)
+                .toList();
+    }
+
+    private String instanceUrlOf(String upstream, HttpRequest request) {
+        return scannerInstanceRegistry.instanceUrlOf(upstream, request.getURI());
+    }
+
+    private UpstreamHttpPool pool(String upstream, String instanceUrl, UpstreamHttpSettings settings) {
+        return pools.computeIfAbsent(upstream + " " + instanceUrl, key -> new UpstreamHttpPool(upstream, instanceUrl,
+                settings.maxConnections(), Duration.ofMillis(settings.acquireTimeoutMs())));
+    }
+
+    public record UpstreamHttpSettings(long connectTimeoutMs,
+                                       long readTimeoutMs,
+                                       int maxConnections,
+                                       long acquireTimeoutMs,
+                                       int retryMaxAttempts,
+                                       long retryInitialBackoffMs,
+                                       double retryMultiplier) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.securitytool.service.scannerhttp;
+
+import com.backend.securitytool.model.dto.response.UpstreamPoolStatsDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection budget and counters of one upstream instance (a ZAP daemon, a SonarQube node).
+ * Caps the number of concurrent requests so a slow upstream cannot absorb every thread that talks to it,
+ * and records what the pool is doing for the stats endpoint. A request holds its slot until its response is
+ * closed, so a body that is still being streamed counts as in use.
+ */
+public class UpstreamHttpPool implements ClientHttpRequestInterceptor {
+    private final String name;
+    private final String instanceUrl;
+    private final int maxConnections;
+    private final Duration acquireTimeout;
+    private final Semaphore connections;
+
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private final AtomicLong retriedRequests = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+
+    public UpstreamHttpPool(String name, String instanceUrl, int maxConnections, Duration acquireTimeout) {
+        this.name = name;
+        this.instanceUrl = instanceUrl;
+        this.maxConnections = maxConnections;
+        this.acquireTimeout = acquireTimeout;
+        this.connections = new Semaphore(maxConnections, true);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        try {
+            if (!connections.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejectedRequests.incrementAndGet();
+                throw new SocketTimeoutException("No free " + name + " connection to " + instanceUrl
+                        + " within " + acquireTimeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a " + name + " connection", e);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        totalRequests.incrementAndGet();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+            if (response.getStatusCode().is5xxServerError()) {
+                failedRequests.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            failedRequests.incrementAndGet();
+            release(startedAt);
+            throw e;
+        }
+        return new PooledResponse(response, startedAt);
+    }
+
+    private void release(long startedAt) {
+        totalLatencyMs.addAndGet(System.currentTimeMillis() - startedAt);
+        connections.release();
+    }
+
+    void recordRetry() {
+        retriedRequests.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getInstanceUrl() {
+        return instanceUrl;
+    }
+
+    public UpstreamPoolStatsDTO stats() {
+        UpstreamPoolStatsDTO stats = new UpstreamPoolStatsDTO();
+        int inUse = maxConnections - connections.availablePermits();
+        long requests = totalRequests.get();
+        stats.setUpstream(name);
+        stats.setInstanceUrl(instanceUrl);
+        stats.setMaxConnections(maxConnections);
+        stats.setInUseConnections(inUse);
+        stats.setWaitingRequests(connections.getQueueLength());
+        stats.setUtilizationPercent(inUse * 100 / maxConnections);
+        stats.setTotalRequests(requests);
+        stats.setFailedRequests(failedRequests.get());
+        stats.setRejectedRequests(rejectedRequests.get());
+        stats.setRetriedRequests(retriedRequests.get());
+        stats.setAverageLatencyMs(requests == 0 ? 0 : totalLatencyMs.get() / requests);
+        return stats;
+    }
+
+    /**
+     * Gives the slot back when the response is closed, exactly once. RestTemplate closes every response
+     * after its extractor has read the body.
+     */
+    private final class PooledResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final long startedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PooledResponse(ClientHttpResponse delegate, long startedAt) {
+            this.delegate = delegate;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release(startedAt);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.securitytool.service.scannerpool;
+
+import com.backend.securitytool.model.dto.response.ScannerInstanceDTO;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One ZAP daemon or SonarQube node, with what the router needs to pick between instances of the same upstream.
+ */
+public class ScannerInstance {
+    // Weight of the newest health check latency in the moving average
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final String upstream;
+    private final String url;
+    private final AtomicInteger inFlightScans = new AtomicInteger();
+    // ZAP runs a single AJAX spider per daemon, held by at most one scan of this server at a time
+    private final AtomicBoolean ajaxSpiderClaimed = new AtomicBoolean();
+
+    private volatile boolean healthy = true;
+    private volatile boolean draining;
+    private volatile double latencyMs;
+    private volatile Instant lastCheckedAt;
+    private volatile String lastError;
+    private int consecutiveFailures;
+
+    public ScannerInstance(String upstream, String url) {
+        this.upstream = upstream;
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public void setDraining(boolean draining) {
+        this.draining = draining;
+    }
+
+    /**
+     * Whether new scans may be routed here.
+     */
+    public boolean isAvailable() {
+        return healthy && !draining;
+    }
+
+    public int getInFlightScans() {
+        return inFlightScans.get();
+    }
+
+    public double getLatencyMs() {
+        return latencyMs;
+    }
+
+    /**
+     * Claims the daemon's AJAX spider for one scan. Must be given back with {@link #releaseAjaxSpider()}.
+     *
+     * @return false if another scan of this server is running the AJAX spider here
+     */
+    public boolean tryClaimAjaxSpider() {
+        return ajaxSpiderClaimed.compareAndSet(false, true);
+    }
+
+    public void releaseAjaxSpider() {
+        ajaxSpiderClaimed.set(false);
+    }
+
+    int acquire() {
+        return inFlightScans.incrementAndGet();
+    }
+
+    void release() {
+        inFlightScans.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    /**
+     * @return true when this check changed the instance from unhealthy to healthy
+     */
+    synchronized boolean recordCheckSuccess(long elapsedMs) {
+        latencyMs = lastCheckedAt == null ? elapsedMs : LATENCY_SMOOTHING * elapsedMs + (1 - LATENCY_SMOOTHING) * latencyMs;
+        lastCheckedAt = Instant.now();
+        lastError = null;
+        consecutiveFailures = 0;
+        boolean recovered = !healthy;
+        healthy = true;
+        return recovered;
+    }
+
+    /**
+     * @return true when this check changed the instance from healthy to unhealthy
+     */
+    synchronized boolean recordCheckFailure(String error, int unhealthyAfterFailures) {
+        lastCheckedAt = Instant.now();
+        lastError = error;
+        consecutiveFailures++;
+        boolean lost = healthy && consecutiveFailures >= unhealthyAfterFailures;
+        if (lost) {
+            healthy = false;
+        }
+        return lost;
+    }
+
+    public ScannerInstanceDTO toDTO() {
+        ScannerInstanceDTO dto = new ScannerInstanceDTO();
+        dto.setUpstream(upstream);
+        dto.setUrl(url);
+        dto.setHealthy(healthy);
+        dto.setDraining(draining);
+        dto.setInFlightScans(inFlightScans.get());
+        dto.setLatencyMs(Math.round(latencyMs));
+        dto.setLastCheckedAt(lastCheckedAt);
+        dto.setLastError(lastError);
+        return dto;
+    }
+}
@@ -0,0 +1,145 @@
+package com.backend.securitytool.service.scannerpool;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The ZAP daemons and SonarQube nodes this server may use, from {@code scanner.instances.*}.
+ * Instances are health checked in the background; the checks are sent asynchronously, so a hanging
+ * instance never delays the shared scheduler thread. An instance becomes unhealthy after
+ * {@code unhealthy-after-failures} failed checks in a row and healthy again on the first successful one.
+ */
+@Component
+public class ScannerInstanceRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ScannerInstanceRegistry.class);
+
+    private final Map<String, List<ScannerInstance>> instancesByUpstream;
+    private final HttpClient healthClient;
+    private final Duration checkTimeout;
+    private final int unhealthyAfterFailures;
+
+    @Autowired
+    public ScannerInstanceRegistry(@Value("${scanner.instances.zap:http://localhost:8080}") String[] zapUrls,
+                                   @Value("${scanner.instances.sonarqube:http://localhost:9000}") String[] sonarQubeUrls,
+                                   @Value("${scanner.health-check.timeout-ms:3000}") long checkTimeoutMs,
+                                   @Value("${scanner.health-check.unhealthy-after-failures:2}") int unhealthyAfterFailures) {
+        this.instancesByUpstream = Map.of(
+                UpstreamGuardRegistry.ZAP, toInstances(UpstreamGuardRegistry.ZAP, zapUrls),
+                UpstreamGuardRegistry.SONARQUBE, toInstances(UpstreamGuardRegistry.SONARQUBE, sonarQubeUrls));
+        this.checkTimeout = Duration.ofMillis(checkTimeoutMs);
+        this.unhealthyAfterFailures = Math.max(1, unhealthyAfterFailures);
+        this.healthClient = HttpClient.newBuilder()
+                .connectTimeout(checkTimeout)
+                .build();
+        instancesByUpstream.forEach((upstream, instances) -> logger.info("Registered {} instances: {}", upstream,
+                instances.stream().map(ScannerInstance::getUrl).collect(Collectors.joining(", "))));
+    }
+
+    public List<ScannerInstance> getInstances(String upstream) {
+        return instancesByUpstream.getOrDefault(upstream, List.of());
+    }
+
+    public List<ScannerInstance> getAllInstances() {
+        List<ScannerInstance> all = new ArrayList<>();
+        instancesByUpstream.values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Base URL of the instance of {@code upstream} a request goes to, so its breaker and connection budget can be
+     * looked up. Requests to a host that is not a registered instance are keyed by their scheme and authority.
+     */
+    public String instanceUrlOf(String upstream, URI uri) {
+        String target = uri.toString();
+        return getInstances(upstream).stream()
+                .map(ScannerInstance::getUrl)
+                .filter(url -> target.startsWith(url) && (target.length() == url.length()
+                        || "/?#".indexOf(target.charAt(url.length())) >= 0))
+                .max(Comparator.comparingInt(String::length))
+                .orElseGet(() -> uri.getScheme() + "://" + uri.getRawAuthority());
+    }
+
+    /**
+     * Stops (or resumes) routing new scans to an instance. Scans already running there are left to finish.
+     */
+    public ScannerInstance setDraining(String url, boolean draining) {
+        ScannerInstance instance = getAllInstances().stream()
+                .filter(candidate -> candidate.getUrl().equals(stripTrailingSlash(url)))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCANNER_INSTANCE_NOT_FOUND + url));
+        instance.setDraining(draining);
+        logger.info("{} instance {} {}", instance.getUpstream(), instance.getUrl(), draining ? "is draining" : "accepts scans again");
+        return instance;
+    }
+
+    @Scheduled(fixedDelayString = "${scanner.health-check.interval-ms:15000}")
+    public void checkHealth() {
+        for (ScannerInstance instance : getAllInstances()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(instance.getUrl() + healthPath(instance.getUpstream())))
+                    .timeout(checkTimeout)
+                    .GET()
+                    .build();
+            long startedAt = System.currentTimeMillis();
+            healthClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        String failure = error != null ? error.toString() : checkResponse(instance.getUpstream(), response);
+                        if (failure == null) {
+                            if (instance.recordCheckSuccess(System.currentTimeMillis() - startedAt)) {
+                                logger.info("{} instance {} is healthy again", instance.getUpstream(), instance.getUrl());
+                            }
+                        } else if (instance.recordCheckFailure(failure, unhealthyAfterFailures)) {
+                            logger.warn("{} instance {} is unhealthy, draining it: {}", instance.getUpstream(), instance.getUrl(), failure);
+                        }
+                    });
+        }
+    }
+
+    private String healthPath(String upstream) {
+        return UpstreamGuardRegistry.ZAP.equals(upstream) ? "/JSON/core/view/version/" : "/api/system/status";
+    }
+
+    /**
+     * @return null when the response shows a working instance, otherwise why it does not
+     */
+    private String checkResponse(String upstream, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return "HTTP " + response.statusCode();
+        }
+        // SonarQube answers 200 while starting up or migrating its database, only UP means it can serve analyses
+        if (UpstreamGuardRegistry.SONARQUBE.equals(upstream) && !response.body().contains("\"UP\"")) {
+            return "SonarQube status: " + response.body();
+        }
+        return null;
+    }
+
+    private static List<ScannerInstance> toInstances(String upstream, String[] urls) {
+        return Arrays.stream(urls)
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new ScannerInstance(upstream, url))
+                .toList();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url != null && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
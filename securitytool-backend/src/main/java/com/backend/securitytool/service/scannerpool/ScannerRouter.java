@@ -0,0 +1,66 @@
+package com.backend.securitytool.service.scannerpool;
+
+import com.backend.securitytool.exception.UpstreamUnavailableException;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Assigns each scan to the least loaded available instance of its upstream.
+ * Load is the number of scans running on the instance weighted by its recent health check latency,
+ * so of two equally busy daemons the faster one wins, and an idle slow one still beats a busy fast one.
+ * Instances whose circuit breaker is open are skipped until it lets a trial call through again.
+ */
+@Component
+public class ScannerRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ScannerRouter.class);
+
+    private final ScannerInstanceRegistry scannerInstanceRegistry;
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+
+    @Autowired
+    public ScannerRouter(ScannerInstanceRegistry scannerInstanceRegistry, UpstreamGuardRegistry upstreamGuardRegistry) {
+        this.scannerInstanceRegistry = scannerInstanceRegistry;
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+    }
+
+    /**
+     * Picks an instance and counts the scan against it. Every acquired instance must be given back
+     * with {@link #release(ScannerInstance)} when the scan ends, however it ends.
+     *
+     * @throws UpstreamUnavailableException when no instance of the upstream is healthy, accepting scans
+     * and closed to its breaker
+     */
+    public synchronized ScannerInstance acquire(String upstream) {
+        ScannerInstance instance = scannerInstanceRegistry.getInstances(upstream).stream()
+                .filter(this::isRoutable)
+                .min(Comparator.comparingDouble(this::load))
+                .orElseThrow(() -> new UpstreamUnavailableException(upstream,
+                        "No healthy " + upstream + " instance is available", 30));
+        int inFlight = instance.acquire();
+        logger.debug("Routed {} scan to {} ({} scans in flight)", upstream, instance.getUrl(), inFlight);
+        return instance;
+    }
+
+    public void release(ScannerInstance instance) {
+        if (instance != null) {
+            instance.release();
+        }
+    }
+
+    public boolean hasAvailableInstance(String upstream) {
+        return scannerInstanceRegistry.getInstances(upstream).stream().anyMatch(this::isRoutable);
+    }
+
+    private boolean isRoutable(ScannerInstance instance) {
+        return instance.isAvailable() && upstreamGuardRegistry.isCallPermitted(instance.getUpstream(), instance.getUrl());
+    }
+
+    private double load(ScannerInstance instance) {
+        return (instance.getInFlightScans() + 1) * Math.max(1.0, instance.getLatencyMs());
+    }
+}
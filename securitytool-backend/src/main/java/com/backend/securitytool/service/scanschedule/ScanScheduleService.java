@@ -0,0 +1,9 @@
+package com.backend.securitytool.service.scanschedule;
+
+import com.backend.securitytool.model.dto.request.ScanScheduleRequestDTO;
+import com.backend.securitytool.model.dto.response.ScanConfigurationResponseDTO;
+
+public interface ScanScheduleService {
+    ScanConfigurationResponseDTO getSchedule(Integer appId);
+    ScanConfigurationResponseDTO saveSchedule(Integer appId, ScanScheduleRequestDTO requestDTO);
+}
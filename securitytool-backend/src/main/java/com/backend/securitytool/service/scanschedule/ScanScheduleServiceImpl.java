@@ -0,0 +1,266 @@
+package com.backend.securitytool.service.scanschedule;
+
+import com.backend.securitytool.constants.ErrorMessages;
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.exception.BadRequestException;
+import com.backend.securitytool.exception.ResourceNotFoundException;
+import com.backend.securitytool.mapper.ScanConfigurationMapper;
+import com.backend.securitytool.model.dto.request.ScanScheduleRequestDTO;
+import com.backend.securitytool.model.dto.response.ScanConfigurationResponseDTO;
+import com.backend.securitytool.model.entity.ScanConfiguration;
+import com.backend.securitytool.model.entity.TargetApplication;
+import com.backend.securitytool.repository.ScanConfigurationRepository;
+import com.backend.securitytool.repository.SchedulerLeaseRepository;
+import com.backend.securitytool.repository.TargetApplicationRepository;
+import com.backend.securitytool.service.scanjob.ScanJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fires recurring scans from the cron schedules stored on {@link ScanConfiguration}.
+ * Every node runs the trigger loop, but only the holder of the {@code recurring-scans} lease fires schedules,
+ * so each run is submitted once per cluster. Fire times get a random jitter so apps sharing a cron
+ * expression are spread out instead of all reaching the scanners at the same second.
+ */
+@Service
+public class ScanScheduleServiceImpl implements ScanScheduleService {
+    private static final Logger logger = LoggerFactory.getLogger(ScanScheduleServiceImpl.class);
+    private static final String LEASE_NAME = "recurring-scans";
+
+    private final ScanConfigurationRepository scanConfigurationRepository;
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TargetApplicationRepository targetApplicationRepository;
+    private final ScanConfigurationMapper scanConfigurationMapper;
+    private final ScanJobService scanJobService;
+    private final String nodeId;
+
+    @Value("${scan.schedule.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${scan.schedule.max-jitter-ms:600000}")
+    private long maxJitterMs;
+
+    @Value("${scan.schedule.misfire-grace-ms:300000}")
+    private long misfireGraceMs;
+
+    @Value("${scan.schedule.catch-up-policy:run-once}")
+    private String defaultCatchUpPolicy;
+
+    @Value("${scan.schedule.max-catch-up-runs:3}")
+    private int maxCatchUpRuns;
+
+    @Value("${scan.schedule.batch-size:50}")
+    private int batchSize;
+
+    @Autowired
+    public ScanScheduleServiceImpl(ScanConfigurationRepository scanConfigurationRepository,
+                                   SchedulerLeaseRepository schedulerLeaseRepository,
+                                   TargetApplicationRepository targetApplicationRepository,
+                                   ScanConfigurationMapper scanConfigurationMapper,
+                                   ScanJobService scanJobService) {
+        this.scanConfigurationRepository = scanConfigurationRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.targetApplicationRepository = targetApplicationRepository;
+        this.scanConfigurationMapper = scanConfigurationMapper;
+        this.scanJobService = scanJobService;
+        this.nodeId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public ScanConfigurationResponseDTO getSchedule(Integer appId) {
+        ScanConfiguration config = scanConfigurationRepository.findFirstByAppIdOrderByIdAsc(appId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCAN_SCHEDULE_NOT_FOUND + appId));
+        return scanConfigurationMapper.toResponseDTO(config);
+    }
+
+    @Override
+    public ScanConfigurationResponseDTO saveSchedule(Integer appId, ScanScheduleRequestDTO requestDTO) {
+        TargetApplication app = targetApplicationRepository.findById(appId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.APPLICATION_NOT_FOUND + appId));
+        if (requestDTO.getCron() == null || !CronExpression.isValidExpression(requestDTO.getCron())) {
+            throw new BadRequestException(ErrorMessages.SCHEDULE_CRON_INVALID + requestDTO.getCron());
+        }
+        String timezone = requestDTO.getTimezone() != null && !requestDTO.getTimezone().isBlank()
+                ? requestDTO.getTimezone() : null;
+        // Checked here, otherwise every tick would fail on the stored schedule
+        if (timezone != null) {
+            try {
+                ZoneId.of(timezone);
+            } catch (DateTimeException e) {
+                throw new BadRequestException(ErrorMessages.SCHEDULE_TIMEZONE_INVALID + timezone);
+            }
+        }
+        String scanType = requestDTO.getScanType();
+        if (!ScanType.SCAN_TYPE_STATIC.equals(scanType) && !ScanType.SCAN_TYPE_DYNAMIC.equals(scanType)
+                && !ScanType.SCAN_TYPE_COMBINED.equals(scanType)) {
+            throw new BadRequestException(ErrorMessages.SCHEDULE_SCAN_TYPE_UNSUPPORTED + scanType);
+        }
+        String policy = requestDTO.getCatchUpPolicy();
+        if (policy != null && !ScanType.CATCH_UP_SKIP.equals(policy) && !ScanType.CATCH_UP_RUN_ONCE.equals(policy)
+                && !ScanType.CATCH_UP_RUN_ALL.equals(policy)) {
+            throw new BadRequestException(ErrorMessages.SCHEDULE_CATCH_UP_POLICY_UNSUPPORTED + policy);
+        }
+        if (!ScanType.SCAN_TYPE_DYNAMIC.equals(scanType)
+                && (requestDTO.getProjectKey() == null || requestDTO.getProjectKey().isBlank())) {
+            throw new BadRequestException(ErrorMessages.SCAN_PROJECT_KEY_REQUIRED);
+        }
+
+        ScanConfiguration config = scanConfigurationRepository.findFirstByAppIdOrderByIdAsc(appId)
+                .orElseGet(ScanConfiguration::new);
+        config.setApp(app);
+        config.setScheduleCron(requestDTO.getCron());
+        config.setScheduleScanType(scanType);
+        config.setScheduleEnabled(!Boolean.FALSE.equals(requestDTO.getEnabled()));
+        config.setScheduleTimezone(timezone);
+        config.setCatchUpPolicy(policy);
+        config.setSonarqubeConfig(requestDTO.getProjectKey());
+        config.setZapConfig(requestDTO.getTargetUrl());
+        config.setNextRunAt(nextRun(config, Instant.now()));
+
+        ScanConfiguration saved = scanConfigurationRepository.save(config);
+        logger.info("Scan schedule for appId: {} set to '{}' ({}), next run at {}",
+                appId, saved.getScheduleCron(), scanType, saved.getNextRunAt());
+        return scanConfigurationMapper.toResponseDTO(saved);
+    }
+
+    /**
+     * Trigger loop. Runs on every node, does nothing unless this node holds the lease.
+     * The lease outlives one tick, so the holder keeps it by renewing on each tick. A tick submitting many
+     * scans can itself outlast the lease, so it is renewed again before each schedule fires, and the tick
+     * stops as soon as the renewal fails because another node took over.
+     */
+    @Scheduled(fixedDelayString = "${scan.schedule.tick-ms:30000}")
+    public void tick() {
+        Instant now = Instant.now();
+        if (!renewLease(now)) {
+            return;
+        }
+        List<ScanConfiguration> due = scanConfigurationRepository.findDueSchedules(now, PageRequest.of(0, batchSize));
+        for (ScanConfiguration config : due) {
+            now = Instant.now();
+            if (!renewLease(now)) {
+                logger.warn("Lost the {} lease, leaving the remaining due schedules to its new holder", LEASE_NAME);
+                return;
+            }
+            try {
+                fire(config, now);
+            } catch (Exception e) {
+                logger.error("Scheduled scan for appId: {} failed to start: {}", config.getApp().getId(), e.getMessage(), e);
+                // Move on to the next occurrence rather than retrying a broken schedule every tick
+                config.setNextRunAt(nextRun(config, now));
+                scanConfigurationRepository.save(config);
+            }
+        }
+    }
+
+    private boolean renewLease(Instant now) {
+        return schedulerLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, now.plusMillis(leaseMs)) > 0;
+    }
+
+    private void fire(ScanConfiguration config, Instant now) {
+        if (config.getNextRunAt() == null) {
+            config.setNextRunAt(nextRun(config, now));
+            scanConfigurationRepository.save(config);
+            return;
+        }
+
+        int runs = runsToSubmit(config, now);
+        for (int i = 0; i < runs; i++) {
+            submit(config);
+        }
+        if (runs > 0) {
+            config.setLastRunAt(now);
+        }
+        config.setNextRunAt(nextRun(config, now));
+        scanConfigurationRepository.save(config);
+        logger.info("Scheduled scan for appId: {} submitted {} run(s), next run at {}",
+                config.getApp().getId(), runs, config.getNextRunAt());
+    }
+
+    /**
+     * A run that fires within the grace period is on time. Later than that it was missed,
+     * typically because no node was running, and the catch-up policy decides what happens.
+     */
+    private int runsToSubmit(ScanConfiguration config, Instant now) {
+        Instant scheduledAt = config.getNextRunAt();
+        if (!now.isAfter(scheduledAt.plusMillis(misfireGraceMs))) {
+            return 1;
+        }
+        String policy = config.getCatchUpPolicy() != null ? config.getCatchUpPolicy() : defaultCatchUpPolicy;
+        switch (policy) {
+            case ScanType.CATCH_UP_SKIP:
+                logger.warn("Skipping missed scheduled scan for appId: {} (was due at {})", config.getApp().getId(), scheduledAt);
+                return 0;
+            case ScanType.CATCH_UP_RUN_ALL:
+                return Math.min(maxCatchUpRuns, missedOccurrences(config, scheduledAt, now));
+            case ScanType.CATCH_UP_RUN_ONCE:
+            default:
+                return 1;
+        }
+    }
+
+    private int missedOccurrences(ScanConfiguration config, Instant from, Instant now) {
+        CronExpression cron = CronExpression.parse(config.getScheduleCron());
+        ZonedDateTime next = from.atZone(zoneOf(config));
+        int count = 0;
+        while (next != null && !next.toInstant().isAfter(now) && count < maxCatchUpRuns) {
+            count++;
+            next = cron.next(next);
+        }
+        return Math.max(1, count);
+    }
+
+    private void submit(ScanConfiguration config) {
+        Integer appId = config.getApp().getId();
+        String targetUrl = config.getZapConfig() != null && !config.getZapConfig().isBlank()
+                ? config.getZapConfig()
+                : config.getApp().getAppUrl();
+        switch (config.getScheduleScanType()) {
+            case ScanType.SCAN_TYPE_STATIC:
+                scanJobService.submitSonarQubeScan(appId, config.getSonarqubeConfig(), null);
+                break;
+            case ScanType.SCAN_TYPE_DYNAMIC:
+                scanJobService.submitZapScan(appId, targetUrl);
+                break;
+            default:
+                scanJobService.submitCombinedScan(appId, targetUrl, config.getSonarqubeConfig());
+                break;
+        }
+    }
+
+    private Instant nextRun(ScanConfiguration config, Instant after) {
+        ZonedDateTime next = CronExpression.parse(config.getScheduleCron()).next(after.atZone(zoneOf(config)));
+        if (next == null) {
+            return null;
+        }
+        long jitter = maxJitterMs > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMs) : 0;
+        return next.toInstant().plusMillis(jitter);
+    }
+
+    private ZoneId zoneOf(ScanConfiguration config) {
+        return config.getScheduleTimezone() != null ? ZoneId.of(config.getScheduleTimezone()) : ZoneId.systemDefault();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
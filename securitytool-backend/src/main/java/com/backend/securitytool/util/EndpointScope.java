@@ -0,0 +1,31 @@
+package com.backend.securitytool.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The endpoint ids an endpoint-scoped scan covers, stored on the scan result as a comma-separated list.
+ */
+public class EndpointScope {
+
+    public static String format(Collection<Integer> endpointIds) {
+        return endpointIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * @return the endpoint ids, empty for a full-site scan
+     */
+    public static Set<Integer> parse(String endpointScope) {
+        if (endpointScope == null || endpointScope.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(endpointScope.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.securitytool.util;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 based identities for scanner findings.
+ * The fingerprint identifies "the same finding" across scans (tool, rule/alert id, location),
+ * the content hash tells whether its details changed since the previous scan.
+ */
+public class IssueFingerprint {
+
+    // Unit separator, cannot appear in URLs or rule ids, so ("a", "bc") and ("ab", "c") never collide
+    private static final char SEPARATOR = '\u001F';
+
+    public static String of(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            sb.append(part == null ? "" : part.toString().trim()).append(SEPARATOR);
+        }
+        return sha256Hex(sb.toString());
+    }
+
+    public static String contentHash(SecurityIssue issue) {
+        return of(issue.getSeverity(), issue.getStatus(), issue.getDescription(), issue.getSolution(), issue.getReference());
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private IssueFingerprint() {
+        // Prevent instantiation
+    }
+}
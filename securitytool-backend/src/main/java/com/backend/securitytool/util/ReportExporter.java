@@ -2,32 +2,53 @@ package com.backend.securitytool.util;
 
 import com.backend.securitytool.model.entity.SecurityIssue;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 public class ReportExporter {
 
-    public static String toCsv(List<SecurityIssue> issues) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Issue Type,Severity,Description,Remediation,Status\n");
+    public static final String CSV_HEADER = "ID,Issue Type,Severity,Description,Remediation,Status\n";
 
-        for (SecurityIssue issue : issues) {
-            csv.append(issue.getId()).append(",")
-                    .append(escapeCsvField(issue.getIssueType())).append(",")
-                    .append(escapeCsvField(issue.getSeverity())).append(",")
-                    .append(escapeCsvField(issue.getDescription())).append(",")
-                    .append(escapeCsvField(issue.getReference())).append(",")
-                    .append(escapeCsvField(issue.getStatus())).append("\n");
-        }
+    /**
+     * Writes one CSV row per issue as the stream yields them; nothing but the current row is held.
+     * The header is flushed right away, so the client sees the download start before the first row is read.
+     *
+     * @return the number of rows written
+     */
+    public static long writeCsv(Stream<SecurityIssue> issues, Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.flush();
 
-        return csv.toString();
+        long rows = 0;
+        Iterator<SecurityIssue> iterator = issues.iterator();
+        while (iterator.hasNext()) {
+            SecurityIssue issue = iterator.next();
+            out.write(String.valueOf(issue.getId()));
+            out.write(',');
+            out.write(escapeCsvField(issue.getIssueType()));
+            out.write(',');
+            out.write(escapeCsvField(issue.getSeverity()));
+            out.write(',');
+            out.write(escapeCsvField(issue.getDescription()));
+            out.write(',');
+            out.write(escapeCsvField(issue.getReference()));
+            out.write(',');
+            out.write(escapeCsvField(issue.getStatus()));
+            out.write('\n');
+            rows++;
+        }
+        out.flush();
+        return rows;
     }
 
     private static String escapeCsvField(String field) {
         if (field == null) {
             return "";
         }
-        // Escape commas and quotes in the field
-        if (field.contains(",") || field.contains("\"")) {
+        // Quote fields with commas, quotes or line breaks, scanner descriptions often span several lines
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
             return "\"" + field.replace("\"", "\"\"") + "\"";
         }
         return field;
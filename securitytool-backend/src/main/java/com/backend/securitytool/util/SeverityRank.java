@@ -0,0 +1,28 @@
+package com.backend.securitytool.util;
+
+import com.backend.securitytool.constants.ScanType;
+
+/**
+ * Orders severities across engines: ZAP stores its risk names (High, Medium, Low, Informational), SonarQube
+ * findings are mapped to High, Medium, Low and Info. Higher is more severe, anything unknown ranks with info.
+ * Must match the severity_rank column of security_issues (V15__issue_query_indexes.sql).
+ */
+public class SeverityRank {
+
+    public static int of(String severity) {
+        if (severity == null) {
+            return 0;
+        }
+        String normalized = severity.trim().toLowerCase();
+        if (ScanType.SEVERITY_CRITICAL.equals(normalized)) {
+            return 4;
+        } else if (ScanType.SEVERITY_HIGH.equals(normalized)) {
+            return 3;
+        } else if (ScanType.SEVERITY_MEDIUM.equals(normalized)) {
+            return 2;
+        } else if (ScanType.SEVERITY_LOW.equals(normalized)) {
+            return 1;
+        }
+        return 0;
+    }
+}
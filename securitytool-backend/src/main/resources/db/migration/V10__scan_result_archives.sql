@@ -0,0 +1,28 @@
+USE `security_tool`;
+
+--
+-- Archival tier: only the newest scans of each application keep their issues in security_issues.
+-- Older scans keep their scan_results row, but their issues (stored and carried over) are moved
+-- into one gzip-compressed JSON blob per scan and read back from there on demand.
+--
+
+ALTER TABLE `scan_results`
+    ADD COLUMN `archived_at` datetime DEFAULT NULL;
+
+-- Scans kept hot for the application, NULL uses retention.hot-scans, 0 or less never archives
+ALTER TABLE `target_applications`
+    ADD COLUMN `retention_hot_scans` int DEFAULT NULL;
+
+CREATE TABLE IF NOT EXISTS `scan_result_archives` (
+                                        `result_id` bigint NOT NULL,
+                                        `codec` varchar(20) NOT NULL,
+                                        `payload` longblob NOT NULL,
+                                        `issue_count` int NOT NULL,
+                                        `raw_bytes` bigint NOT NULL,
+                                        `compressed_bytes` bigint NOT NULL,
+                                        `archived_at` datetime NOT NULL,
+                                        PRIMARY KEY (`result_id`),
+                                        CONSTRAINT `fk_archive_result` FOREIGN KEY (`result_id`) REFERENCES `scan_results` (`result_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `scheduler_leases` (`lease_name`, `owner`, `expires_at`) VALUES ('scan-retention', NULL, '1970-01-01 00:00:00');
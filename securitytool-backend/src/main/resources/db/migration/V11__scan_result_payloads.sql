@@ -0,0 +1,24 @@
+USE `security_tool`;
+
+--
+-- Raw scanner responses a scan was built from. The payloads themselves live in the content-addressed
+-- blob store on disk (payload.store.dir); rows only reference them by SHA-256, so scans whose responses
+-- did not change share one blob. Rows are kept in capture order per scan and engine.
+--
+
+CREATE TABLE IF NOT EXISTS `scan_result_payloads` (
+                                        `payload_id` bigint NOT NULL AUTO_INCREMENT,
+                                        `result_id` bigint NOT NULL,
+                                        `engine` varchar(50) NOT NULL,
+                                        `kind` varchar(50) NOT NULL,
+                                        `target` varchar(512) DEFAULT NULL,
+                                        `source_url` varchar(512) DEFAULT NULL,
+                                        `sha256` char(64) NOT NULL,
+                                        `raw_bytes` bigint NOT NULL,
+                                        `stored_bytes` bigint NOT NULL,
+                                        `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                        PRIMARY KEY (`payload_id`),
+                                        KEY `idx_payload_result` (`result_id`, `payload_id`),
+                                        KEY `idx_payload_sha256` (`sha256`),
+                                        CONSTRAINT `fk_payload_result` FOREIGN KEY (`result_id`) REFERENCES `scan_results` (`result_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
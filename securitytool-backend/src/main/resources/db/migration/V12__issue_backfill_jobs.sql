@@ -0,0 +1,25 @@
+USE `security_tool`;
+
+--
+-- Backfill of derived issue fields: a job walks security_issues in issue_id order and recomputes
+-- severity, status and content hash with the current scanner mappings. last_issue_id is the checkpoint
+-- a stopped or paused job resumes from.
+--
+
+CREATE TABLE IF NOT EXISTS `issue_backfill_jobs` (
+                                      `job_id` bigint NOT NULL AUTO_INCREMENT,
+                                      `status` varchar(50) NOT NULL DEFAULT 'pending',
+                                      `last_issue_id` bigint NOT NULL DEFAULT 0,
+                                      `max_issue_id` bigint NOT NULL,
+                                      `scanned_issues` bigint NOT NULL DEFAULT 0,
+                                      `updated_issues` bigint NOT NULL DEFAULT 0,
+                                      `error_message` varchar(1024) DEFAULT NULL,
+                                      `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                      `started_at` datetime DEFAULT NULL,
+                                      `updated_at` datetime DEFAULT NULL,
+                                      `finished_at` datetime DEFAULT NULL,
+                                      PRIMARY KEY (`job_id`),
+                                      KEY `idx_backfill_status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `scheduler_leases` (`lease_name`, `owner`, `expires_at`) VALUES ('issue-backfill', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,26 @@
+USE `security_tool`;
+
+--
+-- Report jobs: formats that cannot be streamed (XLSX, PDF) are rendered in the background into
+-- the report artifact store and downloaded from there once the job completed
+--
+
+CREATE TABLE IF NOT EXISTS `report_jobs` (
+                               `job_id` bigint NOT NULL AUTO_INCREMENT,
+                               `result_id` bigint NOT NULL,
+                               `format` varchar(20) NOT NULL,
+                               `status` varchar(50) NOT NULL DEFAULT 'pending',
+                               `file_name` varchar(255) DEFAULT NULL,
+                               `content_type` varchar(100) DEFAULT NULL,
+                               `artifact_key` varchar(100) DEFAULT NULL,
+                               `size_bytes` bigint DEFAULT NULL,
+                               `error_message` varchar(1024) DEFAULT NULL,
+                               `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                               `started_at` datetime DEFAULT NULL,
+                               `finished_at` datetime DEFAULT NULL,
+                               `expires_at` datetime DEFAULT NULL,
+                               PRIMARY KEY (`job_id`),
+                               KEY `idx_report_job_status` (`status`),
+                               KEY `fk_report_job_result` (`result_id`),
+                               CONSTRAINT `fk_report_job_result` FOREIGN KEY (`result_id`) REFERENCES `scan_results` (`result_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,13 @@
+USE `security_tool`;
+
+--
+-- Completed report jobs double as the report cache: a rendered report of a finished scan is reused for
+-- the same format as long as the issue mapping version it was rendered at is current. content_sha256 is the
+-- strong ETag of the file, gzip_size_bytes is set when a pre-compressed gzip variant is stored next to it.
+--
+
+ALTER TABLE `report_jobs`
+    ADD COLUMN `mapping_version` bigint DEFAULT NULL,
+    ADD COLUMN `content_sha256` char(64) DEFAULT NULL,
+    ADD COLUMN `gzip_size_bytes` bigint DEFAULT NULL,
+    ADD KEY `idx_report_job_cache` (`result_id`, `format`, `mapping_version`, `status`);
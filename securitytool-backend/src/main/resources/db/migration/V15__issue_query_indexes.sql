@@ -0,0 +1,22 @@
+USE `security_tool`;
+
+--
+-- Keyset pagination of a scan's issues on (severity rank, issue id). The rank is a stored generated column so it
+-- can be indexed; carryover rows keep a copy of their issue's rank, otherwise paging through the findings a scan
+-- carried over would sort all of them on every page. Keep the CASE in line with SeverityRank.
+--
+
+ALTER TABLE `security_issues`
+    ADD COLUMN `severity_rank` tinyint GENERATED ALWAYS AS (
+        CASE LOWER(`severity`) WHEN 'critical' THEN 4 WHEN 'high' THEN 3 WHEN 'medium' THEN 2 WHEN 'low' THEN 1 ELSE 0 END
+    ) STORED,
+    ADD KEY `idx_issue_result_rank` (`result_id`, `severity_rank`, `issue_id`),
+    ADD KEY `idx_issue_result_status_rank` (`result_id`, `status`, `severity_rank`, `issue_id`);
+
+ALTER TABLE `security_issue_carryover`
+    ADD COLUMN `severity_rank` tinyint NOT NULL DEFAULT 0,
+    ADD KEY `idx_carryover_result_rank` (`result_id`, `severity_rank`, `issue_id`);
+
+UPDATE `security_issue_carryover` c
+    JOIN `security_issues` s ON s.`issue_id` = c.`issue_id`
+SET c.`severity_rank` = s.`severity_rank`;
@@ -0,0 +1,47 @@
+USE `security_tool`;
+
+--
+-- Dashboard aggregates per application, kept up to date with deltas in the transactions that write scans and
+-- issues, so the dashboard reads one row instead of counting security_issues. They mirror the raw tables:
+-- scan results by type, and issue rows held in security_issues by severity (archived scans release theirs).
+-- The reconciliation job rebuilds them from the raw tables and fixes any drift.
+--
+
+CREATE TABLE IF NOT EXISTS `app_stats` (
+                             `app_id` bigint NOT NULL,
+                             `static_scan_count` bigint NOT NULL DEFAULT 0,
+                             `dynamic_scan_count` bigint NOT NULL DEFAULT 0,
+                             `total_issues` bigint NOT NULL DEFAULT 0,
+                             `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                             `reconciled_at` datetime DEFAULT NULL,
+                             PRIMARY KEY (`app_id`),
+                             CONSTRAINT `fk_app_stats_app` FOREIGN KEY (`app_id`) REFERENCES `target_applications` (`app_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `app_severity_stats` (
+                                      `app_id` bigint NOT NULL,
+                                      `severity` varchar(50) NOT NULL,
+                                      `issue_count` bigint NOT NULL DEFAULT 0,
+                                      PRIMARY KEY (`app_id`, `severity`),
+                                      CONSTRAINT `fk_app_severity_stats_app` FOREIGN KEY (`app_id`) REFERENCES `target_applications` (`app_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Lets the reconciliation count one app's issues by severity from the index alone
+ALTER TABLE `security_issues`
+    ADD KEY `idx_issue_app_severity` (`app_id`, `severity`);
+
+INSERT INTO `app_stats` (`app_id`, `static_scan_count`, `dynamic_scan_count`, `total_issues`, `reconciled_at`)
+SELECT a.`app_id`,
+       (SELECT COUNT(*) FROM `scan_results` r WHERE r.`app_id` = a.`app_id` AND r.`scan_type` = 'static'),
+       (SELECT COUNT(*) FROM `scan_results` r WHERE r.`app_id` = a.`app_id` AND r.`scan_type` = 'dynamic'),
+       (SELECT COUNT(*) FROM `security_issues` s WHERE s.`app_id` = a.`app_id`),
+       NOW()
+FROM `target_applications` a;
+
+INSERT INTO `app_severity_stats` (`app_id`, `severity`, `issue_count`)
+SELECT s.`app_id`, s.`severity`, COUNT(*)
+FROM `security_issues` s
+         JOIN `target_applications` a ON a.`app_id` = s.`app_id`
+GROUP BY s.`app_id`, s.`severity`;
+
+INSERT INTO `scheduler_leases` (`lease_name`, `owner`, `expires_at`) VALUES ('app-stats-reconcile', NULL, '1970-01-01 00:00:00');
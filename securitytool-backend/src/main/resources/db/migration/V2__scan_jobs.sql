@@ -0,0 +1,25 @@
+USE `security_tool`;
+
+--
+-- Table structure for table `scan_jobs`
+--
+
+CREATE TABLE IF NOT EXISTS `scan_jobs` (
+                             `job_id` bigint NOT NULL AUTO_INCREMENT,
+                             `app_id` bigint NOT NULL,
+                             `result_id` bigint DEFAULT NULL,
+                             `scan_type` varchar(50) NOT NULL,
+                             `target` varchar(512) NOT NULL,
+                             `status` varchar(50) NOT NULL DEFAULT 'pending',
+                             `attempts` int NOT NULL DEFAULT 0,
+                             `error_message` varchar(1024) DEFAULT NULL,
+                             `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                             `started_at` datetime DEFAULT NULL,
+                             `finished_at` datetime DEFAULT NULL,
+                             PRIMARY KEY (`job_id`),
+                             KEY `idx_job_status_created` (`status`, `created_at`),
+                             KEY `fk_job_app` (`app_id`),
+                             KEY `fk_job_result` (`result_id`),
+                             CONSTRAINT `fk_job_app` FOREIGN KEY (`app_id`) REFERENCES `target_applications` (`app_id`) ON DELETE CASCADE,
+                             CONSTRAINT `fk_job_result` FOREIGN KEY (`result_id`) REFERENCES `scan_results` (`result_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,12 @@
+USE `security_tool`;
+
+--
+-- Per-phase progress of running scans
+--
+
+ALTER TABLE `scan_results`
+    ADD COLUMN `current_phase` varchar(50) DEFAULT NULL,
+    ADD COLUMN `progress_percent` int DEFAULT NULL,
+    ADD COLUMN `spider_duration_ms` bigint DEFAULT NULL,
+    ADD COLUMN `ajax_spider_duration_ms` bigint DEFAULT NULL,
+    ADD COLUMN `active_scan_duration_ms` bigint DEFAULT NULL;
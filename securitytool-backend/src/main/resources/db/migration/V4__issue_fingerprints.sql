@@ -0,0 +1,28 @@
+USE `security_tool`;
+
+--
+-- Differential ingestion: findings are fingerprinted and only new, changed and resolved
+-- findings are written per scan; unchanged findings are linked from the scan that first stored them
+--
+
+ALTER TABLE `security_issues`
+    ADD COLUMN `fingerprint` char(64) DEFAULT NULL,
+    ADD COLUMN `content_hash` char(64) DEFAULT NULL,
+    ADD COLUMN `change_type` varchar(20) DEFAULT NULL,
+    ADD KEY `idx_issue_result_fingerprint` (`result_id`, `fingerprint`);
+
+CREATE TABLE IF NOT EXISTS `security_issue_carryover` (
+                                            `result_id` bigint NOT NULL,
+                                            `issue_id` bigint NOT NULL,
+                                            PRIMARY KEY (`result_id`, `issue_id`),
+                                            KEY `fk_carryover_issue` (`issue_id`),
+                                            CONSTRAINT `fk_carryover_result` FOREIGN KEY (`result_id`) REFERENCES `scan_results` (`result_id`) ON DELETE CASCADE,
+                                            CONSTRAINT `fk_carryover_issue` FOREIGN KEY (`issue_id`) REFERENCES `security_issues` (`issue_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `scan_results`
+    ADD COLUMN `baseline_result_id` bigint DEFAULT NULL,
+    ADD COLUMN `new_issue_count` int DEFAULT NULL,
+    ADD COLUMN `changed_issue_count` int DEFAULT NULL,
+    ADD COLUMN `resolved_issue_count` int DEFAULT NULL,
+    ADD COLUMN `carried_issue_count` int DEFAULT NULL;
@@ -0,0 +1,8 @@
+USE `security_tool`;
+
+--
+-- Combined SAST + DAST jobs carry both a target URL (in `target`) and a SonarQube project key
+--
+
+ALTER TABLE `scan_jobs`
+    ADD COLUMN `project_key` varchar(255) DEFAULT NULL;
@@ -0,0 +1,18 @@
+USE `security_tool`;
+
+--
+-- Bulk scans: one batch groups the jobs queued for many applications
+--
+
+CREATE TABLE IF NOT EXISTS `scan_batches` (
+                                `batch_id` bigint NOT NULL AUTO_INCREMENT,
+                                `scan_type` varchar(50) NOT NULL,
+                                `total_jobs` int NOT NULL DEFAULT 0,
+                                `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                PRIMARY KEY (`batch_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `scan_jobs`
+    ADD COLUMN `batch_id` bigint DEFAULT NULL,
+    ADD KEY `idx_job_batch_status` (`batch_id`, `status`),
+    ADD CONSTRAINT `fk_job_batch` FOREIGN KEY (`batch_id`) REFERENCES `scan_batches` (`batch_id`) ON DELETE SET NULL;
@@ -0,0 +1,28 @@
+USE `security_tool`;
+
+--
+-- Recurring scans: a cron schedule per application configuration
+--
+
+ALTER TABLE `scan_configurations`
+    ADD COLUMN `schedule_cron` varchar(100) DEFAULT NULL,
+    ADD COLUMN `schedule_scan_type` varchar(50) DEFAULT NULL,
+    ADD COLUMN `schedule_enabled` tinyint(1) NOT NULL DEFAULT 0,
+    ADD COLUMN `schedule_timezone` varchar(64) DEFAULT NULL,
+    ADD COLUMN `catch_up_policy` varchar(20) DEFAULT NULL,
+    ADD COLUMN `next_run_at` datetime DEFAULT NULL,
+    ADD COLUMN `last_run_at` datetime DEFAULT NULL,
+    ADD KEY `idx_config_schedule_due` (`schedule_enabled`, `next_run_at`);
+
+--
+-- Leases so that only one node runs a cluster-wide scheduler loop at a time
+--
+
+CREATE TABLE IF NOT EXISTS `scheduler_leases` (
+                                    `lease_name` varchar(64) NOT NULL,
+                                    `owner` varchar(128) DEFAULT NULL,
+                                    `expires_at` datetime NOT NULL,
+                                    PRIMARY KEY (`lease_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `scheduler_leases` (`lease_name`, `owner`, `expires_at`) VALUES ('recurring-scans', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,8 @@
+USE `security_tool`;
+
+--
+-- SonarQube jobs may name the Compute Engine task whose analysis they should ingest
+--
+
+ALTER TABLE `scan_jobs`
+    ADD COLUMN `ce_task_id` varchar(64) DEFAULT NULL;
@@ -0,0 +1,9 @@
+USE `security_tool`;
+
+--
+-- ZAP scans limited to catalogued API endpoints record which endpoints they covered (comma-separated ids).
+-- Full-site scans leave it NULL and are the only ones used as diff baselines.
+--
+
+ALTER TABLE `scan_results`
+    ADD COLUMN `endpoint_scope` text DEFAULT NULL;
@@ -0,0 +1,130 @@
+package com.backend.securitytool.repository;
+
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec of the ways scanner findings have been written to MySQL: a repository save per row (the old
+ * SonarQube path), saveAll of a page (the old ZAP path, still one INSERT per row because of the IDENTITY ids)
+ * and the JDBC batches of {@link SecurityIssueBatchRepository}. Runs against a MySQL container migrated by
+ * Flyway, with rewriteBatchedStatements on like the application datasource.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=SecurityIssueInsertBenchmarkTest}; needs Docker.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SecurityIssueBatchRepository.class)
+// Every write commits on its own, as it does in the scanners
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecurityIssueInsertBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityIssueInsertBenchmarkTest.class);
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("security_tool")
+            .withUsername("root")
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Autowired
+    private SecurityIssueRepository securityIssueRepository;
+
+    @Autowired
+    private SecurityIssueBatchRepository securityIssueBatchRepository;
+
+    @Autowired
+    private ScanResultRepository scanResultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer appId;
+    private ScanResult result;
+
+    @BeforeEach
+    void createScanResult() {
+        jdbcTemplate.update("INSERT INTO target_applications (app_name, app_url) VALUES ('benchmark', 'http://localhost')");
+        appId = jdbcTemplate.queryForObject("SELECT MAX(app_id) FROM target_applications", Integer.class);
+        jdbcTemplate.update("INSERT INTO scan_results (app_id, scan_type, status) VALUES (?, 'dynamic', 'in-progress')", appId);
+        Integer resultId = jdbcTemplate.queryForObject("SELECT MAX(result_id) FROM scan_results", Integer.class);
+        result = scanResultRepository.findById(resultId).orElseThrow();
+    }
+
+    @Test
+    void batchInsertsOutperformPerRowSaves() {
+        long perRowSave = rowsPerSecond("save per row", issues -> issues.forEach(securityIssueRepository::save));
+        long saveAll = rowsPerSecond("saveAll", securityIssueRepository::saveAll);
+        long batchUpdate = rowsPerSecond("JDBC batchUpdate", securityIssueBatchRepository::insertAll);
+
+        logger.info("Security issue inserts, {} rows: save per row {} rows/sec, saveAll {} rows/sec, batchUpdate {} rows/sec",
+                ROWS, perRowSave, saveAll, batchUpdate);
+        assertThat(batchUpdate).isGreaterThan(saveAll);
+        assertThat(batchUpdate).isGreaterThan(perRowSave);
+    }
+
+    /**
+     * Best of {@link #ROUNDS} timed rounds after one warm-up round, each writing {@link #ROWS} fresh issues.
+     */
+    private long rowsPerSecond(String name, Consumer<List<SecurityIssue>> writer) {
+        long best = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            List<SecurityIssue> issues = issues();
+            long startNanos = System.nanoTime();
+            writer.accept(issues);
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM security_issues WHERE result_id = ?",
+                    Integer.class, result.getId())).isEqualTo(ROWS);
+            jdbcTemplate.update("DELETE FROM security_issues WHERE result_id = ?", result.getId());
+            if (round > 0) {
+                best = Math.max(best, ROWS * 1_000_000_000L / elapsedNanos);
+            }
+        }
+        logger.info("{}: {} rows/sec", name, best);
+        return best;
+    }
+
+    private List<SecurityIssue> issues() {
+        List<SecurityIssue> issues = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            SecurityIssue issue = new SecurityIssue();
+            issue.setResult(result);
+            issue.setAppId(appId);
+            issue.setIssueType("Cross Site Scripting (Reflected)");
+            issue.setSeverity(i % 2 == 0 ? "High" : "Medium");
+            issue.setStatus("open");
+            issue.setDescription("Reflected XSS in parameter q of /search, finding " + i);
+            issue.setSolution("Validate and encode all user input before it is written to the page.");
+            issue.setReference("https://owasp.org/www-community/attacks/xss/");
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
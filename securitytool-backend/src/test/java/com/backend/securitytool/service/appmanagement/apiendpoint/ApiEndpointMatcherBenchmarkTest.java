@@ -0,0 +1,69 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lookups/sec of {@link ApiEndpointMatcher} for catalogs of growing size. The trie probes one map per path
+ * segment, so throughput should stay flat from 100 to 10,000 endpoints.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=ApiEndpointMatcherBenchmarkTest}.
+ */
+@Tag("benchmark")
+class ApiEndpointMatcherBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ApiEndpointMatcherBenchmarkTest.class);
+    private static final int LOOKUPS = 500_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void lookupsPerSecondByCatalogSize() {
+        for (int size : new int[]{100, 1_000, 10_000}) {
+            logger.info("ApiEndpointMatcher, {} endpoints: {} lookups/sec", size, lookupsPerSecond(size));
+        }
+    }
+
+    /**
+     * Best of {@link #ROUNDS} timed rounds after one warm-up round, each resolving {@link #LOOKUPS} paths
+     * spread over the whole catalog.
+     */
+    private long lookupsPerSecond(int size) {
+        List<ApiEndpoint> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ApiEndpoint endpoint = new ApiEndpoint();
+            endpoint.setMethod("GET");
+            endpoint.setPath("/api/v1/resource" + i + "/{id}/items/{itemId}");
+            catalog.add(endpoint);
+        }
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(catalog);
+        String[] paths = new String[size];
+        for (int i = 0; i < size; i++) {
+            paths[i] = "/api/v1/resource" + i + "/" + i + "/items/9";
+        }
+
+        long best = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            int matched = 0;
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (matcher.match("GET", paths[i % size]) != null) {
+                    matched++;
+                }
+            }
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+            // Also keeps the JIT from dropping the lookups as dead code
+            assertThat(matched).isEqualTo(LOOKUPS);
+            if (round > 0) {
+                best = Math.max(best, LOOKUPS * 1_000_000_000L / elapsedNanos);
+            }
+        }
+        return best;
+    }
+}
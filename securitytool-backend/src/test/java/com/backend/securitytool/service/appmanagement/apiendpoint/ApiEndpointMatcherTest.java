@@ -0,0 +1,106 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.backend.securitytool.model.entity.ApiEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiEndpointMatcherTest {
+
+    @Test
+    void literalSegmentWinsOverTemplate() {
+        ApiEndpoint byId = endpoint("GET", "/users/{id}");
+        ApiEndpoint me = endpoint("GET", "/users/me");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(byId, me));
+
+        assertThat(matcher.match("GET", "/users/me")).isSameAs(me);
+        assertThat(matcher.match("GET", "/users/42")).isSameAs(byId);
+    }
+
+    @Test
+    void backtracksIntoTheTemplateWhenTheLiteralBranchDeadEnds() {
+        ApiEndpoint orders = endpoint("GET", "/users/{id}/orders");
+        ApiEndpoint profile = endpoint("GET", "/users/me/profile");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(orders, profile));
+
+        // "me" takes the literal branch first, which has no "orders" below it
+        assertThat(matcher.match("GET", "/users/me/orders")).isSameAs(orders);
+        assertThat(matcher.match("GET", "/users/me/profile")).isSameAs(profile);
+        assertThat(matcher.match("GET", "/users/me/settings")).isNull();
+    }
+
+    @Test
+    void backtracksWhenTheLiteralBranchEndsWithoutAnEndpoint() {
+        ApiEndpoint item = endpoint("GET", "/{tenant}/items");
+        ApiEndpoint nested = endpoint("GET", "/admin/items/archive");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(item, nested));
+
+        assertThat(matcher.match("GET", "/admin/items")).isSameAs(item);
+    }
+
+    @Test
+    void selectsTheEndpointOfTheRequestMethod() {
+        ApiEndpoint get = endpoint("GET", "/orders/{id}");
+        ApiEndpoint delete = endpoint("delete", "/orders/{id}");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(get, delete));
+
+        assertThat(matcher.match("GET", "/orders/7")).isSameAs(get);
+        assertThat(matcher.match("Delete", "/orders/7")).isSameAs(delete);
+        assertThat(matcher.match("PUT", "/orders/7")).isNull();
+        assertThat(matcher.match(null, "/orders/7")).isIn(get, delete);
+    }
+
+    @Test
+    void endpointsWithoutMethodMatchAnyMethod() {
+        ApiEndpoint any = endpoint(null, "/health");
+        ApiEndpoint post = endpoint("POST", "/health");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(any, post));
+
+        assertThat(matcher.match("POST", "/health")).isSameAs(post);
+        assertThat(matcher.match("GET", "/health")).isSameAs(any);
+    }
+
+    @Test
+    void methodMismatchOnTheLiteralBranchFallsBackToTheTemplate() {
+        ApiEndpoint update = endpoint("PUT", "/users/{id}");
+        ApiEndpoint me = endpoint("GET", "/users/me");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(update, me));
+
+        assertThat(matcher.match("PUT", "/users/me")).isSameAs(update);
+    }
+
+    @Test
+    void ignoresQuerySlashesAndDuplicates() {
+        ApiEndpoint first = endpoint("GET", "/api/items/");
+        ApiEndpoint duplicate = endpoint("GET", "api/items");
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(List.of(first, duplicate));
+
+        assertThat(matcher.match("GET", "//api//items?page=2")).isSameAs(first);
+        assertThat(matcher.match("GET", "/api")).isNull();
+        assertThat(matcher.match("GET", "/api/items/extra")).isNull();
+    }
+
+    @Test
+    void resolvesEveryEndpointOfALargeCatalog() {
+        List<ApiEndpoint> catalog = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            catalog.add(endpoint("GET", "/api/v1/resource" + i + "/{id}/items/{itemId}"));
+        }
+        ApiEndpointMatcher matcher = new ApiEndpointMatcher(catalog);
+
+        for (int i = 0; i < catalog.size(); i++) {
+            assertThat(matcher.match("GET", "/api/v1/resource" + i + "/" + i + "/items/9")).isSameAs(catalog.get(i));
+        }
+        assertThat(matcher.match("GET", "/api/v1/resource10000/1/items/9")).isNull();
+    }
+
+    private static ApiEndpoint endpoint(String method, String path) {
+        ApiEndpoint endpoint = new ApiEndpoint();
+        endpoint.setMethod(method);
+        endpoint.setPath(path);
+        return endpoint;
+    }
+}
@@ -0,0 +1,174 @@
+package com.backend.securitytool.service.appmanagement.apiendpoint;
+
+import com.backend.securitytool.service.appmanagement.apiendpoint.OpenApiEndpointReader.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenApiEndpointReaderTest {
+    private final OpenApiEndpointReader reader = new OpenApiEndpointReader();
+
+    @Test
+    void readsOpenApi3Json() throws IOException {
+        String document = """
+                {
+                  "openapi": "3.0.1",
+                  "info": {"title": "Shop", "version": "1"},
+                  "paths": {
+                    "/orders/{id}": {
+                      "summary": "One order",
+                      "parameters": [{"name": "id", "in": "path"}, {"name": "X-Tenant", "in": "header"}],
+                      "get": {
+                        "parameters": [{"name": "expand"}, {"$ref": "#/components/parameters/Locale"}],
+                        "responses": {
+                          "404": {"content": {"application/problem+json": {}}},
+                          "200": {"content": {"application/json": {}, "application/xml": {}}}
+                        }
+                      },
+                      "put": {
+                        "requestBody": {"content": {"application/json": {"schema": {"properties": {"status": {}, "id": {}}}}}},
+                        "responses": {"204": {}}
+                      }
+                    }
+                  },
+                  "components": {"parameters": {"Locale": {"name": "locale", "in": "query"}}}
+                }
+                """;
+
+        List<Operation> operations = read(document);
+
+        assertThat(operations).containsExactly(
+                new Operation("/orders/{id}", "GET", "id:path, X-Tenant:header, expand:query, Locale:ref",
+                        "application/json, application/xml"),
+                new Operation("/orders/{id}", "PUT", "id:path, X-Tenant:header, status:body", null));
+    }
+
+    @Test
+    void operationParametersRedefinePathParameters() throws IOException {
+        String document = """
+                {"paths": {"/items": {
+                  "parameters": [{"name": "page", "in": "header"}],
+                  "get": {"parameters": [{"name": "page", "in": "query"}]}
+                }}}
+                """;
+
+        assertThat(read(document)).extracting(Operation::params).containsExactly("page:query");
+    }
+
+    @Test
+    void readsSwagger2Yaml() throws IOException {
+        String document = """
+                swagger: "2.0"
+                info:
+                  title: Shop
+                paths:
+                  /users:
+                    post:
+                      produces:
+                        - application/json
+                      parameters:
+                        - in: body
+                          name: user
+                          schema:
+                            properties:
+                              email: {}
+                              password: {}
+                    delete:
+                      parameters:
+                        - in: body
+                          name: ids
+                          schema:
+                            $ref: "#/definitions/Ids"
+                definitions:
+                  Ids:
+                    type: array
+                """;
+
+        assertThat(read(document)).containsExactly(
+                new Operation("/users", "POST", "email:body, password:body", "application/json"),
+                new Operation("/users", "DELETE", "ids:body", null));
+    }
+
+    @Test
+    void detectsJsonAfterByteOrderMarkAndWhitespace() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] json = "\n  {\"paths\": {\"/health\": {\"head\": {}}}}".getBytes(StandardCharsets.UTF_8);
+        byte[] document = new byte[bom.length + json.length];
+        System.arraycopy(bom, 0, document, 0, bom.length);
+        System.arraycopy(json, 0, document, bom.length, json.length);
+
+        List<Operation> operations = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(document), operations::add);
+
+        assertThat(operations).containsExactly(new Operation("/health", "HEAD", "", null));
+    }
+
+    @Test
+    void rejectsDocumentsThatAreNotObjects() {
+        assertThatThrownBy(() -> read("[1, 2]"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("expected an object");
+    }
+
+    @Test
+    void streamsLargeDocuments() throws IOException {
+        int paths = 50_000;
+        AtomicInteger seen = new AtomicInteger();
+
+        // The document is generated while it is read, so it never exists in memory as a whole
+        int operations = reader.read(generatedDocument(paths), operation -> {
+            assertThat(operation.path()).isEqualTo("/resource" + seen.get() / 2 + "/{id}");
+            seen.incrementAndGet();
+        });
+
+        assertThat(operations).isEqualTo(paths * 2);
+        assertThat(seen.get()).isEqualTo(paths * 2);
+    }
+
+    private List<Operation> read(String document) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        int count = reader.read(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), operations::add);
+        assertThat(count).isEqualTo(operations.size());
+        return operations;
+    }
+
+    private static InputStream generatedDocument(int paths) {
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= paths;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String part;
+                if (next == -1) {
+                    part = "{\"openapi\": \"3.0.1\", \"paths\": {";
+                } else if (next == paths) {
+                    part = "}}";
+                } else {
+                    part = (next > 0 ? "," : "") + "\"/resource" + next + "/{id}\": {"
+                            + "\"get\": {\"parameters\": [{\"name\": \"id\", \"in\": \"path\"}],"
+                            + " \"responses\": {\"200\": {\"content\": {\"application/json\": {}}}}},"
+                            + " \"delete\": {\"responses\": {\"204\": {}}}}";
+                }
+                next++;
+                return new ByteArrayInputStream(part.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+}
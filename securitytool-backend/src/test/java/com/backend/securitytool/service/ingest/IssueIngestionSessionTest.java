@@ -0,0 +1,203 @@
+package com.backend.securitytool.service.ingest;
+
+import com.backend.securitytool.constants.ScanType;
+import com.backend.securitytool.model.entity.ScanResult;
+import com.backend.securitytool.model.entity.SecurityIssue;
+import com.backend.securitytool.repository.AppStatsRepository;
+import com.backend.securitytool.repository.AppStatsRepository.IssueDelta;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository;
+import com.backend.securitytool.repository.SecurityIssueBatchRepository.StoredFingerprint;
+import com.backend.securitytool.util.IssueFingerprint;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IssueIngestionSessionTest {
+    private static final int RESULT_ID = 20;
+    private static final int BASELINE_RESULT_ID = 10;
+    private static final int APP_ID = 3;
+
+    private final RecordingBatchRepository batchRepository = new RecordingBatchRepository();
+    private final RecordingAppStatsRepository appStatsRepository = new RecordingAppStatsRepository();
+
+    @Test
+    void classifiesFindingsAgainstTheBaseline() {
+        SecurityIssue unchanged = issue("unchanged", "High");
+        SecurityIssue changed = issue("changed", "High");
+        SecurityIssue added = issue("added", "Low");
+        Map<String, StoredFingerprint> baseline = new HashMap<>();
+        baseline.put("unchanged", stored(1, IssueFingerprint.contentHash(unchanged)));
+        baseline.put("changed", stored(2, IssueFingerprint.contentHash(issue("changed", "Medium"))));
+        baseline.put("gone", stored(3, "any"));
+        IssueIngestionSession session = session(baseline);
+
+        session.accept(List.of(unchanged, changed, added));
+        ScanResult scanResult = new ScanResult();
+        session.finish(scanResult);
+
+        assertThat(batchRepository.inserted).containsExactly(changed, added);
+        assertThat(changed.getChangeType()).isEqualTo(ScanType.ISSUE_CHANGE_CHANGED);
+        assertThat(added.getChangeType()).isEqualTo(ScanType.ISSUE_CHANGE_NEW);
+        assertThat(unchanged.getChangeType()).isNull();
+        assertThat(batchRepository.carried).extracting(StoredFingerprint::issueId).containsExactly(1);
+        assertThat(batchRepository.resolved).containsExactly(3);
+
+        assertThat(scanResult.getBaselineResultId()).isEqualTo(BASELINE_RESULT_ID);
+        assertThat(scanResult.getNewIssueCount()).isEqualTo(1);
+        assertThat(scanResult.getChangedIssueCount()).isEqualTo(1);
+        assertThat(scanResult.getCarriedIssueCount()).isEqualTo(1);
+        assertThat(scanResult.getResolvedIssueCount()).isEqualTo(1);
+    }
+
+    @Test
+    void withoutBaselineEverythingIsNew() {
+        IssueIngestionSession session = session(new HashMap<>());
+
+        session.accept(List.of(issue("a", "High"), issue("b", "Low")));
+        session.accept(List.of(issue("c", "Low")));
+        ScanResult scanResult = new ScanResult();
+        session.finish(scanResult);
+
+        assertThat(batchRepository.inserted).hasSize(3)
+                .allSatisfy(issue -> assertThat(issue.getChangeType()).isEqualTo(ScanType.ISSUE_CHANGE_NEW));
+        assertThat(batchRepository.resolved).isEmpty();
+        assertThat(scanResult.getNewIssueCount()).isEqualTo(3);
+        assertThat(scanResult.getResolvedIssueCount()).isZero();
+    }
+
+    @Test
+    void repeatedFindingsGetNumberedFingerprints() {
+        SecurityIssue first = issue("repeated", "High");
+        SecurityIssue second = issue("repeated", "High");
+        String secondFingerprint = IssueFingerprint.of("repeated", 2);
+        Map<String, StoredFingerprint> baseline = new HashMap<>();
+        baseline.put("repeated", stored(1, IssueFingerprint.contentHash(first)));
+        baseline.put(secondFingerprint, stored(2, IssueFingerprint.contentHash(second)));
+        IssueIngestionSession session = session(baseline);
+
+        // Pages arrive separately, the occurrence count spans the whole scan
+        session.accept(List.of(first));
+        session.accept(List.of(second));
+        session.finish(new ScanResult());
+
+        assertThat(first.getFingerprint()).isEqualTo("repeated");
+        assertThat(second.getFingerprint()).isEqualTo(secondFingerprint);
+        assertThat(batchRepository.carried).extracting(StoredFingerprint::issueId).containsExactly(1, 2);
+        assertThat(batchRepository.inserted).isEmpty();
+        assertThat(batchRepository.resolved).isEmpty();
+    }
+
+    @Test
+    void findingsWithoutFingerprintAreAlwaysNew() {
+        SecurityIssue anonymous = issue(null, "High");
+        IssueIngestionSession session = session(new HashMap<>());
+
+        session.accept(List.of(anonymous));
+
+        assertThat(batchRepository.inserted).containsExactly(anonymous);
+        assertThat(anonymous.getChangeType()).isEqualTo(ScanType.ISSUE_CHANGE_NEW);
+        assertThat(anonymous.getContentHash()).isEqualTo(IssueFingerprint.contentHash(anonymous));
+    }
+
+    @Test
+    void appliesStatsDeltasForStoredAndResolvedRows() {
+        Map<String, StoredFingerprint> baseline = new HashMap<>();
+        baseline.put("gone", stored(3, "any"));
+        IssueIngestionSession session = session(baseline);
+        batchRepository.resolvedDeltas = List.of(new IssueDelta(APP_ID, "High", 1));
+
+        session.accept(List.of(issue("added", "Low")));
+        session.finish(new ScanResult());
+
+        assertThat(appStatsRepository.deltas).containsExactly(
+                new IssueDelta(APP_ID, "Low", 1),
+                new IssueDelta(APP_ID, "High", 1));
+    }
+
+    private IssueIngestionSession session(Map<String, StoredFingerprint> baseline) {
+        return new IssueIngestionSession(batchRepository, appStatsRepository, new DirectTransactionTemplate(),
+                RESULT_ID, BASELINE_RESULT_ID, baseline);
+    }
+
+    private static SecurityIssue issue(String fingerprint, String severity) {
+        SecurityIssue issue = new SecurityIssue();
+        issue.setAppId(APP_ID);
+        issue.setIssueType("SQL Injection");
+        issue.setSeverity(severity);
+        issue.setStatus(ScanType.ISSUE_STATUS_OPEN);
+        issue.setDescription("Injectable parameter id");
+        issue.setFingerprint(fingerprint);
+        return issue;
+    }
+
+    private static StoredFingerprint stored(int issueId, String contentHash) {
+        return new StoredFingerprint(issueId, contentHash, null, 1);
+    }
+
+    private static class RecordingBatchRepository extends SecurityIssueBatchRepository {
+        private final List<SecurityIssue> inserted = new ArrayList<>();
+        private final List<StoredFingerprint> carried = new ArrayList<>();
+        private final List<Integer> resolved = new ArrayList<>();
+        private List<IssueDelta> resolvedDeltas = List.of();
+
+        RecordingBatchRepository() {
+            super(new JdbcTemplate());
+        }
+
+        @Override
+        public int insertAll(List<SecurityIssue> issues) {
+            inserted.addAll(issues);
+            return issues.size();
+        }
+
+        @Override
+        public int insertCarryovers(Integer resultId, List<StoredFingerprint> findings) {
+            assertThat(resultId).isEqualTo(RESULT_ID);
+            carried.addAll(findings);
+            return findings.size();
+        }
+
+        @Override
+        public int copyAsResolved(Integer resultId, List<Integer> issueIds) {
+            assertThat(resultId).isEqualTo(RESULT_ID);
+            resolved.addAll(issueIds);
+            return issueIds.size();
+        }
+
+        @Override
+        public List<IssueDelta> countResolved(Integer resultId) {
+            return resolvedDeltas;
+        }
+    }
+
+    private static class RecordingAppStatsRepository extends AppStatsRepository {
+        private final List<IssueDelta> deltas = new ArrayList<>();
+
+        RecordingAppStatsRepository() {
+            super(new JdbcTemplate());
+        }
+
+        @Override
+        public void applyIssueDeltas(Collection<IssueDelta> issueDeltas) {
+            deltas.addAll(issueDeltas);
+        }
+    }
+
+    private static class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+}
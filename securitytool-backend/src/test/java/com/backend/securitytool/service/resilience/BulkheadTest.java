@@ -0,0 +1,69 @@
+package com.backend.securitytool.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsCallsBeyondTheLimitRightAwayWithoutMaxWait() {
+        Bulkhead bulkhead = new Bulkhead(2, Duration.ZERO);
+
+        assertThat(bulkhead.tryEnter()).isTrue();
+        assertThat(bulkhead.tryEnter()).isTrue();
+        assertThat(bulkhead.tryEnter()).isFalse();
+
+        assertThat(bulkhead.getActiveCalls()).isEqualTo(2);
+        assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void exitFreesASlot() {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ZERO);
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        bulkhead.exit();
+
+        assertThat(bulkhead.getActiveCalls()).isZero();
+        assertThat(bulkhead.tryEnter()).isTrue();
+    }
+
+    @Test
+    void waitsUpToMaxWaitForASlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ofSeconds(5));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(bulkhead::tryEnter);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        bulkhead.exit();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.getRejectedCalls()).isZero();
+    }
+
+    @Test
+    void rejectsOnceMaxWaitHasPassed() {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ofMillis(100));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        long startedAt = System.nanoTime();
+        assertThat(bulkhead.tryEnter()).isFalse();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(90);
+        assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void neverAllowsLessThanOneConcurrentCall() {
+        Bulkhead bulkhead = new Bulkhead(0, Duration.ZERO);
+
+        assertThat(bulkhead.getMaxConcurrentCalls()).isEqualTo(1);
+        assertThat(bulkhead.tryEnter()).isTrue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.securitytool.service.resilience;
+
+import com.backend.securitytool.service.resilience.CircuitBreaker.Permission;
+import com.backend.securitytool.service.resilience.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensOnceTheFailureRateReachesTheThresholdAfterMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 50, Duration.ofMinutes(1), 2);
+
+        succeed(breaker);
+        fail(breaker);
+        succeed(breaker);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.getFailureRatePercent()).isEqualTo(50);
+        assertThat(breaker.getOpenedAt()).isNotNull();
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 50, Duration.ofMinutes(1), 2);
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailedCalls()).isEqualTo(3);
+    }
+
+    @Test
+    void slidingWindowForgetsOldOutcomes() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 50, Duration.ofMinutes(1), 2);
+
+        fail(breaker);
+        fail(breaker);
+        for (int i = 0; i < 4; i++) {
+            succeed(breaker);
+        }
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getBufferedCalls()).isEqualTo(4);
+        assertThat(breaker.getFailureRatePercent()).isEqualTo(25);
+    }
+
+    @Test
+    void refusesCallsWhileOpen() {
+        CircuitBreaker breaker = tripped(Duration.ofMinutes(1), 2);
+
+        assertThat(breaker.tryAcquirePermission()).isNull();
+        assertThat(breaker.isCallPermitted()).isFalse();
+        assertThat(breaker.getNotPermittedCalls()).isEqualTo(1);
+        assertThat(breaker.getRetryAfterSeconds()).isBetween(1L, 60L);
+    }
+
+    @Test
+    void closesWhenAllTrialCallsSucceed() {
+        CircuitBreaker breaker = tripped(Duration.ZERO, 2);
+
+        Permission first = breaker.tryAcquirePermission();
+        Permission second = breaker.tryAcquirePermission();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(breaker.tryAcquirePermission()).isNull();
+
+        breaker.onSuccess(first);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess(second);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getBufferedCalls()).isZero();
+        assertThat(breaker.getOpenedAt()).isNull();
+    }
+
+    @Test
+    void reopensWhenATrialCallFails() {
+        CircuitBreaker breaker = tripped(Duration.ZERO, 2);
+
+        Permission trial = breaker.tryAcquirePermission();
+        breaker.onFailure(trial);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void releasedTrialPermissionCanBeTakenAgain() {
+        CircuitBreaker breaker = tripped(Duration.ZERO, 1);
+
+        Permission trial = breaker.tryAcquirePermission();
+        assertThat(breaker.tryAcquirePermission()).isNull();
+        breaker.releasePermission(trial);
+
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+    }
+
+    @Test
+    void callsAdmittedBeforeTheBreakerOpenedDoNotDecideHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 50, Duration.ZERO, 1);
+        Permission slowCall = breaker.tryAcquirePermission();
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        Permission trial = breaker.tryAcquirePermission();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        // The call from the CLOSED generation finishing now neither closes nor reopens the breaker
+        breaker.onSuccess(slowCall);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onFailure(slowCall);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        breaker.onSuccess(trial);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void lateOutcomesOfAReopenedGenerationAreIgnored() {
+        CircuitBreaker breaker = tripped(Duration.ZERO, 2);
+        Permission first = breaker.tryAcquirePermission();
+        Permission second = breaker.tryAcquirePermission();
+        breaker.onSuccess(first);
+        breaker.onFailure(second);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        // A late outcome of the failed generation is ignored
+        breaker.onSuccess(first);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    private static CircuitBreaker tripped(Duration openDuration, int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 50, openDuration, halfOpenCalls);
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        return breaker;
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.onSuccess(breaker.tryAcquirePermission());
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.onFailure(breaker.tryAcquirePermission());
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.securitytool.service.scanconfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestRateLimiterTest {
+
+    @Test
+    void doesNotWaitWhenUnlimited() {
+        RequestRateLimiter limiter = new RequestRateLimiter(0);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+        }
+
+        assertThat(elapsedMs(startedAt)).isLessThan(500);
+    }
+
+    @Test
+    void spacesCallsByTheInterval() {
+        RequestRateLimiter limiter = new RequestRateLimiter(20);
+
+        long startedAt = System.nanoTime();
+        // The first call goes right away, the next ten each wait 50 ms for their slot
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire();
+        }
+
+        assertThat(elapsedMs(startedAt)).isBetween(450L, 2000L);
+    }
+
+    @Test
+    void concurrentCallersGetDistinctSlots() throws Exception {
+        RequestRateLimiter limiter = new RequestRateLimiter(50);
+        List<Long> startTimes = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                calls.add(executor.submit(() -> {
+                    limiter.acquire();
+                    startTimes.add(System.nanoTime());
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Ten calls at 50 per second cannot all start within less than nine 20 ms intervals
+        long spreadMs = TimeUnit.NANOSECONDS.toMillis(Collections.max(startTimes) - Collections.min(startTimes));
+        assertThat(spreadMs).isGreaterThanOrEqualTo(160);
+    }
+
+    @Test
+    void restoresTheInterruptFlagWhenInterrupted() {
+        RequestRateLimiter limiter = new RequestRateLimiter(1);
+        limiter.acquire();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(limiter::acquire).hasCauseInstanceOf(InterruptedException.class);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+    }
+
+    private static long elapsedMs(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,237 @@
+package com.backend.securitytool.service.scanconfig;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the importer against an in-memory SonarQube that, like the real one, refuses to page past 10,000 results.
+ */
+class SonarQubeIssueImporterTest {
+    private static final String SONAR_URL = "http://sonarqube.test";
+    private static final String PROJECT = "shop";
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final FakeSonarQube sonarQube = new FakeSonarQube();
+    private final SonarQubeIssueImporter importer = new SonarQubeIssueImporter(sonarQube, 500, 0, "VULNERABILITY,BUG", 50);
+
+    @Test
+    void pagesThroughProjectsUnderTheCap() {
+        sonarQube.addFiles(10);
+        for (int i = 0; i < 1_234; i++) {
+            sonarQube.addIssue(START.plusSeconds(i), i % 10);
+        }
+
+        Set<String> imported = importIssues();
+
+        assertThat(imported).hasSize(1_234);
+        assertThat(sonarQube.requests("/api/issues/search")).hasSize(3)
+                .allSatisfy(query -> assertThat(query.containsKey("createdAfter")).isFalse());
+    }
+
+    @Test
+    void bisectsTheCreationDateRangeAboveTheCap() {
+        sonarQube.addFiles(10);
+        for (int i = 0; i < 25_000; i++) {
+            sonarQube.addIssue(START.plusSeconds(i * 7L), i % 10);
+        }
+
+        Set<String> imported = importIssues();
+
+        assertThat(imported).hasSize(25_000);
+        assertThat(sonarQube.requests("/api/issues/search"))
+                .anySatisfy(query -> assertThat(query.containsKey("createdAfter")).isTrue());
+        // Dates alone were enough, the project files were never listed
+        assertThat(sonarQube.requests("/api/components/tree")).isEmpty();
+    }
+
+    @Test
+    void slicesBySecondThenByFileWhenOneSecondHoldsTooManyIssues() {
+        sonarQube.addFiles(120);
+        // The first analysis of a big project stamps every issue with the same second
+        for (int i = 0; i < 12_000; i++) {
+            sonarQube.addIssue(START, i % 120);
+        }
+        sonarQube.addIssue(START.plusSeconds(3600), 0);
+
+        Set<String> imported = importIssues();
+
+        assertThat(imported).hasSize(12_001);
+        assertThat(sonarQube.requests("/api/components/tree")).hasSize(1);
+        assertThat(sonarQube.requests("/api/issues/search"))
+                .anySatisfy(query -> assertThat(query.getFirst("componentKeys")).startsWith(PROJECT + ":src/File0.java,"));
+    }
+
+    @Test
+    void slicesHotspotsByFileAboveTheCap() {
+        sonarQube.addFiles(600);
+        for (int i = 0; i < 10_500; i++) {
+            sonarQube.addHotspot(i % 600);
+        }
+
+        Set<String> imported = new HashSet<>();
+        int count = importer.importHotspots(SONAR_URL, PROJECT, new HttpHeaders(), page -> collectKeys(page, imported));
+
+        assertThat(count).isEqualTo(10_500);
+        assertThat(imported).hasSize(10_500);
+        // 600 files listed in two pages, then one slice per 50 files
+        assertThat(sonarQube.requests("/api/components/tree")).hasSize(2);
+        assertThat(sonarQube.requests("/api/hotspots/search"))
+                .filteredOn(query -> query.containsKey("files")).hasSizeGreaterThanOrEqualTo(12);
+    }
+
+    private Set<String> importIssues() {
+        Set<String> keys = new HashSet<>();
+        int count = importer.importIssues(SONAR_URL, PROJECT, new HttpHeaders(), page -> collectKeys(page, keys));
+        // Every issue is handed over exactly once
+        assertThat(keys).hasSize(count);
+        return keys;
+    }
+
+    private static void collectKeys(JsonNode page, Set<String> keys) {
+        for (JsonNode item : page) {
+            keys.add(item.path("key").asText());
+        }
+    }
+
+    private record Finding(String key, Instant creationDate, int file) {
+    }
+
+    private static final class FakeSonarQube extends RestTemplate {
+        private static final int MAX_RESULT_WINDOW = 10_000;
+
+        private final List<Finding> issues = new ArrayList<>();
+        private final List<Finding> hotspots = new ArrayList<>();
+        private final List<String> files = new ArrayList<>();
+        private final List<URI> requests = new ArrayList<>();
+
+        void addFiles(int count) {
+            for (int i = 0; i < count; i++) {
+                files.add("src/File" + i + ".java");
+            }
+        }
+
+        void addIssue(Instant creationDate, int file) {
+            issues.add(new Finding("issue-" + issues.size(), creationDate, file));
+        }
+
+        void addHotspot(int file) {
+            hotspots.add(new Finding("hotspot-" + hotspots.size(), START, file));
+        }
+
+        List<MultiValueMap<String, String>> requests(String path) {
+            return requests.stream()
+                    .filter(uri -> uri.getPath().equals(path))
+                    .map(FakeSonarQube::query)
+                    .toList();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ResponseEntity<T> exchange(URI url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType) {
+            requests.add(url);
+            MultiValueMap<String, String> query = query(url);
+            JsonNode body = switch (url.getPath()) {
+                case "/api/issues/search" -> page(query, "issues", issues.stream()
+                        .filter(inComponents(query.getFirst("componentKeys")))
+                        .filter(issue -> query.getFirst("createdAfter") == null
+                                || !issue.creationDate().isBefore(parseDate(query.getFirst("createdAfter"))))
+                        .filter(issue -> query.getFirst("createdBefore") == null
+                                || issue.creationDate().isBefore(parseDate(query.getFirst("createdBefore"))))
+                        .sorted(Comparator.comparing(Finding::creationDate))
+                        .toList());
+                case "/api/hotspots/search" -> page(query, "hotspots", hotspots.stream()
+                        .filter(hotspot -> query.getFirst("files") == null
+                                || Arrays.asList(query.getFirst("files").split(",")).contains(files.get(hotspot.file())))
+                        .toList());
+                case "/api/components/tree" -> tree(query);
+                default -> throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            };
+            return (ResponseEntity<T>) ResponseEntity.ok(body);
+        }
+
+        private Predicate<Finding> inComponents(String componentKeys) {
+            if (PROJECT.equals(componentKeys)) {
+                return issue -> true;
+            }
+            List<String> keys = Arrays.asList(componentKeys.split(","));
+            return issue -> keys.contains(fileKey(issue.file()));
+        }
+
+        private JsonNode page(MultiValueMap<String, String> query, String arrayField, List<Finding> matching) {
+            int pageSize = Integer.parseInt(query.getFirst("ps"));
+            int page = Integer.parseInt(query.getFirst("p"));
+            if (page * pageSize > MAX_RESULT_WINDOW) {
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Can return only the first 10000 results");
+            }
+            ObjectNode body = JsonNodeFactory.instance.objectNode();
+            body.putObject("paging").put("pageIndex", page).put("pageSize", pageSize).put("total", matching.size());
+            ArrayNode items = body.putArray(arrayField);
+            for (Finding finding : matching.subList(Math.min(matching.size(), (page - 1) * pageSize),
+                    Math.min(matching.size(), page * pageSize))) {
+                items.addObject()
+                        .put("key", finding.key())
+                        .put("component", fileKey(finding.file()))
+                        .put("creationDate", finding.creationDate().atOffset(ZoneOffset.UTC)
+                                .format(SonarQubeIssueImporter.SONAR_DATE_TIME));
+            }
+            return body;
+        }
+
+        private JsonNode tree(MultiValueMap<String, String> query) {
+            int pageSize = Integer.parseInt(query.getFirst("ps"));
+            int page = Integer.parseInt(query.getFirst("p"));
+            ObjectNode body = JsonNodeFactory.instance.objectNode();
+            body.putObject("paging").put("total", files.size());
+            ArrayNode components = body.putArray("components");
+            for (int i = (page - 1) * pageSize; i < Math.min(files.size(), page * pageSize); i++) {
+                components.addObject().put("key", fileKey(i)).put("path", files.get(i));
+            }
+            return body;
+        }
+
+        private String fileKey(int file) {
+            return PROJECT + ":" + files.get(file);
+        }
+
+        private static MultiValueMap<String, String> query(URI uri) {
+            MultiValueMap<String, String> query = UriComponentsBuilder.fromUri(uri).build().getQueryParams();
+            MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+            query.forEach((name, values) -> values.forEach(value ->
+                    decoded.add(name, value == null ? null : URLDecoder.decode(value, StandardCharsets.UTF_8))));
+            return decoded;
+        }
+
+        private static Instant parseDate(String value) {
+            return OffsetDateTime.parse(value, SonarQubeIssueImporter.SONAR_DATE_TIME).toInstant();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.backend.securitytool.service.scannerhttp;
+
+import com.backend.securitytool.model.dto.response.UpstreamPoolStatsDTO;
+import com.backend.securitytool.service.resilience.UpstreamGuardRegistry;
+import com.backend.securitytool.service.scannerhttp.ScannerHttpClients.UpstreamHttpSettings;
+import com.backend.securitytool.service.scannerpool.ScannerInstanceRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the scanner RestTemplate against an embedded HTTP server standing in for a ZAP daemon.
+ */
+class ScannerHttpClientsTest {
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private String baseUrl;
+    private ScannerHttpClients scannerHttpClients;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        ScannerInstanceRegistry scannerInstanceRegistry = new ScannerInstanceRegistry(new String[]{baseUrl}, new String[0], 1000, 2);
+        scannerHttpClients = new ScannerHttpClients(new UpstreamGuardRegistry(new MockEnvironment()), scannerInstanceRegistry);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void retriesViewCallsOn503() {
+        stub("/JSON/core/view/version/", hit -> hit < 3 ? 503 : 200);
+        RestTemplate restTemplate = scannerHttpClients.create(UpstreamGuardRegistry.ZAP, settings(4, 1000));
+
+        String body = restTemplate.getForObject(URI.create(baseUrl + "/JSON/core/view/version/"), String.class);
+
+        assertThat(body).isEqualTo("{}");
+        assertThat(hits.get("/JSON/core/view/version/").get()).isEqualTo(3);
+        assertThat(poolStats().getRetriedRequests()).isEqualTo(2);
+        assertThat(poolStats().getInstanceUrl()).isEqualTo(baseUrl);
+    }
+
+    @Test
+    void doesNotRetryZapActions() {
+        stub("/JSON/spider/action/scan/", hit -> 503);
+        RestTemplate restTemplate = scannerHttpClients.create(UpstreamGuardRegistry.ZAP, settings(4, 1000));
+
+        assertThatThrownBy(() -> restTemplate.getForObject(URI.create(baseUrl + "/JSON/spider/action/scan/"), String.class))
+                .isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+        assertThat(hits.get("/JSON/spider/action/scan/").get()).isEqualTo(1);
+        assertThat(poolStats().getRetriedRequests()).isZero();
+    }
+
+    @Test
+    void failsWhenNoConnectionFreesUpWithinTheAcquireTimeout() throws Exception {
+        stub("/JSON/core/view/alerts/", hit -> 200);
+        RestTemplate restTemplate = scannerHttpClients.create(UpstreamGuardRegistry.ZAP, settings(1, 200));
+        URI uri = URI.create(baseUrl + "/JSON/core/view/alerts/");
+
+        // The only connection stays in use while the first response body is still being read
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch finishReading = new CountDownLatch(1);
+        Future<String> slowRead = executor.submit(() -> restTemplate.execute(uri, HttpMethod.GET, null, response -> {
+            reading.countDown();
+            await(finishReading);
+            return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+        }));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(poolStats().getInUseConnections()).isEqualTo(1);
+
+        assertThatThrownBy(() -> restTemplate.getForObject(uri, String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+        assertThat(poolStats().getRejectedRequests()).isEqualTo(1);
+
+        // Closing the first response frees the connection for the next call
+        finishReading.countDown();
+        assertThat(slowRead.get(5, TimeUnit.SECONDS)).isEqualTo("{}");
+        assertThat(poolStats().getInUseConnections()).isZero();
+        assertThat(restTemplate.getForObject(uri, String.class)).isEqualTo("{}");
+    }
+
+    private void stub(String path, IntUnaryOperator statusOfHit) {
+        AtomicInteger counter = hits.computeIfAbsent(path, key -> new AtomicInteger());
+        server.createContext(path, exchange -> {
+            int status = statusOfHit.applyAsInt(counter.incrementAndGet());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+    }
+
+    private UpstreamHttpSettings settings(int maxConnections, long acquireTimeoutMs) {
+        return new UpstreamHttpSettings(1000, 5000, maxConnections, acquireTimeoutMs, 3, 10, 1.0);
+    }
+
+    private UpstreamPoolStatsDTO poolStats() {
+        assertThat(scannerHttpClients.getStats()).hasSize(1);
+        return scannerHttpClients.getStats().get(0);
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new InterruptedIOException("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.backend.securitytool.util;
+
+import com.backend.securitytool.model.entity.SecurityIssue;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IssueFingerprintTest {
+
+    @Test
+    void fingerprintOfAZapAlertIsPinned() {
+        // Stored fingerprints must keep matching across releases, so the exact value is pinned
+        String fingerprint = IssueFingerprint.of("Cross Site Scripting (Reflected)", "40012", "GET",
+                "https://shop.example/search", "q", null);
+
+        assertThat(fingerprint).isEqualTo("3ed48ba747d124b41b3a96f5e544605876f2967c2cbe553a825377a7f315bdf8");
+    }
+
+    @Test
+    void trimsPartsAndTreatsNullAsEmpty() {
+        assertThat(IssueFingerprint.of(" rule ", "https://shop.example/search\n"))
+                .isEqualTo(IssueFingerprint.of("rule", "https://shop.example/search"));
+        assertThat(IssueFingerprint.of("rule", null)).isEqualTo(IssueFingerprint.of("rule", ""));
+    }
+
+    @Test
+    void partBoundariesAreKept() {
+        assertThat(IssueFingerprint.of("a", "bc")).isNotEqualTo(IssueFingerprint.of("ab", "c"));
+        assertThat(IssueFingerprint.of("rule", null)).isNotEqualTo(IssueFingerprint.of("rule"));
+    }
+
+    @Test
+    void contentHashCoversTheDetailsOnly() {
+        SecurityIssue issue = issue();
+        String hash = IssueFingerprint.contentHash(issue);
+
+        // Identity and bookkeeping fields do not change the content
+        issue.setFingerprint("other");
+        issue.setChangeType("changed");
+        issue.setAppId(7);
+        assertThat(IssueFingerprint.contentHash(issue)).isEqualTo(hash);
+        assertThat(IssueFingerprint.contentHash(issue())).isEqualTo(hash);
+
+        issue.setSeverity("Medium");
+        assertThat(IssueFingerprint.contentHash(issue)).isNotEqualTo(hash);
+        issue = issue();
+        issue.setSolution("Encode output.");
+        assertThat(IssueFingerprint.contentHash(issue)).isNotEqualTo(hash);
+    }
+
+    private static SecurityIssue issue() {
+        SecurityIssue issue = new SecurityIssue();
+        issue.setIssueType("Cross Site Scripting (Reflected)");
+        issue.setSeverity("High");
+        issue.setStatus("open");
+        issue.setDescription("Reflected XSS in parameter q");
+        issue.setSolution("Validate all input.");
+        issue.setReference("https://owasp.org/www-community/attacks/xss/");
+        return issue;
+    }
+}
@@ -1,5 +1,5 @@
 import instance from './axiosInstance';
-import { ReportResponseDTO, SecurityIssueResponseDTO } from '../types/report';
+import { IssuePageResponseDTO, IssueQueryParams, ReportResponseDTO, SecurityIssueResponseDTO } from '../types/report';
 
 /**
  * Fetch a report by its scan result ID and application ID
@@ -103,14 +103,31 @@ export const getReport = async (resultId: number, appId: number): Promise<Report
 };
 
 /**
- * Export a report as CSV by its scan result ID and application ID
+ * Export a report as CSV by its scan result ID and application ID.
+ * The server streams the file as text/csv, it is not wrapped in the usual response envelope.
  */
 export const exportReportCsv = async (resultId: number, appId: number): Promise<string> => {
   const res = await instance.get(`/reports/${resultId}/csv`, {
-    params: { appId }
+    params: { appId },
+    responseType: 'text'
   });
-  // Handle both direct response and nested response structures
-  return res.data.data || res.data;
+  return res.data;
+};
+
+/**
+ * Fetch one page of a scan's issues, most severe first. Pass the returned nextCursor to get the next page.
+ */
+export const queryReportIssues = async (resultId: number, query: IssueQueryParams = {}): Promise<IssuePageResponseDTO> => {
+  const res = await instance.get(`/reports/${resultId}/issues`, {
+    params: {
+      ...query,
+      severity: query.severity?.join(','),
+      status: query.status?.join(','),
+      issueType: query.issueType?.join(','),
+      fields: query.fields?.join(',')
+    }
+  });
+  return res.data.data;
 };
 
 // Store the association between scan result ID and application ID
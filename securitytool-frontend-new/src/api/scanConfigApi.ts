@@ -3,11 +3,23 @@ import {
   ZapScanRequestDTO,
   ZapScanResponseDTO,
   ZapEndpointsRequestDTO,
-  ZapEndpointsResponseDTO,
   SonarScanRequestDTO,
-  SonarScanResponseDTO
+  SonarScanResponseDTO,
+  ScanJobResponseDTO,
+  BulkScanRequestDTO,
+  ScanBatchResponseDTO
 } from '../types/scanConfig';
 
+/** Scans run in the background; expose the queued job as its (pending) scan result */
+const jobToScanResult = (job: ScanJobResponseDTO) => ({
+  id: job.resultId,
+  appId: job.appId,
+  scanDate: job.createdAt,
+  scanType: job.scanType,
+  status: job.status,
+  summary: ''
+});
+
 /**Trigger a full OWASP ZAP scan*/
 export const triggerZapScan = async (
   data: ZapScanRequestDTO
@@ -19,15 +31,15 @@ export const triggerZapScan = async (
   };
   // console.log("Sending ZAP scan payload:", payload); // For debugging
   const res = await instance.post('/scan/zap', payload);
-  return res.data.data;
+  return jobToScanResult(res.data.data);
 };
 
-/**Trigger OWASP ZAP scan for specific endpoints*/
+/**Trigger an OWASP ZAP scan limited to catalogued API endpoints*/
 export const triggerZapEndpointsScan = async (
   payload: ZapEndpointsRequestDTO
-): Promise<ZapEndpointsResponseDTO> => {
+): Promise<ZapScanResponseDTO> => {
   const res = await instance.post('/scan/zap/endpoints', payload);
-  return res.data;
+  return jobToScanResult(res.data.data);
 };
 
 /**Trigger a SonarQube static code analysis*/
@@ -37,10 +49,42 @@ export const triggerSonarScan = async (
   // Explicitly construct the payload to ensure all required fields are included
   const payload = {
     appId: data.appId,
-    projectKey: data.projectKey
+    projectKey: data.projectKey,
+    ceTaskId: data.ceTaskId
   };
   // console.log("Sending SonarQube scan payload:", payload); // For debugging
   const res = await instance.post('/scan/sonarqube', payload);
+  return jobToScanResult(res.data.data);
+};
+
+/** Trigger SonarQube and ZAP together, merged into one scan result */
+export const triggerCombinedScan = async (
+  data: { appId: number; targetUrl: string; projectKey: string }
+): Promise<ScanJobResponseDTO> => {
+  const payload = {
+    appId: data.appId,
+    targetUrl: data.targetUrl,
+    projectKey: data.projectKey
+  };
+  const res = await instance.post('/scan/combined', payload);
+  return res.data.data;
+};
+
+/** Queue scans for many applications at once */
+export const triggerBulkScan = async (data: BulkScanRequestDTO): Promise<ScanBatchResponseDTO> => {
+  const res = await instance.post('/scan/batches', data);
+  return res.data.data;
+};
+
+/** Aggregated progress of a bulk scan */
+export const getScanBatch = async (batchId: number): Promise<ScanBatchResponseDTO> => {
+  const res = await instance.get(`/scan/batches/${batchId}`);
+  return res.data.data;
+};
+
+/** Fetch the current state of a queued scan job */
+export const getScanJob = async (jobId: number): Promise<ScanJobResponseDTO> => {
+  const res = await instance.get(`/scan/jobs/${jobId}`);
   return res.data.data;
 };
 
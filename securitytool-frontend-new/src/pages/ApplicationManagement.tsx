@@ -310,6 +310,7 @@ const ApplicationManagement: React.FC = () => {
       authInfo: editAuthInfo,
       description: editDescription,
       techStack: editTechStack,
+      retentionHotScans: editingApp.retentionHotScans, // keep the app's retention policy
     };
 
     console.log('Submitting edit with payload:', payload);
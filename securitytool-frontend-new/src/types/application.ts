@@ -5,6 +5,7 @@ export interface ApplicationRequestDTO {
   authInfo?: string; // Added authInfo to match the backend's ApplicationRequestDTO
   description?: string; // Added description to match the backend's ApplicationRequestDTO
   techStack?: string; // Added techStack to match the backend's ApplicationRequestDTO
+  retentionHotScans?: number; // Newest scans kept hot, omitted for the server default
 }
 
 export interface ApplicationResponseDTO {
@@ -18,4 +19,5 @@ export interface ApplicationResponseDTO {
   updatedAt: string;
   description?: string; // Added description to match the backend's ApplicationResponseDTO
   techStack?: string; // Added techStack to match the backend's ApplicationResponseDTO
+  retentionHotScans?: number;
 }
\ No newline at end of file
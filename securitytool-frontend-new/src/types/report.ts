@@ -20,4 +20,25 @@ export interface SecurityIssueResponseDTO {
       totalIssues: number;
       bySeverity: Record<string, number>;
     };
-  }
\ No newline at end of file
+  }
+
+  export interface IssueQueryParams {
+    severity?: string[];
+    status?: string[];
+    issueType?: string[];
+    endpointId?: number;
+    moduleId?: number;
+    // Defaults to all fields but description, solution and reference
+    fields?: string[];
+    // nextCursor of the previous page
+    cursor?: string;
+    limit?: number;
+  }
+
+  export interface IssuePageResponseDTO {
+    resultId: number;
+    // Only the requested fields are present
+    issues: Record<string, unknown>[];
+    limit: number;
+    nextCursor: string | null;
+  }
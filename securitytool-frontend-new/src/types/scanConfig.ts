@@ -10,25 +10,67 @@ export interface ScanResultDisplay {
     scanType: string;
     status: string;
     summary: string; // JSON string
+    currentPhase?: string;
+    progressPercent?: number;
+    spiderDurationMs?: number;
+    ajaxSpiderDurationMs?: number;
+    activeScanDurationMs?: number;
 }
 
 export interface ZapScanResponseDTO extends ScanResultDisplay {
     // Add any ZAP-specific fields if necessary in the future
 }
 
-export interface ZapEndpointsRequestDTO {
-    businessFlowId: number;
+export interface ScanJobResponseDTO {
+    jobId: number;
     appId: number;
+    resultId: number;
+    batchId?: number;
+    scanType: string;
+    target: string;
+    projectKey?: string;
+    ceTaskId?: string;
+    status: string;
+    attempts: number;
+    errorMessage?: string;
+    createdAt: string;
+    startedAt?: string;
+    finishedAt?: string;
+}
+
+export interface BulkScanRequestDTO {
+    appIds?: number[];
+    appNameFilter?: string;
+    scanType: 'static' | 'dynamic' | 'combined';
+    projectKeys?: Record<number, string>;
 }
 
-export interface ZapEndpointsResponseDTO {
-    scanId: number;
+export interface ScanBatchResponseDTO {
+    batchId: number;
+    scanType: string;
     status: string;
+    totalJobs: number;
+    pendingJobs: number;
+    inProgressJobs: number;
+    completedJobs: number;
+    failedJobs: number;
+    progressPercent: number;
+    createdAt: string;
+    skippedAppIds?: number[];
+    jobs: ScanJobResponseDTO[];
+}
+
+export interface ZapEndpointsRequestDTO {
+    appId: number;
+    targetUrl?: string; // defaults to the application URL
+    endpointIds?: number[]; // defaults to the endpoints of the business flow, or all endpoints of the app
+    businessFlowId?: number;
 }
 
 export interface SonarScanRequestDTO {
     appId: number;
     projectKey: string; // Added projectKey
+    ceTaskId?: string; // Compute Engine task to wait for, defaults to the project's latest analysis
 }
 
 export interface SonarScanResponseDTO extends ScanResultDisplay {